@@ -20,8 +20,10 @@ package org.apache.skywalking.apm.commons.datacarrier;
 
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IDriver;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
 
@@ -32,7 +34,7 @@ public class DataCarrier<T> {
     private final int bufferSize;
     private final int channelSize;
     private Channels<T> channels;
-    private ConsumerPool<T> consumerPool;
+    private IDriver consumerPool;
     private String name;
 
     public DataCarrier(int channelSize, int bufferSize) {
@@ -80,7 +82,7 @@ public class DataCarrier<T> {
      */
     public boolean produce(T data) {
         if (consumerPool != null) {
-            if (!consumerPool.isRunning()) {
+            if (!consumerPool.isRunning(channels)) {
                 return false;
             }
         }
@@ -96,10 +98,10 @@ public class DataCarrier<T> {
      */
     public DataCarrier consume(Class<? extends IConsumer<T>> consumerClass, int num, long consumeCycle) {
         if (consumerPool != null) {
-            consumerPool.close();
+            consumerPool.close(channels);
         }
         consumerPool = new ConsumerPool<T>(this.name, this.channels, consumerClass, num, consumeCycle);
-        consumerPool.begin();
+        consumerPool.begin(channels);
         return this;
     }
 
@@ -123,10 +125,10 @@ public class DataCarrier<T> {
      */
     public DataCarrier consume(IConsumer<T> consumer, int num, long consumeCycle) {
         if (consumerPool != null) {
-            consumerPool.close();
+            consumerPool.close(channels);
         }
         consumerPool = new ConsumerPool<T>(this.name, this.channels, consumer, num, consumeCycle);
-        consumerPool.begin();
+        consumerPool.begin(channels);
         return this;
     }
 
@@ -142,6 +144,24 @@ public class DataCarrier<T> {
         return this.consume(consumer, num, 20);
     }
 
+    /**
+     * Set a consumer to this Carrier, consumed by the shared threads of the given pool, rather than threads owned by
+     * this Carrier.
+     *
+     * @param consumePool shared by several DataCarrier instances.
+     * @param consumer single instance of consumer.
+     * @return
+     */
+    public DataCarrier consume(BulkConsumePool consumePool, IConsumer<T> consumer) {
+        if (consumerPool != null) {
+            consumerPool.close(channels);
+        }
+        consumerPool = consumePool;
+        consumePool.add(this.name, channels, consumer);
+        consumerPool.begin(channels);
+        return this;
+    }
+
     /**
      * shutdown all consumer threads, if consumer threads are running. Notice {@link BufferStrategy}: if {@link
      * BufferStrategy} == {@link BufferStrategy#BLOCKING}, shutdown consumers maybe cause blocking when producing.
@@ -149,7 +169,7 @@ public class DataCarrier<T> {
      */
     public void shutdownConsumers() {
         if (consumerPool != null) {
-            consumerPool.close();
+            consumerPool.close(channels);
         }
     }
 }
@@ -20,6 +20,8 @@ package org.apache.skywalking.apm.commons.datacarrier.buffer;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
 import org.apache.skywalking.apm.commons.datacarrier.callback.QueueBlockingCallback;
 import org.apache.skywalking.apm.commons.datacarrier.common.AtomicRangeInteger;
 
@@ -27,13 +29,25 @@ import org.apache.skywalking.apm.commons.datacarrier.common.AtomicRangeInteger;
  * Created by wusheng on 2016/10/25.
  */
 public class Buffer<T> {
-    private final Object[] buffer;
+    /**
+     * Park time bounds of the {@link BufferStrategy#BLOCKING} producer, in nanoseconds. The producer starts with a
+     * short park and doubles it until the max, so a briefly full buffer costs microseconds instead of a whole
+     * millisecond of sleep.
+     */
+    private static final long MIN_PARK_NANOS = 1000L;
+    private static final long MAX_PARK_NANOS = 1000000L;
+
+    /**
+     * Slots are published by {@link AtomicReferenceArray#lazySet(int, Object)} and read through volatile gets, so
+     * the consumer always sees a fully constructed element and the producer sees the slot released by the consumer.
+     */
+    private final AtomicReferenceArray<Object> buffer;
     private BufferStrategy strategy;
     private AtomicRangeInteger index;
     private List<QueueBlockingCallback<T>> callbacks;
 
     Buffer(int bufferSize, BufferStrategy strategy) {
-        buffer = new Object[bufferSize];
+        buffer = new AtomicReferenceArray<Object>(bufferSize);
         this.strategy = strategy;
         index = new AtomicRangeInteger(0, bufferSize);
         callbacks = new LinkedList<QueueBlockingCallback<T>>();
@@ -49,20 +63,21 @@ public class Buffer<T> {
 
     boolean save(T data) {
         int i = index.getAndIncrement();
-        if (buffer[i] != null) {
+        if (buffer.get(i) != null) {
             switch (strategy) {
                 case BLOCKING:
                     boolean isFirstTimeBlocking = true;
-                    while (buffer[i] != null) {
+                    long parkNanos = MIN_PARK_NANOS;
+                    while (buffer.get(i) != null) {
                         if (isFirstTimeBlocking) {
                             isFirstTimeBlocking = false;
                             for (QueueBlockingCallback<T> callback : callbacks) {
                                 callback.notify(data);
                             }
                         }
-                        try {
-                            Thread.sleep(1L);
-                        } catch (InterruptedException e) {
+                        LockSupport.parkNanos(parkNanos);
+                        if (parkNanos < MAX_PARK_NANOS) {
+                            parkNanos <<= 1;
                         }
                     }
                     break;
@@ -72,23 +87,40 @@ public class Buffer<T> {
                 default:
             }
         }
-        buffer[i] = data;
+        buffer.lazySet(i, data);
         return true;
     }
 
     public int getBufferSize() {
-        return buffer.length;
+        return buffer.length();
     }
 
     public LinkedList<T> obtain(int start, int end) {
         LinkedList<T> result = new LinkedList<T>();
+        obtain(result, start, end);
+        return result;
+    }
+
+    /**
+     * Drain the published elements of [start, end) into the given list, releasing their slots for the producers.
+     * Consumers should keep reusing the same list to avoid allocating a new one for every poll.
+     *
+     * @param consumeList target of the drained elements
+     * @param start included
+     * @param end excluded
+     * @return the number of drained elements
+     */
+    public int obtain(List<T> consumeList, int start, int end) {
+        int count = 0;
         for (int i = start; i < end; i++) {
-            if (buffer[i] != null) {
-                result.add((T)buffer[i]);
-                buffer[i] = null;
+            Object element = buffer.get(i);
+            if (element != null) {
+                consumeList.add((T)element);
+                buffer.lazySet(i, null);
+                count++;
             }
         }
-        return result;
+        return count;
     }
 
 }
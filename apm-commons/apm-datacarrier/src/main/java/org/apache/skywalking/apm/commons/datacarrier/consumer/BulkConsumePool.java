@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+
+/**
+ * BulkConsumePool works for consuming data from multiple channels(DataCarrier instances), with a fixed number of
+ * {@link MultipleChannelsConsumer} threads. A new channels is assigned to the thread consuming the fewest channels,
+ * so many mostly idle carriers don't need one thread each.
+ * <p>
+ * The threads start with the first {@link #begin(Channels)}, and can't be started again after {@link #shutdown()}.
+ */
+public class BulkConsumePool implements IDriver {
+    private List<MultipleChannelsConsumer> allConsumers;
+    private final Set<Channels> runningChannels = Collections.newSetFromMap(new ConcurrentHashMap<Channels, Boolean>());
+    private boolean isStarted = false;
+    private boolean isShutdown = false;
+
+    public BulkConsumePool(String name, int size, long consumeCycle) {
+        allConsumers = new ArrayList<MultipleChannelsConsumer>(size);
+        for (int i = 0; i < size; i++) {
+            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle);
+            multipleChannelsConsumer.setDaemon(true);
+            allConsumers.add(multipleChannelsConsumer);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if this pool has been shutdown.
+     */
+    synchronized public void add(String name, Channels channels, IConsumer consumer) {
+        checkNotShutdown();
+        consumer.init();
+        MultipleChannelsConsumer multipleChannelsConsumer = getLowestPayload();
+        multipleChannelsConsumer.addNewTarget(channels, consumer);
+    }
+
+    /**
+     * Get the lowest payload consumer thread based on current allocate status.
+     *
+     * @return the lowest consumer.
+     */
+    private MultipleChannelsConsumer getLowestPayload() {
+        MultipleChannelsConsumer winner = allConsumers.get(0);
+        for (int i = 1; i < allConsumers.size(); i++) {
+            MultipleChannelsConsumer option = allConsumers.get(i);
+            if (option.size() < winner.size()) {
+                winner = option;
+            }
+        }
+        return winner;
+    }
+
+    /**
+     * @param channels
+     * @return true if the pool is started and consuming the channels. Called on every produce, so only a set lookup.
+     */
+    @Override
+    public boolean isRunning(Channels channels) {
+        return runningChannels.contains(channels);
+    }
+
+    /**
+     * Remove the channels from the pool. The pool threads keep running for the other channels.
+     *
+     * @param channels
+     */
+    @Override
+    synchronized public void close(Channels channels) {
+        runningChannels.remove(channels);
+        for (MultipleChannelsConsumer consumer : allConsumers) {
+            if (consumer.removeTarget(channels)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Start the threads of this pool if not started yet, and mark the channels running.
+     *
+     * @param channels added to this pool before.
+     * @throws IllegalStateException if this pool has been shutdown, as its threads can't be started again.
+     */
+    @Override
+    synchronized public void begin(Channels channels) {
+        checkNotShutdown();
+        if (!isStarted) {
+            for (MultipleChannelsConsumer consumer : allConsumers) {
+                consumer.start();
+            }
+            isStarted = true;
+        }
+        runningChannels.add(channels);
+    }
+
+    private void checkNotShutdown() {
+        if (isShutdown) {
+            throw new IllegalStateException("BulkConsumePool has been shutdown.");
+        }
+    }
+
+    /**
+     * Shutdown all the threads of this pool, all the channels' consumers exit. The pool can't begin again.
+     */
+    synchronized public void shutdown() {
+        for (MultipleChannelsConsumer consumer : allConsumers) {
+            consumer.shutdown();
+        }
+        runningChannels.clear();
+        isStarted = false;
+        isShutdown = true;
+    }
+
+    /**
+     * The creator of {@link BulkConsumePool}, used by {@link ConsumerPoolFactory#createIfAbsent(String, Callable)}.
+     */
+    public static class Creator implements Callable<BulkConsumePool> {
+        private String name;
+        private int size;
+        private long consumeCycle;
+
+        public Creator(String name, int poolSize, long consumeCycle) {
+            this.name = name;
+            this.size = poolSize;
+            this.consumeCycle = consumeCycle;
+        }
+
+        @Override
+        public BulkConsumePool call() {
+            return new BulkConsumePool(name, size, consumeCycle);
+        }
+
+        /**
+         * @return the recommended max pool size, twice of the available processors.
+         */
+        public static int recommendMaxSize() {
+            return Runtime.getRuntime().availableProcessors() * 2;
+        }
+    }
+}
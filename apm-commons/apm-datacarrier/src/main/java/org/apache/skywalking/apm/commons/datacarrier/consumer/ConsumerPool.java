@@ -26,7 +26,7 @@ import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 /**
  * Pool of consumers <p> Created by wusheng on 2016/10/25.
  */
-public class ConsumerPool<T> {
+public class ConsumerPool<T> implements IDriver {
     private boolean running;
     private ConsumerThread[] consumerThreads;
     private Channels<T> channels;
@@ -134,6 +134,21 @@ public class ConsumerPool<T> {
 
     }
 
+    @Override
+    public boolean isRunning(Channels channels) {
+        return isRunning();
+    }
+
+    @Override
+    public void close(Channels channels) {
+        close();
+    }
+
+    @Override
+    public void begin(Channels channels) {
+        begin();
+    }
+
     public void close() {
         try {
             lock.lock();
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Buffer;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+
+/**
+ * MultipleChannelsConsumer is a consumer thread shared by several {@link Channels}, each with its own {@link
+ * IConsumer}. Every loop visits all the channels in turn, so a busy channel can't starve the others. When no channel
+ * has data, the sleep time doubles each idle loop, up to {@link #MAX_IDLE_CYCLE_MULTIPLE} times of the consume cycle.
+ *
+ * Each {@link IConsumer} is only called by this thread, the same as in {@link ConsumerThread}.
+ */
+public class MultipleChannelsConsumer extends Thread {
+    private static final int MAX_IDLE_CYCLE_MULTIPLE = 8;
+
+    private volatile boolean running;
+    private volatile ArrayList<Group> consumeTargets;
+    private ArrayList<Group> exitingTargets;
+    private volatile long size;
+    private final long consumeCycle;
+
+    public MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        super(threadName);
+        this.consumeTargets = new ArrayList<Group>();
+        this.exitingTargets = new ArrayList<Group>();
+        this.consumeCycle = consumeCycle;
+    }
+
+    @Override
+    public void run() {
+        running = true;
+
+        final List consumeList = new ArrayList(1500);
+        long idleCycle = consumeCycle;
+        while (running) {
+            exitTargets(consumeList);
+
+            boolean hasData = false;
+            for (Group target : consumeTargets) {
+                hasData = consume(target, consumeList) || hasData;
+            }
+
+            if (hasData) {
+                idleCycle = consumeCycle;
+            } else {
+                try {
+                    Thread.sleep(idleCycle);
+                } catch (InterruptedException e) {
+                }
+                idleCycle = Math.min(idleCycle * 2, consumeCycle * MAX_IDLE_CYCLE_MULTIPLE);
+            }
+        }
+
+        // consumer thread is going to stop
+        // consume the last time
+        exitTargets(consumeList);
+        for (Group target : consumeTargets) {
+            consume(target, consumeList);
+
+            target.consumer.onExit();
+        }
+    }
+
+    private boolean consume(Group target, List consumeList) {
+        Channels channels = target.channels;
+        for (int i = 0; i < channels.getChannelSize(); i++) {
+            Buffer buffer = channels.getBuffer(i);
+            buffer.obtain(consumeList, 0, buffer.getBufferSize());
+        }
+
+        if (consumeList.isEmpty()) {
+            return false;
+        }
+        try {
+            target.consumer.consume(consumeList);
+        } catch (Throwable t) {
+            target.consumer.onError(consumeList, t);
+        } finally {
+            consumeList.clear();
+        }
+        return true;
+    }
+
+    /**
+     * Consume the last data of the removed targets, and notify their consumers to exit.
+     */
+    private void exitTargets(List consumeList) {
+        ArrayList<Group> exiting;
+        synchronized (this) {
+            if (exitingTargets.isEmpty()) {
+                return;
+            }
+            exiting = exitingTargets;
+            exitingTargets = new ArrayList<Group>();
+        }
+        for (Group target : exiting) {
+            consume(target, consumeList);
+            target.consumer.onExit();
+        }
+    }
+
+    /**
+     * Add a new target channels. The targets are replaced as a whole, so the running loop never sees a partial list.
+     *
+     * @param channels
+     * @param consumer
+     */
+    public void addNewTarget(Channels channels, IConsumer consumer) {
+        Group group = new Group(channels, consumer);
+        synchronized (this) {
+            ArrayList<Group> newList = new ArrayList<Group>(consumeTargets);
+            newList.add(group);
+            consumeTargets = newList;
+            size += channels.getChannelSize();
+        }
+    }
+
+    /**
+     * Remove the target channels. The last data in them is consumed by this thread, before the consumer exits.
+     *
+     * @param channels
+     * @return true if the channels is consumed by this thread.
+     */
+    public boolean removeTarget(Channels channels) {
+        synchronized (this) {
+            ArrayList<Group> newList = new ArrayList<Group>(consumeTargets.size());
+            Group removed = null;
+            for (Group target : consumeTargets) {
+                if (target.channels == channels) {
+                    removed = target;
+                } else {
+                    newList.add(target);
+                }
+            }
+            if (removed == null) {
+                return false;
+            }
+            consumeTargets = newList;
+            exitingTargets.add(removed);
+            size -= channels.getChannelSize();
+            return true;
+        }
+    }
+
+    /**
+     * @return the number of channels consumed by this thread.
+     */
+    public long size() {
+        return size;
+    }
+
+    void shutdown() {
+        running = false;
+    }
+
+    private static class Group {
+        private Channels channels;
+        private IConsumer consumer;
+
+        public Group(Channels channels, IConsumer consumer) {
+            this.channels = channels;
+            this.consumer = consumer;
+        }
+    }
+}
@@ -28,7 +28,9 @@ import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPart
 import org.junit.Assert;
 import org.junit.Test;
 import org.powermock.api.support.membermodification.MemberModifier;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.SampleConsumer;
 
 /**
  * Created by wusheng on 2016/10/25.
@@ -164,4 +166,21 @@ public class DataCarrierTest {
 
         Assert.assertTrue(time2 - time1 > 2000);
     }
+
+    @Test
+    public void testProduceAfterBulkConsumersShutdown() {
+        BulkConsumePool pool = new BulkConsumePool("testProduceAfterBulkConsumersShutdown", 2, 20);
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
+        DataCarrier<SampleData> otherCarrier = new DataCarrier<SampleData>(2, 100);
+        carrier.consume(pool, new SampleConsumer());
+        otherCarrier.consume(pool, new SampleConsumer());
+        Assert.assertTrue(carrier.produce(new SampleData().setName("a")));
+
+        carrier.shutdownConsumers();
+
+        Assert.assertFalse(carrier.produce(new SampleData().setName("b")));
+        Assert.assertTrue(otherCarrier.produce(new SampleData().setName("c")));
+        pool.shutdown();
+        Assert.assertFalse(otherCarrier.produce(new SampleData().setName("d")));
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.api.support.membermodification.MemberModifier;
+
+public class BulkConsumePoolTest {
+    private static final LinkedBlockingQueue<SampleData> RESULT = new LinkedBlockingQueue<SampleData>();
+
+    @Test
+    public void testOneThreadForSeveralCarriers() throws InterruptedException, IllegalAccessException {
+        BulkConsumePool pool = new BulkConsumePool("testPool", 2, 20);
+
+        for (int i = 0; i < 5; i++) {
+            DataCarrier<SampleData> carrier = new DataCarrier<SampleData>("carrier" + i, 1, 100);
+            carrier.consume(pool, new CollectConsumer());
+            for (int j = 0; j < 10; j++) {
+                Assert.assertTrue(carrier.produce(new SampleData().setName("carrier" + i + "-" + j)));
+            }
+        }
+
+        Thread.sleep(2000);
+
+        List<SampleData> result = new ArrayList<SampleData>();
+        RESULT.drainTo(result);
+        Assert.assertEquals(50, result.size());
+
+        List<MultipleChannelsConsumer> consumers = (List<MultipleChannelsConsumer>)MemberModifier.field(BulkConsumePool.class, "allConsumers").get(pool);
+        Assert.assertEquals(2, consumers.size());
+        Assert.assertEquals(3, consumers.get(0).size());
+        Assert.assertEquals(2, consumers.get(1).size());
+
+        pool.shutdown();
+    }
+
+    @Test
+    public void testCloseOneCarrier() throws InterruptedException, IllegalAccessException {
+        BulkConsumePool pool = new BulkConsumePool("testClosePool", 1, 20);
+
+        DataCarrier<SampleData> carrier1 = new DataCarrier<SampleData>("carrier1", 1, 100);
+        carrier1.consume(pool, new CollectConsumer());
+        DataCarrier<SampleData> carrier2 = new DataCarrier<SampleData>("carrier2", 1, 100);
+        CollectConsumer consumer2 = new CollectConsumer();
+        carrier2.consume(pool, consumer2);
+
+        carrier2.shutdownConsumers();
+        Thread.sleep(500);
+
+        Assert.assertTrue(consumer2.exited);
+        Assert.assertTrue(carrier1.produce(new SampleData().setName("carrier1")));
+
+        Thread.sleep(500);
+        List<SampleData> result = new ArrayList<SampleData>();
+        RESULT.drainTo(result);
+        Assert.assertEquals(1, result.size());
+
+        pool.shutdown();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testConsumeAfterShutdown() {
+        BulkConsumePool pool = new BulkConsumePool("testShutdownPool", 1, 20);
+        new DataCarrier<SampleData>("carrier1", 1, 100).consume(pool, new CollectConsumer());
+        pool.shutdown();
+
+        new DataCarrier<SampleData>("carrier2", 1, 100).consume(pool, new CollectConsumer());
+    }
+
+    private static class CollectConsumer implements IConsumer<SampleData> {
+        private volatile boolean exited = false;
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void consume(List<SampleData> data) {
+            RESULT.addAll(data);
+        }
+
+        @Override
+        public void onError(List<SampleData> data, Throwable t) {
+        }
+
+        @Override
+        public void onExit() {
+            exited = true;
+        }
+    }
+}
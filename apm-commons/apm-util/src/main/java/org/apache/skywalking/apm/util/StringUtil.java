@@ -62,4 +62,60 @@ public final class StringUtil {
         }
         return true;
     }
+
+    /**
+     * Parse the decimal between begin(inclusive) and end(exclusive) of the text, the same as {@link
+     * Integer#parseInt(String)} does on the substring, without creating it.
+     */
+    public static int parseInt(String text, int begin, int end) {
+        long value = parseLong(text, begin, end);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw numberFormatException(text, begin, end);
+        }
+        return (int)value;
+    }
+
+    /**
+     * Parse the decimal between begin(inclusive) and end(exclusive) of the text, the same as {@link
+     * Long#parseLong(String)} does on the substring, without creating it.
+     */
+    public static long parseLong(String text, int begin, int end) {
+        if (begin >= end) {
+            throw numberFormatException(text, begin, end);
+        }
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        int i = begin;
+        char first = text.charAt(i);
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+                limit = Long.MIN_VALUE;
+            } else if (first != '+') {
+                throw numberFormatException(text, begin, end);
+            }
+            if (end - begin == 1) {
+                throw numberFormatException(text, begin, end);
+            }
+            i++;
+        }
+        long multmin = limit / 10;
+        long result = 0;
+        while (i < end) {
+            int digit = Character.digit(text.charAt(i++), 10);
+            if (digit < 0 || result < multmin) {
+                throw numberFormatException(text, begin, end);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw numberFormatException(text, begin, end);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static NumberFormatException numberFormatException(String text, int begin, int end) {
+        return new NumberFormatException("For input string: \"" + text.substring(begin, end) + "\"");
+    }
 }
@@ -40,4 +40,22 @@ public class StringUtilTest {
         Assert.assertEquals("Single part.", StringUtil.join('.', "Single part."));
         Assert.assertEquals("part1.part2.p3", StringUtil.join('.', "part1", "part2", "p3"));
     }
+
+    @Test
+    public void testParseNumber() {
+        Assert.assertEquals(123, StringUtil.parseInt("a|123|b", 2, 5));
+        Assert.assertEquals(-1, StringUtil.parseInt("-1", 0, 2));
+        Assert.assertEquals(Integer.MIN_VALUE, StringUtil.parseInt(String.valueOf(Integer.MIN_VALUE), 0, 11));
+        Assert.assertEquals(Long.MAX_VALUE, StringUtil.parseLong("+" + Long.MAX_VALUE, 0, 20));
+        Assert.assertEquals(Long.MIN_VALUE, StringUtil.parseLong(String.valueOf(Long.MIN_VALUE), 0, 20));
+
+        String[] malformed = {"", "-", "+", "1a", " 1", "2147483648", "9223372036854775808", "1.2"};
+        for (String text : malformed) {
+            try {
+                StringUtil.parseInt(text, 0, text.length());
+                Assert.fail(text);
+            } catch (NumberFormatException e) {
+            }
+        }
+    }
 }
@@ -34,8 +34,15 @@ public final class Base64 {
     }
 
     public static String decode2UTFString(String in) {
+        return decode2UTFString(in, 0, in.length());
+    }
+
+    /**
+     * Decode the BASE64 text between begin(inclusive) and end(exclusive) of the input.
+     */
+    public static String decode2UTFString(String in, int begin, int end) {
         try {
-            return new String(decode(in), "utf-8");
+            return new String(decode(in, begin, end), "utf-8");
         } catch (UnsupportedEncodingException e) {
             logger.error(e, "Can't decode BASE64 text {}", in);
             return "";
@@ -43,9 +50,13 @@ public final class Base64 {
     }
 
     public static byte[] decode(String in) {
+        return decode(in, 0, in.length());
+    }
+
+    private static byte[] decode(String in, int begin, int end) {
         // Ignore trailing '=' padding and whitespace from the input.
-        int limit = in.length();
-        for (; limit > 0; limit--) {
+        int limit = end;
+        for (; limit > begin; limit--) {
             char c = in.charAt(limit - 1);
             if (c != '=' && c != '\n' && c != '\r' && c != ' ' && c != '\t') {
                 break;
@@ -53,12 +64,12 @@ public final class Base64 {
         }
 
         // If the input includes whitespace, this output array will be longer than necessary.
-        byte[] out = new byte[(int)(limit * 6L / 8L)];
+        byte[] out = new byte[(int)((limit - begin) * 6L / 8L)];
         int outCount = 0;
         int inCount = 0;
 
         int word = 0;
-        for (int pos = 0; pos < limit; pos++) {
+        for (int pos = begin; pos < limit; pos++) {
             char c = in.charAt(pos);
 
             int bits;
@@ -147,6 +158,37 @@ public final class Base64 {
         }
     }
 
+    /**
+     * Append the BASE64 of the text to the builder. ASCII text, such as the IDs, is encoded char by char, without the
+     * intermediate bytes and string.
+     */
+    public static void encode(String text, StringBuilder out) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) >= 0x80) {
+                out.append(encode(text));
+                return;
+            }
+        }
+        int end = length - length % 3;
+        for (int i = 0; i < end; i += 3) {
+            int word = (text.charAt(i) << 16) | (text.charAt(i + 1) << 8) | text.charAt(i + 2);
+            out.append((char)MAP[word >> 18]).append((char)MAP[(word >> 12) & 0x3f])
+                .append((char)MAP[(word >> 6) & 0x3f]).append((char)MAP[word & 0x3f]);
+        }
+        switch (length % 3) {
+            case 1:
+                out.append((char)MAP[text.charAt(end) >> 2]).append((char)MAP[(text.charAt(end) & 0x03) << 4])
+                    .append("==");
+                break;
+            case 2:
+                int word = (text.charAt(end) << 8) | text.charAt(end + 1);
+                out.append((char)MAP[word >> 10]).append((char)MAP[(word >> 4) & 0x3f])
+                    .append((char)MAP[(word << 2) & 0x3f]).append('=');
+                break;
+        }
+    }
+
     public static String encode(byte[] in) {
         return encode(in, MAP);
     }
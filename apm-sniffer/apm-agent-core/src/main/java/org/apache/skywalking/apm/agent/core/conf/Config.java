@@ -71,6 +71,13 @@ public class Config {
          */
         public static boolean IS_OPEN_DEBUGGING_CLASS = false;
 
+        /**
+         * Comma separated class name prefixes, the classes under them are only checked by the plugins matching the
+         * class names, not by the ones matching the annotations or the hierarchy. The JDK, byte-buddy and SkyWalking
+         * classes are always excluded.
+         */
+        public static String EXCLUDE_CLASS_PREFIXES = "";
+
         /**
          * Active V2 header in default
          */
@@ -91,10 +98,27 @@ public class Config {
          * application and service registry check interval
          */
         public static long APP_AND_SERVICE_REGISTER_CHECK_INTERVAL = 3;
+        /**
+         * The max number of endpoints or network addresses in a register request.
+         */
+        public static int REGISTER_BATCH_SIZE = 200;
+        /**
+         * The deadline of each register request, in seconds.
+         */
+        public static long REGISTER_TIMEOUT = 10;
+        /**
+         * The max interval between the registry checks, backing off after failures, in seconds.
+         */
+        public static long REGISTER_MAX_BACKOFF = 60;
         /**
          * Collector skywalking trace receiver service addresses.
          */
         public static String BACKEND_SERVICE = "";
+        /**
+         * The max number of the backend services connected at the same time, picked randomly from {@link
+         * #BACKEND_SERVICE}. Negative or zero means all.
+         */
+        public static int BACKEND_SUBSET_SIZE = 0;
     }
 
     public static class Jvm {
@@ -119,6 +143,37 @@ public class Config {
         public static int ENDPOINT_NAME_BUFFER_SIZE = 1000 * 10000;
     }
 
+    public static class Endpoint {
+        /**
+         * Comma separated templates of the entry endpoint names, such as `/orders/{id}/items/{id}`. A `{...}` or `*`
+         * segment matches any single path segment, a trailing `**` matches the rest of the path. The endpoint names
+         * matched are replaced by the templates.
+         */
+        public static String NAME_TEMPLATES = "";
+
+        /**
+         * If true, the numeric, UUID and hex segments of the entry endpoint names, matched by no template, are replaced
+         * by `{id}`.
+         */
+        public static boolean NORMALIZE_ID_SEGMENTS = false;
+
+        /**
+         * The max number of distinct entry endpoint names of this service. The names beyond are replaced by {@link
+         * #OVERFLOW_NAME}. Negative or zero means no limit.
+         */
+        public static int MAX_NAMES = -1;
+
+        /**
+         * The name of the entry endpoints beyond {@link #MAX_NAMES}.
+         */
+        public static String OVERFLOW_NAME = "{others}";
+
+        /**
+         * The max number of the raw endpoint names, whose normalized names are cached.
+         */
+        public static int NAME_CACHE_SIZE = 10000;
+    }
+
     public static class Logging {
         /**
          * Log file name.
@@ -158,5 +213,35 @@ public class Config {
              */
             public static boolean TRACE_DSL = false;
         }
+
+        public static class JDBC {
+            /**
+             * If true, the literal values in the SQL of the non-prepared statements are replaced by `?` before the SQL
+             * is tagged, default is false.
+             */
+            public static boolean NORMALIZE_SQL = false;
+
+            /**
+             * The max length of the SQL tagged in the span, longer SQL is truncated and ends with `...`. Negative or
+             * zero means no limit, by default.
+             */
+            public static int SQL_MAX_LENGTH = 0;
+
+            /**
+             * The max number of the prepared SQL cached for the spans, the least recently used ones are evicted.
+             * Negative or zero means no cache.
+             */
+            public static int SQL_CACHE_SIZE = 1024;
+
+            /**
+             * If true, trace the parameters set on the prepared statements, default is false.
+             */
+            public static boolean TRACE_SQL_PARAMETERS = false;
+
+            /**
+             * The max length of the traced parameters, longer parameters are truncated and end with `...`.
+             */
+            public static int SQL_PARAMETERS_MAX_LENGTH = 512;
+        }
     }
 }
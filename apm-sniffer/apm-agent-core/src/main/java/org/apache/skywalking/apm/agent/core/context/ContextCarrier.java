@@ -19,7 +19,9 @@
 package org.apache.skywalking.apm.agent.core.context;
 
 import java.io.Serializable;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.skywalking.apm.agent.core.base64.Base64;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceId;
@@ -103,30 +105,33 @@ public class ContextCarrier implements Serializable {
         if (this.isValid(version)) {
             if (HeaderVersion.v1.equals(version)) {
                 if (Config.Agent.ACTIVE_V1_HEADER) {
-                    return StringUtil.join('|',
-                        this.getTraceSegmentId().encode(),
-                        this.getSpanId() + "",
-                        this.getParentServiceInstanceId() + "",
-                        this.getEntryServiceInstanceId() + "",
-                        this.getPeerHost(),
-                        this.getEntryEndpointName(),
-                        this.getParentEndpointName(),
-                        this.getPrimaryDistributedTraceId().encode());
+                    StringBuilder header = HeaderBuilder.get();
+                    header.append(this.getTraceSegmentId().encode())
+                        .append('|').append(this.getSpanId())
+                        .append('|').append(this.getParentServiceInstanceId())
+                        .append('|').append(this.getEntryServiceInstanceId())
+                        .append('|').append(this.getPeerHost())
+                        .append('|').append(this.getEntryEndpointName())
+                        .append('|').append(this.getParentEndpointName())
+                        .append('|').append(this.getPrimaryDistributedTraceId().encode());
+                    return header.toString();
                 } else {
                     return "";
                 }
             } else {
                 if (Config.Agent.ACTIVE_V2_HEADER) {
-                    return StringUtil.join('-',
-                        "1",
-                        Base64.encode(this.getPrimaryDistributedTraceId().encode()),
-                        Base64.encode(this.getTraceSegmentId().encode()),
-                        this.getSpanId() + "",
-                        this.getParentServiceInstanceId() + "",
-                        this.getEntryServiceInstanceId() + "",
-                        Base64.encode(this.getPeerHost()),
-                        Base64.encode(this.getEntryEndpointName()),
-                        Base64.encode(this.getParentEndpointName()));
+                    StringBuilder header = HeaderBuilder.get();
+                    header.append("1-");
+                    Base64.encode(this.getPrimaryDistributedTraceId().encode(), header);
+                    header.append('-');
+                    Base64.encode(this.getTraceSegmentId().encode(), header);
+                    header.append('-').append(this.getSpanId())
+                        .append('-').append(this.getParentServiceInstanceId())
+                        .append('-').append(this.getEntryServiceInstanceId())
+                        .append('-').append(EncodedNames.encode(this.getPeerHost()))
+                        .append('-').append(EncodedNames.encode(this.getEntryEndpointName()))
+                        .append('-').append(EncodedNames.encode(this.getParentEndpointName()));
+                    return header.toString();
                 } else {
                     return "";
                 }
@@ -138,6 +143,9 @@ public class ContextCarrier implements Serializable {
 
     /**
      * Initialize fields with the given text.
+     * <p>
+     * The parts are located by the separators in place, rather than split, and the numbers are parsed without any
+     * substring. A header is accepted or rejected as {@link String#split(String, int)} did.
      *
      * @param text carries {@link #traceSegmentId} and {@link #spanId}, with '|' split.
      */
@@ -148,34 +156,59 @@ public class ContextCarrier implements Serializable {
                 return this;
             }
             if (HeaderVersion.v1.equals(version)) {
-                String[] parts = text.split("\\|", 8);
-                if (parts.length == 8) {
+                if (hasParts(text, '|', 8)) {
                     try {
-                        this.traceSegmentId = new ID(parts[0]);
-                        this.spanId = Integer.parseInt(parts[1]);
-                        this.parentServiceInstanceId = Integer.parseInt(parts[2]);
-                        this.entryServiceInstanceId = Integer.parseInt(parts[3]);
-                        this.peerHost = parts[4];
-                        this.entryEndpointName = parts[5];
-                        this.parentEndpointName = parts[6];
-                        this.primaryDistributedTraceId = new PropagatedTraceId(parts[7]);
+                        int end = text.indexOf('|');
+                        this.traceSegmentId = new ID(text, 0, end);
+                        int begin = end + 1;
+                        end = text.indexOf('|', begin);
+                        this.spanId = StringUtil.parseInt(text, begin, end);
+                        begin = end + 1;
+                        end = text.indexOf('|', begin);
+                        this.parentServiceInstanceId = StringUtil.parseInt(text, begin, end);
+                        begin = end + 1;
+                        end = text.indexOf('|', begin);
+                        this.entryServiceInstanceId = StringUtil.parseInt(text, begin, end);
+                        begin = end + 1;
+                        end = text.indexOf('|', begin);
+                        this.peerHost = text.substring(begin, end);
+                        begin = end + 1;
+                        end = text.indexOf('|', begin);
+                        this.entryEndpointName = text.substring(begin, end);
+                        begin = end + 1;
+                        end = text.indexOf('|', begin);
+                        this.parentEndpointName = text.substring(begin, end);
+                        this.primaryDistributedTraceId = new PropagatedTraceId(text.substring(end + 1));
                     } catch (NumberFormatException e) {
 
                     }
                 }
             } else if (HeaderVersion.v2.equals(version)) {
-                String[] parts = text.split("\\-", 9);
-                if (parts.length == 9) {
+                if (hasParts(text, '-', 9)) {
                     try {
-                        // parts[0] is sample flag, always trace if header exists.
-                        this.primaryDistributedTraceId = new PropagatedTraceId(Base64.decode2UTFString(parts[1]));
-                        this.traceSegmentId = new ID(Base64.decode2UTFString(parts[2]));
-                        this.spanId = Integer.parseInt(parts[3]);
-                        this.parentServiceInstanceId = Integer.parseInt(parts[4]);
-                        this.entryServiceInstanceId = Integer.parseInt(parts[5]);
-                        this.peerHost = Base64.decode2UTFString(parts[6]);
-                        this.entryEndpointName = Base64.decode2UTFString(parts[7]);
-                        this.parentEndpointName = Base64.decode2UTFString(parts[8]);
+                        // the first part is sample flag, always trace if header exists.
+                        int begin = text.indexOf('-') + 1;
+                        int end = text.indexOf('-', begin);
+                        this.primaryDistributedTraceId = new PropagatedTraceId(Base64.decode2UTFString(text, begin, end));
+                        begin = end + 1;
+                        end = text.indexOf('-', begin);
+                        this.traceSegmentId = new ID(Base64.decode2UTFString(text, begin, end));
+                        begin = end + 1;
+                        end = text.indexOf('-', begin);
+                        this.spanId = StringUtil.parseInt(text, begin, end);
+                        begin = end + 1;
+                        end = text.indexOf('-', begin);
+                        this.parentServiceInstanceId = StringUtil.parseInt(text, begin, end);
+                        begin = end + 1;
+                        end = text.indexOf('-', begin);
+                        this.entryServiceInstanceId = StringUtil.parseInt(text, begin, end);
+                        begin = end + 1;
+                        end = text.indexOf('-', begin);
+                        this.peerHost = Base64.decode2UTFString(text, begin, end);
+                        begin = end + 1;
+                        end = text.indexOf('-', begin);
+                        this.entryEndpointName = Base64.decode2UTFString(text, begin, end);
+                        this.parentEndpointName = Base64.decode2UTFString(text, end + 1, text.length());
                     } catch (NumberFormatException e) {
 
                     }
@@ -187,6 +220,20 @@ public class ContextCarrier implements Serializable {
         return this;
     }
 
+    /**
+     * @return true, if the text could be split into the given number of parts.
+     */
+    private static boolean hasParts(String text, char separator, int parts) {
+        int index = -1;
+        for (int i = 1; i < parts; i++) {
+            index = text.indexOf(separator, index + 1);
+            if (index < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public boolean isValid() {
         return isValid(HeaderVersion.v2) || isValid(HeaderVersion.v1);
     }
@@ -303,4 +350,62 @@ public class ContextCarrier implements Serializable {
     public enum HeaderVersion {
         v1, v2
     }
+
+    /**
+     * The builder of the headers is reused by each thread, only the final string is created for a header.
+     */
+    private static class HeaderBuilder {
+        private static final int MAX_RETAINED_CAPACITY = 4096;
+        private static final ThreadLocal<StringBuilder> BUILDER = new ThreadLocal<StringBuilder>() {
+            @Override
+            protected StringBuilder initialValue() {
+                return new StringBuilder(256);
+            }
+        };
+
+        private static StringBuilder get() {
+            StringBuilder builder = BUILDER.get();
+            if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+                builder = new StringBuilder(256);
+                BUILDER.set(builder);
+            }
+            builder.setLength(0);
+            return builder;
+        }
+    }
+
+    /**
+     * The peers and endpoint names repeat in nearly every header, so their BASE64 are kept in a small LRU cache of
+     * each thread.
+     */
+    private static class EncodedNames extends LinkedHashMap<String, String> {
+        private static final int MAX_SIZE = 128;
+        private static final ThreadLocal<EncodedNames> CACHE = new ThreadLocal<EncodedNames>() {
+            @Override
+            protected EncodedNames initialValue() {
+                return new EncodedNames();
+            }
+        };
+
+        private EncodedNames() {
+            super(MAX_SIZE * 2, 0.75f, true);
+        }
+
+        private static String encode(String name) {
+            EncodedNames cache = CACHE.get();
+            String encoded = cache.get(name);
+            if (encoded == null) {
+                encoded = Base64.encode(name);
+                if (name.length() <= MAX_SIZE * 2) {
+                    cache.put(name, encoded);
+                }
+            }
+            return encoded;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_SIZE;
+        }
+    }
 }
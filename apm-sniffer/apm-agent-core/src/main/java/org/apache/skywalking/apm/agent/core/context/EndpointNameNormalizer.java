@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
+import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+
+/**
+ * The <code>EndpointNameNormalizer</code> replaces the entry endpoint names, most likely the request URIs, by their
+ * templates, before they are registered. So the IDs in the RESTful URIs don't make a new endpoint for each request.
+ * <p>
+ * The names are matched by {@link Config.Endpoint#NAME_TEMPLATES}, then the ID segments are replaced if {@link
+ * Config.Endpoint#NORMALIZE_ID_SEGMENTS}, and the distinct names are limited by {@link Config.Endpoint#MAX_NAMES}. The
+ * number of raw names of each normalized name is reported in the logs, so the exploding routes are visible.
+ * <p>
+ * The limit is checked before a new name is added, so the threads adding new names at the same time may exceed it by
+ * up to one name each.
+ */
+@DefaultImplementor
+public class EndpointNameNormalizer implements BootService {
+    private static final ILog logger = LogManager.getLogger(EndpointNameNormalizer.class);
+    private static final String ID_SEGMENT = "{id}";
+    private static final int REPORTED_NAMES = 10;
+
+    private volatile boolean on = false;
+    private volatile TemplateNode templates = new TemplateNode();
+    private final ConcurrentHashMap<String, String> normalizedNames = new ConcurrentHashMap<String, String>();
+    /**
+     * The number of raw names of each normalized name, also the distinct names limited by {@link
+     * Config.Endpoint#MAX_NAMES}. A raw name is counted when it is added to the cache, and the counts restart when the
+     * cache is cleared, so a raw name is counted once however often it is seen.
+     */
+    private final ConcurrentHashMap<String, AtomicInteger> rawNameCounters = new ConcurrentHashMap<String, AtomicInteger>();
+    private volatile ScheduledFuture<?> reportFuture;
+
+    @Override
+    public void prepare() throws Throwable {
+
+    }
+
+    @Override
+    public void boot() throws Throwable {
+        if (reportFuture != null) {
+            /**
+             * If {@link #boot()} invokes twice, mostly in test cases,
+             * cancel the old one.
+             */
+            reportFuture.cancel(true);
+        }
+        TemplateNode root = new TemplateNode();
+        boolean hasTemplate = false;
+        for (String template : Config.Endpoint.NAME_TEMPLATES.split(",")) {
+            template = template.trim();
+            if (template.startsWith("/")) {
+                root.add(template);
+                hasTemplate = true;
+            } else if (template.length() > 0) {
+                logger.warn("Endpoint name template {} is ignored, it should start with '/'.", template);
+            }
+        }
+        templates = root;
+        normalizedNames.clear();
+        rawNameCounters.clear();
+        on = hasTemplate || Config.Endpoint.NORMALIZE_ID_SEGMENTS || Config.Endpoint.MAX_NAMES > 0;
+
+        if (on) {
+            reportFuture = Executors.newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("EndpointNameNormalizer"))
+                .scheduleAtFixedRate(new RunnableWithExceptionProtection(new Runnable() {
+                    @Override
+                    public void run() {
+                        report();
+                    }
+                }, new RunnableWithExceptionProtection.CallbackWhenException() {
+                    @Override public void handle(Throwable t) {
+                        logger.error("unexpected exception.", t);
+                    }
+                }), 1, 1, TimeUnit.MINUTES);
+        }
+    }
+
+    @Override
+    public void onComplete() throws Throwable {
+
+    }
+
+    @Override
+    public void shutdown() throws Throwable {
+        if (reportFuture != null) {
+            reportFuture.cancel(true);
+        }
+    }
+
+    /**
+     * @param endpointName the raw name of the entry endpoint
+     * @return the normalized name, or the raw name if normalization is off.
+     */
+    public String normalize(String endpointName) {
+        if (!on || endpointName == null) {
+            return endpointName;
+        }
+        String normalized = normalizedNames.get(endpointName);
+        if (normalized != null) {
+            return normalized;
+        }
+
+        normalized = endpointName;
+        if (endpointName.startsWith("/")) {
+            String template = templates.match(endpointName, 1);
+            if (template != null) {
+                normalized = template;
+            } else if (Config.Endpoint.NORMALIZE_ID_SEGMENTS) {
+                normalized = normalizeIdSegments(endpointName);
+            }
+        }
+        normalized = limit(normalized);
+
+        if (normalizedNames.size() >= Config.Endpoint.NAME_CACHE_SIZE) {
+            normalizedNames.clear();
+            for (AtomicInteger counter : rawNameCounters.values()) {
+                counter.set(0);
+            }
+        }
+        String existing = normalizedNames.putIfAbsent(endpointName, normalized);
+        if (existing != null) {
+            return existing;
+        }
+        AtomicInteger counter = rawNameCounters.get(normalized);
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+        return normalized;
+    }
+
+    /**
+     * @return the normalized name, or {@link Config.Endpoint#OVERFLOW_NAME} if it is a new name beyond {@link
+     * Config.Endpoint#MAX_NAMES}.
+     */
+    private String limit(String normalized) {
+        if (!rawNameCounters.containsKey(normalized)) {
+            if (Config.Endpoint.MAX_NAMES > 0 && rawNameCounters.size() >= Config.Endpoint.MAX_NAMES) {
+                normalized = Config.Endpoint.OVERFLOW_NAME;
+            }
+            rawNameCounters.putIfAbsent(normalized, new AtomicInteger());
+        }
+        return normalized;
+    }
+
+    /**
+     * @return the number of the raw names counted for the normalized name.
+     */
+    int countRawNames(String normalized) {
+        AtomicInteger counter = rawNameCounters.get(normalized);
+        return counter == null ? 0 : counter.get();
+    }
+
+    private void report() {
+        List<Map.Entry<String, AtomicInteger>> counters = new ArrayList<Map.Entry<String, AtomicInteger>>();
+        for (Map.Entry<String, AtomicInteger> counter : rawNameCounters.entrySet()) {
+            if (counter.getValue().get() > 1) {
+                counters.add(counter);
+            }
+        }
+        if (counters.isEmpty()) {
+            return;
+        }
+        Collections.sort(counters, new Comparator<Map.Entry<String, AtomicInteger>>() {
+            @Override
+            public int compare(Map.Entry<String, AtomicInteger> o1, Map.Entry<String, AtomicInteger> o2) {
+                return o2.getValue().get() - o1.getValue().get();
+            }
+        });
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < counters.size() && i < REPORTED_NAMES; i++) {
+            message.append(' ').append(counters.get(i).getKey()).append('=').append(counters.get(i).getValue().get());
+        }
+        logger.info("{} of {} endpoint names are normalized from more than one raw name, the most:{}", counters.size(), rawNameCounters.size(), message);
+    }
+
+    /**
+     * Replace the numeric, UUID and hex segments by {@link #ID_SEGMENT}, the path is only copied if any.
+     */
+    static String normalizeIdSegments(String path) {
+        StringBuilder normalized = null;
+        int begin = 1;
+        while (begin <= path.length()) {
+            int end = path.indexOf('/', begin);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (isIdSegment(path, begin, end)) {
+                if (normalized == null) {
+                    normalized = new StringBuilder(path.length()).append(path, 0, begin);
+                }
+                normalized.append(ID_SEGMENT);
+            } else if (normalized != null) {
+                normalized.append(path, begin, end);
+            }
+            if (normalized != null && end < path.length()) {
+                normalized.append('/');
+            }
+            begin = end + 1;
+        }
+        return normalized == null ? path : normalized.toString();
+    }
+
+    private static boolean isIdSegment(String path, int begin, int end) {
+        int length = end - begin;
+        if (length == 0) {
+            return false;
+        }
+        if (length == 36 && path.charAt(begin + 8) == '-' && path.charAt(begin + 13) == '-'
+            && path.charAt(begin + 18) == '-' && path.charAt(begin + 23) == '-') {
+            for (int i = begin; i < end; i++) {
+                int offset = i - begin;
+                if (offset != 8 && offset != 13 && offset != 18 && offset != 23 && Character.digit(path.charAt(i), 16) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        boolean hasDigit = false;
+        boolean hasLetter = false;
+        for (int i = begin; i < end; i++) {
+            char c = path.charAt(i);
+            if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            } else if ((c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')) {
+                hasLetter = true;
+            } else {
+                return false;
+            }
+        }
+        return hasDigit && (!hasLetter || length >= 8);
+    }
+
+    /**
+     * The templates are kept in a trie of their path segments. A literal segment is preferred to a variable one, which
+     * is preferred to a trailing `**`.
+     */
+    private static class TemplateNode {
+        private final Map<String, TemplateNode> literals = new HashMap<String, TemplateNode>();
+        private TemplateNode variable;
+        private String template;
+        private String restTemplate;
+
+        private void add(String template) {
+            TemplateNode node = this;
+            String[] segments = template.substring(1).split("/", -1);
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (i == segments.length - 1 && segment.equals("**")) {
+                    node.restTemplate = template;
+                    return;
+                }
+                TemplateNode next;
+                if (segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"))) {
+                    if (node.variable == null) {
+                        node.variable = new TemplateNode();
+                    }
+                    next = node.variable;
+                } else {
+                    next = node.literals.get(segment);
+                    if (next == null) {
+                        next = new TemplateNode();
+                        node.literals.put(segment, next);
+                    }
+                }
+                node = next;
+            }
+            node.template = template;
+        }
+
+        /**
+         * @param begin the beginning of the current segment in the path
+         * @return the template matching the rest of the path, or null.
+         */
+        private String match(String path, int begin) {
+            if (begin > path.length()) {
+                return template;
+            }
+            int end = path.indexOf('/', begin);
+            if (end < 0) {
+                end = path.length();
+            }
+            String matched = null;
+            if (!literals.isEmpty()) {
+                TemplateNode literal = literals.get(path.substring(begin, end));
+                if (literal != null) {
+                    matched = literal.match(path, end + 1);
+                }
+            }
+            if (matched == null && variable != null && end > begin) {
+                matched = variable.match(path, end + 1);
+            }
+            if (matched == null) {
+                matched = restTemplate;
+            }
+            return matched;
+        }
+    }
+}
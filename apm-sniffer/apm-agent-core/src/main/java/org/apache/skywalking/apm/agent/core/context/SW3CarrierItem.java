@@ -25,12 +25,24 @@ package org.apache.skywalking.apm.agent.core.context;
 public class SW3CarrierItem extends CarrierItem {
     public static final String HEADER_NAME = "sw3";
     private ContextCarrier carrier;
+    private String headValue;
 
     public SW3CarrierItem(ContextCarrier carrier, CarrierItem next) {
-        super(HEADER_NAME, carrier.serialize(ContextCarrier.HeaderVersion.v1), next);
+        super(HEADER_NAME, null, next);
         this.carrier = carrier;
     }
 
+    /**
+     * The header is only serialized when it is read, so the extracting side never does.
+     */
+    @Override
+    public String getHeadValue() {
+        if (headValue == null) {
+            headValue = carrier.serialize(ContextCarrier.HeaderVersion.v1);
+        }
+        return headValue;
+    }
+
     @Override
     public void setHeadValue(String headValue) {
         carrier.deserialize(headValue, ContextCarrier.HeaderVersion.v1);
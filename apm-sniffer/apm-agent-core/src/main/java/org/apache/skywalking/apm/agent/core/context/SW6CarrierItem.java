@@ -24,12 +24,24 @@ package org.apache.skywalking.apm.agent.core.context;
 public class SW6CarrierItem extends CarrierItem {
     public static final String HEADER_NAME = "sw6";
     private ContextCarrier carrier;
+    private String headValue;
 
     public SW6CarrierItem(ContextCarrier carrier, CarrierItem next) {
-        super(HEADER_NAME, carrier.serialize(ContextCarrier.HeaderVersion.v2), next);
+        super(HEADER_NAME, null, next);
         this.carrier = carrier;
     }
 
+    /**
+     * The header is only serialized when it is read, so the extracting side never does.
+     */
+    @Override
+    public String getHeadValue() {
+        if (headValue == null) {
+            headValue = carrier.serialize(ContextCarrier.HeaderVersion.v2);
+        }
+        return headValue;
+    }
+
     @Override
     public void setHeadValue(String headValue) {
         carrier.deserialize(headValue, ContextCarrier.HeaderVersion.v2);
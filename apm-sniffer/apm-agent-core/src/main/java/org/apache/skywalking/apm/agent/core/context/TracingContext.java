@@ -63,6 +63,8 @@ public class TracingContext implements AbstractTracerContext {
      */
     private SamplingService samplingService;
 
+    private EndpointNameNormalizer endpointNameNormalizer;
+
     /**
      * The final {@link TraceSegment}, which includes all finished spans.
      */
@@ -89,6 +91,9 @@ public class TracingContext implements AbstractTracerContext {
         if (samplingService == null) {
             samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
         }
+        if (endpointNameNormalizer == null) {
+            endpointNameNormalizer = ServiceManager.INSTANCE.findService(EndpointNameNormalizer.class);
+        }
     }
 
     /**
@@ -247,32 +252,33 @@ public class TracingContext implements AbstractTracerContext {
             NoopSpan span = new NoopSpan();
             return push(span);
         }
+        final String endpointName = endpointNameNormalizer == null ? operationName : endpointNameNormalizer.normalize(operationName);
         AbstractSpan entrySpan;
         final AbstractSpan parentSpan = peek();
         final int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
         if (parentSpan != null && parentSpan.isEntry()) {
             entrySpan = (AbstractTracingSpan)DictionaryManager.findEndpointSection()
-                .findOnly(segment.getServiceId(), operationName)
+                .findOnly(segment.getServiceId(), endpointName)
                 .doInCondition(new PossibleFound.FoundAndObtain() {
                     @Override public Object doProcess(int operationId) {
                         return parentSpan.setOperationId(operationId);
                     }
                 }, new PossibleFound.NotFoundAndObtain() {
                     @Override public Object doProcess() {
-                        return parentSpan.setOperationName(operationName);
+                        return parentSpan.setOperationName(endpointName);
                     }
                 });
             return entrySpan.start();
         } else {
             entrySpan = (AbstractTracingSpan)DictionaryManager.findEndpointSection()
-                .findOnly(segment.getServiceId(), operationName)
+                .findOnly(segment.getServiceId(), endpointName)
                 .doInCondition(new PossibleFound.FoundAndObtain() {
                     @Override public Object doProcess(int operationId) {
                         return new EntrySpan(spanIdGenerator++, parentSpanId, operationId);
                     }
                 }, new PossibleFound.NotFoundAndObtain() {
                     @Override public Object doProcess() {
-                        return new EntrySpan(spanIdGenerator++, parentSpanId, operationName);
+                        return new EntrySpan(spanIdGenerator++, parentSpanId, endpointName);
                     }
                 });
             entrySpan.start();
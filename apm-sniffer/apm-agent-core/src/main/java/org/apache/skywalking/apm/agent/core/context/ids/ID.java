@@ -20,6 +20,8 @@
 package org.apache.skywalking.apm.agent.core.context.ids;
 
 import org.apache.skywalking.apm.network.language.agent.*;
+import org.apache.skywalking.apm.util.StringUtil;
+
 /**
  * @author wusheng
  */
@@ -39,22 +41,37 @@ public class ID {
     }
 
     public ID(String encodingString) {
-        String[] idParts = encodingString.split("\\.", 3);
+        this(encodingString, 0, encodingString.length());
+    }
+
+    /**
+     * Decode the ID between begin(inclusive) and end(exclusive) of the text, without any substring. A malformed part
+     * makes the ID invalid, and a missing part throws {@link ArrayIndexOutOfBoundsException}, the same as the split
+     * based decoding did.
+     */
+    public ID(String text, int begin, int end) {
         this.isValid = true;
         for (int part = 0; part < 3; part++) {
+            if (begin > end) {
+                throw new ArrayIndexOutOfBoundsException(part);
+            }
+            int partEnd = part < 2 ? text.indexOf('.', begin) : end;
+            if (partEnd < 0 || partEnd > end) {
+                partEnd = end;
+            }
             try {
                 if (part == 0) {
-                    part1 = Long.parseLong(idParts[part]);
+                    part1 = StringUtil.parseLong(text, begin, partEnd);
                 } else if (part == 1) {
-                    part2 = Long.parseLong(idParts[part]);
+                    part2 = StringUtil.parseLong(text, begin, partEnd);
                 } else {
-                    part3 = Long.parseLong(idParts[part]);
+                    part3 = StringUtil.parseLong(text, begin, partEnd);
                 }
             } catch (NumberFormatException e) {
                 this.isValid = false;
                 break;
             }
-
+            begin = partEnd + 1;
         }
     }
 
@@ -19,6 +19,13 @@
 
 package org.apache.skywalking.apm.agent.core.dictionary;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author wusheng
  */
@@ -30,4 +37,39 @@ public class DictionaryUtil {
     public static boolean isNull(int id) {
         return id == nullValue();
     }
+
+    /**
+     * Split the unregistered keys into the pages of the register requests, the most hit keys first.
+     *
+     * @param unRegistered the unregistered keys, with their hits
+     * @param pageSize the max number of keys in a page
+     * @return the pages.
+     */
+    static <K> List<List<K>> pagesByHits(Map<K, AtomicInteger> unRegistered, int pageSize) {
+        List<Map.Entry<K, AtomicInteger>> entries = new ArrayList<Map.Entry<K, AtomicInteger>>(unRegistered.entrySet());
+        final int[] hits = new int[entries.size()];
+        final List<Integer> order = new ArrayList<Integer>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            hits[i] = entries.get(i).getValue().get();
+            order.add(i);
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return hits[o2] < hits[o1] ? -1 : (hits[o2] == hits[o1] ? 0 : 1);
+            }
+        });
+
+        pageSize = Math.max(pageSize, 1);
+        List<List<K>> pages = new ArrayList<List<K>>((order.size() + pageSize - 1) / pageSize);
+        List<K> page = null;
+        for (Integer index : order) {
+            if (page == null || page.size() == pageSize) {
+                page = new ArrayList<K>(pageSize);
+                pages.add(page);
+            }
+            page.add(entries.get(index).getKey());
+        }
+        return pages;
+    }
 }
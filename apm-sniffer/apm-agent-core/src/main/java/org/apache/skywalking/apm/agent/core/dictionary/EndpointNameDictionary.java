@@ -18,10 +18,11 @@
 
 package org.apache.skywalking.apm.agent.core.dictionary;
 
-import io.netty.util.internal.ConcurrentSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.network.common.DetectPoint;
@@ -31,6 +32,8 @@ import org.apache.skywalking.apm.network.register.v2.EndpointMappingElement;
 import org.apache.skywalking.apm.network.register.v2.Enpoints;
 import org.apache.skywalking.apm.network.register.v2.RegisterGrpc;
 
+import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.REGISTER_BATCH_SIZE;
+import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.REGISTER_TIMEOUT;
 import static org.apache.skywalking.apm.agent.core.conf.Config.Dictionary.ENDPOINT_NAME_BUFFER_SIZE;
 
 /**
@@ -41,7 +44,10 @@ public enum EndpointNameDictionary {
     private static final ILog logger = LogManager.getLogger(EndpointNameDictionary.class);
 
     private Map<OperationNameKey, Integer> endpointDictionary = new ConcurrentHashMap<OperationNameKey, Integer>();
-    private Set<OperationNameKey> unRegisterEndpoints = new ConcurrentSet<OperationNameKey>();
+    /**
+     * The endpoints to register, with the number of their hits, so the most used ones are registered first.
+     */
+    private Map<OperationNameKey, AtomicInteger> unRegisterEndpoints = new ConcurrentHashMap<OperationNameKey, AtomicInteger>();
 
     public PossibleFound findOrPrepare4Register(int serviceId, String endpointName,
         boolean isEntry, boolean isExit) {
@@ -62,38 +68,64 @@ public enum EndpointNameDictionary {
         if (operationId != null) {
             return new Found(operationId);
         } else {
-            if (registerWhenNotFound &&
-                endpointDictionary.size() + unRegisterEndpoints.size() < ENDPOINT_NAME_BUFFER_SIZE) {
-                unRegisterEndpoints.add(key);
+            if (registerWhenNotFound) {
+                AtomicInteger hits = unRegisterEndpoints.get(key);
+                if (hits == null && endpointDictionary.size() + unRegisterEndpoints.size() < ENDPOINT_NAME_BUFFER_SIZE) {
+                    hits = new AtomicInteger();
+                    AtomicInteger existing = unRegisterEndpoints.putIfAbsent(key, hits);
+                    if (existing != null) {
+                        hits = existing;
+                    }
+                }
+                if (hits != null) {
+                    hits.incrementAndGet();
+                }
             }
             return new NotFound();
         }
     }
 
+    /**
+     * @return true, if any endpoint is waiting for registering.
+     */
+    public boolean hasUnregistered() {
+        return !unRegisterEndpoints.isEmpty();
+    }
+
+    /**
+     * Register the endpoints in the pages of {@link org.apache.skywalking.apm.agent.core.conf.Config.Collector#REGISTER_BATCH_SIZE},
+     * the most used ones first. Each page is sent once in a sync, as the backend may map the new endpoints later.
+     */
     public void syncRemoteDictionary(
         RegisterGrpc.RegisterBlockingStub serviceNameDiscoveryServiceBlockingStub) {
         if (unRegisterEndpoints.size() > 0) {
-            Enpoints.Builder builder = Enpoints.newBuilder();
-            for (OperationNameKey operationNameKey : unRegisterEndpoints) {
-                Endpoint endpoint = Endpoint.newBuilder()
-                    .setServiceId(operationNameKey.getServiceId())
-                    .setEndpointName(operationNameKey.getEndpointName())
-                    .setFrom(operationNameKey.getSpanType())
-                    .build();
-                builder.addEndpoints(endpoint);
-            }
-            EndpointMapping serviceNameMappingCollection = serviceNameDiscoveryServiceBlockingStub.doEndpointRegister(builder.build());
-            if (serviceNameMappingCollection.getElementsCount() > 0) {
-                for (EndpointMappingElement element : serviceNameMappingCollection.getElementsList()) {
-                    OperationNameKey key = new OperationNameKey(
-                        element.getServiceId(),
-                        element.getEndpointName(),
-                        DetectPoint.server.equals(element.getFrom()),
-                        DetectPoint.client.equals(element.getFrom()));
-                    unRegisterEndpoints.remove(key);
-                    endpointDictionary.put(key, element.getEndpointId());
+            List<List<OperationNameKey>> pages = DictionaryUtil.pagesByHits(unRegisterEndpoints, REGISTER_BATCH_SIZE);
+            for (List<OperationNameKey> page : pages) {
+                Enpoints.Builder builder = Enpoints.newBuilder();
+                for (OperationNameKey operationNameKey : page) {
+                    Endpoint endpoint = Endpoint.newBuilder()
+                        .setServiceId(operationNameKey.getServiceId())
+                        .setEndpointName(operationNameKey.getEndpointName())
+                        .setFrom(operationNameKey.getSpanType())
+                        .build();
+                    builder.addEndpoints(endpoint);
+                }
+                EndpointMapping serviceNameMappingCollection = serviceNameDiscoveryServiceBlockingStub
+                    .withDeadlineAfter(REGISTER_TIMEOUT, TimeUnit.SECONDS)
+                    .doEndpointRegister(builder.build());
+                if (serviceNameMappingCollection.getElementsCount() > 0) {
+                    for (EndpointMappingElement element : serviceNameMappingCollection.getElementsList()) {
+                        OperationNameKey key = new OperationNameKey(
+                            element.getServiceId(),
+                            element.getEndpointName(),
+                            DetectPoint.server.equals(element.getFrom()),
+                            DetectPoint.client.equals(element.getFrom()));
+                        unRegisterEndpoints.remove(key);
+                        endpointDictionary.put(key, element.getEndpointId());
+                    }
                 }
             }
+            logger.debug("{} pages of endpoints are registered, {} endpoints are waiting.", pages.size(), unRegisterEndpoints.size());
         }
     }
 
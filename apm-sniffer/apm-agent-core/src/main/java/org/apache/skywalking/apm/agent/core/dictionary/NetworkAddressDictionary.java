@@ -19,16 +19,19 @@
 
 package org.apache.skywalking.apm.agent.core.dictionary;
 
-import io.netty.util.internal.ConcurrentSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.network.common.KeyIntValuePair;
 import org.apache.skywalking.apm.network.language.agent.*;
 import org.apache.skywalking.apm.network.register.v2.NetAddressMapping;
 import org.apache.skywalking.apm.network.register.v2.NetAddresses;
 import org.apache.skywalking.apm.network.register.v2.RegisterGrpc;
 
+import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.REGISTER_BATCH_SIZE;
+import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.REGISTER_TIMEOUT;
 import static org.apache.skywalking.apm.agent.core.conf.Config.Dictionary.SERVICE_CODE_BUFFER_SIZE;
 
 /**
@@ -39,29 +42,53 @@ import static org.apache.skywalking.apm.agent.core.conf.Config.Dictionary.SERVIC
 public enum NetworkAddressDictionary {
     INSTANCE;
     private Map<String, Integer> applicationDictionary = new ConcurrentHashMap<String, Integer>();
-    private Set<String> unRegisterServices = new ConcurrentSet<String>();
+    /**
+     * The network addresses to register, with the number of their hits, so the most used ones are registered first.
+     */
+    private Map<String, AtomicInteger> unRegisterServices = new ConcurrentHashMap<String, AtomicInteger>();
 
     public PossibleFound find(String networkAddress) {
         Integer applicationId = applicationDictionary.get(networkAddress);
         if (applicationId != null) {
             return new Found(applicationId);
         } else {
-            if (applicationDictionary.size() + unRegisterServices.size() < SERVICE_CODE_BUFFER_SIZE) {
-                unRegisterServices.add(networkAddress);
+            AtomicInteger hits = unRegisterServices.get(networkAddress);
+            if (hits == null && applicationDictionary.size() + unRegisterServices.size() < SERVICE_CODE_BUFFER_SIZE) {
+                hits = new AtomicInteger();
+                AtomicInteger existing = unRegisterServices.putIfAbsent(networkAddress, hits);
+                if (existing != null) {
+                    hits = existing;
+                }
+            }
+            if (hits != null) {
+                hits.incrementAndGet();
             }
             return new NotFound();
         }
     }
 
+    /**
+     * @return true, if any network address is waiting for registering.
+     */
+    public boolean hasUnregistered() {
+        return !unRegisterServices.isEmpty();
+    }
+
+    /**
+     * Register the network addresses in pages, the same as {@link EndpointNameDictionary#syncRemoteDictionary(RegisterGrpc.RegisterBlockingStub)}.
+     */
     public void syncRemoteDictionary(
         RegisterGrpc.RegisterBlockingStub networkAddressRegisterServiceBlockingStub) {
         if (unRegisterServices.size() > 0) {
-            NetAddressMapping networkAddressMappings = networkAddressRegisterServiceBlockingStub.doNetworkAddressRegister(
-                NetAddresses.newBuilder().addAllAddresses(unRegisterServices).build());
-            if (networkAddressMappings.getAddressIdsCount() > 0) {
-                for (KeyIntValuePair keyWithIntegerValue : networkAddressMappings.getAddressIdsList()) {
-                    unRegisterServices.remove(keyWithIntegerValue.getKey());
-                    applicationDictionary.put(keyWithIntegerValue.getKey(), keyWithIntegerValue.getValue());
+            for (List<String> page : DictionaryUtil.pagesByHits(unRegisterServices, REGISTER_BATCH_SIZE)) {
+                NetAddressMapping networkAddressMappings = networkAddressRegisterServiceBlockingStub
+                    .withDeadlineAfter(REGISTER_TIMEOUT, TimeUnit.SECONDS)
+                    .doNetworkAddressRegister(NetAddresses.newBuilder().addAllAddresses(page).build());
+                if (networkAddressMappings.getAddressIdsCount() > 0) {
+                    for (KeyIntValuePair keyWithIntegerValue : networkAddressMappings.getAddressIdsList()) {
+                        unRegisterServices.remove(keyWithIntegerValue.getKey());
+                        applicationDictionary.put(keyWithIntegerValue.getKey(), keyWithIntegerValue.getValue());
+                    }
                 }
             }
         }
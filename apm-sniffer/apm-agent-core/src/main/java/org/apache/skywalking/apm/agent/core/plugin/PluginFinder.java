@@ -19,18 +19,29 @@
 
 package org.apache.skywalking.apm.agent.core.plugin;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import net.bytebuddy.description.NamedElement;
+import net.bytebuddy.description.annotation.AnnotationDescription;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.ProtectiveShieldMatcher;
+import org.apache.skywalking.apm.util.StringUtil;
 
 import static net.bytebuddy.matcher.ElementMatchers.isInterface;
 import static net.bytebuddy.matcher.ElementMatchers.not;
@@ -38,12 +49,26 @@ import static net.bytebuddy.matcher.ElementMatchers.not;
 /**
  * The <code>PluginFinder</code> represents a finder , which assist to find the one
  * from the given {@link AbstractClassEnhancePluginDefine} list.
+ * <p>
+ * The plugins are indexed by the class names, the class annotations and the super types they match, so a class is
+ * only checked by the plugins it could match. The classes under the {@link #EXCLUDE_CLASS_PREFIXES} and {@link
+ * Config.Agent#EXCLUDE_CLASS_PREFIXES} are only checked by the class names.
  *
  * @author wusheng
  */
 public class PluginFinder {
+    private static final String[] EXCLUDE_CLASS_PREFIXES = {
+        "java.", "javax.", "jdk.", "sun.", "com.sun.", "net.bytebuddy.", "org.apache.skywalking.apm.dependencies."
+    };
+
     private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> nameMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
+    private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> multiClassNameMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
+    private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> classAnnotationMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
+    private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> hierarchyMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
     private final List<AbstractClassEnhancePluginDefine> signatureMatchDefine = new LinkedList<AbstractClassEnhancePluginDefine>();
+    private final List<AbstractClassEnhancePluginDefine> indirectMatchDefine = new LinkedList<AbstractClassEnhancePluginDefine>();
+    private final Map<AbstractClassEnhancePluginDefine, Integer> pluginOrder = new IdentityHashMap<AbstractClassEnhancePluginDefine, Integer>();
+    private final String[] excludeClassPrefixes;
 
     public PluginFinder(List<AbstractClassEnhancePluginDefine> plugins) {
         for (AbstractClassEnhancePluginDefine plugin : plugins) {
@@ -53,18 +78,53 @@ public class PluginFinder {
                 continue;
             }
 
+            /**
+             * Same order as the plugins are listed, the ones matching the class name first.
+             */
             if (match instanceof NameMatch) {
                 NameMatch nameMatch = (NameMatch)match;
-                LinkedList<AbstractClassEnhancePluginDefine> pluginDefines = nameMatchDefine.get(nameMatch.getClassName());
-                if (pluginDefines == null) {
-                    pluginDefines = new LinkedList<AbstractClassEnhancePluginDefine>();
-                    nameMatchDefine.put(nameMatch.getClassName(), pluginDefines);
+                index(nameMatchDefine, nameMatch.getClassName(), plugin);
+                pluginOrder.put(plugin, pluginOrder.size());
+                continue;
+            }
+
+            pluginOrder.put(plugin, plugins.size() + pluginOrder.size());
+            indirectMatchDefine.add(plugin);
+            if (match instanceof MultiClassNameMatch) {
+                for (String className : ((MultiClassNameMatch)match).getMatchClassNames()) {
+                    index(multiClassNameMatchDefine, className, plugin);
                 }
-                pluginDefines.add(plugin);
+            } else if (match instanceof ClassAnnotationMatch) {
+                index(classAnnotationMatchDefine, ((ClassAnnotationMatch)match).getAnnotations()[0], plugin);
+            } else if (match instanceof HierarchyMatch) {
+                index(hierarchyMatchDefine, ((HierarchyMatch)match).getParentTypes()[0], plugin);
             } else {
                 signatureMatchDefine.add(plugin);
             }
         }
+
+        List<String> excludeClassPrefixes = new ArrayList<String>();
+        Collections.addAll(excludeClassPrefixes, EXCLUDE_CLASS_PREFIXES);
+        if (!StringUtil.isEmpty(Config.Agent.EXCLUDE_CLASS_PREFIXES)) {
+            for (String prefix : Config.Agent.EXCLUDE_CLASS_PREFIXES.split(",")) {
+                if (!StringUtil.isEmpty(prefix.trim())) {
+                    excludeClassPrefixes.add(prefix.trim());
+                }
+            }
+        }
+        this.excludeClassPrefixes = excludeClassPrefixes.toArray(new String[excludeClassPrefixes.size()]);
+    }
+
+    private void index(Map<String, LinkedList<AbstractClassEnhancePluginDefine>> defines, String key,
+        AbstractClassEnhancePluginDefine plugin) {
+        LinkedList<AbstractClassEnhancePluginDefine> pluginDefines = defines.get(key);
+        if (pluginDefines == null) {
+            pluginDefines = new LinkedList<AbstractClassEnhancePluginDefine>();
+            defines.put(key, pluginDefines);
+        }
+        if (!pluginDefines.contains(plugin)) {
+            pluginDefines.add(plugin);
+        }
     }
 
     public List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription,
@@ -74,15 +134,61 @@ public class PluginFinder {
         if (nameMatchDefine.containsKey(typeName)) {
             matchedPlugins.addAll(nameMatchDefine.get(typeName));
         }
+        if (multiClassNameMatchDefine.containsKey(typeName)) {
+            matchedPlugins.addAll(multiClassNameMatchDefine.get(typeName));
+        }
+
+        if (!isExcluded(typeName)) {
+            if (!classAnnotationMatchDefine.isEmpty()) {
+                for (AnnotationDescription annotation : typeDescription.getDeclaredAnnotations()) {
+                    List<AbstractClassEnhancePluginDefine> pluginDefines = classAnnotationMatchDefine.get(annotation.getAnnotationType().getActualName());
+                    if (pluginDefines != null) {
+                        addMatched(pluginDefines, typeDescription, matchedPlugins);
+                    }
+                }
+            }
+
+            if (!hierarchyMatchDefine.isEmpty()) {
+                Set<String> superTypeNames = HierarchyMatch.allSuperTypeNames(typeDescription);
+                for (String superTypeName : superTypeNames) {
+                    List<AbstractClassEnhancePluginDefine> pluginDefines = hierarchyMatchDefine.get(superTypeName);
+                    if (pluginDefines != null) {
+                        addMatched(pluginDefines, typeDescription, matchedPlugins);
+                    }
+                }
+            }
+
+            addMatched(signatureMatchDefine, typeDescription, matchedPlugins);
+        }
+
+        if (matchedPlugins.size() > 1) {
+            Collections.sort(matchedPlugins, new Comparator<AbstractClassEnhancePluginDefine>() {
+                @Override
+                public int compare(AbstractClassEnhancePluginDefine o1, AbstractClassEnhancePluginDefine o2) {
+                    return pluginOrder.get(o1).compareTo(pluginOrder.get(o2));
+                }
+            });
+        }
+        return matchedPlugins;
+    }
 
-        for (AbstractClassEnhancePluginDefine pluginDefine : signatureMatchDefine) {
+    private void addMatched(List<AbstractClassEnhancePluginDefine> pluginDefines, TypeDescription typeDescription,
+        List<AbstractClassEnhancePluginDefine> matchedPlugins) {
+        for (AbstractClassEnhancePluginDefine pluginDefine : pluginDefines) {
             IndirectMatch match = (IndirectMatch)pluginDefine.enhanceClass();
             if (match.isMatch(typeDescription)) {
                 matchedPlugins.add(pluginDefine);
             }
         }
+    }
 
-        return matchedPlugins;
+    private boolean isExcluded(String typeName) {
+        for (String prefix : excludeClassPrefixes) {
+            if (typeName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public ElementMatcher<? super TypeDescription> buildMatch() {
@@ -93,12 +199,27 @@ public class PluginFinder {
             }
         };
         judge = judge.and(not(isInterface()));
-        for (AbstractClassEnhancePluginDefine define : signatureMatchDefine) {
-            ClassMatch match = define.enhanceClass();
-            if (match instanceof IndirectMatch) {
-                judge = judge.or(((IndirectMatch)match).buildJunction());
+
+        ElementMatcher.Junction indirectJudge = null;
+        for (AbstractClassEnhancePluginDefine define : indirectMatchDefine) {
+            IndirectMatch match = (IndirectMatch)define.enhanceClass();
+            if (match instanceof MultiClassNameMatch) {
+                judge = judge.or(match.buildJunction());
+            } else if (indirectJudge == null) {
+                indirectJudge = match.buildJunction();
+            } else {
+                indirectJudge = indirectJudge.or(match.buildJunction());
             }
         }
+        if (indirectJudge != null) {
+            ElementMatcher.Junction notExcluded = new AbstractJunction<NamedElement>() {
+                @Override
+                public boolean matches(NamedElement target) {
+                    return !isExcluded(target.getActualName());
+                }
+            };
+            judge = judge.or(notExcluded.and(indirectJudge));
+        }
         return new ProtectiveShieldMatcher(judge);
     }
 }
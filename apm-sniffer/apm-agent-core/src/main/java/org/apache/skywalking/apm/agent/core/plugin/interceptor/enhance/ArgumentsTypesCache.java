@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+
+/**
+ * Keep the argument types of the last intercepted method, as {@link Method#getParameterTypes()} clones the array in
+ * every call. Byte-buddy caches the {@link Method} of the <code>@Origin</code> parameter, so the same instance is
+ * passed in every call of the same method, and one intercept point usually matches one method only.
+ *
+ * The cached array is shared by all the calls, the interceptors must not change it.
+ */
+class ArgumentsTypesCache {
+    private volatile Entry last;
+
+    Class<?>[] get(Method method) {
+        Entry entry = last;
+        if (entry == null || entry.method != method) {
+            entry = new Entry(method, method.getParameterTypes());
+            last = entry;
+        }
+        return entry.argumentsTypes;
+    }
+
+    private static class Entry {
+        private final Method method;
+        private final Class<?>[] argumentsTypes;
+
+        private Entry(Method method, Class<?>[] argumentsTypes) {
+            this.method = method;
+            this.argumentsTypes = argumentsTypes;
+        }
+    }
+}
@@ -43,6 +43,8 @@ public class ConstructorInter {
      */
     private InstanceConstructorInterceptor interceptor;
 
+    private final InterceptFailureLogger failureLogger = new InterceptFailureLogger(logger, "class[{}] {} intercept failure, {} time(s)");
+
     /**
      * @param constructorInterceptorClassName class full name.
      */
@@ -68,7 +70,7 @@ public class ConstructorInter {
 
             interceptor.onConstruct(targetObject, allArguments);
         } catch (Throwable t) {
-            logger.error("ConstructorInter failure.", t);
+            failureLogger.log(t, obj.getClass(), "constructor");
         }
 
     }
@@ -47,6 +47,11 @@ public class InstMethodsInter {
      */
     private InstanceMethodsAroundInterceptor interceptor;
 
+    private final ArgumentsTypesCache argumentsTypesCache = new ArgumentsTypesCache();
+    private final InterceptFailureLogger beforeFailureLogger = new InterceptFailureLogger(logger, "class[{}] before method[{}] intercept failure, {} time(s)");
+    private final InterceptFailureLogger exceptionFailureLogger = new InterceptFailureLogger(logger, "class[{}] handle method[{}] exception failure, {} time(s)");
+    private final InterceptFailureLogger afterFailureLogger = new InterceptFailureLogger(logger, "class[{}] after method[{}] intercept failure, {} time(s)");
+
     /**
      * @param instanceMethodsAroundInterceptorClassName class full name.
      */
@@ -76,36 +81,41 @@ public class InstMethodsInter {
         @Origin Method method
     ) throws Throwable {
         EnhancedInstance targetObject = (EnhancedInstance)obj;
+        Class<?>[] argumentsTypes = argumentsTypesCache.get(method);
 
-        MethodInterceptResult result = new MethodInterceptResult();
+        boolean isContinue;
+        Object ret = null;
+        MethodInterceptResult result = MethodInterceptResult.acquire();
         try {
-            interceptor.beforeMethod(targetObject, method, allArguments, method.getParameterTypes(),
-                result);
-        } catch (Throwable t) {
-            logger.error(t, "class[{}] before method[{}] intercept failure", obj.getClass(), method.getName());
+            try {
+                interceptor.beforeMethod(targetObject, method, allArguments, argumentsTypes, result);
+            } catch (Throwable t) {
+                beforeFailureLogger.log(t, obj.getClass(), method.getName());
+            }
+            isContinue = result.isContinue();
+            if (!isContinue) {
+                ret = result._ret();
+            }
+        } finally {
+            MethodInterceptResult.release();
         }
 
-        Object ret = null;
         try {
-            if (!result.isContinue()) {
-                ret = result._ret();
-            } else {
+            if (isContinue) {
                 ret = zuper.call();
             }
         } catch (Throwable t) {
             try {
-                interceptor.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(),
-                    t);
+                interceptor.handleMethodException(targetObject, method, allArguments, argumentsTypes, t);
             } catch (Throwable t2) {
-                logger.error(t2, "class[{}] handle method[{}] exception failure", obj.getClass(), method.getName());
+                exceptionFailureLogger.log(t2, obj.getClass(), method.getName());
             }
             throw t;
         } finally {
             try {
-                ret = interceptor.afterMethod(targetObject, method, allArguments, method.getParameterTypes(),
-                    ret);
+                ret = interceptor.afterMethod(targetObject, method, allArguments, argumentsTypes, ret);
             } catch (Throwable t) {
-                logger.error(t, "class[{}] after method[{}] intercept failure", obj.getClass(), method.getName());
+                afterFailureLogger.log(t, obj.getClass(), method.getName());
             }
         }
         return ret;
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+
+/**
+ * Log the failures of one interceptor step. A broken interceptor usually fails in every call, so only the first
+ * failure and every {@link #LOG_INTERVAL}th one are logged, with the count so far.
+ */
+class InterceptFailureLogger {
+    private static final long LOG_INTERVAL = 1000;
+
+    private final ILog logger;
+    private final String format;
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * @param format with three placeholders, the class, the method name and the failure count.
+     */
+    InterceptFailureLogger(ILog logger, String format) {
+        this.logger = logger;
+        this.format = format;
+    }
+
+    void log(Throwable t, Object clazz, String methodName) {
+        long count = failures.incrementAndGet();
+        if (count == 1 || count % LOG_INTERVAL == 0) {
+            logger.error(t, format, clazz, methodName, count);
+        }
+    }
+}
@@ -30,6 +30,16 @@ import java.lang.reflect.Method;
  * @author wusheng
  */
 public class MethodInterceptResult {
+    /**
+     * The results in use by the current thread, one per intercepted method in the stack, as an interceptor could
+     * call another intercepted method in its #beforeMethod.
+     */
+    private static final ThreadLocal<ResultStack> RESULT_STACK = new ThreadLocal<ResultStack>() {
+        @Override protected ResultStack initialValue() {
+            return new ResultStack();
+        }
+    };
+
     private boolean isContinue = true;
 
     private Object ret = null;
@@ -58,4 +68,44 @@ public class MethodInterceptResult {
     Object _ret() {
         return ret;
     }
+
+    /**
+     * Take a reset result of the current thread, it must be given back by {@link #release()} in the same thread, once
+     * the #beforeMethod has been called.
+     */
+    static MethodInterceptResult acquire() {
+        return RESULT_STACK.get().push();
+    }
+
+    static void release() {
+        RESULT_STACK.get().pop();
+    }
+
+    private static class ResultStack {
+        private MethodInterceptResult[] results = new MethodInterceptResult[4];
+        private int depth;
+
+        private MethodInterceptResult push() {
+            if (depth == results.length) {
+                MethodInterceptResult[] expanded = new MethodInterceptResult[results.length * 2];
+                System.arraycopy(results, 0, expanded, 0, results.length);
+                results = expanded;
+            }
+            MethodInterceptResult result = results[depth];
+            if (result == null) {
+                result = new MethodInterceptResult();
+                results[depth] = result;
+            } else {
+                result.isContinue = true;
+                result.ret = null;
+            }
+            depth++;
+            return result;
+        }
+
+        private void pop() {
+            depth--;
+            results[depth].ret = null;
+        }
+    }
 }
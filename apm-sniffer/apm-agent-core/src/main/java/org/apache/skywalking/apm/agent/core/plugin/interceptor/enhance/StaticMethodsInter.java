@@ -45,6 +45,12 @@ public class StaticMethodsInter {
      */
     private String staticMethodsAroundInterceptorClassName;
 
+    private volatile LoadedInterceptor loadedInterceptor;
+    private final ArgumentsTypesCache argumentsTypesCache = new ArgumentsTypesCache();
+    private final InterceptFailureLogger beforeFailureLogger = new InterceptFailureLogger(logger, "class[{}] before static method[{}] intercept failure, {} time(s)");
+    private final InterceptFailureLogger exceptionFailureLogger = new InterceptFailureLogger(logger, "class[{}] handle static method[{}] exception failure, {} time(s)");
+    private final InterceptFailureLogger afterFailureLogger = new InterceptFailureLogger(logger, "class[{}] after static method[{}] intercept failure, {} time(s)");
+
     /**
      * Set the name of {@link StaticMethodsInter#staticMethodsAroundInterceptorClassName}
      *
@@ -68,37 +74,67 @@ public class StaticMethodsInter {
     @RuntimeType
     public Object intercept(@Origin Class<?> clazz, @AllArguments Object[] allArguments, @Origin Method method,
         @SuperCall Callable<?> zuper) throws Throwable {
-        StaticMethodsAroundInterceptor interceptor = InterceptorInstanceLoader
-            .load(staticMethodsAroundInterceptorClassName, clazz.getClassLoader());
+        StaticMethodsAroundInterceptor interceptor = getInterceptor(clazz.getClassLoader());
+        Class<?>[] argumentsTypes = argumentsTypesCache.get(method);
 
-        MethodInterceptResult result = new MethodInterceptResult();
+        boolean isContinue;
+        Object ret = null;
+        MethodInterceptResult result = MethodInterceptResult.acquire();
         try {
-            interceptor.beforeMethod(clazz, method, allArguments, method.getParameterTypes(), result);
-        } catch (Throwable t) {
-            logger.error(t, "class[{}] before static method[{}] intercept failure", clazz, method.getName());
+            try {
+                interceptor.beforeMethod(clazz, method, allArguments, argumentsTypes, result);
+            } catch (Throwable t) {
+                beforeFailureLogger.log(t, clazz, method.getName());
+            }
+            isContinue = result.isContinue();
+            if (!isContinue) {
+                ret = result._ret();
+            }
+        } finally {
+            MethodInterceptResult.release();
         }
 
-        Object ret = null;
         try {
-            if (!result.isContinue()) {
-                ret = result._ret();
-            } else {
+            if (isContinue) {
                 ret = zuper.call();
             }
         } catch (Throwable t) {
             try {
-                interceptor.handleMethodException(clazz, method, allArguments, method.getParameterTypes(), t);
+                interceptor.handleMethodException(clazz, method, allArguments, argumentsTypes, t);
             } catch (Throwable t2) {
-                logger.error(t2, "class[{}] handle static method[{}] exception failure", clazz, method.getName(), t2.getMessage());
+                exceptionFailureLogger.log(t2, clazz, method.getName());
             }
             throw t;
         } finally {
             try {
-                ret = interceptor.afterMethod(clazz, method, allArguments, method.getParameterTypes(), ret);
+                ret = interceptor.afterMethod(clazz, method, allArguments, argumentsTypes, ret);
             } catch (Throwable t) {
-                logger.error(t, "class[{}] after static method[{}] intercept failure:{}", clazz, method.getName(), t.getMessage());
+                afterFailureLogger.log(t, clazz, method.getName());
             }
         }
         return ret;
     }
+
+    /**
+     * The interceptor is loaded on the first call, as the target class loader is unknown before. It is kept with the
+     * class loader it is loaded for, in case this intercept point is shared by the classes of several class loaders.
+     */
+    private StaticMethodsAroundInterceptor getInterceptor(ClassLoader classLoader) throws Throwable {
+        LoadedInterceptor loaded = loadedInterceptor;
+        if (loaded == null || loaded.classLoader != classLoader) {
+            loaded = new LoadedInterceptor(classLoader, InterceptorInstanceLoader.<StaticMethodsAroundInterceptor>load(staticMethodsAroundInterceptorClassName, classLoader));
+            loadedInterceptor = loaded;
+        }
+        return loaded.interceptor;
+    }
+
+    private static class LoadedInterceptor {
+        private final ClassLoader classLoader;
+        private final StaticMethodsAroundInterceptor interceptor;
+
+        private LoadedInterceptor(ClassLoader classLoader, StaticMethodsAroundInterceptor interceptor) {
+            this.classLoader = classLoader;
+            this.interceptor = interceptor;
+        }
+    }
 }
@@ -18,21 +18,23 @@
 
 package org.apache.skywalking.apm.agent.core.plugin.loader;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.Arrays;
 import java.util.Enumeration;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
@@ -58,8 +60,8 @@ public class AgentClassLoader extends ClassLoader {
     private static AgentClassLoader DEFAULT_LOADER;
 
     private List<File> classpath;
-    private List<Jar> allJars;
-    private ReentrantLock jarScanLock = new ReentrantLock();
+    private volatile JarIndex jarIndex;
+    private final ConcurrentHashMap<JarIndex.Jar, ProtectionDomain> protectionDomains = new ConcurrentHashMap<JarIndex.Jar, ProtectionDomain>();
 
     /**
      * Functional Description: solve the classloader dead lock when jvm start
@@ -111,44 +113,22 @@ public class AgentClassLoader extends ClassLoader {
         classpath.add(new File(agentDictionary, "activations"));
     }
 
+    AgentClassLoader(ClassLoader parent, List<File> classpath) {
+        super(parent);
+        this.classpath = classpath;
+    }
+
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
-        List<Jar> allJars = getAllJars();
         String path = name.replace('.', '/').concat(".class");
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(path);
-            if (entry != null) {
-                try {
-                    URL classFileUrl = new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + path);
-                    byte[] data = null;
-                    BufferedInputStream is = null;
-                    ByteArrayOutputStream baos = null;
-                    try {
-                        is = new BufferedInputStream(classFileUrl.openStream());
-                        baos = new ByteArrayOutputStream();
-                        int ch = 0;
-                        while ((ch = is.read()) != -1) {
-                            baos.write(ch);
-                        }
-                        data = baos.toByteArray();
-                    } finally {
-                        if (is != null)
-                            try {
-                                is.close();
-                            } catch (IOException ignored) {
-                            }
-                        if (baos != null)
-                            try {
-                                baos.close();
-                            } catch (IOException ignored) {
-                            }
-                    }
-                    return defineClass(name, data, 0, data.length);
-                } catch (MalformedURLException e) {
-                    logger.error(e, "find class fail.");
-                } catch (IOException e) {
-                    logger.error(e, "find class fail.");
-                }
+        JarIndex.Entry entry = getJarIndex().find(path);
+        if (entry != null) {
+            try {
+                byte[] data = readEntry(entry);
+                definePackage(name, entry.jar);
+                return defineClass(name, data, 0, data.length, getProtectionDomain(entry.jar));
+            } catch (IOException e) {
+                logger.error(e, "find class fail.");
             }
         }
         throw new ClassNotFoundException("Can't find " + name);
@@ -156,15 +136,12 @@ public class AgentClassLoader extends ClassLoader {
 
     @Override
     protected URL findResource(String name) {
-        List<Jar> allJars = getAllJars();
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(name);
-            if (entry != null) {
-                try {
-                    return new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name);
-                } catch (MalformedURLException e) {
-                    continue;
-                }
+        JarIndex.Entry entry = getJarIndex().find(name);
+        if (entry != null) {
+            try {
+                return entry.toURL();
+            } catch (MalformedURLException e) {
+                return null;
             }
         }
         return null;
@@ -172,71 +149,107 @@ public class AgentClassLoader extends ClassLoader {
 
     @Override
     protected Enumeration<URL> findResources(String name) throws IOException {
-        List<URL> allResources = new LinkedList<URL>();
-        List<Jar> allJars = getAllJars();
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(name);
-            if (entry != null) {
-                allResources.add(new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name));
-            }
-        }
-
-        final Iterator<URL> iterator = allResources.iterator();
+        final JarIndex.Entry[] entries = getJarIndex().findAll(name);
         return new Enumeration<URL>() {
+            private int index = 0;
+
             @Override
             public boolean hasMoreElements() {
-                return iterator.hasNext();
+                return entries != null && index < entries.length;
             }
 
             @Override
             public URL nextElement() {
-                return iterator.next();
+                if (!hasMoreElements()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return entries[index++].toURL();
+                } catch (MalformedURLException e) {
+                    throw new IllegalStateException(e);
+                }
             }
         };
     }
 
-    private List<Jar> getAllJars() {
-        if (allJars == null) {
-            jarScanLock.lock();
-            try {
-                if (allJars == null) {
-                    allJars = new LinkedList<Jar>();
-                    for (File path : classpath) {
-                        if (path.exists() && path.isDirectory()) {
-                            String[] jarFileNames = path.list(new FilenameFilter() {
-                                @Override
-                                public boolean accept(File dir, String name) {
-                                    return name.endsWith(".jar");
-                                }
-                            });
-                            for (String fileName : jarFileNames) {
-                                try {
-                                    File file = new File(path, fileName);
-                                    Jar jar = new Jar(new JarFile(file), file);
-                                    allJars.add(jar);
-                                    logger.info("{} loaded.", file.toString());
-                                } catch (IOException e) {
-                                    logger.error(e, "{} jar file can't be resolved", fileName);
-                                }
-                            }
-                        }
+    /**
+     * Read the entry in bulk, into an array of the entry size when the jar knows it.
+     */
+    private byte[] readEntry(JarIndex.Entry entry) throws IOException {
+        InputStream is = entry.jar.jarFile.getInputStream(entry.jarEntry);
+        try {
+            long size = entry.jarEntry.getSize();
+            byte[] data = new byte[size >= 0 ? (int)size : 4096];
+            int length = 0;
+            while (true) {
+                if (length == data.length) {
+                    if (size >= 0) {
+                        break;
                     }
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+                int read = is.read(data, length, data.length - length);
+                if (read < 0) {
+                    break;
                 }
-            } finally {
-                jarScanLock.unlock();
+                length += read;
+            }
+            return length == data.length ? data : Arrays.copyOf(data, length);
+        } finally {
+            try {
+                is.close();
+            } catch (IOException ignored) {
             }
         }
+    }
 
-        return allJars;
+    private void definePackage(String className, JarIndex.Jar jar) {
+        int lastDot = className.lastIndexOf('.');
+        if (lastDot < 0) {
+            return;
+        }
+        String packageName = className.substring(0, lastDot);
+        if (getPackage(packageName) != null) {
+            return;
+        }
+        try {
+            Manifest manifest = jar.getManifest();
+            if (manifest == null) {
+                definePackage(packageName, null, null, null, null, null, null, null);
+            } else {
+                Attributes attributes = manifest.getMainAttributes();
+                definePackage(packageName,
+                    attributes.getValue(Attributes.Name.SPECIFICATION_TITLE),
+                    attributes.getValue(Attributes.Name.SPECIFICATION_VERSION),
+                    attributes.getValue(Attributes.Name.SPECIFICATION_VENDOR),
+                    attributes.getValue(Attributes.Name.IMPLEMENTATION_TITLE),
+                    attributes.getValue(Attributes.Name.IMPLEMENTATION_VERSION),
+                    attributes.getValue(Attributes.Name.IMPLEMENTATION_VENDOR),
+                    null);
+            }
+        } catch (IllegalArgumentException ignored) {
+            /**
+             * Defined by another thread in the meantime.
+             */
+        }
     }
 
-    private class Jar {
-        private JarFile jarFile;
-        private File sourceFile;
+    private ProtectionDomain getProtectionDomain(JarIndex.Jar jar) {
+        ProtectionDomain protectionDomain = protectionDomains.get(jar);
+        if (protectionDomain == null) {
+            protectionDomain = new ProtectionDomain(new CodeSource(jar.url, (Certificate[])null), null, this, null);
+            ProtectionDomain existing = protectionDomains.putIfAbsent(jar, protectionDomain);
+            if (existing != null) {
+                protectionDomain = existing;
+            }
+        }
+        return protectionDomain;
+    }
 
-        private Jar(JarFile jarFile, File sourceFile) {
-            this.jarFile = jarFile;
-            this.sourceFile = sourceFile;
+    private JarIndex getJarIndex() {
+        if (jarIndex == null) {
+            jarIndex = JarIndex.of(classpath);
         }
+        return jarIndex;
     }
 }
@@ -20,14 +20,14 @@
 package org.apache.skywalking.apm.agent.core.plugin.loader;
 
 import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
-import org.apache.skywalking.apm.agent.core.logging.api.ILog;
-import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 
+import java.io.File;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The <code>InterceptorInstanceLoader</code> is a classes finder and container.
@@ -35,14 +35,17 @@ import java.util.concurrent.locks.ReentrantLock;
  * This is a very important class in sky-walking's auto-instrumentation mechanism. If you want to fully understand why
  * need this, and how it works, you need have knowledge about Classloader appointment mechanism.
  * <p>
+ * One {@link AgentClassLoader} is created for each target class loader, and the interceptor instances are kept for each
+ * target class loader, until the target class loader is released. Nothing here holds a target class loader, an agent
+ * class loader or an interceptor strongly, as any of them would hold the target class loader through the parent
+ * delegation. The enhanced classes hold their interceptors, and the interceptors defined by an agent class loader hold
+ * it, so an interceptor is not created twice for the same target class loader while it is in use.
+ * <p>
  * Created by wusheng on 16/8/2.
  */
 public class InterceptorInstanceLoader {
-    private static final ILog logger = LogManager.getLogger(InterceptorInstanceLoader.class);
-
-    private static ConcurrentHashMap<String, Object> INSTANCE_CACHE = new ConcurrentHashMap<String, Object>();
-    private static ReentrantLock INSTANCE_LOAD_LOCK = new ReentrantLock();
-    private static Map<ClassLoader, ClassLoader> EXTEND_PLUGIN_CLASSLOADERS = new HashMap<ClassLoader, ClassLoader>();
+    private static final ConcurrentHashMap<TargetClassLoaderKey, PluginLoaderEntry> EXTEND_PLUGIN_CLASSLOADERS = new ConcurrentHashMap<TargetClassLoaderKey, PluginLoaderEntry>();
+    private static final ReferenceQueue<ClassLoader> RELEASED_CLASSLOADERS = new ReferenceQueue<ClassLoader>();
 
     /**
      * Load an instance of interceptor, and keep it singleton.
@@ -61,28 +64,113 @@ public class InterceptorInstanceLoader {
      */
     public static <T> T load(String className, ClassLoader targetClassLoader)
             throws InvocationTargetException, IllegalAccessException, InstantiationException, ClassNotFoundException, AgentPackageNotFoundException {
+        return load(className, targetClassLoader, null);
+    }
+
+    /**
+     * @param classpath the plugin folders of the {@link AgentClassLoader} created for the target class loader, or null
+     *                  for the plugins and activations folders of the agent package.
+     */
+    static <T> T load(String className, ClassLoader targetClassLoader, List<File> classpath)
+            throws InvocationTargetException, IllegalAccessException, InstantiationException, ClassNotFoundException, AgentPackageNotFoundException {
         if (targetClassLoader == null) {
             targetClassLoader = InterceptorInstanceLoader.class.getClassLoader();
         }
-        String instanceKey = className + "_OF_" + targetClassLoader.getClass().getName() + "@" + Integer.toHexString(targetClassLoader.hashCode());
-        Object inst = INSTANCE_CACHE.get(instanceKey);
-        if (inst == null) {
-            INSTANCE_LOAD_LOCK.lock();
-            try {
-                ClassLoader pluginLoader = EXTEND_PLUGIN_CLASSLOADERS.get(targetClassLoader);
-                if (pluginLoader == null) {
-                    pluginLoader = new AgentClassLoader(targetClassLoader);
-                    EXTEND_PLUGIN_CLASSLOADERS.put(targetClassLoader, pluginLoader);
-                }
-                inst = Class.forName(className, true, pluginLoader).newInstance();
-            } finally {
-                INSTANCE_LOAD_LOCK.unlock();
+        expungeReleasedClassLoaders();
+
+        PluginLoaderEntry entry = getEntry(targetClassLoader);
+        WeakReference<Object> reference = entry.instances.get(className);
+        Object inst = reference == null ? null : reference.get();
+        if (inst != null) {
+            return (T) inst;
+        }
+
+        AgentClassLoader pluginLoader = entry.getPluginLoader(targetClassLoader, classpath);
+        inst = Class.forName(className, true, pluginLoader).newInstance();
+        WeakReference<Object> created = new WeakReference<Object>(inst);
+        while (true) {
+            WeakReference<Object> existing = entry.instances.putIfAbsent(className, created);
+            if (existing == null) {
+                return (T) inst;
             }
-            if (inst != null) {
-                INSTANCE_CACHE.put(instanceKey, inst);
+            Object existingInst = existing.get();
+            if (existingInst != null) {
+                return (T) existingInst;
+            }
+            if (entry.instances.replace(className, existing, created)) {
+                return (T) inst;
+            }
+        }
+    }
+
+    /**
+     * No lock is held while the entry is created, a concurrent loser of the creation is dropped.
+     */
+    private static PluginLoaderEntry getEntry(ClassLoader targetClassLoader) {
+        PluginLoaderEntry entry = EXTEND_PLUGIN_CLASSLOADERS.get(new TargetClassLoaderKey(targetClassLoader, null));
+        if (entry != null) {
+            return entry;
+        }
+
+        entry = new PluginLoaderEntry();
+        PluginLoaderEntry existing = EXTEND_PLUGIN_CLASSLOADERS.putIfAbsent(new TargetClassLoaderKey(targetClassLoader, RELEASED_CLASSLOADERS), entry);
+        return existing == null ? entry : existing;
+    }
+
+    private static void expungeReleasedClassLoaders() {
+        Reference<? extends ClassLoader> released;
+        while ((released = RELEASED_CLASSLOADERS.poll()) != null) {
+            EXTEND_PLUGIN_CLASSLOADERS.remove(released);
+        }
+    }
+
+    /**
+     * The agent class loader and the interceptor instances of a target class loader, all weakly referenced.
+     */
+    private static class PluginLoaderEntry {
+        private final ConcurrentHashMap<String, WeakReference<Object>> instances = new ConcurrentHashMap<String, WeakReference<Object>>();
+        private WeakReference<AgentClassLoader> pluginLoader;
+
+        /**
+         * Only called when the interceptor is not loaded yet, so the lock is not held on the loaded ones.
+         */
+        private synchronized AgentClassLoader getPluginLoader(ClassLoader targetClassLoader,
+            List<File> classpath) throws AgentPackageNotFoundException {
+            AgentClassLoader loader = pluginLoader == null ? null : pluginLoader.get();
+            if (loader == null) {
+                loader = classpath == null ? new AgentClassLoader(targetClassLoader) : new AgentClassLoader(targetClassLoader, classpath);
+                pluginLoader = new WeakReference<AgentClassLoader>(loader);
             }
+            return loader;
         }
+    }
 
-        return (T) inst;
+    /**
+     * Identify the target class loader by identity, without holding it.
+     */
+    private static class TargetClassLoaderKey extends WeakReference<ClassLoader> {
+        private final int hashCode;
+
+        private TargetClassLoaderKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            this.hashCode = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TargetClassLoaderKey)) {
+                return false;
+            }
+            ClassLoader classLoader = get();
+            return classLoader != null && classLoader == ((TargetClassLoaderKey)o).get();
+        }
     }
 }
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * The entries of all the jars in the plugin folders, by entry name. The folders are scanned once, all the {@link
+ * AgentClassLoader}s of the same folders share the index.
+ * <p>
+ * When several jars include the same entry, they are kept in the scan order, so the first jar wins.
+ */
+class JarIndex {
+    private static final ILog logger = LogManager.getLogger(JarIndex.class);
+
+    private static final Map<List<File>, JarIndex> INDEXES = new HashMap<List<File>, JarIndex>();
+
+    private final Map<String, Entry[]> entries = new HashMap<String, Entry[]>();
+
+    static synchronized JarIndex of(List<File> classpath) {
+        JarIndex index = INDEXES.get(classpath);
+        if (index == null) {
+            index = new JarIndex(classpath);
+            INDEXES.put(classpath, index);
+        }
+        return index;
+    }
+
+    private JarIndex(List<File> classpath) {
+        for (File path : classpath) {
+            if (path.exists() && path.isDirectory()) {
+                String[] jarFileNames = path.list(new FilenameFilter() {
+                    @Override
+                    public boolean accept(File dir, String name) {
+                        return name.endsWith(".jar");
+                    }
+                });
+                for (String fileName : jarFileNames) {
+                    try {
+                        File file = new File(path, fileName);
+                        index(new Jar(new JarFile(file), file));
+                        logger.info("{} loaded.", file.toString());
+                    } catch (IOException e) {
+                        logger.error(e, "{} jar file can't be resolved", fileName);
+                    }
+                }
+            }
+        }
+    }
+
+    private void index(Jar jar) {
+        Enumeration<JarEntry> jarEntries = jar.jarFile.entries();
+        while (jarEntries.hasMoreElements()) {
+            JarEntry jarEntry = jarEntries.nextElement();
+            Entry entry = new Entry(jar, jarEntry);
+            Entry[] existing = entries.get(jarEntry.getName());
+            if (existing == null) {
+                entries.put(jarEntry.getName(), new Entry[] {entry});
+            } else {
+                Entry[] expanded = new Entry[existing.length + 1];
+                System.arraycopy(existing, 0, expanded, 0, existing.length);
+                expanded[existing.length] = entry;
+                entries.put(jarEntry.getName(), expanded);
+            }
+        }
+    }
+
+    /**
+     * @return the entry of the first jar including it, or null.
+     */
+    Entry find(String name) {
+        Entry[] found = entries.get(name);
+        return found == null ? null : found[0];
+    }
+
+    /**
+     * @return the entries of all the jars including it, in the jar order, or null.
+     */
+    Entry[] findAll(String name) {
+        return entries.get(name);
+    }
+
+    static class Jar {
+        final JarFile jarFile;
+        final File sourceFile;
+        final URL url;
+        private final String entryUrlPrefix;
+        private volatile Manifest manifest;
+        private volatile boolean manifestRead;
+
+        private Jar(JarFile jarFile, File sourceFile) throws MalformedURLException {
+            this.jarFile = jarFile;
+            this.sourceFile = sourceFile;
+            this.url = sourceFile.toURI().toURL();
+            this.entryUrlPrefix = "jar:file:" + sourceFile.getAbsolutePath() + "!/";
+        }
+
+        /**
+         * @return the manifest of the jar, or null if the jar has none.
+         */
+        Manifest getManifest() {
+            if (!manifestRead) {
+                try {
+                    manifest = jarFile.getManifest();
+                } catch (IOException e) {
+                    logger.error(e, "{} manifest can't be read", sourceFile);
+                }
+                manifestRead = true;
+            }
+            return manifest;
+        }
+    }
+
+    static class Entry {
+        final Jar jar;
+        final JarEntry jarEntry;
+
+        private Entry(Jar jar, JarEntry jarEntry) {
+            this.jar = jar;
+            this.jarEntry = jarEntry;
+        }
+
+        URL toURL() throws MalformedURLException {
+            return new URL(jar.entryUrlPrefix + jarEntry.getName());
+        }
+    }
+}
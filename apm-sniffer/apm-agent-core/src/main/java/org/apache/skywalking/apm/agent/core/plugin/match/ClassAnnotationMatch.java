@@ -74,6 +74,10 @@ public class ClassAnnotationMatch implements IndirectMatch {
         return false;
     }
 
+    public String[] getAnnotations() {
+        return annotations;
+    }
+
     private ElementMatcher.Junction buildEachAnnotation(String annotationName) {
         return isAnnotatedWith(named(annotationName));
     }
@@ -19,17 +19,13 @@
 
 package org.apache.skywalking.apm.agent.core.plugin.match;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import net.bytebuddy.description.type.TypeDescription;
-import net.bytebuddy.description.type.TypeList;
 import net.bytebuddy.matcher.ElementMatcher;
-
-import static net.bytebuddy.matcher.ElementMatchers.hasSuperType;
-import static net.bytebuddy.matcher.ElementMatchers.isInterface;
-import static net.bytebuddy.matcher.ElementMatchers.named;
-import static net.bytebuddy.matcher.ElementMatchers.not;
+import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
 
 /**
  * Match the class by the given super class or interfaces.
@@ -37,6 +33,9 @@ import static net.bytebuddy.matcher.ElementMatchers.not;
  * @author wusheng
  */
 public class HierarchyMatch implements IndirectMatch {
+    private static final int SUPER_TYPE_NAMES_CACHE_SIZE = 20000;
+    private static final ConcurrentHashMap<String, Set<String>> SUPER_TYPE_NAMES = new ConcurrentHashMap<String, Set<String>>();
+
     private String[] parentTypes;
 
     private HierarchyMatch(String[] parentTypes) {
@@ -46,59 +45,78 @@ public class HierarchyMatch implements IndirectMatch {
         this.parentTypes = parentTypes;
     }
 
+    /**
+     * The super types of a class is walked through the memoized {@link #allSuperTypeNames(TypeDescription)}, rather
+     * than by <code>hasSuperType</code> in every junction. The class itself is not one of its super types, same as
+     * {@link #isMatch(TypeDescription)}.
+     */
     @Override
     public ElementMatcher.Junction buildJunction() {
-        ElementMatcher.Junction junction = null;
-        for (String superTypeName : parentTypes) {
-            if (junction == null) {
-                junction = buildSuperClassMatcher(superTypeName);
-            } else {
-                junction = junction.and(buildSuperClassMatcher(superTypeName));
+        return new AbstractJunction<TypeDescription>() {
+            @Override
+            public boolean matches(TypeDescription target) {
+                return !target.isInterface() && isMatch(target);
             }
-        }
-        junction = junction.and(not(isInterface()));
-        return junction;
-    }
-
-    private ElementMatcher.Junction buildSuperClassMatcher(String superTypeName) {
-        return hasSuperType(named(superTypeName));
+        };
     }
 
     @Override
     public boolean isMatch(TypeDescription typeDescription) {
-        List<String> parentTypes = new ArrayList<String>(Arrays.asList(this.parentTypes));
-
-        TypeList.Generic implInterfaces = typeDescription.getInterfaces();
-        for (TypeDescription.Generic implInterface : implInterfaces) {
-            matchHierarchyClass(implInterface, parentTypes);
+        Set<String> superTypeNames = allSuperTypeNames(typeDescription);
+        for (String parentType : parentTypes) {
+            if (!superTypeNames.contains(parentType)) {
+                return false;
+            }
         }
+        return true;
+    }
 
-        if (typeDescription.getSuperClass() != null) {
-            matchHierarchyClass(typeDescription.getSuperClass(), parentTypes);
-        }
+    public String[] getParentTypes() {
+        return parentTypes;
+    }
 
-        if (parentTypes.size() == 0) {
-            return true;
+    /**
+     * @return the names of all the super classes and interfaces of the given class, itself excluded.
+     */
+    public static Set<String> allSuperTypeNames(TypeDescription typeDescription) {
+        Set<String> superTypeNames = new HashSet<String>();
+        for (TypeDescription.Generic implInterface : typeDescription.getInterfaces()) {
+            superTypeNames.addAll(withSuperTypeNames(implInterface));
         }
-
-        return false;
+        if (typeDescription.getSuperClass() != null) {
+            superTypeNames.addAll(withSuperTypeNames(typeDescription.getSuperClass()));
+        }
+        return superTypeNames;
     }
 
-    private void matchHierarchyClass(TypeDescription.Generic clazz, List<String> parentTypes) {
-        parentTypes.remove(clazz.asRawType().getTypeName());
-        if (parentTypes.size() == 0) {
-            return;
+    /**
+     * The loaded classes share a few super types, such as <code>java.lang.Object</code> and
+     * <code>java.io.Serializable</code>, so the hierarchy of every super type is resolved once, then kept by its name.
+     * The classes of the same name in different class loaders are expected to share the hierarchy. Once the cache is
+     * full, the new super types are resolved in every call.
+     */
+    private static Set<String> withSuperTypeNames(TypeDescription.Generic clazz) {
+        String typeName = clazz.asRawType().getTypeName();
+        Set<String> superTypeNames = SUPER_TYPE_NAMES.get(typeName);
+        if (superTypeNames != null) {
+            return superTypeNames;
         }
 
+        superTypeNames = new HashSet<String>();
+        superTypeNames.add(typeName);
         for (TypeDescription.Generic generic : clazz.getInterfaces()) {
-            matchHierarchyClass(generic, parentTypes);
+            superTypeNames.addAll(withSuperTypeNames(generic));
         }
-
         TypeDescription.Generic superClazz = clazz.getSuperClass();
         if (superClazz != null && !clazz.getTypeName().equals("java.lang.Object")) {
-            matchHierarchyClass(superClazz, parentTypes);
+            superTypeNames.addAll(withSuperTypeNames(superClazz));
         }
 
+        superTypeNames = Collections.unmodifiableSet(superTypeNames);
+        if (SUPER_TYPE_NAMES.size() < SUPER_TYPE_NAMES_CACHE_SIZE) {
+            SUPER_TYPE_NAMES.put(typeName, superTypeNames);
+        }
+        return superTypeNames;
     }
 
     public static ClassMatch byHierarchyMatch(String[] parentTypes) {
@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.Channel;
+import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import io.grpc.netty.NettyChannelBuilder;
@@ -73,6 +74,20 @@ public class GRPCChannel {
         return originChannel.isShutdown();
     }
 
+    /**
+     * @param requestConnection if true, the channel tries to connect when it is idle.
+     */
+    public ConnectivityState getState(boolean requestConnection) {
+        return originChannel.getState(requestConnection);
+    }
+
+    /**
+     * Run the callback once, when the state of the channel is no longer the source state.
+     */
+    public void notifyWhenStateChanged(ConnectivityState source, Runnable callback) {
+        originChannel.notifyWhenStateChanged(source, callback);
+    }
+
     public static class Builder {
         private final String host;
         private final int port;
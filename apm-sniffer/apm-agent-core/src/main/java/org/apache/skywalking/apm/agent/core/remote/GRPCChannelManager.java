@@ -18,17 +18,27 @@
 
 package org.apache.skywalking.apm.agent.core.remote;
 
+import io.grpc.CallOptions;
 import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ConnectivityState;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
 import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
@@ -38,18 +48,34 @@ import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 /**
+ * {@link GRPCChannelManager} keeps a channel to each of the backend services, up to {@link
+ * Config.Collector#BACKEND_SUBSET_SIZE}, and hands out a {@link #getChannel() channel}, which starts each call on the
+ * available backend with the fewest calls in progress, round robin among the equal ones.
+ * <p>
+ * A backend is unavailable once its channel fails to connect, or a call to it fails by a network error, so the next
+ * calls go to the others at once. Then it is reconnected with an exponential backoff, until it is ready again.
+ *
  * @author wusheng, zhang xin
  */
 @DefaultImplementor
 public class GRPCChannelManager implements BootService, Runnable {
     private static final ILog logger = LogManager.getLogger(GRPCChannelManager.class);
 
-    private volatile GRPCChannel managedChannel = null;
+    /**
+     * The first backoff after a backend fails, the later ones double, up to {@link
+     * Config.Collector#GRPC_CHANNEL_CHECK_INTERVAL}.
+     */
+    private static final long MIN_BACKOFF_MILLIS = 500;
+
+    private volatile ScheduledExecutorService executor;
     private volatile ScheduledFuture<?> connectCheckFuture;
     private volatile boolean reconnect = true;
     private Random random = new Random();
     private List<GRPCChannelListener> listeners = Collections.synchronizedList(new LinkedList<GRPCChannelListener>());
-    private volatile List<String> grpcServers;
+    private volatile List<Backend> backends = Collections.emptyList();
+    private final BalancedChannel balancedChannel = new BalancedChannel();
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
 
     @Override
     public void prepare() throws Throwable {
@@ -63,9 +89,24 @@ public class GRPCChannelManager implements BootService, Runnable {
             logger.error("Agent will not uplink any data.");
             return;
         }
-        grpcServers = Arrays.asList(Config.Collector.BACKEND_SERVICE.split(","));
-        connectCheckFuture = Executors
-            .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("GRPCChannelManager"))
+        List<String> grpcServers = new ArrayList<String>();
+        for (String server : Config.Collector.BACKEND_SERVICE.split(",")) {
+            if (server.trim().length() > 0) {
+                grpcServers.add(server.trim());
+            }
+        }
+        Collections.shuffle(grpcServers, random);
+        if (Config.Collector.BACKEND_SUBSET_SIZE > 0 && grpcServers.size() > Config.Collector.BACKEND_SUBSET_SIZE) {
+            grpcServers = grpcServers.subList(0, Config.Collector.BACKEND_SUBSET_SIZE);
+        }
+        List<Backend> backends = new ArrayList<Backend>(grpcServers.size());
+        for (String server : grpcServers) {
+            backends.add(new Backend(server));
+        }
+        this.backends = backends;
+
+        executor = Executors.newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("GRPCChannelManager"));
+        connectCheckFuture = executor
             .scheduleAtFixedRate(new RunnableWithExceptionProtection(this, new RunnableWithExceptionProtection.CallbackWhenException() {
                 @Override
                 public void handle(Throwable t) {
@@ -81,9 +122,14 @@ public class GRPCChannelManager implements BootService, Runnable {
 
     @Override
     public void shutdown() throws Throwable {
-        connectCheckFuture.cancel(true);
-        if (managedChannel != null) {
-            managedChannel.shutdownNow();
+        if (connectCheckFuture != null) {
+            connectCheckFuture.cancel(true);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (Backend backend : backends) {
+            backend.shutdown();
         }
         logger.debug("Selected collector grpc service shutdown.");
     }
@@ -91,43 +137,27 @@ public class GRPCChannelManager implements BootService, Runnable {
     @Override
     public void run() {
         logger.debug("Selected collector grpc service running, reconnect:{}.", reconnect);
-        if (reconnect) {
-            if (grpcServers.size() > 0) {
-                String server = "";
-                try {
-                    int index = Math.abs(random.nextInt()) % grpcServers.size();
-                    server = grpcServers.get(index);
-                    String[] ipAndPort = server.split(":");
-
-                    managedChannel = GRPCChannel.newBuilder(ipAndPort[0], Integer.parseInt(ipAndPort[1]))
-                        .addManagedChannelBuilder(new StandardChannelBuilder())
-                        .addManagedChannelBuilder(new TLSChannelBuilder())
-                        .addChannelDecorator(new AuthenticationDecorator())
-                        .build();
-
-                    if (!managedChannel.isShutdown() && !managedChannel.isTerminated()) {
-                        reconnect = false;
-                        notify(GRPCChannelStatus.CONNECTED);
-                    } else {
-                        notify(GRPCChannelStatus.DISCONNECT);
-                    }
-                    return;
-                } catch (Throwable t) {
-                    logger.error(t, "Create channel to {} fail.", server);
-                    notify(GRPCChannelStatus.DISCONNECT);
-                }
+        boolean force = reconnect;
+        reconnect = false;
+        for (Backend backend : backends) {
+            backend.check(force);
+            if (logger.isDebugEnable()) {
+                logger.debug("Collector grpc service {}.", backend);
             }
-
-            logger.debug("Selected collector grpc service is not available. Wait {} seconds to retry", Config.Collector.GRPC_CHANNEL_CHECK_INTERVAL);
         }
+        updateStatus();
     }
 
     public void addChannelListener(GRPCChannelListener listener) {
         listeners.add(listener);
     }
 
+    /**
+     * @return the channel which balances the calls over the backends, it is the same all the time, so the stubs built
+     * on it are never out of date.
+     */
     public Channel getChannel() {
-        return managedChannel.getChannel();
+        return balancedChannel;
     }
 
     /**
@@ -141,6 +171,61 @@ public class GRPCChannelManager implements BootService, Runnable {
         }
     }
 
+    /**
+     * @return true if the call failed by a network problem, which may not happen on another backend.
+     */
+    public boolean isNetworkError(Throwable throwable) {
+        if (throwable instanceof StatusRuntimeException) {
+            StatusRuntimeException statusRuntimeException = (StatusRuntimeException)throwable;
+            return isNetworkError(statusRuntimeException.getStatus());
+        }
+        return false;
+    }
+
+    private boolean isNetworkError(Status status) {
+        return statusEquals(status,
+            Status.UNAVAILABLE,
+            Status.PERMISSION_DENIED,
+            Status.UNAUTHENTICATED,
+            Status.RESOURCE_EXHAUSTED
+        );
+    }
+
+    private boolean statusEquals(Status sourceStatus, Status... potentialStatus) {
+        for (Status status : potentialStatus) {
+            if (sourceStatus.getCode() == status.getCode()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Notify the listeners when the first backend becomes available, or the last one becomes unavailable.
+     */
+    private void updateStatus() {
+        GRPCChannelStatus newStatus = GRPCChannelStatus.DISCONNECT;
+        for (Backend backend : backends) {
+            if (backend.available) {
+                newStatus = GRPCChannelStatus.CONNECTED;
+                break;
+            }
+        }
+        synchronized (this) {
+            if (newStatus == status) {
+                return;
+            }
+            status = newStatus;
+        }
+        final GRPCChannelStatus notifiedStatus = newStatus;
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                GRPCChannelManager.this.notify(notifiedStatus);
+            }
+        });
+    }
+
     private void notify(GRPCChannelStatus status) {
         for (GRPCChannelListener listener : listeners) {
             try {
@@ -151,26 +236,265 @@ public class GRPCChannelManager implements BootService, Runnable {
         }
     }
 
-    private boolean isNetworkError(Throwable throwable) {
-        if (throwable instanceof StatusRuntimeException) {
-            StatusRuntimeException statusRuntimeException = (StatusRuntimeException)throwable;
-            return statusEquals(statusRuntimeException.getStatus(),
-                Status.UNAVAILABLE,
-                Status.PERMISSION_DENIED,
-                Status.UNAUTHENTICATED,
-                Status.RESOURCE_EXHAUSTED,
-                Status.UNKNOWN
-            );
+    private void execute(Runnable task) {
+        ScheduledExecutorService executor = this.executor;
+        if (executor == null || executor.isShutdown()) {
+            task.run();
+        } else {
+            executor.execute(task);
         }
-        return false;
     }
 
-    private boolean statusEquals(Status sourceStatus, Status... potentialStatus) {
-        for (Status status : potentialStatus) {
-            if (sourceStatus.getCode() == status.getCode()) {
-                return true;
+    /**
+     * @return false if the manager is not started or already shutdown, so the task is not scheduled.
+     */
+    private boolean schedule(Runnable task, long delayMillis) {
+        ScheduledExecutorService executor = this.executor;
+        if (executor == null || executor.isShutdown()) {
+            return false;
+        }
+        executor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /**
+     * @return the exponential backoff after the failures, between the half and the whole of it.
+     */
+    static long backoffMillis(int failures, Random random) {
+        long backoff = MIN_BACKOFF_MILLIS << Math.min(failures - 1, 16);
+        backoff = Math.min(backoff, TimeUnit.SECONDS.toMillis(Config.Collector.GRPC_CHANNEL_CHECK_INTERVAL));
+        return backoff / 2 + (long)(random.nextDouble() * (backoff / 2));
+    }
+
+    /**
+     * A backend service, with its channel and counters.
+     */
+    private class Backend {
+        private final String server;
+        private volatile GRPCChannel channel;
+        private volatile boolean available;
+        private int failures;
+        private long nextConnectTime;
+        private boolean retryScheduled;
+
+        private final AtomicInteger callsInProgress = new AtomicInteger();
+        private final AtomicLong sentCalls = new AtomicLong();
+        private final AtomicLong failedCalls = new AtomicLong();
+        /**
+         * The moving average of the unary call time, in microseconds.
+         */
+        private volatile long roundTripMicros;
+
+        private Backend(String server) {
+            this.server = server;
+        }
+
+        /**
+         * Build the channel if there is none, or ask it to connect if it is unavailable, and the backoff passed.
+         *
+         * @param force to connect before the backoff passes, when a network error is reported, or by the scheduled
+         * retry itself.
+         */
+        private synchronized void check(boolean force) {
+            if (available && channel != null && !channel.isShutdown()) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (!force && now < nextConnectTime) {
+                return;
+            }
+            try {
+                if (channel == null || channel.isShutdown()) {
+                    String[] ipAndPort = server.split(":");
+                    channel = GRPCChannel.newBuilder(ipAndPort[0], Integer.parseInt(ipAndPort[1]))
+                        .addManagedChannelBuilder(new StandardChannelBuilder())
+                        .addManagedChannelBuilder(new TLSChannelBuilder())
+                        .addChannelDecorator(new AuthenticationDecorator())
+                        .build();
+                    available = true;
+                    watch(channel);
+                    return;
+                }
+                if (channel.getState(true) == ConnectivityState.READY) {
+                    connected();
+                    return;
+                }
+            } catch (Throwable t) {
+                logger.error(t, "Create channel to {} fail.", server);
             }
+            retryLater(now);
+        }
+
+        /**
+         * Watch the state of the channel, to know it fails at once, instead of on the next check.
+         */
+        private void watch(final GRPCChannel watchedChannel) {
+            if (watchedChannel != channel) {
+                return;
+            }
+            ConnectivityState state = watchedChannel.getState(false);
+            switch (state) {
+                case READY:
+                    connected();
+                    break;
+                case TRANSIENT_FAILURE:
+                    failed();
+                    break;
+                case SHUTDOWN:
+                    failed();
+                    return;
+                default:
+                    break;
+            }
+            watchedChannel.notifyWhenStateChanged(state, new Runnable() {
+                @Override
+                public void run() {
+                    watch(watchedChannel);
+                }
+            });
+        }
+
+        private void connected() {
+            synchronized (this) {
+                failures = 0;
+                if (available) {
+                    return;
+                }
+                available = true;
+            }
+            logger.info("Collector grpc service {} is available.", server);
+            updateStatus();
+        }
+
+        private void failed() {
+            synchronized (this) {
+                if (!available) {
+                    return;
+                }
+                available = false;
+                retryLater(System.currentTimeMillis());
+            }
+            logger.warn("Collector grpc service {} is unavailable.", server);
+            updateStatus();
+        }
+
+        private synchronized void retryLater(long now) {
+            failures++;
+            long backoff = backoffMillis(failures, random);
+            nextConnectTime = now + backoff;
+            if (retryScheduled) {
+                return;
+            }
+            retryScheduled = schedule(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (Backend.this) {
+                        retryScheduled = false;
+                    }
+                    // A later failure may have moved the next connect time while this retry was pending, don't wait
+                    // for the periodic check then.
+                    check(true);
+                }
+            }, backoff);
+        }
+
+        private void started() {
+            callsInProgress.incrementAndGet();
+        }
+
+        private void closed(MethodDescriptor.MethodType type, Status status, long startNanos) {
+            callsInProgress.decrementAndGet();
+            if (status.isOk()) {
+                sentCalls.incrementAndGet();
+                if (type == MethodDescriptor.MethodType.UNARY) {
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+                    roundTripMicros = roundTripMicros == 0 ? micros : (roundTripMicros * 7 + micros) / 8;
+                }
+            } else {
+                failedCalls.incrementAndGet();
+                if (isNetworkError(status)) {
+                    failed();
+                }
+            }
+        }
+
+        private void shutdown() {
+            synchronized (this) {
+                available = false;
+            }
+            GRPCChannel channel = this.channel;
+            if (channel != null) {
+                channel.shutdownNow();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return server + " available: " + available + ", calls in progress: " + callsInProgress.get()
+                + ", sent calls: " + sentCalls.get() + ", failed calls: " + failedCalls.get()
+                + ", round trip: " + roundTripMicros + "us";
+        }
+    }
+
+    /**
+     * The channel starting the calls on the available backend with the fewest calls in progress.
+     */
+    private class BalancedChannel extends Channel {
+        @Override
+        public <REQ, RESP> ClientCall<REQ, RESP> newCall(final MethodDescriptor<REQ, RESP> method,
+            CallOptions callOptions) {
+            final Backend backend = pick();
+            GRPCChannel channel = backend == null ? null : backend.channel;
+            if (channel == null) {
+                throw new StatusRuntimeException(Status.UNAVAILABLE.withDescription("No collector grpc service is available."));
+            }
+            return new ForwardingClientCall.SimpleForwardingClientCall<REQ, RESP>(channel.getChannel().newCall(method, callOptions)) {
+                @Override
+                public void start(Listener<RESP> responseListener, Metadata headers) {
+                    final long startNanos = System.nanoTime();
+                    backend.started();
+                    try {
+                        super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RESP>(responseListener) {
+                            @Override
+                            public void onClose(Status status, Metadata trailers) {
+                                backend.closed(method.getType(), status, startNanos);
+                                super.onClose(status, trailers);
+                            }
+                        }, headers);
+                    } catch (RuntimeException e) {
+                        backend.closed(method.getType(), Status.fromThrowable(e), startNanos);
+                        throw e;
+                    }
+                }
+            };
+        }
+
+        @Override
+        public String authority() {
+            Backend backend = pick();
+            GRPCChannel channel = backend == null ? null : backend.channel;
+            return channel == null ? null : channel.getChannel().authority();
+        }
+
+        /**
+         * @return the available backend with the fewest calls in progress, or any backend if none is available.
+         */
+        private Backend pick() {
+            List<Backend> backends = GRPCChannelManager.this.backends;
+            int size = backends.size();
+            if (size == 0) {
+                return null;
+            }
+            int start = (roundRobin.getAndIncrement() & Integer.MAX_VALUE) % size;
+            Backend picked = null;
+            for (int i = 0; i < size; i++) {
+                Backend backend = backends.get((start + i) % size);
+                if (backend.available && backend.channel != null
+                    && (picked == null || backend.callsInProgress.get() < picked.callsInProgress.get())) {
+                    picked = backend;
+                }
+            }
+            return picked == null ? backends.get(start) : picked;
         }
-        return false;
     }
 }
@@ -19,8 +19,10 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.Channel;
+import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
@@ -48,17 +50,32 @@ import org.apache.skywalking.apm.network.register.v2.Services;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 /**
+ * After a failure, the registry checks back off exponentially, with a jitter, up to {@link
+ * Config.Collector#REGISTER_MAX_BACKOFF}, so the agents restarted together don't retry together.
+ *
  * @author wusheng
  */
 @DefaultImplementor
 public class ServiceAndEndpointRegisterClient implements BootService, Runnable, GRPCChannelListener {
     private static final ILog logger = LogManager.getLogger(ServiceAndEndpointRegisterClient.class);
     private static final String PROCESS_UUID = UUID.randomUUID().toString().replaceAll("-", "");
+    /**
+     * The first endpoints and network addresses are registered this soon, rather than in the next registry check.
+     */
+    private static final long FIRST_SYNC_DELAY_MILLIS = 300;
 
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
     private volatile RegisterGrpc.RegisterBlockingStub registerBlockingStub;
     private volatile ServiceInstancePingGrpc.ServiceInstancePingBlockingStub serviceInstancePingStub;
     private volatile ScheduledFuture<?> applicationRegisterFuture;
+    private volatile ScheduledFuture<?> firstSyncFuture;
+    private final Random random = new Random();
+    /**
+     * The fields below are only accessed in the register thread.
+     */
+    private int failures = 0;
+    private long nextCheckTime = 0;
+    private boolean dictionariesSynced = false;
 
     @Override
     public void statusChanged(GRPCChannelStatus status) {
@@ -80,14 +97,24 @@ public class ServiceAndEndpointRegisterClient implements BootService, Runnable,
 
     @Override
     public void boot() throws Throwable {
-        applicationRegisterFuture = Executors
-            .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("ServiceAndEndpointRegisterClient"))
-            .scheduleAtFixedRate(new RunnableWithExceptionProtection(this, new RunnableWithExceptionProtection.CallbackWhenException() {
+        ScheduledExecutorService registerExecutor = Executors
+            .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("ServiceAndEndpointRegisterClient"));
+        RunnableWithExceptionProtection.CallbackWhenException exceptionCallback = new RunnableWithExceptionProtection.CallbackWhenException() {
+            @Override
+            public void handle(Throwable t) {
+                logger.error("unexpected exception.", t);
+            }
+        };
+        applicationRegisterFuture = registerExecutor
+            .scheduleAtFixedRate(new RunnableWithExceptionProtection(this, exceptionCallback),
+                0, Config.Collector.APP_AND_SERVICE_REGISTER_CHECK_INTERVAL, TimeUnit.SECONDS);
+        firstSyncFuture = registerExecutor
+            .scheduleWithFixedDelay(new RunnableWithExceptionProtection(new Runnable() {
                 @Override
-                public void handle(Throwable t) {
-                    logger.error("unexpected exception.", t);
+                public void run() {
+                    firstSync();
                 }
-            }), 0, Config.Collector.APP_AND_SERVICE_REGISTER_CHECK_INTERVAL, TimeUnit.SECONDS);
+            }, exceptionCallback), FIRST_SYNC_DELAY_MILLIS, FIRST_SYNC_DELAY_MILLIS, TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -96,19 +123,24 @@ public class ServiceAndEndpointRegisterClient implements BootService, Runnable,
 
     @Override
     public void shutdown() throws Throwable {
+        firstSyncFuture.cancel(true);
         applicationRegisterFuture.cancel(true);
     }
 
     @Override
     public void run() {
         logger.debug("ServiceAndEndpointRegisterClient running, status:{}.", status);
+        if (System.currentTimeMillis() < nextCheckTime) {
+            return;
+        }
         boolean shouldTry = true;
         while (GRPCChannelStatus.CONNECTED.equals(status) && shouldTry) {
             shouldTry = false;
             try {
                 if (RemoteDownstreamConfig.Agent.SERVICE_ID == DictionaryUtil.nullValue()) {
                     if (registerBlockingStub != null) {
-                        ServiceRegisterMapping serviceRegisterMapping = registerBlockingStub.doServiceRegister(
+                        ServiceRegisterMapping serviceRegisterMapping = registerBlockingStub
+                            .withDeadlineAfter(Config.Collector.REGISTER_TIMEOUT, TimeUnit.SECONDS).doServiceRegister(
                             Services.newBuilder().addServices(Service.newBuilder().setServiceName(Config.Agent.SERVICE_NAME)).build());
                         if (serviceRegisterMapping != null) {
                             for (KeyIntValuePair registered : serviceRegisterMapping.getServicesList()) {
@@ -123,7 +155,8 @@ public class ServiceAndEndpointRegisterClient implements BootService, Runnable,
                     if (registerBlockingStub != null) {
                         if (RemoteDownstreamConfig.Agent.SERVICE_INSTANCE_ID == DictionaryUtil.nullValue()) {
 
-                            ServiceInstanceRegisterMapping instanceMapping = registerBlockingStub.doServiceInstanceRegister(ServiceInstances.newBuilder()
+                            ServiceInstanceRegisterMapping instanceMapping = registerBlockingStub
+                                .withDeadlineAfter(Config.Collector.REGISTER_TIMEOUT, TimeUnit.SECONDS).doServiceInstanceRegister(ServiceInstances.newBuilder()
                                 .addInstances(
                                     ServiceInstance.newBuilder()
                                         .setServiceId(RemoteDownstreamConfig.Agent.SERVICE_ID)
@@ -140,21 +173,65 @@ public class ServiceAndEndpointRegisterClient implements BootService, Runnable,
                                 }
                             }
                         } else {
-                            serviceInstancePingStub.doPing(ServiceInstancePingPkg.newBuilder()
+                            serviceInstancePingStub.withDeadlineAfter(Config.Collector.REGISTER_TIMEOUT, TimeUnit.SECONDS).doPing(ServiceInstancePingPkg.newBuilder()
                                 .setServiceInstanceId(RemoteDownstreamConfig.Agent.SERVICE_INSTANCE_ID)
                                 .setTime(System.currentTimeMillis())
                                 .setServiceInstanceUUID(PROCESS_UUID)
                                 .build());
 
-                            NetworkAddressDictionary.INSTANCE.syncRemoteDictionary(registerBlockingStub);
-                            EndpointNameDictionary.INSTANCE.syncRemoteDictionary(registerBlockingStub);
+                            syncDictionaries(registerBlockingStub);
                         }
                     }
                 }
+                failures = 0;
             } catch (Throwable t) {
-                logger.error(t, "ServiceAndEndpointRegisterClient execute fail.");
-                ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(t);
+                fail(t);
             }
         }
     }
+
+    /**
+     * Register the endpoints and network addresses found after boot, without waiting for the next registry check.
+     */
+    private void firstSync() {
+        if (dictionariesSynced) {
+            firstSyncFuture.cancel(false);
+            return;
+        }
+        RegisterGrpc.RegisterBlockingStub stub = registerBlockingStub;
+        if (GRPCChannelStatus.CONNECTED.equals(status) && stub != null
+            && RemoteDownstreamConfig.Agent.SERVICE_INSTANCE_ID != DictionaryUtil.nullValue()
+            && System.currentTimeMillis() >= nextCheckTime) {
+            try {
+                syncDictionaries(stub);
+            } catch (Throwable t) {
+                fail(t);
+            }
+        }
+    }
+
+    private void syncDictionaries(RegisterGrpc.RegisterBlockingStub stub) {
+        if (NetworkAddressDictionary.INSTANCE.hasUnregistered() || EndpointNameDictionary.INSTANCE.hasUnregistered()) {
+            dictionariesSynced = true;
+        }
+        NetworkAddressDictionary.INSTANCE.syncRemoteDictionary(stub);
+        EndpointNameDictionary.INSTANCE.syncRemoteDictionary(stub);
+    }
+
+    private void fail(Throwable t) {
+        failures++;
+        long backoff = backoffMillis(failures, random);
+        nextCheckTime = System.currentTimeMillis() + backoff;
+        logger.error(t, "ServiceAndEndpointRegisterClient execute fail, retry in {} ms.", backoff);
+        ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(t);
+    }
+
+    /**
+     * @return the exponential backoff after the failures, between the half and the whole of it.
+     */
+    static long backoffMillis(int failures, Random random) {
+        long backoff = TimeUnit.SECONDS.toMillis(Config.Collector.APP_AND_SERVICE_REGISTER_CHECK_INTERVAL) << Math.min(failures - 1, 16);
+        backoff = Math.min(backoff, TimeUnit.SECONDS.toMillis(Config.Collector.REGISTER_MAX_BACKOFF));
+        return backoff / 2 + (long)(random.nextDouble() * (backoff / 2));
+    }
 }
@@ -21,6 +21,7 @@ package org.apache.skywalking.apm.agent.core.remote;
 import io.grpc.Channel;
 import io.grpc.stub.StreamObserver;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.skywalking.apm.agent.core.boot.*;
 import org.apache.skywalking.apm.agent.core.context.*;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
@@ -42,6 +43,10 @@ import static org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus.CONN
 public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, GRPCChannelListener {
     private static final ILog logger = LogManager.getLogger(TraceSegmentServiceClient.class);
     private static final int TIMEOUT = 30 * 1000;
+    /**
+     * Send the segments once more, when the first backend fails by a network error.
+     */
+    private static final int MAX_SEND_ATTEMPTS = 2;
 
     private long lastLogTime;
     private long segmentUplinkedCounter;
@@ -83,7 +88,28 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     @Override
     public void consume(List<TraceSegment> data) {
         if (CONNECTED.equals(status)) {
-            final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+            for (int attempt = 1; attempt <= MAX_SEND_ATTEMPTS; attempt++) {
+                if (send(data) || attempt == MAX_SEND_ATTEMPTS) {
+                    break;
+                }
+                logger.warn("Resend {} trace segments to another collector.", data.size());
+            }
+        } else {
+            segmentAbandonedCounter += data.size();
+        }
+
+        printUplinkStatus();
+    }
+
+    /**
+     * @return false if the segments should be sent again, as the backend failed by a network error, which has been
+     * excluded from the next call by {@link GRPCChannelManager}.
+     */
+    private boolean send(List<TraceSegment> data) {
+        final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+        final GRPCChannelManager channelManager = ServiceManager.INSTANCE.findService(GRPCChannelManager.class);
+        final AtomicBoolean networkError = new AtomicBoolean(false);
+        try {
             StreamObserver<UpstreamSegment> upstreamSegmentStreamObserver = serviceStub.collect(new StreamObserver<Commands>() {
                 @Override
                 public void onNext(Commands commands) {
@@ -92,11 +118,12 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
                 @Override
                 public void onError(Throwable throwable) {
+                    networkError.set(channelManager.isNetworkError(throwable));
                     status.finished();
                     if (logger.isErrorEnable()) {
                         logger.error(throwable, "Send UpstreamSegment to collector fail with a grpc internal exception.");
                     }
-                    ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
+                    channelManager.reportError(throwable);
                 }
 
                 @Override
@@ -105,23 +132,25 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
                 }
             });
 
-            try {
-                for (TraceSegment segment : data) {
-                    UpstreamSegment upstreamSegment = segment.transform();
-                    upstreamSegmentStreamObserver.onNext(upstreamSegment);
-                }
-                upstreamSegmentStreamObserver.onCompleted();
+            for (TraceSegment segment : data) {
+                UpstreamSegment upstreamSegment = segment.transform();
+                upstreamSegmentStreamObserver.onNext(upstreamSegment);
+            }
+            upstreamSegmentStreamObserver.onCompleted();
 
-                status.wait4Finish();
-                segmentUplinkedCounter += data.size();
-            } catch (Throwable t) {
-                logger.error(t, "Transform and send UpstreamSegment to collector fail.");
+            status.wait4Finish();
+            if (networkError.get()) {
+                return false;
+            }
+            segmentUplinkedCounter += data.size();
+        } catch (Throwable t) {
+            logger.error(t, "Transform and send UpstreamSegment to collector fail.");
+            if (channelManager.isNetworkError(t)) {
+                channelManager.reportError(t);
+                return false;
             }
-        } else {
-            segmentAbandonedCounter += data.size();
         }
-
-        printUplinkStatus();
+        return true;
     }
 
     private void printUplinkStatus() {
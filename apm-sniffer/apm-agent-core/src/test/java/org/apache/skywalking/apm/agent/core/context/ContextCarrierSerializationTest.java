@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceId;
+import org.apache.skywalking.apm.agent.core.context.ids.ID;
+import org.apache.skywalking.apm.agent.core.context.ids.PropagatedTraceId;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ContextCarrierSerializationTest {
+    private static final String[] NAMES = {"", "/portal", "a|b", "#c#", "/\u4e2d\u6587/\u00e9", "x-y", "127.0.0.1:8080"};
+    private static final String[] NUMBERS = {"0", "1", "-1", "+2", "", "1a", "2147483648", "\u0661"};
+
+    private final Random random = new Random(20181019);
+
+    @Test
+    public void testRoundTrip() {
+        Config.Agent.ACTIVE_V1_HEADER = true;
+        try {
+            for (int i = 0; i < 2000; i++) {
+                ContextCarrier carrier = randomCarrier();
+                for (ContextCarrier.HeaderVersion version : ContextCarrier.HeaderVersion.values()) {
+                    String header = carrier.serialize(version);
+                    Assert.assertEquals(legacySerialize(carrier, version), header);
+
+                    ContextCarrier decoded = new ContextCarrier().deserialize(header, version);
+                    if (version == ContextCarrier.HeaderVersion.v1 && carrier.getPeerHost().indexOf('|') < 0
+                        && carrier.getEntryEndpointName().indexOf('|') < 0 && carrier.getParentEndpointName().indexOf('|') < 0) {
+                        assertCarrier(carrier, decoded);
+                    } else if (version == ContextCarrier.HeaderVersion.v2) {
+                        assertCarrier(carrier, decoded);
+                    }
+                    assertCarrier(legacyDeserialize(header, version), decoded);
+                }
+            }
+        } finally {
+            Config.Agent.ACTIVE_V1_HEADER = false;
+        }
+    }
+
+    @Test
+    public void testMalformedHeaders() {
+        for (int i = 0; i < 5000; i++) {
+            String v1 = StringUtil.join('|', randomID(), pick(NUMBERS), pick(NUMBERS), pick(NUMBERS), pick(NAMES), pick(NAMES), pick(NAMES), randomID());
+            assertDeserialize(mutate(v1), ContextCarrier.HeaderVersion.v1);
+
+            String v2 = StringUtil.join('-', "1", Base64.encode(randomID()), Base64.encode(randomID()), pick(NUMBERS), pick(NUMBERS), pick(NUMBERS),
+                Base64.encode(pick(NAMES)), Base64.encode(pick(NAMES)), Base64.encode(pick(NAMES)));
+            assertDeserialize(mutate(v2).replace('|', '-'), ContextCarrier.HeaderVersion.v2);
+        }
+    }
+
+    private static void assertDeserialize(String header, ContextCarrier.HeaderVersion version) {
+        ContextCarrier legacy;
+        try {
+            legacy = legacyDeserialize(header, version);
+        } catch (RuntimeException e) {
+            try {
+                new ContextCarrier().deserialize(header, version);
+                Assert.fail(header);
+            } catch (RuntimeException expected) {
+                Assert.assertEquals(e.getClass(), expected.getClass());
+            }
+            return;
+        }
+        assertCarrier(legacy, new ContextCarrier().deserialize(header, version));
+    }
+
+    @Test
+    public void testLazyHeaderValue() {
+        ContextCarrier carrier = randomCarrier();
+        CarrierItem next = carrier.items();
+        next = next.next();
+        Assert.assertEquals(carrier.serialize(ContextCarrier.HeaderVersion.v2), next.getHeadValue());
+        Assert.assertSame(next.getHeadValue(), next.getHeadValue());
+    }
+
+    private ContextCarrier randomCarrier() {
+        ContextCarrier carrier = new ContextCarrier();
+        carrier.setTraceSegmentId(new ID(randomLong(), randomLong(), randomLong()));
+        List<DistributedTraceId> distributedTraceIds = new ArrayList<DistributedTraceId>();
+        distributedTraceIds.add(new PropagatedTraceId(randomLong() + "." + randomLong() + "." + randomLong()));
+        carrier.setDistributedTraceIds(distributedTraceIds);
+        carrier.setSpanId(random.nextInt(100));
+        carrier.setParentServiceInstanceId(random.nextInt(Integer.MAX_VALUE));
+        carrier.setEntryServiceInstanceId(random.nextInt(Integer.MAX_VALUE));
+        if (random.nextBoolean()) {
+            carrier.setPeerHost(pick(NAMES));
+        } else {
+            carrier.setPeerId(random.nextInt(1000));
+        }
+        if (random.nextBoolean()) {
+            carrier.setEntryEndpointName(pick(NAMES));
+        } else {
+            carrier.setEntryEndpointId(random.nextInt(1000));
+        }
+        if (random.nextBoolean()) {
+            carrier.setParentEndpointName(pick(NAMES));
+        } else {
+            carrier.setParentEndpointId(random.nextInt(1000));
+        }
+        return carrier;
+    }
+
+    private long randomLong() {
+        return random.nextBoolean() ? random.nextLong() : random.nextInt(10000);
+    }
+
+    private String randomID() {
+        switch (random.nextInt(4)) {
+            case 0:
+                return randomLong() + "." + randomLong();
+            case 1:
+                return randomLong() + ".x." + randomLong();
+            default:
+                return randomLong() + "." + randomLong() + "." + randomLong();
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private String mutate(String header) {
+        StringBuilder mutated = new StringBuilder(header);
+        switch (random.nextInt(4)) {
+            case 0:
+                mutated.deleteCharAt(random.nextInt(mutated.length()));
+                break;
+            case 1:
+                mutated.insert(random.nextInt(mutated.length() + 1), "|#-.=".charAt(random.nextInt(5)));
+                break;
+            case 2:
+                mutated.setLength(random.nextInt(mutated.length() + 1));
+                break;
+            default:
+                break;
+        }
+        return mutated.toString();
+    }
+
+    private static void assertCarrier(ContextCarrier expected, ContextCarrier actual) {
+        Assert.assertEquals(expected.isValid(), actual.isValid());
+        Assert.assertEquals(expected.isValid(ContextCarrier.HeaderVersion.v1), actual.isValid(ContextCarrier.HeaderVersion.v1));
+        Assert.assertEquals(expected.isValid(ContextCarrier.HeaderVersion.v2), actual.isValid(ContextCarrier.HeaderVersion.v2));
+        if (expected.isValid()) {
+            Assert.assertEquals(expected.getTraceSegmentId(), actual.getTraceSegmentId());
+            Assert.assertEquals(expected.getDistributedTraceId(), actual.getDistributedTraceId());
+        }
+        Assert.assertEquals(expected.getSpanId(), actual.getSpanId());
+        Assert.assertEquals(expected.getParentServiceInstanceId(), actual.getParentServiceInstanceId());
+        Assert.assertEquals(expected.getEntryServiceInstanceId(), actual.getEntryServiceInstanceId());
+        Assert.assertEquals(expected.getPeerHost(), actual.getPeerHost());
+        Assert.assertEquals(expected.getEntryEndpointName(), actual.getEntryEndpointName());
+        Assert.assertEquals(expected.getParentEndpointName(), actual.getParentEndpointName());
+    }
+
+    /**
+     * The serialization before the headers were written in place.
+     */
+    private static String legacySerialize(ContextCarrier carrier, ContextCarrier.HeaderVersion version) {
+        if (!carrier.isValid(version)) {
+            return "";
+        }
+        if (version == ContextCarrier.HeaderVersion.v1) {
+            return StringUtil.join('|', carrier.getTraceSegmentId().encode(), carrier.getSpanId() + "",
+                carrier.getParentServiceInstanceId() + "", carrier.getEntryServiceInstanceId() + "",
+                carrier.getPeerHost(), carrier.getEntryEndpointName(), carrier.getParentEndpointName(),
+                carrier.getDistributedTraceId().encode());
+        }
+        return StringUtil.join('-', "1", Base64.encode(carrier.getDistributedTraceId().encode()),
+            Base64.encode(carrier.getTraceSegmentId().encode()), carrier.getSpanId() + "",
+            carrier.getParentServiceInstanceId() + "", carrier.getEntryServiceInstanceId() + "",
+            Base64.encode(carrier.getPeerHost()), Base64.encode(carrier.getEntryEndpointName()),
+            Base64.encode(carrier.getParentEndpointName()));
+    }
+
+    /**
+     * The deserialization before the headers were read in place, through the setters.
+     */
+    private static ContextCarrier legacyDeserialize(String text, ContextCarrier.HeaderVersion version) {
+        ContextCarrier carrier = new ContextCarrier();
+        if (version == ContextCarrier.HeaderVersion.v1) {
+            String[] parts = text.split("\\|", 8);
+            if (parts.length == 8) {
+                try {
+                    carrier.setTraceSegmentId(legacyID(parts[0]));
+                    carrier.setSpanId(Integer.parseInt(parts[1]));
+                    carrier.setParentServiceInstanceId(Integer.parseInt(parts[2]));
+                    carrier.setEntryServiceInstanceId(Integer.parseInt(parts[3]));
+                    setNames(carrier, parts[4], parts[5], parts[6]);
+                    setDistributedTraceId(carrier, parts[7]);
+                } catch (NumberFormatException e) {
+                }
+            }
+        } else {
+            String[] parts = text.split("\\-", 9);
+            if (parts.length == 9) {
+                try {
+                    setDistributedTraceId(carrier, Base64.decode2UTFString(parts[1]));
+                    carrier.setTraceSegmentId(legacyID(Base64.decode2UTFString(parts[2])));
+                    carrier.setSpanId(Integer.parseInt(parts[3]));
+                    carrier.setParentServiceInstanceId(Integer.parseInt(parts[4]));
+                    carrier.setEntryServiceInstanceId(Integer.parseInt(parts[5]));
+                    setNames(carrier, Base64.decode2UTFString(parts[6]), Base64.decode2UTFString(parts[7]), Base64.decode2UTFString(parts[8]));
+                } catch (NumberFormatException e) {
+                }
+            }
+        }
+        return carrier;
+    }
+
+    private static ID legacyID(String text) {
+        String[] parts = text.split("\\.", 3);
+        long[] values = new long[3];
+        for (int part = 0; part < 3; part++) {
+            try {
+                values[part] = Long.parseLong(parts[part]);
+            } catch (NumberFormatException e) {
+                return new ID("x");
+            }
+        }
+        return new ID(values[0], values[1], values[2]);
+    }
+
+    private static void setNames(ContextCarrier carrier, String peerHost, String entryEndpointName,
+        String parentEndpointName) {
+        carrier.setPeerId(0);
+        carrier.setEntryEndpointId(0);
+        carrier.setParentEndpointId(0);
+        setField(carrier, "peerHost", peerHost);
+        setField(carrier, "entryEndpointName", entryEndpointName);
+        setField(carrier, "parentEndpointName", parentEndpointName);
+    }
+
+    private static void setDistributedTraceId(ContextCarrier carrier, String text) {
+        legacyID(text);
+        List<DistributedTraceId> distributedTraceIds = new ArrayList<DistributedTraceId>();
+        distributedTraceIds.add(new PropagatedTraceId(text));
+        carrier.setDistributedTraceIds(distributedTraceIds);
+    }
+
+    private static void setField(ContextCarrier carrier, String name, String value) {
+        try {
+            java.lang.reflect.Field field = ContextCarrier.class.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(carrier, value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EndpointNameNormalizerTest {
+    private EndpointNameNormalizer normalizer;
+
+    @Before
+    public void setUp() {
+        normalizer = new EndpointNameNormalizer();
+    }
+
+    @After
+    public void tearDown() throws Throwable {
+        normalizer.shutdown();
+        Config.Endpoint.NAME_TEMPLATES = "";
+        Config.Endpoint.NORMALIZE_ID_SEGMENTS = false;
+        Config.Endpoint.MAX_NAMES = -1;
+        Config.Endpoint.NAME_CACHE_SIZE = 10000;
+    }
+
+    @Test
+    public void testOffByDefault() throws Throwable {
+        normalizer.boot();
+
+        Assert.assertEquals("/orders/1", normalizer.normalize("/orders/1"));
+    }
+
+    @Test
+    public void testTemplates() throws Throwable {
+        Config.Endpoint.NAME_TEMPLATES = "/orders/{id}/items/{itemId}, /orders/latest/items/{id},/users/*,/static/**,/";
+        normalizer.boot();
+
+        Assert.assertEquals("/orders/{id}/items/{itemId}", normalizer.normalize("/orders/8812739/items/3"));
+        Assert.assertEquals("/orders/latest/items/{id}", normalizer.normalize("/orders/latest/items/3"));
+        Assert.assertEquals("/users/*", normalizer.normalize("/users/tom"));
+        Assert.assertEquals("/static/**", normalizer.normalize("/static/js/app.js"));
+        Assert.assertEquals("/", normalizer.normalize("/"));
+        Assert.assertEquals("/orders/8812739", normalizer.normalize("/orders/8812739"));
+        Assert.assertEquals("/users/tom/orders", normalizer.normalize("/users/tom/orders"));
+        Assert.assertEquals("/users/", normalizer.normalize("/users/"));
+        Assert.assertEquals("HelloService.sayHello()", normalizer.normalize("HelloService.sayHello()"));
+    }
+
+    @Test
+    public void testNormalizeIdSegments() throws Throwable {
+        Config.Endpoint.NAME_TEMPLATES = "/orders/{orderId}";
+        Config.Endpoint.NORMALIZE_ID_SEGMENTS = true;
+        normalizer.boot();
+
+        Assert.assertEquals("/orders/{orderId}", normalizer.normalize("/orders/1"));
+        Assert.assertEquals("/users/{id}/orders/{id}/", normalizer.normalize("/users/12/orders/" + UUID.randomUUID() + "/"));
+        Assert.assertEquals("/files/{id}", normalizer.normalize("/files/5bd96c1e8f2a4b0012ab34cd"));
+        Assert.assertEquals("/api/v2/cafe/face", normalizer.normalize("/api/v2/cafe/face"));
+        Assert.assertEquals("/{id}", normalizer.normalize("/123"));
+    }
+
+    @Test
+    public void testMaxNames() throws Throwable {
+        Config.Endpoint.NORMALIZE_ID_SEGMENTS = true;
+        Config.Endpoint.MAX_NAMES = 100;
+        normalizer.boot();
+
+        Random random = new Random(1000);
+        Set<String> names = new HashSet<String>();
+        for (int i = 0; i < 100000; i++) {
+            names.add(normalizer.normalize("/" + Long.toString(random.nextLong(), 36) + "/" + random.nextInt()));
+        }
+
+        Assert.assertEquals(100 + 1, names.size());
+        Assert.assertTrue(names.contains(Config.Endpoint.OVERFLOW_NAME));
+        Assert.assertEquals(Config.Endpoint.OVERFLOW_NAME, normalizer.normalize("/new/1"));
+    }
+
+    @Test
+    public void testCountRawNamesOnce() throws Throwable {
+        Config.Endpoint.NAME_TEMPLATES = "/users/*";
+        normalizer.boot();
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("/users/*", normalizer.normalize("/users/" + (i % 3)));
+        }
+        Assert.assertEquals(3, normalizer.countRawNames("/users/*"));
+
+        Config.Endpoint.NAME_CACHE_SIZE = 4;
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("/users/*", normalizer.normalize("/users/" + (i % 10)));
+        }
+        Assert.assertTrue(normalizer.countRawNames("/users/*") <= 4);
+    }
+}
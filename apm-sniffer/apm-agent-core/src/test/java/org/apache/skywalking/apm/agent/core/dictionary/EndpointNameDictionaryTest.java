@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.dictionary;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcServerRule;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.network.register.v2.Endpoint;
+import org.apache.skywalking.apm.network.register.v2.EndpointMapping;
+import org.apache.skywalking.apm.network.register.v2.EndpointMappingElement;
+import org.apache.skywalking.apm.network.register.v2.Enpoints;
+import org.apache.skywalking.apm.network.register.v2.RegisterGrpc;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.REGISTER_BATCH_SIZE;
+
+public class EndpointNameDictionaryTest {
+    @Rule
+    public GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
+
+    private final List<List<String>> requests = new ArrayList<List<String>>();
+    private volatile boolean fail;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(EndpointNameDictionary.INSTANCE, "endpointDictionary", new ConcurrentHashMap());
+        Whitebox.setInternalState(EndpointNameDictionary.INSTANCE, "unRegisterEndpoints", new ConcurrentHashMap());
+        grpcServerRule.getServiceRegistry().addService(new RegisterGrpc.RegisterImplBase() {
+            @Override
+            public void doEndpointRegister(Enpoints request, StreamObserver<EndpointMapping> responseObserver) {
+                if (fail) {
+                    responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                    return;
+                }
+                List<String> names = new ArrayList<String>();
+                EndpointMapping.Builder mapping = EndpointMapping.newBuilder();
+                for (Endpoint endpoint : request.getEndpointsList()) {
+                    names.add(endpoint.getEndpointName());
+                    mapping.addElements(EndpointMappingElement.newBuilder()
+                        .setServiceId(endpoint.getServiceId())
+                        .setEndpointName(endpoint.getEndpointName())
+                        .setFrom(endpoint.getFrom())
+                        .setEndpointId(requests.size() * 1000 + names.size()));
+                }
+                requests.add(names);
+                responseObserver.onNext(mapping.build());
+                responseObserver.onCompleted();
+            }
+        });
+    }
+
+    @Test
+    public void testRegisterInPagesByHits() {
+        for (int i = 0; i < 500; i++) {
+            EndpointNameDictionary.INSTANCE.findOrPrepare4Register(1, "/endpoint" + i, true, false);
+        }
+        for (int i = 0; i < 10; i++) {
+            EndpointNameDictionary.INSTANCE.findOrPrepare4Register(1, "/hot", true, false);
+        }
+
+        EndpointNameDictionary.INSTANCE.syncRemoteDictionary(RegisterGrpc.newBlockingStub(grpcServerRule.getChannel()));
+
+        Assert.assertEquals(3, requests.size());
+        Assert.assertEquals(REGISTER_BATCH_SIZE, requests.get(0).size());
+        Assert.assertEquals(REGISTER_BATCH_SIZE, requests.get(1).size());
+        Assert.assertEquals(501 - 2 * REGISTER_BATCH_SIZE, requests.get(2).size());
+        Assert.assertEquals("/hot", requests.get(0).get(0));
+        Assert.assertFalse(EndpointNameDictionary.INSTANCE.hasUnregistered());
+        Assert.assertTrue(EndpointNameDictionary.INSTANCE.findOrPrepare4Register(1, "/hot", true, false) instanceof Found);
+    }
+
+    @Test
+    public void testKeepUnregisteredAfterFailure() {
+        EndpointNameDictionary.INSTANCE.findOrPrepare4Register(1, "/endpoint", true, false);
+        fail = true;
+        try {
+            EndpointNameDictionary.INSTANCE.syncRemoteDictionary(RegisterGrpc.newBlockingStub(grpcServerRule.getChannel()));
+            Assert.fail();
+        } catch (RuntimeException e) {
+        }
+        Assert.assertTrue(EndpointNameDictionary.INSTANCE.hasUnregistered());
+
+        fail = false;
+        EndpointNameDictionary.INSTANCE.syncRemoteDictionary(RegisterGrpc.newBlockingStub(grpcServerRule.getChannel()));
+        Assert.assertFalse(EndpointNameDictionary.INSTANCE.hasUnregistered());
+        Assert.assertTrue(EndpointNameDictionary.INSTANCE.findOrPrepare4Register(1, "/endpoint", true, false) instanceof Found);
+    }
+
+    @Test
+    public void testPagesByHits() {
+        Map<String, AtomicInteger> hits = new ConcurrentHashMap<String, AtomicInteger>();
+        for (int i = 0; i < 5; i++) {
+            hits.put("key" + i, new AtomicInteger(i));
+        }
+
+        List<List<String>> pages = DictionaryUtil.pagesByHits(hits, 2);
+
+        Assert.assertEquals(3, pages.size());
+        Assert.assertEquals("key4", pages.get(0).get(0));
+        Assert.assertEquals("key3", pages.get(0).get(1));
+        Assert.assertEquals("key0", pages.get(2).get(0));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PluginFinderTest {
+
+    @Test
+    public void testFind() {
+        TestPluginDefine callable = new TestPluginDefine(HierarchyMatch.byHierarchyMatch(new String[] {Callable.class.getName()}));
+        TestPluginDefine runnableCallable = new TestPluginDefine(HierarchyMatch.byHierarchyMatch(new String[] {Runnable.class.getName(), Callable.class.getName()}));
+        TestPluginDefine annotation = new TestPluginDefine(ClassAnnotationMatch.byClassAnnotationMatch(new String[] {Enhance.class.getName()}));
+        TestPluginDefine multiName = new TestPluginDefine(MultiClassNameMatch.byMultiClassMatch(AnnotatedTask.class.getName(), ArrayList.class.getName()));
+        TestPluginDefine name = new TestPluginDefine(NameMatch.byName(AnnotatedTask.class.getName()));
+        TestPluginDefine list = new TestPluginDefine(HierarchyMatch.byHierarchyMatch(new String[] {List.class.getName()}));
+        List<AbstractClassEnhancePluginDefine> plugins = Arrays.<AbstractClassEnhancePluginDefine>asList(callable, runnableCallable, annotation, multiName, name, list);
+        PluginFinder finder = new PluginFinder(plugins);
+
+        assertFound(finder, plugins, AnnotatedTask.class, name, callable, annotation, multiName);
+        assertFound(finder, plugins, SubTask.class, callable, runnableCallable);
+        assertFound(finder, plugins, Task.class, callable);
+        assertFound(finder, plugins, Object.class);
+        assertFound(finder, plugins, ArrayList.class, multiName);
+    }
+
+    private void assertFound(PluginFinder finder, List<AbstractClassEnhancePluginDefine> plugins, Class<?> clazz,
+        AbstractClassEnhancePluginDefine... expected) {
+        TypeDescription typeDescription = new TypeDescription.ForLoadedType(clazz);
+        Assert.assertEquals(Arrays.asList(expected), finder.find(typeDescription, getClass().getClassLoader()));
+        Assert.assertEquals(expected.length > 0, finder.buildMatch().matches(typeDescription));
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Enhance {
+    }
+
+    public static class Task implements Callable<Object> {
+        @Override public Object call() throws Exception {
+            return null;
+        }
+    }
+
+    @Enhance
+    public static class AnnotatedTask extends Task {
+    }
+
+    public static class SubTask extends Task implements Runnable {
+        @Override public void run() {
+        }
+    }
+
+    private static class TestPluginDefine extends AbstractClassEnhancePluginDefine {
+        private final ClassMatch match;
+
+        private TestPluginDefine(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override
+        protected DynamicType.Builder<?> enhance(TypeDescription typeDescription,
+            DynamicType.Builder<?> newClassBuilder, ClassLoader classLoader, EnhanceContext context) {
+            return newClassBuilder;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return match;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InstMethodsInterTest {
+    private static InstMethodsInter INNER_INTER;
+    private static Class<?>[] ARGUMENTS_TYPES;
+    private static int AFTER_COUNT;
+
+    private Target target;
+    private Method method;
+
+    @Before
+    public void setUp() throws Exception {
+        target = new Target();
+        method = Target.class.getDeclaredMethod("call", String.class, int.class);
+        ARGUMENTS_TYPES = null;
+        AFTER_COUNT = 0;
+    }
+
+    @Test
+    public void testArgumentsTypes() throws Throwable {
+        InstMethodsInter inter = new InstMethodsInter(RecordInterceptor.class.getName(), getClass().getClassLoader());
+
+        Assert.assertEquals("origin", inter.intercept(target, new Object[] {"a", 1}, origin("origin"), method));
+        Assert.assertArrayEquals(new Class<?>[] {String.class, int.class}, ARGUMENTS_TYPES);
+
+        Class<?>[] argumentsTypes = ARGUMENTS_TYPES;
+        inter.intercept(target, new Object[] {"b", 2}, origin("origin"), method);
+        Assert.assertSame(argumentsTypes, ARGUMENTS_TYPES);
+        Assert.assertEquals(2, AFTER_COUNT);
+    }
+
+    @Test
+    public void testReentrantIntercept() throws Throwable {
+        INNER_INTER = new InstMethodsInter(RecordInterceptor.class.getName(), getClass().getClassLoader());
+        InstMethodsInter outerInter = new InstMethodsInter(ReentrantInterceptor.class.getName(), getClass().getClassLoader());
+
+        Assert.assertEquals("defined", outerInter.intercept(target, new Object[] {"a", 1}, origin("origin"), method));
+        Assert.assertEquals(2, AFTER_COUNT);
+
+        Assert.assertEquals("origin", INNER_INTER.intercept(target, new Object[] {"a", 1}, origin("origin"), method));
+    }
+
+    @Test
+    public void testBeforeMethodFailure() throws Throwable {
+        InstMethodsInter inter = new InstMethodsInter(FailureInterceptor.class.getName(), getClass().getClassLoader());
+
+        Assert.assertEquals("origin", inter.intercept(target, new Object[] {"a", 1}, origin("origin"), method));
+        Assert.assertEquals("origin", inter.intercept(target, new Object[] {"a", 1}, origin("origin"), method));
+        Assert.assertEquals(2, AFTER_COUNT);
+    }
+
+    private static Callable<?> origin(final String ret) {
+        return new Callable<Object>() {
+            @Override public Object call() throws Exception {
+                return ret;
+            }
+        };
+    }
+
+    public static class Target implements EnhancedInstance {
+        private Object dynamicField;
+
+        public String call(String name, int count) {
+            return name + count;
+        }
+
+        @Override public Object getSkyWalkingDynamicField() {
+            return dynamicField;
+        }
+
+        @Override public void setSkyWalkingDynamicField(Object value) {
+            this.dynamicField = value;
+        }
+    }
+
+    public static class RecordInterceptor implements InstanceMethodsAroundInterceptor {
+        @Override public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+            Class<?>[] argumentsTypes, MethodInterceptResult result) throws Throwable {
+            ARGUMENTS_TYPES = argumentsTypes;
+        }
+
+        @Override public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+            Class<?>[] argumentsTypes, Object ret) throws Throwable {
+            AFTER_COUNT++;
+            return ret;
+        }
+
+        @Override public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+            Class<?>[] argumentsTypes, Throwable t) {
+        }
+    }
+
+    /**
+     * Define the return value, then call another intercepted method before leaving #beforeMethod.
+     */
+    public static class ReentrantInterceptor extends RecordInterceptor {
+        @Override public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+            Class<?>[] argumentsTypes, MethodInterceptResult result) throws Throwable {
+            result.defineReturnValue("defined");
+            Assert.assertEquals("inner", INNER_INTER.intercept(objInst, allArguments, origin("inner"), method));
+        }
+    }
+
+    public static class FailureInterceptor extends RecordInterceptor {
+        @Override public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+            Class<?>[] argumentsTypes, MethodInterceptResult result) throws Throwable {
+            throw new IllegalStateException("before method failure");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AgentClassLoaderTest {
+    private static final String LOADED_CLASS = LoadedByAgent.class.getName();
+    private static final String LOADED_CLASS_PATH = LOADED_CLASS.replace('.', '/') + ".class";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File pluginJar;
+    private File activationJar;
+    private AgentClassLoader classLoader;
+
+    @Before
+    public void setUp() throws IOException {
+        File plugins = folder.newFolder("plugins");
+        File activations = folder.newFolder("activations");
+
+        pluginJar = new File(plugins, "plugin.jar");
+        JarOutputStream plugin = new JarOutputStream(new FileOutputStream(pluginJar));
+        for (int i = 0; i < 2000; i++) {
+            writeEntry(plugin, "org/test/resource" + i + ".txt", ("plugin " + i).getBytes("UTF-8"));
+        }
+        writeEntry(plugin, "duplicate.txt", "plugin".getBytes("UTF-8"));
+        writeEntry(plugin, LOADED_CLASS_PATH, classBytes());
+        plugin.close();
+
+        activationJar = new File(activations, "activation.jar");
+        JarOutputStream activation = new JarOutputStream(new FileOutputStream(activationJar));
+        writeEntry(activation, "duplicate.txt", "activation".getBytes("UTF-8"));
+        activation.close();
+
+        classLoader = new AgentClassLoader(null, Arrays.asList(plugins, activations));
+    }
+
+    @Test
+    public void testFindClass() throws Exception {
+        Class<?> clazz = classLoader.loadClass(LOADED_CLASS);
+
+        Assert.assertSame(classLoader, clazz.getClassLoader());
+        Assert.assertNotSame(LoadedByAgent.class, clazz);
+        Assert.assertEquals(pluginJar.toURI().toURL(), clazz.getProtectionDomain().getCodeSource().getLocation());
+        Assert.assertNotNull(clazz.getPackage());
+        Assert.assertEquals(getClass().getPackage().getName(), clazz.getPackage().getName());
+        Assert.assertSame(classLoader.loadClass(LOADED_CLASS), clazz);
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void testClassNotFound() throws Exception {
+        classLoader.loadClass("org.test.NotExisting");
+    }
+
+    @Test
+    public void testFindResource() throws Exception {
+        Assert.assertEquals("plugin 1999", read(classLoader.getResource("org/test/resource1999.txt")));
+        Assert.assertEquals("plugin", read(classLoader.getResource("duplicate.txt")));
+        Assert.assertNull(classLoader.getResource("not-existing.txt"));
+    }
+
+    @Test
+    public void testFindResources() throws Exception {
+        Enumeration<URL> resources = classLoader.getResources("duplicate.txt");
+        List<URL> urls = Collections.list(resources);
+        Assert.assertEquals(2, urls.size());
+        Assert.assertEquals("plugin", read(urls.get(0)));
+        Assert.assertEquals("activation", read(urls.get(1)));
+
+        Assert.assertFalse(classLoader.getResources("not-existing.txt").hasMoreElements());
+    }
+
+    private static void writeEntry(JarOutputStream jar, String name, byte[] data) throws IOException {
+        jar.putNextEntry(new JarEntry(name));
+        jar.write(data);
+        jar.closeEntry();
+    }
+
+    private static byte[] classBytes() throws IOException {
+        return toBytes(AgentClassLoaderTest.class.getClassLoader().getResourceAsStream(LOADED_CLASS_PATH));
+    }
+
+    private static String read(URL url) throws IOException {
+        return new String(toBytes(url.openStream()), "UTF-8");
+    }
+
+    private static byte[] toBytes(InputStream is) throws IOException {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        } finally {
+            is.close();
+        }
+    }
+
+    public static class LoadedByAgent {
+    }
+}
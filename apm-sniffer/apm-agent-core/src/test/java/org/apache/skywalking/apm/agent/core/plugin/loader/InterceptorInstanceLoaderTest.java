@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class InterceptorInstanceLoaderTest {
+    private static final String INTERCEPTOR_CLASS = MockInterceptor.class.getName();
+    private static final String INTERCEPTOR_CLASS_PATH = INTERCEPTOR_CLASS.replace('.', '/') + ".class";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<File> classpath;
+
+    @Before
+    public void setUp() throws IOException {
+        File plugins = folder.newFolder("plugins");
+        JarOutputStream plugin = new JarOutputStream(new FileOutputStream(new File(plugins, "plugin.jar")));
+        plugin.putNextEntry(new JarEntry(INTERCEPTOR_CLASS_PATH));
+        plugin.write(classBytes());
+        plugin.closeEntry();
+        plugin.close();
+
+        classpath = Collections.singletonList(plugins);
+    }
+
+    @Test
+    public void testSingletonForEachClassLoader() throws Exception {
+        ClassLoader first = newTargetClassLoader();
+        ClassLoader second = newTargetClassLoader();
+
+        Object interceptor = load(first);
+        Assert.assertTrue(interceptor.getClass().getClassLoader() instanceof AgentClassLoader);
+        collectGarbage();
+        Assert.assertSame(interceptor, load(first));
+
+        Object other = load(second);
+        Assert.assertNotSame(interceptor, other);
+        Assert.assertNotSame(interceptor.getClass().getClassLoader(), other.getClass().getClassLoader());
+    }
+
+    @Test
+    public void testSingletonOfTargetClass() throws Exception {
+        ClassLoader target = new URLClassLoader(new URL[0], getClass().getClassLoader());
+
+        Object interceptor = load(target);
+        Assert.assertSame(MockInterceptor.class, interceptor.getClass());
+        collectGarbage();
+        Assert.assertSame(interceptor, load(target));
+    }
+
+    @Test
+    public void testConcurrentLoad() throws Exception {
+        final ClassLoader[] targets = new ClassLoader[4];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = newTargetClassLoader();
+        }
+        final Object[][] loaded = new Object[16][targets.length];
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[loaded.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < targets.length; j++) {
+                            loaded[index][j] = load(targets[j]);
+                        }
+                    } catch (Throwable t) {
+                        failure.set(t);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertNull(failure.get());
+        for (int j = 0; j < targets.length; j++) {
+            Assert.assertNotNull(loaded[0][j]);
+            for (Object[] instances : loaded) {
+                Assert.assertSame(loaded[0][j], instances[j]);
+            }
+        }
+    }
+
+    @Test
+    public void testReleaseClassLoaders() throws Exception {
+        List<WeakReference<ClassLoader>> released = new ArrayList<WeakReference<ClassLoader>>();
+        for (int i = 0; i < 100; i++) {
+            ClassLoader target = newTargetClassLoader();
+            load(target);
+            released.add(new WeakReference<ClassLoader>(target));
+        }
+
+        for (int i = 0; i < 50 && !allCleared(released); i++) {
+            collectGarbage();
+        }
+        Assert.assertTrue(allCleared(released));
+    }
+
+    private Object load(ClassLoader target) throws Exception {
+        return InterceptorInstanceLoader.load(INTERCEPTOR_CLASS, target, classpath);
+    }
+
+    private static boolean allCleared(List<WeakReference<ClassLoader>> references) {
+        for (WeakReference<ClassLoader> reference : references) {
+            if (reference.get() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void collectGarbage() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * The interceptor is not visible from this target, so it is defined by the agent class loader.
+     */
+    private static ClassLoader newTargetClassLoader() {
+        return new URLClassLoader(new URL[0], null);
+    }
+
+    private static byte[] classBytes() throws IOException {
+        InputStream is = InterceptorInstanceLoaderTest.class.getClassLoader().getResourceAsStream(INTERCEPTOR_CLASS_PATH);
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        } finally {
+            is.close();
+        }
+    }
+
+    public static class MockInterceptor {
+    }
+}
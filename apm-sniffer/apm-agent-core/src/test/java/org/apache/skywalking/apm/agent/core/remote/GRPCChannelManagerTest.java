@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.CallOptions;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class GRPCChannelManagerTest {
+    private static final int BACKEND_NUM = 3;
+    private static final int CALL_NUM = 3000;
+
+    /**
+     * A unary method of the test backends, so the channels are tested without any collector protocol.
+     */
+    static final MethodDescriptor<String, String> METHOD = MethodDescriptor.<String, String>newBuilder()
+        .setType(MethodDescriptor.MethodType.UNARY)
+        .setFullMethodName(MethodDescriptor.generateFullMethodName("test.Backend", "call"))
+        .setRequestMarshaller(new StringMarshaller())
+        .setResponseMarshaller(new StringMarshaller())
+        .build();
+
+    private Server[] servers = new Server[BACKEND_NUM];
+    private int[] ports = new int[BACKEND_NUM];
+    private AtomicInteger[] received = new AtomicInteger[BACKEND_NUM];
+    private GRPCChannelManager channelManager = new GRPCChannelManager();
+    private String backendService;
+
+    @Before
+    public void setUp() throws Throwable {
+        StringBuilder addresses = new StringBuilder();
+        for (int i = 0; i < BACKEND_NUM; i++) {
+            received[i] = new AtomicInteger();
+            startServer(i);
+            if (i > 0) {
+                addresses.append(',');
+            }
+            addresses.append("127.0.0.1:").append(ports[i]);
+        }
+        backendService = Config.Collector.BACKEND_SERVICE;
+        Config.Collector.BACKEND_SERVICE = addresses.toString();
+        channelManager.boot();
+        channelManager.run();
+    }
+
+    @After
+    public void tearDown() throws Throwable {
+        channelManager.shutdown();
+        Config.Collector.BACKEND_SERVICE = backendService;
+        for (Server server : servers) {
+            server.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCallsSpreadOverBackends() {
+        for (int i = 0; i < CALL_NUM; i++) {
+            call();
+        }
+
+        for (AtomicInteger count : received) {
+            assertTrue(count.get() + " calls received", Math.abs(count.get() - CALL_NUM / BACKEND_NUM) <= CALL_NUM / BACKEND_NUM / 10);
+        }
+    }
+
+    @Test
+    public void testFailoverWhenBackendIsDown() throws Throwable {
+        for (int i = 0; i < BACKEND_NUM; i++) {
+            call();
+        }
+
+        servers[0].shutdownNow().awaitTermination();
+        int sent = 0;
+        int failed = 0;
+        long start = System.currentTimeMillis();
+        while (System.currentTimeMillis() - start < 1000) {
+            try {
+                call();
+                sent++;
+            } catch (Throwable t) {
+                failed++;
+                assertTrue(channelManager.isNetworkError(t));
+            }
+        }
+        assertTrue(failed + " calls failed", failed <= 1);
+        assertTrue(sent > 0);
+
+        startServer(0);
+        long waitUntil = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(Config.Collector.GRPC_CHANNEL_CHECK_INTERVAL) * 2;
+        while (received[0].get() == 1 && System.currentTimeMillis() < waitUntil) {
+            call();
+            sent++;
+        }
+        assertTrue(received[0].get() > 1);
+        assertThat(received[0].get() + received[1].get() + received[2].get(), is(BACKEND_NUM + sent));
+    }
+
+    private void call() {
+        ClientCalls.blockingUnaryCall(channelManager.getChannel(), METHOD, CallOptions.DEFAULT, "segment");
+    }
+
+    private void startServer(final int index) throws IOException {
+        ServerServiceDefinition service = ServerServiceDefinition.builder("test.Backend")
+            .addMethod(METHOD, ServerCalls.asyncUnaryCall(new ServerCalls.UnaryMethod<String, String>() {
+                @Override
+                public void invoke(String request, StreamObserver<String> responseObserver) {
+                    received[index].incrementAndGet();
+                    responseObserver.onNext(request);
+                    responseObserver.onCompleted();
+                }
+            })).build();
+        servers[index] = NettyServerBuilder.forPort(ports[index]).addService(service).build().start();
+        ports[index] = servers[index].getPort();
+    }
+
+    static class StringMarshaller implements MethodDescriptor.Marshaller<String> {
+        @Override
+        public InputStream stream(String value) {
+            return new ByteArrayInputStream(value.getBytes());
+        }
+
+        @Override
+        public String parse(InputStream stream) {
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[256];
+                int length;
+                while ((length = stream.read(buffer)) >= 0) {
+                    out.write(buffer, 0, length);
+                }
+                return out.toString();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.util.Random;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ServiceAndEndpointRegisterClientTest {
+    @Test
+    public void testBackoff() {
+        Random random = new Random();
+        long interval = Config.Collector.APP_AND_SERVICE_REGISTER_CHECK_INTERVAL * 1000;
+        long maxBackoff = Config.Collector.REGISTER_MAX_BACKOFF * 1000;
+        for (int failures = 1; failures < 100; failures++) {
+            long expected = Math.min(interval << Math.min(failures - 1, 16), maxBackoff);
+            for (int i = 0; i < 100; i++) {
+                long backoff = ServiceAndEndpointRegisterClient.backoffMillis(failures, random);
+                Assert.assertTrue(backoff >= expected / 2);
+                Assert.assertTrue(backoff <= expected);
+            }
+        }
+    }
+}
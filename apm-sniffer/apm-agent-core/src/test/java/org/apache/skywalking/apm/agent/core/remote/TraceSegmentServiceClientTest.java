@@ -19,11 +19,16 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import com.google.protobuf.InvalidProtocolBufferException;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.netty.NettyServerBuilder;
 import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
 import org.apache.skywalking.apm.agent.core.context.tag.Tags;
@@ -157,4 +162,66 @@ public class TraceSegmentServiceClientTest {
         assertThat(reconnect, is(true));
 
     }
+
+    @Test
+    public void testResendToAnotherBackendOnNetworkError() throws Throwable {
+        final AtomicBoolean firstStream = new AtomicBoolean(true);
+        final List<Integer> failedBackends = new ArrayList<Integer>();
+        final List<Integer> receivedBackends = new ArrayList<Integer>();
+        Server[] servers = new Server[2];
+        StringBuilder addresses = new StringBuilder();
+        for (int i = 0; i < servers.length; i++) {
+            final int index = i;
+            servers[i] = NettyServerBuilder.forPort(0).addService(new TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase() {
+                @Override
+                public StreamObserver<UpstreamSegment> collect(final StreamObserver<Commands> responseObserver) {
+                    if (firstStream.compareAndSet(true, false)) {
+                        failedBackends.add(index);
+                        responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                    }
+                    return new StreamObserver<UpstreamSegment>() {
+                        @Override
+                        public void onNext(UpstreamSegment value) {
+                            receivedBackends.add(index);
+                            upstreamSegments.add(value);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            responseObserver.onNext(Commands.getDefaultInstance());
+                            responseObserver.onCompleted();
+                        }
+                    };
+                }
+            }).build().start();
+            addresses.append(i > 0 ? "," : "").append("127.0.0.1:").append(servers[i].getPort());
+        }
+        String backendService = Config.Collector.BACKEND_SERVICE;
+        Config.Collector.BACKEND_SERVICE = addresses.toString();
+        GRPCChannelManager channelManager = new GRPCChannelManager();
+        try {
+            channelManager.boot();
+            channelManager.run();
+            Whitebox.setInternalState(serviceClient, "serviceStub", TraceSegmentReportServiceGrpc.newStub(channelManager.getChannel()));
+
+            AbstractSpan firstEntrySpan = ContextManager.createEntrySpan("/testFirstEntry", null);
+            firstEntrySpan.setComponent(ComponentsDefine.TOMCAT);
+            ContextManager.stopSpan();
+            serviceClient.consume(storage.getTraceSegments());
+        } finally {
+            channelManager.shutdown();
+            Config.Collector.BACKEND_SERVICE = backendService;
+            for (Server server : servers) {
+                server.shutdownNow();
+            }
+        }
+
+        assertThat(failedBackends.size(), is(1));
+        assertThat(upstreamSegments.size(), is(1));
+        assertThat(receivedBackends.get(0), is(1 - failedBackends.get(0)));
+    }
 }
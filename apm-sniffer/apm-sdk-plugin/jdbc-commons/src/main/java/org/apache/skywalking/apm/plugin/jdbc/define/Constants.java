@@ -19,6 +19,8 @@
 
 package org.apache.skywalking.apm.plugin.jdbc.define;
 
+import org.apache.skywalking.apm.agent.core.context.tag.StringTag;
+
 public class Constants {
     public static final String CREATE_STATEMENT_INTERCEPT_CLASS = "org.apache.skywalking.apm.plugin.jdbc.JDBCStatementInterceptor";
 
@@ -42,4 +44,6 @@ public class Constants {
 
     public static final String RELEASE_SAVE_POINT_METHOD_NAME = "releaseSavepoint";
 
+    public static final StringTag SQL_PARAMETERS = new StringTag("db.sql.parameters");
+
 }
@@ -24,6 +24,7 @@ import org.apache.skywalking.apm.agent.core.context.tag.Tags;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.plugin.jdbc.define.Constants;
 
 /**
  * {@link CallableStatementTracing} create an exit span when the client call the method in the class that extend {@link
@@ -33,15 +34,36 @@ import org.apache.skywalking.apm.agent.core.context.ContextManager;
  */
 public class CallableStatementTracing {
 
+    /**
+     * Trace the SQL given to the execute method, such as {@link java.sql.CallableStatement#execute(String)}.
+     */
     public static <R> R execute(java.sql.CallableStatement realStatement,
         ConnectionInfo connectInfo, String method, String sql, Executable<R> exec)
         throws SQLException {
+        return execute(realStatement, connectInfo, method, sql, SQLNormalizer.statementSql(sql, connectInfo.getDBType()), null, exec);
+    }
+
+    /**
+     * Trace the SQL the statement was prepared with, such as {@link java.sql.CallableStatement#execute()}.
+     *
+     * @param taggedSql the SQL to tag, shaped by {@link SQLNormalizer#preparedSql(String)} once for the statement.
+     * @param parameters the parameters set on the statement, null if they are not traced.
+     */
+    public static <R> R execute(java.sql.CallableStatement realStatement,
+        ConnectionInfo connectInfo, String method, String sql, String taggedSql,
+        PreparedStatementParameters parameters, Executable<R> exec) throws SQLException {
         try {
-            AbstractSpan span = ContextManager.createExitSpan(connectInfo.getDBType() + "/JDBI/CallableStatement/" + method, connectInfo.getDatabasePeer());
+            AbstractSpan span = ContextManager.createExitSpan(connectInfo.getOperationName("CallableStatement", method), connectInfo.getDatabasePeer());
             Tags.DB_TYPE.set(span, "sql");
             SpanLayer.asDB(span);
             Tags.DB_INSTANCE.set(span, connectInfo.getDatabaseName());
-            Tags.DB_STATEMENT.set(span, sql);
+            Tags.DB_STATEMENT.set(span, taggedSql);
+            if (parameters != null) {
+                String tagged = parameters.format();
+                if (tagged != null) {
+                    Constants.SQL_PARAMETERS.set(span, tagged);
+                }
+            }
             span.setComponent(connectInfo.getComponent());
             return exec.exe(realStatement, sql);
         } catch (SQLException e) {
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.apm.plugin.jdbc.trace;
 
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.skywalking.apm.network.trace.component.OfficialComponent;
 
 /**
@@ -43,6 +44,12 @@ public class ConnectionInfo {
      */
     private final OfficialComponent component;
 
+    /**
+     * The operation names of the statements, by the statement type and the method. They are built once, as the
+     * connection info lives as long as the connection.
+     */
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, String>> operationNames = new ConcurrentHashMap<String, ConcurrentHashMap<String, String>>();
+
     public ConnectionInfo(OfficialComponent component, String dbType, String host, int port, String databaseName) {
         this.dbType = dbType;
         this.databasePeer = host + ":" + port;
@@ -76,4 +83,26 @@ public class ConnectionInfo {
     public void setDatabaseName(String dataBaseName) {
         this.databaseName = dataBaseName;
     }
+
+    /**
+     * @param statementType such as Statement, PreparedStatement and CallableStatement.
+     * @param method the execute method of the statement.
+     * @return the operation name, such as `Mysql/JDBI/Statement/execute`.
+     */
+    public String getOperationName(String statementType, String method) {
+        ConcurrentHashMap<String, String> names = operationNames.get(statementType);
+        if (names == null) {
+            names = new ConcurrentHashMap<String, String>(8);
+            ConcurrentHashMap<String, String> previous = operationNames.putIfAbsent(statementType, names);
+            if (previous != null) {
+                names = previous;
+            }
+        }
+        String operationName = names.get(method);
+        if (operationName == null) {
+            operationName = dbType + "/JDBI/" + statementType + "/" + method;
+            names.putIfAbsent(method, operationName);
+        }
+        return operationName;
+    }
 }
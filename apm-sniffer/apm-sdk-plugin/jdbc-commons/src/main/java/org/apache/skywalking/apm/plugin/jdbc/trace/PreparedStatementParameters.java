@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.jdbc.trace;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * {@link PreparedStatementParameters} keeps the parameters set on a prepared statement, when {@link
+ * Config.Plugin.JDBC#TRACE_SQL_PARAMETERS} is true. The primitive values are kept as their text, and only the
+ * parameters which could be shown in {@link Config.Plugin.JDBC#SQL_PARAMETERS_MAX_LENGTH} are kept.
+ */
+public class PreparedStatementParameters {
+    private static final String NULL = "NULL";
+
+    private final int maxLength;
+    /**
+     * Each parameter takes one char and a separator at least, so the parameters beyond the capacity are never shown.
+     */
+    private final int capacity;
+    private String[] values;
+    private int size;
+
+    public PreparedStatementParameters(int maxLength) {
+        this.maxLength = maxLength;
+        this.capacity = maxLength > 0 ? maxLength / 2 + 1 : Integer.MAX_VALUE;
+        this.values = new String[Math.min(8, capacity)];
+    }
+
+    public void setNull(int parameterIndex) {
+        put(parameterIndex, NULL);
+    }
+
+    public void set(int parameterIndex, boolean value) {
+        put(parameterIndex, String.valueOf(value));
+    }
+
+    public void set(int parameterIndex, int value) {
+        put(parameterIndex, String.valueOf(value));
+    }
+
+    public void set(int parameterIndex, long value) {
+        put(parameterIndex, String.valueOf(value));
+    }
+
+    public void set(int parameterIndex, float value) {
+        put(parameterIndex, String.valueOf(value));
+    }
+
+    public void set(int parameterIndex, double value) {
+        put(parameterIndex, String.valueOf(value));
+    }
+
+    public void set(int parameterIndex, Object value) {
+        put(parameterIndex, value == null ? NULL : value.toString());
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            values[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * @return the parameters in the index order, such as `[1,abc,NULL]`, the parameters not set are shown as `?`, or
+     * null if no parameter is set.
+     */
+    public String format() {
+        if (size == 0) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder(Math.min(64, capacity * 2));
+        text.append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            String value = values[i] == null ? "?" : values[i];
+            if (maxLength > 0 && text.length() + value.length() > maxLength) {
+                text.append(value, 0, Math.min(value.length(), maxLength + 1 - text.length()));
+                break;
+            }
+            text.append(value);
+        }
+        text.append(']');
+        return SQLNormalizer.truncate(text.toString(), maxLength);
+    }
+
+    private void put(int parameterIndex, String value) {
+        if (parameterIndex < 1 || parameterIndex > capacity) {
+            return;
+        }
+        if (parameterIndex > values.length) {
+            String[] expanded = new String[Math.min(Math.max(values.length * 2, parameterIndex), capacity)];
+            System.arraycopy(values, 0, expanded, 0, size);
+            values = expanded;
+        }
+        values[parameterIndex - 1] = value;
+        if (parameterIndex > size) {
+            size = parameterIndex;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.jdbc.trace;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * {@link SQLNormalizer} shapes the SQL before it is tagged in the span.
+ * <p>
+ * The SQL of the non-prepared statements usually contains the literal values, so each span carries a different, maybe
+ * very long, statement. {@link #normalize(String)} replaces the string and numeric literals by `?`, and collapses the
+ * `IN` lists of them into `IN (?)`, in a single pass. The comments, including the optimizer hints, and the quoted
+ * identifiers are kept as they are.
+ * <p>
+ * The lexer knows the MySQL `X'..'`, `B'..'` literals, the PostgreSQL and H2 dollar quoted strings, `E'..'` literals
+ * and `$n` parameters, and the Oracle `q'[..]'` quoted strings. The backslash escapes in the quoted strings are only
+ * MySQL's, so they are only known on the MySQL connections, and in the `E'..'` literals. The other databases follow the
+ * standard SQL, where `'C:\'` is a complete literal.
+ *
+ * @see Config.Plugin.JDBC
+ */
+public class SQLNormalizer {
+    private static final char PLACEHOLDER = '?';
+
+    private static final String TRUNCATION_MARKER = "...";
+
+    private static final String MYSQL_DB_TYPE = "Mysql";
+
+    /**
+     * The prepared SQL cache is split by the SQL hash, so the threads executing different SQL rarely wait for each
+     * other.
+     */
+    private static final int PREPARED_SQL_CACHE_STRIPES = 16;
+
+    private static final PreparedSqlCache[] PREPARED_SQL = new PreparedSqlCache[PREPARED_SQL_CACHE_STRIPES];
+
+    static {
+        for (int i = 0; i < PREPARED_SQL_CACHE_STRIPES; i++) {
+            PREPARED_SQL[i] = new PreparedSqlCache();
+        }
+    }
+
+    /**
+     * @param sql the SQL executed by a non-prepared statement.
+     * @param dbType the {@link ConnectionInfo#getDBType()} of the connection executing it.
+     * @return the SQL to tag, normalized if {@link Config.Plugin.JDBC#NORMALIZE_SQL} is true, and truncated to {@link
+     * Config.Plugin.JDBC#SQL_MAX_LENGTH}.
+     */
+    public static String statementSql(String sql, String dbType) {
+        if (Config.Plugin.JDBC.NORMALIZE_SQL) {
+            sql = normalize(sql, MYSQL_DB_TYPE.equals(dbType));
+        }
+        return truncate(sql, Config.Plugin.JDBC.SQL_MAX_LENGTH);
+    }
+
+    /**
+     * The SQL of the prepared statements is already parameterized, and the same SQL is prepared again and again, so it
+     * is only truncated, once for each statement. The truncated SQL is cached, then the spans share the same string.
+     * The cache keeps about {@link Config.Plugin.JDBC#SQL_CACHE_SIZE} SQL, evicting the least recently used ones. It is
+     * not used if the SQL is not truncated, as the SQL is then tagged as it is.
+     *
+     * @param sql the SQL the statement was prepared with.
+     * @return the SQL to tag, truncated to {@link Config.Plugin.JDBC#SQL_MAX_LENGTH}.
+     */
+    public static String preparedSql(String sql) {
+        final int maxLength = Config.Plugin.JDBC.SQL_MAX_LENGTH;
+        if (sql == null || maxLength <= 0 || sql.length() <= maxLength) {
+            return sql;
+        }
+        if (Config.Plugin.JDBC.SQL_CACHE_SIZE <= 0) {
+            return truncate(sql, maxLength);
+        }
+        int hash = sql.hashCode();
+        PreparedSqlCache cache = PREPARED_SQL[(hash ^ (hash >>> 16)) & (PREPARED_SQL_CACHE_STRIPES - 1)];
+        synchronized (cache) {
+            if (cache.maxLength != maxLength) {
+                cache.clear();
+                cache.maxLength = maxLength;
+            }
+            String tagged = cache.get(sql);
+            if (tagged == null) {
+                tagged = truncate(sql, maxLength);
+                cache.put(sql, tagged);
+            }
+            return tagged;
+        }
+    }
+
+    /**
+     * @return the text cut to the max length, ending with {@link #TRUNCATION_MARKER}, or the text itself if it is not
+     * longer than the max length, or the max length is not positive.
+     */
+    public static String truncate(String text, int maxLength) {
+        if (text == null || maxLength <= 0 || text.length() <= maxLength) {
+            return text;
+        }
+        int end = maxLength;
+        if (Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return new StringBuilder(end + TRUNCATION_MARKER.length()).append(text, 0, end).append(TRUNCATION_MARKER).toString();
+    }
+
+    /**
+     * @param backslashEscapes true if the backslash escapes the next char in the quoted strings, as in MySQL.
+     * @return the SQL with the literals replaced by `?`, or the SQL itself if it has no literal.
+     */
+    public static String normalize(String sql, boolean backslashEscapes) {
+        if (sql == null) {
+            return null;
+        }
+        final int length = sql.length();
+        StringBuilder normalized = null;
+        int copied = 0;
+        /**
+         * The position of the open parenthesis of an `IN` list in the normalized SQL, or -1 if the lexer is not in an
+         * `IN` list that contains only literals.
+         */
+        int inList = -1;
+        int inListItems = 0;
+
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                int end = sql.indexOf('\n', i + 2);
+                i = end < 0 ? length : end + 1;
+                inList = -1;
+                continue;
+            }
+            if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                inList = -1;
+                continue;
+            }
+            if (c == '"' || c == '`') {
+                i = quotedEnd(sql, i, c, c == '"' && backslashEscapes);
+                inList = -1;
+                continue;
+            }
+
+            int end = literalEnd(sql, i, backslashEscapes);
+            if (end > i) {
+                if (normalized == null) {
+                    normalized = new StringBuilder(length);
+                }
+                normalized.append(sql, copied, i).append(PLACEHOLDER);
+                copied = end;
+                i = end;
+                if (inList >= 0) {
+                    inListItems++;
+                }
+                continue;
+            }
+
+            if (c == '(') {
+                if (followsIn(sql, i)) {
+                    inList = (normalized == null ? 0 : normalized.length()) + i - copied;
+                    inListItems = 0;
+                } else {
+                    inList = -1;
+                }
+            } else if (c == ')') {
+                if (inList >= 0 && inListItems > 1) {
+                    if (normalized == null) {
+                        normalized = new StringBuilder(length);
+                    }
+                    normalized.append(sql, copied, i);
+                    normalized.setLength(inList + 1);
+                    normalized.append(PLACEHOLDER);
+                    copied = i;
+                }
+                inList = -1;
+            } else if (c == PLACEHOLDER) {
+                if (inList >= 0) {
+                    inListItems++;
+                }
+            } else if (c != ',' && !Character.isWhitespace(c)) {
+                inList = -1;
+            }
+            i++;
+        }
+
+        if (normalized == null) {
+            return sql;
+        }
+        return normalized.append(sql, copied, length).toString();
+    }
+
+    /**
+     * @return the end of the literal starting at the position, or -1 if no literal starts there.
+     */
+    private static int literalEnd(String sql, int start, boolean backslashEscapes) {
+        final int length = sql.length();
+        char c = sql.charAt(start);
+        if (c == '\'') {
+            return quotedEnd(sql, start, '\'', backslashEscapes);
+        }
+        if (!isTokenStart(sql, start)) {
+            return -1;
+        }
+        char next = start + 1 < length ? sql.charAt(start + 1) : 0;
+        switch (c) {
+            case 'N':
+            case 'n':
+                if (next == '\'') {
+                    return quotedEnd(sql, start + 1, '\'', backslashEscapes);
+                }
+                if ((next == 'q' || next == 'Q') && start + 2 < length && sql.charAt(start + 2) == '\'') {
+                    return alternativeQuotedEnd(sql, start + 2);
+                }
+                return -1;
+            case 'E':
+            case 'e':
+                return next == '\'' ? quotedEnd(sql, start + 1, '\'', true) : -1;
+            case 'X':
+            case 'x':
+            case 'B':
+            case 'b':
+                return next == '\'' ? quotedEnd(sql, start + 1, '\'', backslashEscapes) : -1;
+            case 'Q':
+            case 'q':
+                return next == '\'' ? alternativeQuotedEnd(sql, start + 1) : -1;
+            case '$':
+                return dollarQuotedEnd(sql, start);
+            default:
+                if (isDigit(c) || (c == '.' && isDigit(next))) {
+                    return numberEnd(sql, start);
+                }
+                return -1;
+        }
+    }
+
+    /**
+     * @return the end of the quoted text starting at the position, the doubled quote char is an escaped quote, as is
+     * the quote char after a backslash if the backslash escapes are allowed.
+     */
+    private static int quotedEnd(String sql, int start, char quote, boolean backslashEscapes) {
+        final int length = sql.length();
+        int i = start + 1;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\\' && backslashEscapes) {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < length && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * @param start the position of the quote of the Oracle alternative quoted string, such as `q'[it's]'`.
+     */
+    private static int alternativeQuotedEnd(String sql, int start) {
+        final int length = sql.length();
+        if (start + 1 >= length) {
+            return length;
+        }
+        char close = sql.charAt(start + 1);
+        switch (close) {
+            case '[':
+                close = ']';
+                break;
+            case '(':
+                close = ')';
+                break;
+            case '{':
+                close = '}';
+                break;
+            case '<':
+                close = '>';
+                break;
+        }
+        for (int i = start + 2; i + 1 < length; i++) {
+            if (sql.charAt(i) == close && sql.charAt(i + 1) == '\'') {
+                return i + 2;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * @return the end of the PostgreSQL or H2 dollar quoted string, such as `$$text$$` or `$fn$text$fn$`, or -1 if the
+     * dollar sign doesn't start one, such as the `$1` parameter.
+     */
+    private static int dollarQuotedEnd(String sql, int start) {
+        final int length = sql.length();
+        int i = start + 1;
+        if (i < length && isDigit(sql.charAt(i))) {
+            return -1;
+        }
+        while (i < length && isIdentifierPart(sql.charAt(i)) && sql.charAt(i) != '$') {
+            i++;
+        }
+        if (i >= length || sql.charAt(i) != '$') {
+            return -1;
+        }
+        String tag = sql.substring(start, i + 1);
+        int end = sql.indexOf(tag, i + 1);
+        return end < 0 ? length : end + tag.length();
+    }
+
+    /**
+     * @return the end of the decimal, hexadecimal or binary number, or -1 if it is the beginning of an identifier, as
+     * MySQL allows an identifier to begin with digits.
+     */
+    private static int numberEnd(String sql, int start) {
+        final int length = sql.length();
+        int i = start;
+        if (sql.charAt(i) == '0' && i + 2 < length) {
+            char radix = sql.charAt(i + 1);
+            if (radix == 'x' || radix == 'X' || radix == 'b' || radix == 'B') {
+                i += 2;
+                while (i < length && Character.digit(sql.charAt(i), 16) >= 0) {
+                    i++;
+                }
+                return i < length && isIdentifierPart(sql.charAt(i)) ? -1 : i;
+            }
+        }
+        while (i < length && isDigit(sql.charAt(i))) {
+            i++;
+        }
+        if (i < length && sql.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(sql.charAt(i))) {
+                i++;
+            }
+        }
+        if (i + 1 < length && (sql.charAt(i) == 'e' || sql.charAt(i) == 'E')) {
+            int exponent = i + 1;
+            if (sql.charAt(exponent) == '+' || sql.charAt(exponent) == '-') {
+                exponent++;
+            }
+            if (exponent < length && isDigit(sql.charAt(exponent))) {
+                i = exponent;
+                while (i < length && isDigit(sql.charAt(i))) {
+                    i++;
+                }
+            }
+        }
+        return i < length && isIdentifierPart(sql.charAt(i)) ? -1 : i;
+    }
+
+    /**
+     * @return true if the open parenthesis at the position follows the `IN` keyword.
+     */
+    private static boolean followsIn(String sql, int parenthesis) {
+        int i = parenthesis - 1;
+        while (i >= 0 && Character.isWhitespace(sql.charAt(i))) {
+            i--;
+        }
+        return i >= 1
+            && (sql.charAt(i) == 'n' || sql.charAt(i) == 'N')
+            && (sql.charAt(i - 1) == 'i' || sql.charAt(i - 1) == 'I')
+            && isTokenStart(sql, i - 1);
+    }
+
+    private static boolean isTokenStart(String sql, int position) {
+        return position == 0 || !isIdentifierPart(sql.charAt(position - 1));
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * One stripe of the prepared SQL cache, in the access order, guarded by itself. It is cleared when the max length
+     * changes.
+     */
+    private static class PreparedSqlCache extends LinkedHashMap<String, String> {
+        private static final long serialVersionUID = 1L;
+
+        private int maxLength;
+
+        private PreparedSqlCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > Math.max(1, Config.Plugin.JDBC.SQL_CACHE_SIZE / PREPARED_SQL_CACHE_STRIPES);
+        }
+    }
+}
@@ -42,6 +42,7 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.Map;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 
 /**
  * {@link SWCallableStatement} wrapper the {@link CallableStatement} created by client. and it will interceptor the
@@ -68,6 +69,14 @@ public class SWCallableStatement implements CallableStatement {
     private CallableStatement realStatement;
     private ConnectionInfo connectInfo;
     private String sql;
+    /**
+     * The SQL tagged in the spans, shaped once by {@link SQLNormalizer#preparedSql(String)}.
+     */
+    private String taggedSql;
+    /**
+     * The parameters set on the statement, null if {@link Config.Plugin.JDBC#TRACE_SQL_PARAMETERS} is false.
+     */
+    private PreparedStatementParameters parameters;
 
     public SWCallableStatement(Connection realConnection,
         CallableStatement realStatement, ConnectionInfo connectInfo,
@@ -76,11 +85,15 @@ public class SWCallableStatement implements CallableStatement {
         this.realStatement = realStatement;
         this.connectInfo = connectInfo;
         this.sql = sql;
+        this.taggedSql = SQLNormalizer.preparedSql(sql);
+        if (Config.Plugin.JDBC.TRACE_SQL_PARAMETERS) {
+            this.parameters = new PreparedStatementParameters(Config.Plugin.JDBC.SQL_PARAMETERS_MAX_LENGTH);
+        }
     }
 
     public ResultSet executeQuery() throws SQLException {
         return CallableStatementTracing.execute(realStatement, connectInfo,
-            "executeQuery", sql, new CallableStatementTracing.Executable<ResultSet>() {
+            "executeQuery", sql, taggedSql, parameters, new CallableStatementTracing.Executable<ResultSet>() {
                 public ResultSet exe(
                     CallableStatement realStatement, String sql)
                     throws SQLException {
@@ -91,7 +104,7 @@ public class SWCallableStatement implements CallableStatement {
 
     public int executeUpdate() throws SQLException {
         return CallableStatementTracing.execute(realStatement, connectInfo,
-            "executeUpdate", sql, new CallableStatementTracing.Executable<Integer>() {
+            "executeUpdate", sql, taggedSql, parameters, new CallableStatementTracing.Executable<Integer>() {
                 public Integer exe(
                     CallableStatement realStatement, String sql)
                     throws SQLException {
@@ -102,43 +115,73 @@ public class SWCallableStatement implements CallableStatement {
 
     public void setNull(int parameterIndex, int sqlType) throws SQLException {
         realStatement.setNull(parameterIndex, sqlType);
+        if (parameters != null) {
+            parameters.setNull(parameterIndex);
+        }
     }
 
     public void setBoolean(int parameterIndex, boolean x) throws SQLException {
         realStatement.setBoolean(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setByte(int parameterIndex, byte x) throws SQLException {
         realStatement.setByte(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setShort(int parameterIndex, short x) throws SQLException {
         realStatement.setShort(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setInt(int parameterIndex, int x) throws SQLException {
         realStatement.setInt(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setLong(int parameterIndex, long x) throws SQLException {
         realStatement.setLong(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setFloat(int parameterIndex, float x) throws SQLException {
         realStatement.setFloat(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setDouble(int parameterIndex, double x) throws SQLException {
         realStatement.setDouble(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setBigDecimal(int parameterIndex, BigDecimal x)
         throws SQLException {
         realStatement.setBigDecimal(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setString(int parameterIndex, String x) throws SQLException {
         realStatement.setString(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setBytes(int parameterIndex, byte[] x) throws SQLException {
@@ -147,15 +190,24 @@ public class SWCallableStatement implements CallableStatement {
 
     public void setDate(int parameterIndex, Date x) throws SQLException {
         realStatement.setDate(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setTime(int parameterIndex, Time x) throws SQLException {
         realStatement.setTime(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setTimestamp(int parameterIndex, Timestamp x)
         throws SQLException {
         realStatement.setTimestamp(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setAsciiStream(int parameterIndex, InputStream x, int length)
@@ -176,20 +228,29 @@ public class SWCallableStatement implements CallableStatement {
 
     public void clearParameters() throws SQLException {
         realStatement.clearParameters();
+        if (parameters != null) {
+            parameters.clear();
+        }
     }
 
     public void setObject(int parameterIndex, Object x, int targetSqlType)
         throws SQLException {
         realStatement.setObject(parameterIndex, x, targetSqlType);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setObject(int parameterIndex, Object x) throws SQLException {
         realStatement.setObject(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public boolean execute() throws SQLException {
         return CallableStatementTracing.execute(realStatement, connectInfo,
-            "execute", sql, new CallableStatementTracing.Executable<Boolean>() {
+            "execute", sql, taggedSql, parameters, new CallableStatementTracing.Executable<Boolean>() {
                 public Boolean exe(
                     CallableStatement realStatement, String sql)
                     throws SQLException {
@@ -230,25 +291,40 @@ public class SWCallableStatement implements CallableStatement {
     public void setDate(int parameterIndex, Date x, Calendar cal)
         throws SQLException {
         realStatement.setDate(parameterIndex, x, cal);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setTime(int parameterIndex, Time x, Calendar cal)
         throws SQLException {
         realStatement.setTime(parameterIndex, x, cal);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal)
         throws SQLException {
         realStatement.setTimestamp(parameterIndex, x, cal);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setNull(int parameterIndex, int sqlType, String typeName)
         throws SQLException {
         realStatement.setNull(parameterIndex, sqlType, typeName);
+        if (parameters != null) {
+            parameters.setNull(parameterIndex);
+        }
     }
 
     public void setURL(int parameterIndex, URL x) throws SQLException {
         realStatement.setURL(parameterIndex, x);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public ParameterMetaData getParameterMetaData() throws SQLException {
@@ -262,6 +338,9 @@ public class SWCallableStatement implements CallableStatement {
     public void setNString(int parameterIndex, String value)
         throws SQLException {
         realStatement.setNString(parameterIndex, value);
+        if (parameters != null) {
+            parameters.set(parameterIndex, value);
+        }
     }
 
     public void setNCharacterStream(int parameterIndex, Reader value,
@@ -297,6 +376,9 @@ public class SWCallableStatement implements CallableStatement {
         int scaleOrLength) throws SQLException {
         realStatement
             .setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+        if (parameters != null) {
+            parameters.set(parameterIndex, x);
+        }
     }
 
     public void setAsciiStream(int parameterIndex, InputStream x, long length)
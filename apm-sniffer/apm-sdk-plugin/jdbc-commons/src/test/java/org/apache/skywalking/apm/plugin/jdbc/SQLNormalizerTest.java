@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.jdbc;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.plugin.jdbc.trace.PreparedStatementParameters;
+import org.apache.skywalking.apm.plugin.jdbc.trace.SQLNormalizer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SQLNormalizerTest {
+
+    private int sqlMaxLength;
+
+    @Before
+    public void setUp() {
+        sqlMaxLength = Config.Plugin.JDBC.SQL_MAX_LENGTH;
+    }
+
+    @After
+    public void tearDown() {
+        Config.Plugin.JDBC.SQL_MAX_LENGTH = sqlMaxLength;
+    }
+
+    @Test
+    public void testPreparedSqlNotTruncated() {
+        Config.Plugin.JDBC.SQL_MAX_LENGTH = 0;
+        String sql = "SELECT * FROM t WHERE id = ? /* not truncated */";
+        assertThat(SQLNormalizer.preparedSql(sql), sameInstance(sql));
+
+        Config.Plugin.JDBC.SQL_MAX_LENGTH = sql.length();
+        assertThat(SQLNormalizer.preparedSql(sql), sameInstance(sql));
+        assertThat(SQLNormalizer.preparedSql(null), nullValue());
+    }
+
+    @Test
+    public void testPreparedSqlCached() {
+        Config.Plugin.JDBC.SQL_MAX_LENGTH = 27;
+        String sql = "SELECT * FROM t WHERE id = ? /* cached */";
+        String tagged = SQLNormalizer.preparedSql(sql);
+
+        assertThat(tagged, is("SELECT * FROM t WHERE id = ..."));
+        assertThat(SQLNormalizer.preparedSql(new String(sql)), sameInstance(tagged));
+
+        Config.Plugin.JDBC.SQL_MAX_LENGTH = 8;
+        assertThat(SQLNormalizer.preparedSql(sql), is("SELECT *..."));
+    }
+
+    @Test
+    public void testPreparedSqlCacheEvictsLeastRecentlyUsed() {
+        Config.Plugin.JDBC.SQL_MAX_LENGTH = 27;
+        String sql = "SELECT * FROM t WHERE id = ? /* evicted */";
+        String tagged = SQLNormalizer.preparedSql(sql);
+        for (int i = 0; i < Config.Plugin.JDBC.SQL_CACHE_SIZE * 4; i++) {
+            SQLNormalizer.preparedSql("SELECT * FROM t WHERE id = ? /* " + i + " */");
+        }
+
+        assertThat(SQLNormalizer.preparedSql(new String(sql)) == tagged, is(false));
+        assertThat(SQLNormalizer.preparedSql(sql), is(tagged));
+
+        String later = "SELECT * FROM t WHERE id = ? /* later */";
+        assertThat(SQLNormalizer.preparedSql(new String(later)), sameInstance(SQLNormalizer.preparedSql(later)));
+    }
+
+    @Test
+    public void testPreparedSqlWithoutCache() {
+        Config.Plugin.JDBC.SQL_MAX_LENGTH = 27;
+        int cacheSize = Config.Plugin.JDBC.SQL_CACHE_SIZE;
+        Config.Plugin.JDBC.SQL_CACHE_SIZE = 0;
+        try {
+            String sql = "SELECT * FROM t WHERE id = ? /* not cached */";
+            String tagged = SQLNormalizer.preparedSql(sql);
+            assertThat(tagged, is("SELECT * FROM t WHERE id = ..."));
+            assertThat(SQLNormalizer.preparedSql(sql) == tagged, is(false));
+        } finally {
+            Config.Plugin.JDBC.SQL_CACHE_SIZE = cacheSize;
+        }
+    }
+
+    @Test
+    public void testNormalizeLiterals() {
+        assertNormalized("SELECT * FROM user WHERE id = 1 AND name = 'tom'", "SELECT * FROM user WHERE id = ? AND name = ?");
+        assertNormalized("SELECT a FROM t WHERE x > -1.5e10 AND y < .5 AND z = 0x1F", "SELECT a FROM t WHERE x > -? AND y < ? AND z = ?");
+        assertNormalized("UPDATE t SET v = 'it''s' WHERE k = 'a'", "UPDATE t SET v = ? WHERE k = ?");
+        assertNormalized("INSERT INTO t1 (c1, c2) VALUES (10, 'x')", "INSERT INTO t1 (c1, c2) VALUES (?, ?)");
+    }
+
+    @Test
+    public void testKeepSQLWithoutLiterals() {
+        String sql = "SELECT t2.c3 FROM t2 WHERE t2.c1 = ? AND t2.c$2 = $1";
+        assertThat(SQLNormalizer.normalize(sql, false), sameInstance(sql));
+        assertThat(SQLNormalizer.normalize("", false), is(""));
+        assertThat(SQLNormalizer.normalize(null, false), nullValue());
+    }
+
+    @Test
+    public void testNormalizeInLists() {
+        assertNormalized("SELECT * FROM t WHERE id IN (1, 2, 3) AND s in('a','b')", "SELECT * FROM t WHERE id IN (?) AND s in(?)");
+        assertNormalized("SELECT * FROM t WHERE id NOT IN ( 1 ,2 )", "SELECT * FROM t WHERE id NOT IN (?)");
+        assertNormalized("SELECT * FROM t WHERE id IN (?, ?, ?)", "SELECT * FROM t WHERE id IN (?)");
+        assertNormalized("SELECT * FROM t WHERE id IN (SELECT id FROM s WHERE v = 1)", "SELECT * FROM t WHERE id IN (SELECT id FROM s WHERE v = ?)");
+        assertNormalized("SELECT * FROM t WHERE (a, b) IN ((1, 2), (3, 4))", "SELECT * FROM t WHERE (a, b) IN ((?, ?), (?, ?))");
+        assertNormalized("SELECT * FROM t WHERE min(1, 2) > 0", "SELECT * FROM t WHERE min(?, ?) > ?");
+    }
+
+    @Test
+    public void testKeepCommentsAndQuotedIdentifiers() {
+        assertNormalized("SELECT /*+ INDEX(t idx_1) */ \"col 1\" FROM t -- it's 1\nWHERE c = 2", "SELECT /*+ INDEX(t idx_1) */ \"col 1\" FROM t -- it's 1\nWHERE c = ?");
+        assertNormalized("SELECT \"a\"\"1\" FROM \"t'2\" WHERE x = 3", "SELECT \"a\"\"1\" FROM \"t'2\" WHERE x = ?");
+    }
+
+    @Test
+    public void testMySQL() {
+        assertMySQLNormalized("SELECT `order 1` FROM `t``2` WHERE c = 'a\\'b' AND d = \"q\\\"1\"", "SELECT `order 1` FROM `t``2` WHERE c = ? AND d = \"q\\\"1\"");
+        assertMySQLNormalized("SELECT * FROM 1st_table WHERE bin = b'101' AND hex = X'0A' AND n = 0b101", "SELECT * FROM 1st_table WHERE bin = ? AND hex = ? AND n = ?");
+        assertMySQLNormalized("SELECT _utf8mb4'abc' FROM t", "SELECT _utf8mb4? FROM t");
+        assertMySQLNormalized("SELECT * FROM t WHERE path = 'C:\\\\' AND name = N'x\\'y'", "SELECT * FROM t WHERE path = ? AND name = ?");
+    }
+
+    @Test
+    public void testPostgreSQL() {
+        assertNormalized("SELECT E'a\\'b', $$it's$$, $fn$ x $1 $fn$ FROM t WHERE a = $1", "SELECT ?, ?, ? FROM t WHERE a = $1");
+        assertNormalized("SELECT '1'::int, 2::text", "SELECT ?::int, ?::text");
+        assertNormalized("SELECT * FROM t WHERE path = 'C:\\' AND name = 'x'", "SELECT * FROM t WHERE path = ? AND name = ?");
+    }
+
+    @Test
+    public void testOracle() {
+        assertNormalized("SELECT q'[it's]', Q'{a}', nq'!b!', N'c' FROM dual WHERE rownum <= 10", "SELECT ?, ?, ?, ? FROM dual WHERE rownum <= ?");
+        assertNormalized("SELECT * FROM t WHERE path = N'C:\\' AND name = 'x'", "SELECT * FROM t WHERE path = ? AND name = ?");
+    }
+
+    @Test
+    public void testH2() {
+        assertNormalized("CREATE ALIAS f AS $$ String f(String s) { return s; } $$", "CREATE ALIAS f AS ?");
+        assertNormalized("SELECT * FROM t LIMIT 10 OFFSET 20", "SELECT * FROM t LIMIT ? OFFSET ?");
+        assertNormalized("SELECT \"a\\\" FROM t WHERE path = 'C:\\' AND name = 'x'", "SELECT \"a\\\" FROM t WHERE path = ? AND name = ?");
+    }
+
+    @Test
+    public void testStatementSqlOfDialect() {
+        boolean normalizeSql = Config.Plugin.JDBC.NORMALIZE_SQL;
+        Config.Plugin.JDBC.NORMALIZE_SQL = true;
+        try {
+            String sql = "SELECT * FROM t WHERE path = 'C:\\' AND name = 'x'";
+            assertThat(SQLNormalizer.statementSql(sql, "PostgreSQL"), is("SELECT * FROM t WHERE path = ? AND name = ?"));
+            assertThat(SQLNormalizer.statementSql(sql, "Oracle"), is("SELECT * FROM t WHERE path = ? AND name = ?"));
+            assertThat(SQLNormalizer.statementSql(sql, "Mysql"), is("SELECT * FROM t WHERE path = ??"));
+        } finally {
+            Config.Plugin.JDBC.NORMALIZE_SQL = normalizeSql;
+        }
+    }
+
+    @Test
+    public void testUnterminatedLiteral() {
+        assertNormalized("SELECT * FROM t WHERE a = 'abc", "SELECT * FROM t WHERE a = ?");
+    }
+
+    @Test
+    public void testTruncate() {
+        assertThat(SQLNormalizer.truncate("SELECT 1", 8), is("SELECT 1"));
+        assertThat(SQLNormalizer.truncate("SELECT 1", 6), is("SELECT..."));
+        assertThat(SQLNormalizer.truncate("SELECT 1", 0), is("SELECT 1"));
+        assertThat(SQLNormalizer.truncate("a\uD83D\uDE00", 2), is("a..."));
+    }
+
+    @Test
+    public void testParameters() {
+        PreparedStatementParameters parameters = new PreparedStatementParameters(16);
+        assertThat(parameters.format(), nullValue());
+
+        parameters.set(1, 1);
+        parameters.set(3, "abc");
+        parameters.setNull(4);
+        assertThat(parameters.format(), is("[1,?,abc,NULL]"));
+
+        parameters.set(2, 1.5d);
+        parameters.set(5, true);
+        parameters.set(100, 100L);
+        assertThat(parameters.format(), is("[1,1.5,abc,NULL,..."));
+
+        parameters.clear();
+        assertThat(parameters.format(), nullValue());
+    }
+
+    private void assertNormalized(String sql, String normalized) {
+        assertThat(SQLNormalizer.normalize(sql, false), is(normalized));
+    }
+
+    private void assertMySQLNormalized(String sql, String normalized) {
+        assertThat(SQLNormalizer.normalize(sql, true), is(normalized));
+    }
+}
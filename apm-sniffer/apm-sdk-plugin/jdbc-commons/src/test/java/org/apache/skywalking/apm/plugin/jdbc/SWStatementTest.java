@@ -27,6 +27,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
 import java.util.Properties;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.test.tools.SegmentStorage;
 import org.hamcrest.CoreMatchers;
 import org.junit.Before;
@@ -145,6 +146,26 @@ public class SWStatementTest extends AbstractStatementTest {
         assertDBSpan(spans.get(0), "Mysql/JDBI/Statement/execute", "SELECT * FROM test");
     }
 
+    @Test
+    public void testExecuteWithNormalizedSQL() throws SQLException {
+        String sql = "UPDATE test SET a = 'abc', b = 2 WHERE c IN (1, 2, 3) AND d = 'a long text'";
+        Config.Plugin.JDBC.NORMALIZE_SQL = true;
+        Config.Plugin.JDBC.SQL_MAX_LENGTH = 40;
+        try {
+            Statement statement = swConnection.createStatement();
+            statement.executeUpdate(sql);
+        } finally {
+            Config.Plugin.JDBC.NORMALIZE_SQL = false;
+            Config.Plugin.JDBC.SQL_MAX_LENGTH = 0;
+        }
+
+        verify(mysqlStatement, times(1)).executeUpdate(sql);
+        TraceSegment traceSegment = segmentStorage.getTraceSegments().get(0);
+        List<AbstractTracingSpan> spans = SegmentHelper.getSpans(traceSegment);
+        assertThat(spans.size(), is(1));
+        assertDBSpan(spans.get(0), "Mysql/JDBI/Statement/executeUpdate", "UPDATE test SET a = ?, b = ? WHERE c IN ...");
+    }
+
     @Test
     public void testExecuteWithAutoGeneratedKey() throws SQLException {
         Statement statement = swConnection.createStatement(1, 1);
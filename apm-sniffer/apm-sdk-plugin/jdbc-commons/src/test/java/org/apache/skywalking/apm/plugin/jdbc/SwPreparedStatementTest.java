@@ -42,9 +42,11 @@ import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Properties;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.LogDataEntity;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.util.TagValuePair;
 import org.apache.skywalking.apm.agent.test.helper.SegmentHelper;
 import org.apache.skywalking.apm.agent.test.helper.SpanHelper;
 import org.apache.skywalking.apm.agent.test.tools.AgentServiceRule;
@@ -331,6 +333,30 @@ public class SwPreparedStatementTest extends AbstractStatementTest {
         assertDBSpan(spans.get(0), "Mysql/JDBI/PreparedStatement/execute", "SELECT * FROM test");
     }
 
+    @Test
+    public void testExecuteQueryWithParameters() throws SQLException {
+        Config.Plugin.JDBC.TRACE_SQL_PARAMETERS = true;
+        try {
+            PreparedStatement preparedStatement = swConnection.prepareStatement("SELECT * FROM test WHERE a = ? AND b = ? AND c = ?");
+            preparedStatement.setInt(1, 10);
+            preparedStatement.setString(2, "abc");
+            preparedStatement.setNull(3, 1);
+            preparedStatement.executeQuery();
+            preparedStatement.close();
+        } finally {
+            Config.Plugin.JDBC.TRACE_SQL_PARAMETERS = false;
+        }
+
+        verify(mysqlPreparedStatement, times(1)).executeQuery();
+        TraceSegment traceSegment = segmentStorage.getTraceSegments().get(0);
+        List<AbstractTracingSpan> spans = SegmentHelper.getSpans(traceSegment);
+        assertThat(spans.size(), is(1));
+        assertDBSpan(spans.get(0), "Mysql/JDBI/PreparedStatement/executeQuery", "SELECT * FROM test WHERE a = ? AND b = ? AND c = ?");
+        List<TagValuePair> tags = SpanHelper.getTags(spans.get(0));
+        assertThat(tags.get(3).getKey().key(), is("db.sql.parameters"));
+        assertThat(tags.get(3).getValue(), is("[10,abc,NULL]"));
+    }
+
     @Test
     public void testQuerySqlWithSql() throws SQLException {
         PreparedStatement preparedStatement = swConnection.prepareStatement("SELECT * FROM test", 1);
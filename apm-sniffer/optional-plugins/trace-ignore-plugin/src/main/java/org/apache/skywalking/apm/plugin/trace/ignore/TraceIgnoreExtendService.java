@@ -28,8 +28,7 @@ import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfig;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfigInitializer;
-import org.apache.skywalking.apm.plugin.trace.ignore.matcher.AntPathMatcher;
-import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathMatcher;
 import org.apache.skywalking.apm.util.StringUtil;
 
 /**
@@ -44,9 +43,10 @@ public class TraceIgnoreExtendService extends ContextManagerExtendService {
 
     private static final String DEFAULT_PATH_SEPARATOR = "/";
 
-    private static final String PATTERN_SEPARATOR = ",";
-
-    private TracePathMatcher pathMatcher = new AntPathMatcher();
+    /**
+     * The matcher compiled from {@link IgnoreConfig.Trace#IGNORE_PATH}, it is compiled again when the config changes.
+     */
+    private volatile CompiledPathMatcher pathMatcher;
 
     @Override
     public void boot() {
@@ -57,6 +57,7 @@ public class TraceIgnoreExtendService extends ContextManagerExtendService {
         } catch (AgentPackageNotFoundException e) {
             LOGGER.error("trace ignore config init error", e);
         }
+        pathMatcher = new CompiledPathMatcher(IgnoreConfig.Trace.IGNORE_PATH, IgnoreConfig.Trace.MATCH_CACHE_SIZE);
     }
 
     @Override
@@ -68,13 +69,22 @@ public class TraceIgnoreExtendService extends ContextManagerExtendService {
                 path = path.substring(0, path.length() - 1);
             }
 
-            for (String pattern : pattens.split(PATTERN_SEPARATOR)) {
-                if (pathMatcher.match(pattern, path)) {
+            if (getPathMatcher(pattens).match(path)) {
+                if (LOGGER.isDebugEnable()) {
                     LOGGER.debug("operationName : " + operationName + " Ignore tracking");
-                    return new IgnoredTracerContext();
                 }
+                return new IgnoredTracerContext();
             }
         }
         return super.createTraceContext(operationName, forceSampling);
     }
+
+    private CompiledPathMatcher getPathMatcher(String pattens) {
+        CompiledPathMatcher matcher = pathMatcher;
+        if (matcher == null || (matcher.getPatterns() != pattens && !pattens.equals(matcher.getPatterns()))) {
+            matcher = new CompiledPathMatcher(pattens, IgnoreConfig.Trace.MATCH_CACHE_SIZE);
+            pathMatcher = matcher;
+        }
+        return matcher;
+    }
 }
@@ -33,5 +33,10 @@ public class IgnoreConfig {
          * /path/**  Match any number of characters and support multilevel directories
          */
         public static String IGNORE_PATH = "";
+
+        /**
+         * The max number of the operation names whose match results are cached, zero or negative means no cache.
+         */
+        public static int MATCH_CACHE_SIZE = 0;
     }
 }
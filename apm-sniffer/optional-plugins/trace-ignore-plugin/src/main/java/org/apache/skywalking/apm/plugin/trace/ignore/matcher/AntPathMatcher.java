@@ -128,7 +128,7 @@ public class AntPathMatcher implements TracePathMatcher {
             for (int i = 0; i <= strLength - patLength; i++) {
                 for (int j = 0; j < patLength; j++) {
                     String subPat = resolvedPatterns[patternIdxStart + j + 1];
-                    String subStr = resolvedPatterns[pathIdxStart + i + j];
+                    String subStr = resolvedPaths[pathIdxStart + i + j];
                     if (!MatchAssist.matchStrings(subPat, subStr)) {
                         continue strLoop;
                     }
@@ -0,0 +1,443 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore.matcher;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * {@link CompiledPathMatcher} matches the paths against a list of ant path patterns, which are parsed once, instead of
+ * on every match as {@link AntPathMatcher} does. It follows the same rules as {@link AntPathMatcher}.
+ * <p>
+ * The patterns are compiled into a trie of the path segments, which is walked as a nondeterministic automaton, so
+ * the match runs in O(path segments * trie nodes), without splitting the path or allocating. Before that, the
+ * patterns without wildcards are looked up in a set, and the `/prefix/**` and `**&#47;*.suffix` patterns are
+ * checked against the path directly. The patterns containing `{..}` variables are left to {@link AntPathMatcher}.
+ * <p>
+ * Optionally, the results of the first paths are cached, as the operation names of a service are mostly a few.
+ */
+public class CompiledPathMatcher {
+
+    private static final char PATH_SEPARATOR = '/';
+
+    private static final String ANY_MATCHING_SEGMENT = "*";
+
+    private static final String MULTILEVEL_DIRECTORIES = "**";
+
+    private final Set<String> exactPaths = new HashSet<String>();
+
+    private final List<String> prefixes = new ArrayList<String>();
+
+    private final List<String> absoluteSuffixes = new ArrayList<String>();
+
+    private final List<String> relativeSuffixes = new ArrayList<String>();
+
+    private final List<String> variablePatterns = new ArrayList<String>();
+
+    private final TracePathMatcher variablePatternMatcher = new AntPathMatcher();
+
+    private final String patterns;
+
+    private final int cacheSize;
+
+    private final ConcurrentHashMap<String, Boolean> cachedResults;
+
+    private final List<Node> nodes = new ArrayList<Node>();
+
+    private final Node absoluteRoot = newNode(null, false);
+
+    private final Node relativeRoot = newNode(null, false);
+
+    private final ThreadLocal<long[][]> states = new ThreadLocal<long[][]>() {
+        @Override
+        protected long[][] initialValue() {
+            int words = (nodes.size() + 63) / 64;
+            return new long[][] {new long[words], new long[words]};
+        }
+    };
+
+    /**
+     * @param patterns the patterns separated by `,`.
+     * @param cacheSize the max number of the paths whose results are cached, zero or negative means no cache.
+     */
+    public CompiledPathMatcher(String patterns, int cacheSize) {
+        this.patterns = patterns;
+        this.cacheSize = cacheSize;
+        this.cachedResults = cacheSize > 0 ? new ConcurrentHashMap<String, Boolean>() : null;
+        if (StringUtil.isEmpty(patterns)) {
+            return;
+        }
+        for (String pattern : patterns.split(",")) {
+            if (!StringUtil.isEmpty(pattern)) {
+                add(pattern);
+            }
+        }
+    }
+
+    /**
+     * @return the patterns this matcher is compiled from.
+     */
+    public String getPatterns() {
+        return patterns;
+    }
+
+    public boolean match(String path) {
+        if (StringUtil.isEmpty(path)) {
+            return false;
+        }
+        if (cachedResults == null) {
+            return matchPatterns(path);
+        }
+        Boolean cached = cachedResults.get(path);
+        if (cached != null) {
+            return cached;
+        }
+        boolean matched = matchPatterns(path);
+        if (cachedResults.size() < cacheSize) {
+            cachedResults.put(path, matched);
+        }
+        return matched;
+    }
+
+    private boolean matchPatterns(String path) {
+        if (isCanonical(path) && matchFastPath(path)) {
+            return true;
+        }
+        if (matchTrie(path)) {
+            return true;
+        }
+        for (String pattern : variablePatterns) {
+            if (variablePatternMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(String pattern) {
+        if (pattern.indexOf('{') >= 0) {
+            variablePatterns.add(pattern);
+            return;
+        }
+        boolean absolute = pattern.charAt(0) == PATH_SEPARATOR;
+        boolean endsWithSeparator = pattern.charAt(pattern.length() - 1) == PATH_SEPARATOR;
+        List<String> segments = new ArrayList<String>();
+        StringTokenizer tokenizer = new StringTokenizer(pattern, String.valueOf(PATH_SEPARATOR));
+        while (tokenizer.hasMoreTokens()) {
+            String segment = tokenizer.nextToken().trim();
+            if (segment.length() > 0) {
+                segments.add(segment);
+            }
+        }
+
+        addFastPath(segments, absolute, endsWithSeparator);
+
+        boolean multilevel = false;
+        Node parent = null;
+        Node node = absolute ? absoluteRoot : relativeRoot;
+        for (String segment : segments) {
+            multilevel |= MULTILEVEL_DIRECTORIES.equals(segment);
+            parent = node;
+            node = node.child(segment, multilevel);
+        }
+        if (multilevel) {
+            node.multilevelTerminal = true;
+            return;
+        }
+        if (endsWithSeparator) {
+            node.terminalWithSeparator = true;
+        } else {
+            node.terminalWithoutSeparator = true;
+        }
+        if (parent != null && ANY_MATCHING_SEGMENT.equals(node.segment)) {
+            parent.anySegmentTerminalChild = true;
+        }
+    }
+
+    private void addFastPath(List<String> segments, boolean absolute, boolean endsWithSeparator) {
+        int wildcards = 0;
+        for (String segment : segments) {
+            if (isWildcard(segment)) {
+                wildcards++;
+            }
+        }
+        if (wildcards == 0) {
+            exactPaths.add(join(segments, 0, segments.size(), absolute, endsWithSeparator));
+        } else if (wildcards == 1 && absolute && segments.size() > 1
+            && MULTILEVEL_DIRECTORIES.equals(segments.get(segments.size() - 1))) {
+            prefixes.add(join(segments, 0, segments.size() - 1, true, false));
+        } else if (wildcards == 2 && segments.size() == 2 && MULTILEVEL_DIRECTORIES.equals(segments.get(0))) {
+            String last = segments.get(1);
+            if (last.length() > 1 && last.charAt(0) == '*' && !isWildcard(last.substring(1))) {
+                (absolute ? absoluteSuffixes : relativeSuffixes).add(last.substring(1));
+            }
+        }
+    }
+
+    /**
+     * The fast paths only work with the canonical paths, whose segments are separated by one `/`, and not surrounded
+     * by whitespaces.
+     */
+    private boolean matchFastPath(String path) {
+        if (exactPaths.contains(path)) {
+            return true;
+        }
+        for (int i = 0; i < prefixes.size(); i++) {
+            String prefix = prefixes.get(i);
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == PATH_SEPARATOR)) {
+                return true;
+            }
+        }
+        if (path.charAt(path.length() - 1) != PATH_SEPARATOR) {
+            List<String> suffixes = path.charAt(0) == PATH_SEPARATOR ? absoluteSuffixes : relativeSuffixes;
+            int lastSegment = path.lastIndexOf(PATH_SEPARATOR) + 1;
+            for (int i = 0; i < suffixes.size(); i++) {
+                String suffix = suffixes.get(i);
+                if (path.length() - lastSegment >= suffix.length() && path.endsWith(suffix)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean matchTrie(String path) {
+        long[][] scratch = states.get();
+        long[] current = scratch[0];
+        long[] next = scratch[1];
+        clear(current);
+        addWithClosure(current, path.charAt(0) == PATH_SEPARATOR ? absoluteRoot : relativeRoot);
+
+        final int length = path.length();
+        int index = 0;
+        while (index < length) {
+            int start = index;
+            int end = path.indexOf(PATH_SEPARATOR, start);
+            if (end < 0) {
+                end = length;
+            }
+            index = end + 1;
+            while (start < end && path.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && path.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            if (start == end) {
+                continue;
+            }
+
+            clear(next);
+            boolean alive = false;
+            for (int word = 0; word < current.length; word++) {
+                long bits = current[word];
+                while (bits != 0) {
+                    Node node = nodes.get(word * 64 + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                    if (node.multilevel) {
+                        addWithClosure(next, node);
+                        alive = true;
+                    }
+                    for (Node child : node.children) {
+                        if (!child.multilevel && child.matches(path, start, end)) {
+                            addWithClosure(next, child);
+                            alive = true;
+                        }
+                    }
+                }
+            }
+            if (!alive) {
+                return false;
+            }
+            long[] swap = current;
+            current = next;
+            next = swap;
+        }
+
+        boolean endsWithSeparator = path.charAt(length - 1) == PATH_SEPARATOR;
+        for (int word = 0; word < current.length; word++) {
+            long bits = current[word];
+            while (bits != 0) {
+                Node node = nodes.get(word * 64 + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+                if (node.multilevelTerminal
+                    || (endsWithSeparator ? node.terminalWithSeparator : node.terminalWithoutSeparator)
+                    || (endsWithSeparator && node.anySegmentTerminalChild)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add the node, and the `**` nodes following it, as `**` matches zero segment too.
+     */
+    private void addWithClosure(long[] states, Node node) {
+        states[node.id >>> 6] |= 1L << node.id;
+        for (Node child : node.children) {
+            if (child.multilevel) {
+                addWithClosure(states, child);
+            }
+        }
+    }
+
+    private Node newNode(String segment, boolean multilevel) {
+        Node node = new Node(nodes.size(), segment, multilevel);
+        nodes.add(node);
+        return node;
+    }
+
+    private static void clear(long[] states) {
+        for (int i = 0; i < states.length; i++) {
+            states[i] = 0;
+        }
+    }
+
+    private static boolean isWildcard(String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0;
+    }
+
+    private static boolean isCanonical(String path) {
+        final int length = path.length();
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == PATH_SEPARATOR) {
+                if (i > 0 && (path.charAt(i - 1) == PATH_SEPARATOR || path.charAt(i - 1) <= ' ')) {
+                    return false;
+                }
+                if (i + 1 < length && path.charAt(i + 1) <= ' ') {
+                    return false;
+                }
+            }
+        }
+        return path.charAt(0) > ' ' && path.charAt(length - 1) > ' ';
+    }
+
+    private static String join(List<String> segments, int from, int to, boolean absolute, boolean endsWithSeparator) {
+        StringBuilder path = new StringBuilder();
+        if (absolute) {
+            path.append(PATH_SEPARATOR);
+        }
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                path.append(PATH_SEPARATOR);
+            }
+            path.append(segments.get(i));
+        }
+        if (endsWithSeparator && to > from) {
+            path.append(PATH_SEPARATOR);
+        }
+        return path.toString();
+    }
+
+    /**
+     * A node of the trie, the root or a segment of the patterns.
+     */
+    private class Node {
+        private final int id;
+        private final String segment;
+        private final boolean wildcard;
+        /**
+         * True if the segment is `**`.
+         */
+        private final boolean multilevel;
+        /**
+         * True if the segment is `**`, or there is a `**` before it.
+         */
+        private final boolean followsMultilevel;
+        private final List<Node> children = new ArrayList<Node>(2);
+
+        /**
+         * A pattern containing `**` ends here.
+         */
+        private boolean multilevelTerminal;
+        /**
+         * A pattern without `**` ends here, and the pattern ends with `/`, which the path should end with too.
+         */
+        private boolean terminalWithSeparator;
+        /**
+         * A pattern without `**` ends here, and the pattern doesn't end with `/`, nor should the path.
+         */
+        private boolean terminalWithoutSeparator;
+        /**
+         * A pattern without `**` ends with a `*` segment after this node, which also matches the path ending here with
+         * a `/`.
+         */
+        private boolean anySegmentTerminalChild;
+
+        private Node(int id, String segment, boolean followsMultilevel) {
+            this.id = id;
+            this.segment = segment;
+            this.wildcard = segment != null && isWildcard(segment);
+            this.multilevel = MULTILEVEL_DIRECTORIES.equals(segment);
+            this.followsMultilevel = followsMultilevel;
+        }
+
+        private Node child(String segment, boolean followsMultilevel) {
+            for (Node child : children) {
+                if (child.segment.equals(segment) && child.followsMultilevel == followsMultilevel) {
+                    return child;
+                }
+            }
+            Node child = newNode(segment, followsMultilevel);
+            children.add(child);
+            return child;
+        }
+
+        /**
+         * Match the segment of the pattern with the path between start and end, `?` matches one char, and `*`
+         * matches any number of chars.
+         */
+        private boolean matches(String path, int start, int end) {
+            if (!wildcard) {
+                return segment.length() == end - start && path.regionMatches(start, segment, 0, segment.length());
+            }
+            final int patternLength = segment.length();
+            int patternIndex = 0;
+            int pathIndex = start;
+            int starIndex = -1;
+            int starPathIndex = start;
+            while (pathIndex < end) {
+                char c = patternIndex < patternLength ? segment.charAt(patternIndex) : 0;
+                if (patternIndex < patternLength && (c == '?' || c == path.charAt(pathIndex)) && c != '*') {
+                    patternIndex++;
+                    pathIndex++;
+                } else if (c == '*') {
+                    starIndex = patternIndex++;
+                    starPathIndex = pathIndex;
+                } else if (starIndex >= 0) {
+                    patternIndex = starIndex + 1;
+                    pathIndex = ++starPathIndex;
+                } else {
+                    return false;
+                }
+            }
+            while (patternIndex < patternLength && segment.charAt(patternIndex) == '*') {
+                patternIndex++;
+            }
+            return patternIndex == patternLength;
+        }
+    }
+}
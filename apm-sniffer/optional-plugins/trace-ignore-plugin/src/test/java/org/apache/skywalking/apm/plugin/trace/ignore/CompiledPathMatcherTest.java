@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore;
+
+import java.util.Random;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.AntPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledPathMatcherTest {
+
+    private static final String[] PATTERN_SEGMENTS = {"a", "b", "ab", "*", "**", "?", "a*", "*b", "?b", "a?*", "*.js"};
+
+    private static final String[] PATH_SEGMENTS = {"a", "b", "ab", "bb", "abb", "x.js", "a.js", " a", ""};
+
+    @Test
+    public void testMatch() {
+        CompiledPathMatcher matcher = new CompiledPathMatcher("/eureka/**,/health,/static/*.css,**/*.js,/api/{id}/info", 0);
+        Assert.assertTrue(matcher.match("/eureka"));
+        Assert.assertTrue(matcher.match("/eureka/apps/list"));
+        Assert.assertTrue(matcher.match("/health"));
+        Assert.assertFalse(matcher.match("/health/"));
+        Assert.assertFalse(matcher.match("/healthy"));
+        Assert.assertTrue(matcher.match("/static/main.css"));
+        Assert.assertFalse(matcher.match("/static/css/main.css"));
+        Assert.assertTrue(matcher.match("js/app.js"));
+        Assert.assertFalse(matcher.match("/js/app.js"));
+        Assert.assertTrue(matcher.match("/api/1/info"));
+        Assert.assertFalse(matcher.match("/consul/apps"));
+        Assert.assertFalse(matcher.match(""));
+    }
+
+    @Test
+    public void testCachedResults() {
+        CompiledPathMatcher matcher = new CompiledPathMatcher("/eureka/**", 1);
+        for (int i = 0; i < 2; i++) {
+            Assert.assertTrue(matcher.match("/eureka/apps"));
+            Assert.assertFalse(matcher.match("/consul/apps"));
+        }
+    }
+
+    @Test
+    public void testSameAsAntPathMatcher() {
+        TracePathMatcher antPathMatcher = new AntPathMatcher();
+        Random random = new Random(20181019L);
+        for (int i = 0; i < 2000; i++) {
+            String pattern = randomPath(random, PATTERN_SEGMENTS);
+            CompiledPathMatcher matcher = new CompiledPathMatcher(pattern, 0);
+            for (int j = 0; j < 50; j++) {
+                String path = randomPath(random, PATH_SEGMENTS);
+                Assert.assertEquals("pattern: " + pattern + ", path: " + path, antPathMatcher.match(pattern, path), matcher.match(path));
+            }
+        }
+    }
+
+    private String randomPath(Random random, String[] segments) {
+        StringBuilder path = new StringBuilder();
+        if (random.nextBoolean()) {
+            path.append('/');
+        }
+        int size = random.nextInt(6);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                path.append('/');
+            }
+            path.append(segments[random.nextInt(segments.length)]);
+        }
+        if (random.nextInt(4) == 0) {
+            path.append('/');
+        }
+        return path.toString();
+    }
+}
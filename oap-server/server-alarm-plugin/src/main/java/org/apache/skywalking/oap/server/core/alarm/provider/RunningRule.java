@@ -19,7 +19,7 @@
 package org.apache.skywalking.oap.server.core.alarm.provider;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -33,9 +33,6 @@ import org.apache.skywalking.oap.server.core.analysis.indicator.LongValueHolder;
 import org.apache.skywalking.oap.server.core.source.Scope;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.joda.time.LocalDateTime;
-import org.joda.time.Minutes;
-import org.joda.time.format.DateTimeFormat;
-import org.joda.time.format.DateTimeFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,7 +43,6 @@ import org.slf4j.LoggerFactory;
  */
 public class RunningRule {
     private static final Logger logger = LoggerFactory.getLogger(RunningRule.class);
-    private static DateTimeFormatter TIME_BUCKET_FORMATTER = DateTimeFormat.forPattern("yyyyMMddHHmm");
 
     private String ruleName;
     private int period;
@@ -118,8 +114,7 @@ public class RunningRule {
             Window window = windows.get(meta);
             if (window == null) {
                 window = new Window(period);
-                LocalDateTime timebucket = TIME_BUCKET_FORMATTER.parseLocalDateTime(indicator.getTimeBucket() + "");
-                window.moveTo(timebucket);
+                window.moveTo(toMinutes(indicator.getTimeBucket()));
                 windows.put(meta, window);
             }
 
@@ -133,7 +128,8 @@ public class RunningRule {
      * @param targetTime of moving target
      */
     public void moveTo(LocalDateTime targetTime) {
-        windows.values().forEach(window -> window.moveTo(targetTime));
+        long targetMinutes = toMinutes(targetTime);
+        windows.values().forEach(window -> window.moveTo(targetMinutes));
     }
 
     /**
@@ -160,19 +156,55 @@ public class RunningRule {
         return alarmMessageList;
     }
 
+    /**
+     * Transfer the minute time bucket, in yyyyMMddHHmm format, to the count of minutes since epoch, by arithmetic only.
+     */
+    static long toMinutes(long timeBucket) {
+        int minute = (int)(timeBucket % 100);
+        timeBucket /= 100;
+        int hour = (int)(timeBucket % 100);
+        timeBucket /= 100;
+        int day = (int)(timeBucket % 100);
+        timeBucket /= 100;
+        int month = (int)(timeBucket % 100);
+        int year = (int)(timeBucket / 100);
+        return toMinutes(year, month, day, hour, minute);
+    }
+
+    static long toMinutes(LocalDateTime time) {
+        return toMinutes(time.getYear(), time.getMonthOfYear(), time.getDayOfMonth(), time.getHourOfDay(), time.getMinuteOfHour());
+    }
+
+    private static long toMinutes(int year, int month, int day, int hour, int minute) {
+        // Days since 1970-01-01 in the proleptic Gregorian calendar, the year starts at March to simplify leap days.
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        long days = era * 146097L + dayOfEra - 719468;
+        return (days * 24 + hour) * 60 + minute;
+    }
+
     /**
      * A indicator window, based on {@link AlarmRule#period}. This window slides with time, just keeps the recent
      * N(period) buckets.
      *
+     * The values are kept in a ring of primitive slots, indexed by minute % period. Each slot remembers the minute its
+     * value belongs to, so sliding the window only moves the end minute, the slots out of the window are ignored and
+     * overridden later.
+     *
      * @author wusheng
      */
     public class Window {
-        private LocalDateTime endTime;
+        private long endTime;
         private int period;
         private int counter;
         private int silenceCountdown;
 
-        private LinkedList<Indicator> values;
+        private long[] minutes;
+        private long[] longValues;
+        private double[] doubleValues;
         private ReentrantLock lock = new ReentrantLock();
 
         public Window(int period) {
@@ -180,29 +212,23 @@ public class RunningRule {
             // -1 means silence countdown is not running.
             silenceCountdown = -1;
             counter = 0;
-            init();
+            minutes = new long[period];
+            Arrays.fill(minutes, Long.MIN_VALUE);
+            if (IndicatorValueType.DOUBLE.equals(valueType)) {
+                doubleValues = new double[period];
+            } else {
+                longValues = new long[period];
+            }
         }
 
         public void moveTo(LocalDateTime current) {
+            moveTo(toMinutes(current));
+        }
+
+        private void moveTo(long current) {
             lock.lock();
             try {
-                if (endTime == null) {
-                    init();
-                    endTime = current;
-                } else {
-                    int minutes = Minutes.minutesBetween(endTime, current).getMinutes();
-                    if (minutes <= 0) {
-                        return;
-                    }
-                    if (minutes > values.size()) {
-                        // re-init
-                        init();
-                    } else {
-                        for (int i = 0; i < minutes; i++) {
-                            values.removeFirst();
-                            values.addLast(null);
-                        }
-                    }
+                if (current > endTime) {
                     endTime = current;
                 }
             } finally {
@@ -211,30 +237,33 @@ public class RunningRule {
         }
 
         public void add(Indicator indicator) {
-            long bucket = indicator.getTimeBucket();
-
-            LocalDateTime timebucket = TIME_BUCKET_FORMATTER.parseLocalDateTime(bucket + "");
-
-            int minutes = Minutes.minutesBetween(timebucket, endTime).getMinutes();
-            if (minutes == -1) {
-                this.moveTo(timebucket);
-
-            }
+            long bucket = toMinutes(indicator.getTimeBucket());
 
             lock.lock();
             try {
-                if (minutes < 0) {
-                    moveTo(timebucket);
-                    minutes = 0;
+                if (bucket > endTime) {
+                    endTime = bucket;
                 }
 
-                if (minutes >= values.size()) {
+                if (endTime - bucket >= period) {
                     // too old data
                     // also should happen, but maybe if agent/probe mechanism time is not right.
                     return;
                 }
 
-                values.set(values.size() - minutes - 1, indicator);
+                int slot = (int)Math.floorMod(bucket, (long)period);
+                minutes[slot] = bucket;
+                switch (valueType) {
+                    case LONG:
+                        longValues[slot] = ((LongValueHolder)indicator).getValue();
+                        break;
+                    case INT:
+                        longValues[slot] = ((IntValueHolder)indicator).getValue();
+                        break;
+                    case DOUBLE:
+                        doubleValues[slot] = ((DoubleValueHolder)indicator).getValue();
+                        break;
+                }
             } finally {
                 lock.unlock();
             }
@@ -269,79 +298,58 @@ public class RunningRule {
 
         private boolean isMatch() {
             int matchCount = 0;
-            for (Indicator indicator : values) {
-                if (indicator == null) {
-                    continue;
-                }
+            lock.lock();
+            try {
+                for (int slot = 0; slot < period; slot++) {
+                    long minute = minutes[slot];
+                    if (minute > endTime || endTime - minute >= period) {
+                        // empty slot, or the value has slid out of the window.
+                        continue;
+                    }
 
-                switch (valueType) {
-                    case LONG:
-                        long lvalue = ((LongValueHolder)indicator).getValue();
-                        long lexpected = RunningRule.this.threshold.getLongThreshold();
-                        switch (op) {
-                            case GREATER:
-                                if (lvalue > lexpected)
-                                    matchCount++;
-                                break;
-                            case LESS:
-                                if (lvalue < lexpected)
-                                    matchCount++;
-                                break;
-                            case EQUAL:
-                                if (lvalue == lexpected)
-                                    matchCount++;
-                                break;
-                        }
-                        break;
-                    case INT:
-                        int ivalue = ((IntValueHolder)indicator).getValue();
-                        int iexpected = RunningRule.this.threshold.getIntThreshold();
-                        switch (op) {
-                            case LESS:
-                                if (ivalue < iexpected)
-                                    matchCount++;
-                                break;
-                            case GREATER:
-                                if (ivalue > iexpected)
-                                    matchCount++;
-                                break;
-                            case EQUAL:
-                                if (ivalue == iexpected)
-                                    matchCount++;
-                                break;
-                        }
-                        break;
-                    case DOUBLE:
-                        double dvalue = ((DoubleValueHolder)indicator).getValue();
-                        double dexpected = RunningRule.this.threshold.getDoubleThreadhold();
-                        switch (op) {
-                            case EQUAL:
-                                // NOTICE: double equal is not reliable in Java,
-                                // match result is not predictable
-                                if (dvalue == dexpected)
-                                    matchCount++;
-                                break;
-                            case GREATER:
-                                if (dvalue > dexpected)
-                                    matchCount++;
-                                break;
-                            case LESS:
-                                if (dvalue < dexpected)
-                                    matchCount++;
-                                break;
+                    if (IndicatorValueType.DOUBLE.equals(valueType)) {
+                        if (isMatch(doubleValues[slot])) {
+                            matchCount++;
                         }
-                        break;
+                    } else if (isMatch(longValues[slot])) {
+                        matchCount++;
+                    }
                 }
+            } finally {
+                lock.unlock();
             }
 
             // Reach the threshold in current bucket.
             return matchCount >= countThreshold;
         }
 
-        private void init() {
-            values = new LinkedList();
-            for (int i = 0; i < period; i++) {
-                values.add(null);
+        private boolean isMatch(long value) {
+            long expected = IndicatorValueType.INT.equals(valueType) ? RunningRule.this.threshold.getIntThreshold() : RunningRule.this.threshold.getLongThreshold();
+            switch (op) {
+                case GREATER:
+                    return value > expected;
+                case LESS:
+                    return value < expected;
+                case EQUAL:
+                    return value == expected;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean isMatch(double value) {
+            double expected = RunningRule.this.threshold.getDoubleThreadhold();
+            switch (op) {
+                case EQUAL:
+                    // NOTICE: double equal is not reliable in Java,
+                    // match result is not predictable
+                    return value == expected;
+                case GREATER:
+                    return value > expected;
+                case LESS:
+                    return value < expected;
+                default:
+                    return false;
             }
         }
     }
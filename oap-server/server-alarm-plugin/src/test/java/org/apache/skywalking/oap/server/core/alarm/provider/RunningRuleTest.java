@@ -64,13 +64,47 @@ public class RunningRuleTest {
         Map<MetaInAlarm, RunningRule.Window> windows = Whitebox.getInternalState(runningRule, "windows");
 
         RunningRule.Window window = windows.get(getMetaInAlarm(123));
-        LocalDateTime endTime = Whitebox.getInternalState(window, "endTime");
+        long endTime = Whitebox.getInternalState(window, "endTime");
         int period = Whitebox.getInternalState(window, "period");
-        LinkedList<Indicator> indicatorBuffer = Whitebox.getInternalState(window, "values");
+        long[] indicatorBuffer = Whitebox.getInternalState(window, "longValues");
 
-        Assert.assertTrue(startTime.equals(endTime));
+        Assert.assertEquals(RunningRule.toMinutes(startTime), endTime);
         Assert.assertEquals(15, period);
-        Assert.assertEquals(15, indicatorBuffer.size());
+        Assert.assertEquals(15, indicatorBuffer.length);
+    }
+
+    @Test
+    public void testToMinutes() {
+        Assert.assertEquals(0, RunningRule.toMinutes(197001010000L));
+        Assert.assertEquals(60 * 24 * 59 + 61, RunningRule.toMinutes(197003010101L));
+        Assert.assertEquals(RunningRule.toMinutes(TIME_BUCKET_FORMATTER.parseLocalDateTime("201602291259")),
+            RunningRule.toMinutes(201602291259L));
+        Assert.assertEquals(1, RunningRule.toMinutes(201903010000L) - RunningRule.toMinutes(201902282359L));
+    }
+
+    @Test
+    public void testWindowSlide() {
+        AlarmRule alarmRule = new AlarmRule();
+        alarmRule.setAlarmRuleName("endpoint_percent_rule");
+        alarmRule.setIndicatorName("endpoint_percent");
+        alarmRule.setOp("<");
+        alarmRule.setThreshold("75");
+        alarmRule.setCount(2);
+        alarmRule.setPeriod(3);
+
+        RunningRule runningRule = new RunningRule(alarmRule);
+        runningRule.in(getMetaInAlarm(123), getIndicator(201808301434L, 70));
+        runningRule.in(getMetaInAlarm(123), getIndicator(201808301435L, 71));
+
+        // Both values are in the window.
+        Assert.assertEquals(0, runningRule.check().size());
+        Assert.assertEquals(1, runningRule.check().size());
+
+        // 14:34 slides out of the window, 14:37 overrides its slot.
+        runningRule.moveTo(TIME_BUCKET_FORMATTER.parseLocalDateTime("201808301437"));
+        runningRule.in(getMetaInAlarm(123), getIndicator(201808301437L, 90));
+        Assert.assertEquals(0, runningRule.check().size());
+        Assert.assertEquals(0, runningRule.check().size());
     }
 
     @Test
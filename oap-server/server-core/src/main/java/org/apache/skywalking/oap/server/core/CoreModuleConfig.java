@@ -41,6 +41,25 @@ public class CoreModuleConfig extends ModuleConfig {
     @Setter private int hourMetricsDataTTL;
     @Setter private int dayMetricsDataTTL;
     @Setter private int monthMetricsDataTTL;
+    /**
+     * Deflate the segment binary before storing it. Segments stored without compression are always readable, but OAP
+     * nodes before this option can't read the compressed ones.
+     */
+    @Setter private boolean segmentCompression;
+    /**
+     * Spans returned for one trace, the rest are cut off and the first root span is tagged as truncated. Zero means
+     * no limit.
+     */
+    @Setter private int maxSpansPerTrace;
+    /**
+     * Seconds the hour, day and month aggregates are kept in memory before being persisted. Zero persists them in
+     * every persistence round.
+     */
+    @Setter private int downsamplingRollupPeriod;
+    /**
+     * Recent minutes of the persisted minute metrics kept in memory to answer the TopN queries. Zero disables it.
+     */
+    @Setter private int topNCacheMinutes;
 
     CoreModuleConfig() {
         this.downsampling = new ArrayList<>();
@@ -18,8 +18,6 @@
 
 package org.apache.skywalking.oap.server.core.analysis;
 
-import com.google.common.collect.ImmutableSet;
-import com.google.common.reflect.ClassPath;
 import java.io.IOException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -28,6 +26,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.annotation.ClassFinder;
 import org.apache.skywalking.oap.server.core.source.Scope;
 import org.apache.skywalking.oap.server.core.source.Source;
 import org.slf4j.Logger;
@@ -53,7 +52,8 @@ public class DispatcherManager {
     }
 
     /**
-     * Scan all classes under `org.apache.skywalking` package,
+     * Find all {@link SourceDispatcher} classes from the class index, or scan all classes under `org.apache.skywalking`
+     * package when the index is absent. See {@link ClassFinder}.
      *
      * If it implement {@link org.apache.skywalking.oap.server.core.analysis.SourceDispatcher}, then, it will be added
      * into this DispatcherManager based on the Source definition.
@@ -63,11 +63,7 @@ public class DispatcherManager {
      * @throws InstantiationException
      */
     public void scan() throws IOException, IllegalAccessException, InstantiationException {
-        ClassPath classpath = ClassPath.from(this.getClass().getClassLoader());
-        ImmutableSet<ClassPath.ClassInfo> classes = classpath.getTopLevelClassesRecursive("org.apache.skywalking");
-        for (ClassPath.ClassInfo classInfo : classes) {
-            Class<?> aClass = classInfo.load();
-
+        for (Class<?> aClass : ClassFinder.find(this.getClass().getClassLoader(), SourceDispatcher.class)) {
             if (!aClass.isInterface() && SourceDispatcher.class.isAssignableFrom(aClass)) {
                 Type[] genericInterfaces = aClass.getGenericInterfaces();
                 for (Type genericInterface : genericInterfaces) {
@@ -19,10 +19,12 @@
 package org.apache.skywalking.oap.server.core.analysis;
 
 import org.apache.skywalking.oap.server.core.source.Source;
+import org.apache.skywalking.oap.server.library.index.Indexed;
 
 /**
  * @author peng-yongsheng
  */
+@Indexed
 public interface SourceDispatcher<S extends Source> {
     void dispatch(S source);
 }
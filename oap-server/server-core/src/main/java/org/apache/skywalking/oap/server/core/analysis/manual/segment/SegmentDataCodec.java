@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.segment;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.*;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+
+/**
+ * Codec of the {@link SegmentRecord#DATA_BINARY} column, which is a Base64 string in all storage implementations.
+ *
+ * When compression is enabled, the segment binary is deflated and stored with a 2 bytes header, the magic 0x00
+ * followed by the codec version. A protobuf message never begins with 0x00, because field number 0 is illegal, so the
+ * segments stored before are still decoded as they are.
+ */
+public enum SegmentDataCodec {
+    INSTANCE;
+
+    private static final byte MAGIC = 0x00;
+    private static final byte DEFLATE = 0x01;
+    private static final int HEADER_LENGTH = 2;
+
+    private final ThreadLocal<Deflater> deflater = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private final ThreadLocal<Inflater> inflater = ThreadLocal.withInitial(() -> new Inflater());
+    private final ThreadLocal<byte[]> buffer = ThreadLocal.withInitial(() -> new byte[4096]);
+
+    private volatile boolean compression = false;
+
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public String encodeToString(byte[] dataBinary) {
+        if (dataBinary == null || dataBinary.length == 0) {
+            return Const.EMPTY_STRING;
+        }
+        return new String(Base64.getEncoder().encode(compression ? compress(dataBinary) : dataBinary), StandardCharsets.US_ASCII);
+    }
+
+    public byte[] decodeFromString(String dataBinaryBase64) {
+        if (StringUtil.isEmpty(dataBinaryBase64)) {
+            return new byte[] {};
+        }
+        return decompress(Base64.getDecoder().decode(dataBinaryBase64));
+    }
+
+    /**
+     * @return the compressed binary with header, or the original one if it doesn't become smaller.
+     */
+    byte[] compress(byte[] dataBinary) {
+        Deflater deflater = this.deflater.get();
+        byte[] buffer = this.buffer.get();
+        ByteArrayOutputStream output = new ByteArrayOutputStream(dataBinary.length / 2 + HEADER_LENGTH);
+        output.write(MAGIC);
+        output.write(DEFLATE);
+        try {
+            deflater.setInput(dataBinary);
+            deflater.finish();
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                output.write(buffer, 0, length);
+                if (output.size() >= dataBinary.length) {
+                    return dataBinary;
+                }
+            }
+        } finally {
+            deflater.reset();
+        }
+        return output.toByteArray();
+    }
+
+    byte[] decompress(byte[] storedBinary) {
+        if (storedBinary.length < HEADER_LENGTH || storedBinary[0] != MAGIC) {
+            return storedBinary;
+        }
+        if (storedBinary[1] != DEFLATE) {
+            throw new UnexpectedException("Unknown segment codec version " + storedBinary[1]);
+        }
+
+        Inflater inflater = this.inflater.get();
+        byte[] buffer = this.buffer.get();
+        ByteArrayOutputStream output = new ByteArrayOutputStream(storedBinary.length * 4);
+        try {
+            inflater.setInput(storedBinary, HEADER_LENGTH, storedBinary.length - HEADER_LENGTH);
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new UnexpectedException("Segment binary is truncated.");
+                }
+                output.write(buffer, 0, length);
+            }
+        } catch (DataFormatException e) {
+            throw new UnexpectedException("Segment binary is corrupted, " + e.getMessage());
+        } finally {
+            inflater.reset();
+        }
+        return output.toByteArray();
+    }
+}
@@ -20,14 +20,11 @@ package org.apache.skywalking.oap.server.core.analysis.manual.segment;
 
 import java.util.*;
 import lombok.*;
-import org.apache.skywalking.apm.util.StringUtil;
-import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.analysis.record.Record;
 import org.apache.skywalking.oap.server.core.analysis.record.annotation.RecordType;
 import org.apache.skywalking.oap.server.core.source.Scope;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
 import org.apache.skywalking.oap.server.core.storage.annotation.*;
-import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 
 /**
  * @author peng-yongsheng
@@ -79,11 +76,7 @@ public class SegmentRecord extends Record {
             map.put(LATENCY, storageData.getLatency());
             map.put(IS_ERROR, storageData.getIsError());
             map.put(TIME_BUCKET, storageData.getTimeBucket());
-            if (CollectionUtils.isEmpty(storageData.getDataBinary())) {
-                map.put(DATA_BINARY, Const.EMPTY_STRING);
-            } else {
-                map.put(DATA_BINARY, new String(Base64.getEncoder().encode(storageData.getDataBinary())));
-            }
+            map.put(DATA_BINARY, SegmentDataCodec.INSTANCE.encodeToString(storageData.getDataBinary()));
             map.put(VERSION, storageData.getVersion());
             return map;
         }
@@ -100,11 +93,7 @@ public class SegmentRecord extends Record {
             record.setLatency(((Number)dbMap.get(LATENCY)).intValue());
             record.setIsError(((Number)dbMap.get(IS_ERROR)).intValue());
             record.setTimeBucket(((Number)dbMap.get(TIME_BUCKET)).longValue());
-            if (StringUtil.isEmpty((String)dbMap.get(DATA_BINARY))) {
-                record.setDataBinary(new byte[] {});
-            } else {
-                record.setDataBinary(Base64.getDecoder().decode((String)dbMap.get(DATA_BINARY)));
-            }
+            record.setDataBinary(SegmentDataCodec.INSTANCE.decodeFromString((String)dbMap.get(DATA_BINARY)));
             record.setVersion(((Number)dbMap.get(VERSION)).intValue());
             return record;
         }
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.slf4j.*;
+
+/**
+ * Folds the minute indicators into hour aggregates in memory, and only hands the aggregates to the hour, day and month
+ * persistent workers when {@link #release()} is called. The day and month aggregates are derived from the released
+ * hour aggregates, so one minute indicator is cloned once instead of three times, and each coarse entity is read and
+ * written in the storage once per release rather than once per persistence round.
+ *
+ * The aggregates not released yet only live in memory, same as the data in the persistent worker caches.
+ */
+public class IndicatorRollupWorker extends AbstractWorker<Indicator> {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndicatorRollupWorker.class);
+
+    private final String modelName;
+    private final AbstractWorker<Indicator> hourPersistenceWorker;
+    private final AbstractWorker<Indicator> dayPersistenceWorker;
+    private final AbstractWorker<Indicator> monthPersistenceWorker;
+    private Map<Indicator, Indicator> hours;
+    private long folded;
+
+    public IndicatorRollupWorker(int workerId, String modelName,
+        AbstractWorker<Indicator> hourPersistenceWorker,
+        AbstractWorker<Indicator> dayPersistenceWorker,
+        AbstractWorker<Indicator> monthPersistenceWorker) {
+        super(workerId);
+        this.modelName = modelName;
+        this.hourPersistenceWorker = hourPersistenceWorker;
+        this.dayPersistenceWorker = dayPersistenceWorker;
+        this.monthPersistenceWorker = monthPersistenceWorker;
+        this.hours = new HashMap<>();
+    }
+
+    /**
+     * The minute indicator is only read here, it must be called before the indicator is handed to the minute
+     * persistent worker, which combines into it.
+     */
+    @Override public void in(Indicator indicator) {
+        Indicator hour = indicator.toHour();
+        synchronized (this) {
+            fold(hours, hour);
+            folded++;
+        }
+    }
+
+    public void release() {
+        Map<Indicator, Indicator> released;
+        long releasedFolded;
+        synchronized (this) {
+            if (hours.isEmpty()) {
+                return;
+            }
+            released = hours;
+            releasedFolded = folded;
+            hours = new HashMap<>();
+            folded = 0;
+        }
+
+        Map<Indicator, Indicator> days = new HashMap<>();
+        Map<Indicator, Indicator> months = new HashMap<>();
+        for (Indicator hour : released.values()) {
+            if (Objects.nonNull(dayPersistenceWorker)) {
+                fold(days, hour.toDay());
+            }
+            if (Objects.nonNull(monthPersistenceWorker)) {
+                fold(months, hour.toMonth());
+            }
+            /**
+             * The persistent worker combines into the aggregate, so it is handed over after the day and month clones.
+             */
+            if (Objects.nonNull(hourPersistenceWorker)) {
+                hourPersistenceWorker.in(hour);
+            }
+        }
+        days.values().forEach(day -> dayPersistenceWorker.in(day));
+        months.values().forEach(month -> monthPersistenceWorker.in(month));
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} rollup, {} minute indicators folded into {} hour, {} day and {} month aggregates",
+                modelName, releasedFolded, released.size(), days.size(), months.size());
+        }
+    }
+
+    private void fold(Map<Indicator, Indicator> aggregates, Indicator indicator) {
+        Indicator aggregate = aggregates.get(indicator);
+        if (Objects.isNull(aggregate)) {
+            aggregates.put(indicator, indicator);
+        } else {
+            aggregate.combine(indicator);
+        }
+    }
+}
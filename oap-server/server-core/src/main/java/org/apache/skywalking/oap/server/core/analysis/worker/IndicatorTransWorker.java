@@ -31,31 +31,19 @@ public class IndicatorTransWorker extends AbstractWorker<Indicator> {
     private static final Logger logger = LoggerFactory.getLogger(IndicatorTransWorker.class);
 
     private final IndicatorPersistentWorker minutePersistenceWorker;
-    private final IndicatorPersistentWorker hourPersistenceWorker;
-    private final IndicatorPersistentWorker dayPersistenceWorker;
-    private final IndicatorPersistentWorker monthPersistenceWorker;
+    private final IndicatorRollupWorker rollupWorker;
 
     public IndicatorTransWorker(int workerId,
         IndicatorPersistentWorker minutePersistenceWorker,
-        IndicatorPersistentWorker hourPersistenceWorker,
-        IndicatorPersistentWorker dayPersistenceWorker,
-        IndicatorPersistentWorker monthPersistenceWorker) {
+        IndicatorRollupWorker rollupWorker) {
         super(workerId);
         this.minutePersistenceWorker = minutePersistenceWorker;
-        this.hourPersistenceWorker = hourPersistenceWorker;
-        this.dayPersistenceWorker = dayPersistenceWorker;
-        this.monthPersistenceWorker = monthPersistenceWorker;
+        this.rollupWorker = rollupWorker;
     }
 
     @Override public void in(Indicator indicator) {
-        if (Objects.nonNull(hourPersistenceWorker)) {
-            hourPersistenceWorker.in(indicator.toHour());
-        }
-        if (Objects.nonNull(dayPersistenceWorker)) {
-            dayPersistenceWorker.in(indicator.toDay());
-        }
-        if (Objects.nonNull(monthPersistenceWorker)) {
-            monthPersistenceWorker.in(indicator.toMonth());
+        if (Objects.nonNull(rollupWorker)) {
+            rollupWorker.in(indicator);
         }
         /**
          * Minute persistent must be at the end of all time dimensionalities
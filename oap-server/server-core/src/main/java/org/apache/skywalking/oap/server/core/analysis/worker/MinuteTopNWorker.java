@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.Objects;
+import org.apache.skywalking.oap.server.core.alarm.AlarmSupported;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.query.MinuteTopNCache;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+
+/**
+ * Record the persisted minute indicator values into {@link MinuteTopNCache}, then route them to the next worker.
+ */
+public class MinuteTopNWorker extends AbstractWorker<Indicator> {
+
+    private final String modelName;
+    private final AbstractWorker<Indicator> nextWorker;
+
+    public MinuteTopNWorker(int workerId, String modelName, AbstractWorker<Indicator> nextWorker) {
+        super(workerId);
+        this.modelName = modelName;
+        this.nextWorker = nextWorker;
+    }
+
+    @Override public void in(Indicator indicator) {
+        if (MinuteTopNCache.INSTANCE.isEnabled() && indicator instanceof AlarmSupported) {
+            String entityId = ((AlarmSupported)indicator).getAlarmMeta().getId();
+            if (indicator instanceof LongValueHolder) {
+                MinuteTopNCache.INSTANCE.record(modelName, indicator.getTimeBucket(), entityId, ((LongValueHolder)indicator).getValue());
+            } else if (indicator instanceof IntValueHolder) {
+                MinuteTopNCache.INSTANCE.record(modelName, indicator.getTimeBucket(), entityId, ((IntValueHolder)indicator).getValue());
+            } else if (indicator instanceof DoubleValueHolder) {
+                MinuteTopNCache.INSTANCE.record(modelName, indicator.getTimeBucket(), entityId, (long)((DoubleValueHolder)indicator).getValue());
+            }
+        }
+
+        if (Objects.nonNull(nextWorker)) {
+            nextWorker.in(indicator);
+        }
+    }
+}
@@ -18,8 +18,6 @@
 
 package org.apache.skywalking.oap.server.core.annotation;
 
-import com.google.common.collect.ImmutableSet;
-import com.google.common.reflect.ClassPath;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.util.*;
@@ -40,11 +38,8 @@ public class AnnotationScan {
     }
 
     public void scan(Runnable callBack) throws IOException {
-        ClassPath classpath = ClassPath.from(this.getClass().getClassLoader());
-        ImmutableSet<ClassPath.ClassInfo> classes = classpath.getTopLevelClassesRecursive("org.apache.skywalking");
-        for (ClassPath.ClassInfo classInfo : classes) {
-            Class<?> aClass = classInfo.load();
-
+        Class<?>[] annotations = listeners.stream().map(AnnotationListenerCache::annotation).toArray(Class<?>[]::new);
+        for (Class<?> aClass : ClassFinder.find(this.getClass().getClassLoader(), annotations)) {
             for (AnnotationListenerCache listener : listeners) {
                 if (aClass.isAnnotationPresent(listener.annotation())) {
                     listener.addMatch(aClass);
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.annotation;
+
+import com.google.common.reflect.ClassPath;
+import java.io.IOException;
+import java.util.*;
+import org.apache.skywalking.oap.server.library.index.ClassIndex;
+import org.slf4j.*;
+
+/**
+ * Find the candidate classes of the given stereotypes. The {@link ClassIndex} generated at compile time is used when
+ * it covers all stereotypes, otherwise, all top level classes under `org.apache.skywalking` package are scanned and
+ * loaded, just as before the index existed. Either way, the caller should still check every returned class.
+ */
+public class ClassFinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassFinder.class);
+
+    private static final String SCAN_PACKAGE = "org.apache.skywalking";
+
+    public static List<Class<?>> find(ClassLoader classLoader, Class<?>... stereotypes) throws IOException {
+        long startTime = System.currentTimeMillis();
+        List<Class<?>> classes = fromIndex(classLoader, stereotypes);
+        if (classes != null) {
+            logger.info("{} classes of {} are found in class index, {} ms used.", classes.size(), Arrays.toString(stereotypes), System.currentTimeMillis() - startTime);
+            return classes;
+        }
+
+        classes = new ArrayList<>();
+        for (ClassPath.ClassInfo classInfo : ClassPath.from(classLoader).getTopLevelClassesRecursive(SCAN_PACKAGE)) {
+            classes.add(classInfo.load());
+        }
+        logger.info("{} classes are scanned for {}, {} ms used.", classes.size(), Arrays.toString(stereotypes), System.currentTimeMillis() - startTime);
+        return classes;
+    }
+
+    /**
+     * @return null, if the index is absent, doesn't cover some of the stereotypes, or is stale.
+     */
+    private static List<Class<?>> fromIndex(ClassLoader classLoader, Class<?>... stereotypes) throws IOException {
+        ClassIndex index = ClassIndex.load(classLoader);
+
+        Set<String> classNames = new TreeSet<>();
+        for (Class<?> stereotype : stereotypes) {
+            if (!index.isIndexed(stereotype)) {
+                logger.info("Stereotype {} isn't in class index, scan the classpath instead.", stereotype.getName());
+                return null;
+            }
+            classNames.addAll(index.getCandidates(stereotype));
+        }
+
+        List<Class<?>> classes = new ArrayList<>(classNames.size());
+        for (String className : classNames) {
+            try {
+                classes.add(classLoader.loadClass(className));
+            } catch (ClassNotFoundException e) {
+                logger.warn("Class {} in class index doesn't exist, scan the classpath instead.", className);
+                return null;
+            }
+        }
+        return classes;
+    }
+}
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.util.List;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.cache.*;
+import org.apache.skywalking.oap.server.core.cluster.*;
 import org.apache.skywalking.oap.server.core.query.entity.*;
 import org.apache.skywalking.oap.server.core.register.*;
 import org.apache.skywalking.oap.server.core.storage.StorageModule;
@@ -37,6 +38,7 @@ public class AggregationQueryService implements Service {
 
     private final ModuleManager moduleManager;
     private IAggregationQueryDAO aggregationQueryDAO;
+    private ClusterNodesQuery clusterNodesQuery;
 
     public AggregationQueryService(ModuleManager moduleManager) {
         this.moduleManager = moduleManager;
@@ -49,9 +51,32 @@ public class AggregationQueryService implements Service {
         return aggregationQueryDAO;
     }
 
+    private ClusterNodesQuery getClusterNodesQuery() {
+        if (clusterNodesQuery == null) {
+            clusterNodesQuery = moduleManager.find(ClusterModule.NAME).provider().getService(ClusterNodesQuery.class);
+        }
+        return clusterNodesQuery;
+    }
+
+    /**
+     * The minute indicators are routed to the OAP nodes by entity, every node only holds a part of them in memory. So
+     * the memory is only used when this node is the only one in the cluster, and all the range is still in memory.
+     */
+    private boolean fromMemory(Step step, long startTB) {
+        if (!Step.MINUTE.equals(step) || !MinuteTopNCache.INSTANCE.covers(startTB)) {
+            return false;
+        }
+        return getClusterNodesQuery().queryRemoteNodes().size() <= 1;
+    }
+
     public List<TopNEntity> getServiceTopN(final String indName, final int topN, final Step step, final long startTB,
         final long endTB, final Order order) throws IOException {
-        List<TopNEntity> topNEntities = getAggregationQueryDAO().getServiceTopN(indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
+        List<TopNEntity> topNEntities;
+        if (fromMemory(step, startTB)) {
+            topNEntities = MinuteTopNCache.INSTANCE.topN(indName, startTB, endTB, topN, order, entityId -> true);
+        } else {
+            topNEntities = getAggregationQueryDAO().getServiceTopN(indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
+        }
         for (TopNEntity entity : topNEntities) {
             ServiceInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInventoryCache.class).get(Integer.valueOf(entity.getId()));
             if (inventory != null) {
@@ -63,7 +88,12 @@ public class AggregationQueryService implements Service {
 
     public List<TopNEntity> getAllServiceInstanceTopN(final String indName, final int topN, final Step step,
         final long startTB, final long endTB, final Order order) throws IOException {
-        List<TopNEntity> topNEntities = getAggregationQueryDAO().getAllServiceInstanceTopN(indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
+        List<TopNEntity> topNEntities;
+        if (fromMemory(step, startTB)) {
+            topNEntities = MinuteTopNCache.INSTANCE.topN(indName, startTB, endTB, topN, order, entityId -> true);
+        } else {
+            topNEntities = getAggregationQueryDAO().getAllServiceInstanceTopN(indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
+        }
         for (TopNEntity entity : topNEntities) {
             ServiceInstanceInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInstanceInventoryCache.class).get(Integer.valueOf(entity.getId()));
             if (inventory != null) {
@@ -75,7 +105,16 @@ public class AggregationQueryService implements Service {
 
     public List<TopNEntity> getServiceInstanceTopN(final int serviceId, final String indName, final int topN,
         final Step step, final long startTB, final long endTB, final Order order) throws IOException {
-        List<TopNEntity> topNEntities = getAggregationQueryDAO().getServiceInstanceTopN(serviceId, indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
+        List<TopNEntity> topNEntities;
+        if (fromMemory(step, startTB)) {
+            ServiceInstanceInventoryCache inventoryCache = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInstanceInventoryCache.class);
+            topNEntities = MinuteTopNCache.INSTANCE.topN(indName, startTB, endTB, topN, order, entityId -> {
+                ServiceInstanceInventory inventory = inventoryCache.get(Integer.valueOf(entityId));
+                return inventory != null && inventory.getServiceId() == serviceId;
+            });
+        } else {
+            topNEntities = getAggregationQueryDAO().getServiceInstanceTopN(serviceId, indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
+        }
         for (TopNEntity entity : topNEntities) {
             ServiceInstanceInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInstanceInventoryCache.class).get(Integer.valueOf(entity.getId()));
             if (inventory != null) {
@@ -87,7 +126,12 @@ public class AggregationQueryService implements Service {
 
     public List<TopNEntity> getAllEndpointTopN(final String indName, final int topN, final Step step,
         final long startTB, final long endTB, final Order order) throws IOException {
-        List<TopNEntity> topNEntities = getAggregationQueryDAO().getAllEndpointTopN(indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
+        List<TopNEntity> topNEntities;
+        if (fromMemory(step, startTB)) {
+            topNEntities = MinuteTopNCache.INSTANCE.topN(indName, startTB, endTB, topN, order, entityId -> true);
+        } else {
+            topNEntities = getAggregationQueryDAO().getAllEndpointTopN(indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
+        }
         for (TopNEntity entity : topNEntities) {
             EndpointInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(EndpointInventoryCache.class).get(Integer.valueOf(entity.getId()));
             if (inventory != null) {
@@ -99,7 +143,16 @@ public class AggregationQueryService implements Service {
 
     public List<TopNEntity> getEndpointTopN(final int serviceId, final String indName, final int topN,
         final Step step, final long startTB, final long endTB, final Order order) throws IOException {
-        List<TopNEntity> topNEntities = getAggregationQueryDAO().getEndpointTopN(serviceId, indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
+        List<TopNEntity> topNEntities;
+        if (fromMemory(step, startTB)) {
+            EndpointInventoryCache inventoryCache = moduleManager.find(CoreModule.NAME).provider().getService(EndpointInventoryCache.class);
+            topNEntities = MinuteTopNCache.INSTANCE.topN(indName, startTB, endTB, topN, order, entityId -> {
+                EndpointInventory inventory = inventoryCache.get(Integer.valueOf(entityId));
+                return inventory != null && inventory.getServiceId() == serviceId;
+            });
+        } else {
+            topNEntities = getAggregationQueryDAO().getEndpointTopN(serviceId, indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
+        }
         for (TopNEntity entity : topNEntities) {
             EndpointInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(EndpointInventoryCache.class).get(Integer.valueOf(entity.getId()));
             if (inventory != null) {
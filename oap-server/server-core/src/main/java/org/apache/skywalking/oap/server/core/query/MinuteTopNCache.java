@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.*;
+import java.util.function.Predicate;
+import org.apache.skywalking.oap.server.core.query.entity.*;
+import org.apache.skywalking.oap.server.library.util.TimeBucketUtils;
+
+/**
+ * Keeps the latest persisted value of every entity in the recent minute buckets, so the TopN of a recent minute range
+ * can be answered from memory instead of a terms aggregation in the storage.
+ *
+ * A range can only be answered when all of its buckets have been seen since this OAP node started, see {@link
+ * #covers(long)}.
+ */
+public enum MinuteTopNCache {
+    INSTANCE;
+
+    private final Map<String, TreeMap<Long, Map<String, Long>>> models = new HashMap<>();
+    private int minutes;
+    private long firstTimeBucket;
+
+    /**
+     * @param minutes recent minutes kept in memory, zero disables the cache.
+     */
+    public synchronized void setMinutes(int minutes) {
+        this.minutes = minutes;
+        this.firstTimeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(System.currentTimeMillis());
+        this.models.clear();
+    }
+
+    public synchronized boolean isEnabled() {
+        return minutes > 0;
+    }
+
+    public synchronized void record(String modelName, long timeBucket, String entityId, long value) {
+        if (minutes <= 0 || timeBucket < oldestTimeBucket()) {
+            return;
+        }
+
+        TreeMap<Long, Map<String, Long>> buckets = models.computeIfAbsent(modelName, name -> new TreeMap<>());
+        buckets.computeIfAbsent(timeBucket, bucket -> new HashMap<>()).put(entityId, value);
+        buckets.headMap(oldestTimeBucket()).clear();
+    }
+
+    /**
+     * The first minute bucket this node has seen may have begun before it started, and the entities reported only
+     * before the start are in the storage but not here.
+     */
+    public synchronized boolean covers(long startTB) {
+        return minutes > 0 && startTB > firstTimeBucket && startTB >= oldestTimeBucket();
+    }
+
+    /**
+     * Average the values of every entity in the buckets between startTB and endTB, and keep the topN of them in a
+     * bounded heap.
+     */
+    public List<TopNEntity> topN(String modelName, long startTB, long endTB, int topN, Order order,
+        Predicate<String> entityFilter) {
+        Map<String, long[]> sums = new HashMap<>();
+        synchronized (this) {
+            TreeMap<Long, Map<String, Long>> buckets = models.get(modelName);
+            if (buckets != null) {
+                for (Map<String, Long> entities : buckets.subMap(startTB, true, endTB, true).values()) {
+                    entities.forEach((entityId, value) -> {
+                        long[] sum = sums.computeIfAbsent(entityId, id -> new long[2]);
+                        sum[0] += value;
+                        sum[1]++;
+                    });
+                }
+            }
+        }
+
+        Comparator<TopNEntity> comparator = Comparator.comparingLong(TopNEntity::getValue);
+        if (order.equals(Order.DES)) {
+            comparator = comparator.reversed();
+        }
+        PriorityQueue<TopNEntity> heap = new PriorityQueue<>(topN + 1, comparator.reversed());
+        sums.forEach((entityId, sum) -> {
+            if (!entityFilter.test(entityId)) {
+                return;
+            }
+            TopNEntity entity = new TopNEntity();
+            entity.setId(entityId);
+            entity.setValue(sum[0] / sum[1]);
+            heap.add(entity);
+            if (heap.size() > topN) {
+                heap.poll();
+            }
+        });
+
+        List<TopNEntity> topNEntities = new ArrayList<>(heap);
+        topNEntities.sort(comparator);
+        return topNEntities;
+    }
+
+    private long oldestTimeBucket() {
+        return TimeBucketUtils.INSTANCE.getMinuteTimeBucket(System.currentTimeMillis() - minutes * 60 * 1000L);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.query.entity.*;
+
+/**
+ * Orders the spans of a trace depth first from its roots, a span being a root when no other span of the trace is its
+ * parent. Children are indexed by their parent segment span id once, and the tree is walked with an explicit stack,
+ * so the cost is linear in the number of spans and deep traces can't overflow the thread stack.
+ */
+public enum SpanTreeSorter {
+    INSTANCE;
+
+    public static final String TRUNCATED_TAG = "trace.truncated";
+
+    /**
+     * @param maxSpans keep at most this many spans, zero or negative means no limit. When spans are dropped, the
+     * first root span gets a {@link #TRUNCATED_TAG} tag telling how many of them are shown.
+     */
+    public List<Span> sort(List<Span> spans, int maxSpans) {
+        int limit = maxSpans > 0 ? maxSpans : Integer.MAX_VALUE;
+
+        Set<String> segmentSpanIds = new HashSet<>(spans.size() * 2);
+        Map<String, List<Span>> childrenOfParents = new HashMap<>(spans.size() * 2);
+        for (Span span : spans) {
+            segmentSpanIds.add(span.getSegmentSpanId());
+            childrenOfParents.computeIfAbsent(span.getSegmentParentSpanId(), parent -> new ArrayList<>(2)).add(span);
+        }
+
+        List<Span> sortedSpans = new ArrayList<>(Math.min(spans.size(), limit));
+        Set<Span> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Iterator<Span>> path = new ArrayDeque<>();
+        for (Span root : spans) {
+            if (segmentSpanIds.contains(root.getSegmentParentSpanId())) {
+                continue;
+            }
+            root.setRoot(true);
+            if (sortedSpans.size() >= limit || !visited.add(root)) {
+                continue;
+            }
+            sortedSpans.add(root);
+
+            path.push(children(childrenOfParents, root));
+            while (!path.isEmpty() && sortedSpans.size() < limit) {
+                Iterator<Span> siblings = path.peek();
+                if (!siblings.hasNext()) {
+                    path.pop();
+                    continue;
+                }
+                Span span = siblings.next();
+                if (visited.add(span)) {
+                    sortedSpans.add(span);
+                    path.push(children(childrenOfParents, span));
+                }
+            }
+            path.clear();
+        }
+
+        if (sortedSpans.size() >= limit && spans.size() > limit) {
+            KeyValue truncated = new KeyValue();
+            truncated.setKey(TRUNCATED_TAG);
+            truncated.setValue(limit + " of " + spans.size() + " spans are shown");
+            sortedSpans.get(0).getTags().add(truncated);
+        }
+        return sortedSpans;
+    }
+
+    private Iterator<Span> children(Map<String, List<Span>> childrenOfParents, Span parent) {
+        List<Span> children = childrenOfParents.get(parent.getSegmentSpanId());
+        return children == null ? Collections.emptyIterator() : children.iterator();
+    }
+}
@@ -18,8 +18,10 @@
 
 package org.apache.skywalking.oap.server.core.query;
 
-import java.io.IOException;
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.io.*;
 import java.util.*;
+import java.util.stream.*;
 import org.apache.skywalking.apm.network.language.agent.*;
 import org.apache.skywalking.apm.network.language.agent.v2.*;
 import org.apache.skywalking.oap.server.core.*;
@@ -43,15 +45,22 @@ import static java.util.Objects.nonNull;
  */
 public class TraceQueryService implements Service {
 
+    /**
+     * Traces with at least this many segments decode their segments in parallel.
+     */
+    private static final int PARALLEL_DECODE_THRESHOLD = 64;
+
     private final ModuleManager moduleManager;
+    private final int maxSpansPerTrace;
     private ITraceQueryDAO traceQueryDAO;
     private ServiceInventoryCache serviceInventoryCache;
     private EndpointInventoryCache endpointInventoryCache;
     private NetworkAddressInventoryCache networkAddressInventoryCache;
     private IComponentLibraryCatalogService componentLibraryCatalogService;
 
-    public TraceQueryService(ModuleManager moduleManager) {
+    public TraceQueryService(ModuleManager moduleManager, int maxSpansPerTrace) {
         this.moduleManager = moduleManager;
+        this.maxSpansPerTrace = maxSpansPerTrace;
     }
 
     private ITraceQueryDAO getTraceQueryDAO() {
@@ -103,37 +112,37 @@ public class TraceQueryService implements Service {
         Trace trace = new Trace();
 
         List<SegmentRecord> segmentRecords = getTraceQueryDAO().queryByTraceId(traceId);
-        for (SegmentRecord segment : segmentRecords) {
-            if (nonNull(segment)) {
-                if (segment.getVersion() == 2) {
-                    SegmentObject segmentObject = SegmentObject.parseFrom(segment.getDataBinary());
-                    trace.getSpans().addAll(buildSpanV2List(traceId, segment.getSegmentId(), segment.getServiceId(), segmentObject.getSpansList()));
-                } else {
-                    TraceSegmentObject segmentObject = TraceSegmentObject.parseFrom(segment.getDataBinary());
-                    trace.getSpans().addAll(buildSpanList(traceId, segment.getSegmentId(), segment.getServiceId(), segmentObject.getSpansList()));
-                }
-            }
+        Stream<SegmentRecord> segments = segmentRecords.size() < PARALLEL_DECODE_THRESHOLD ? segmentRecords.stream() : segmentRecords.parallelStream();
+        List<List<Span>> spansOfSegments;
+        try {
+            spansOfSegments = segments.filter(Objects::nonNull).map(segment -> buildSpans(traceId, segment)).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+        spansOfSegments.forEach(trace.getSpans()::addAll);
 
-        List<Span> sortedSpans = new LinkedList<>();
         if (CollectionUtils.isNotEmpty(trace.getSpans())) {
-            List<Span> rootSpans = findRoot(trace.getSpans());
-
-            if (CollectionUtils.isNotEmpty(rootSpans)) {
-                rootSpans.forEach(span -> {
-                    List<Span> childrenSpan = new ArrayList<>();
-                    childrenSpan.add(span);
-                    findChildren(trace.getSpans(), span, childrenSpan);
-                    sortedSpans.addAll(childrenSpan);
-                });
-            }
+            List<Span> sortedSpans = SpanTreeSorter.INSTANCE.sort(trace.getSpans(), maxSpansPerTrace);
+            trace.getSpans().clear();
+            trace.getSpans().addAll(sortedSpans);
         }
-
-        trace.getSpans().clear();
-        trace.getSpans().addAll(sortedSpans);
         return trace;
     }
 
+    private List<Span> buildSpans(String traceId, SegmentRecord segment) {
+        try {
+            if (segment.getVersion() == 2) {
+                SegmentObject segmentObject = SegmentObject.parseFrom(segment.getDataBinary());
+                return buildSpanV2List(traceId, segment.getSegmentId(), segment.getServiceId(), segmentObject.getSpansList());
+            } else {
+                TraceSegmentObject segmentObject = TraceSegmentObject.parseFrom(segment.getDataBinary());
+                return buildSpanList(traceId, segment.getSegmentId(), segment.getServiceId(), segmentObject.getSpansList());
+            }
+        } catch (InvalidProtocolBufferException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private List<Span> buildSpanV2List(String traceId, String segmentId, int serviceId,
         List<SpanObjectV2> spanObjects) {
         List<Span> spans = new ArrayList<>();
@@ -343,33 +352,4 @@ public class TraceQueryService implements Service {
 
         return spans;
     }
-
-    private List<Span> findRoot(List<Span> spans) {
-        List<Span> rootSpans = new ArrayList<>();
-        spans.forEach(span -> {
-            String segmentParentSpanId = span.getSegmentParentSpanId();
-
-            boolean hasParent = false;
-            for (Span subSpan : spans) {
-                if (segmentParentSpanId.equals(subSpan.getSegmentSpanId())) {
-                    hasParent = true;
-                }
-            }
-
-            if (!hasParent) {
-                span.setRoot(true);
-                rootSpans.add(span);
-            }
-        });
-        return rootSpans;
-    }
-
-    private void findChildren(List<Span> spans, Span parentSpan, List<Span> childrenSpan) {
-        spans.forEach(span -> {
-            if (span.getSegmentParentSpanId().equals(parentSpan.getSegmentSpanId())) {
-                childrenSpan.add(span);
-                findChildren(spans, span, childrenSpan);
-            }
-        });
-    }
 }
@@ -19,11 +19,13 @@
 package org.apache.skywalking.oap.server.core.remote.annotation;
 
 import java.lang.annotation.*;
+import org.apache.skywalking.oap.server.library.index.Indexed;
 
 /**
  * @author peng-yongsheng
  */
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
+@Indexed
 public @interface StreamData {
 }
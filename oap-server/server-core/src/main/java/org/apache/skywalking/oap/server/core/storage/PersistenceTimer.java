@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.core.storage;
 
 import java.util.*;
 import java.util.concurrent.*;
+import lombok.Setter;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.oap.server.core.analysis.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
@@ -35,6 +36,11 @@ public enum PersistenceTimer {
 
     private Boolean isStarted = false;
     private final Boolean debug;
+    /**
+     * Seconds between two releases of the hour, day and month rollups.
+     */
+    @Setter private int rollupPeriod;
+    private long lastRollupTime;
 
     PersistenceTimer() {
         this.debug = System.getProperty("debug") != null;
@@ -64,6 +70,11 @@ public enum PersistenceTimer {
 
         long startTime = System.currentTimeMillis();
         try {
+            if (startTime - lastRollupTime >= rollupPeriod * 1000L) {
+                IndicatorProcess.INSTANCE.getRollupWorkers().forEach(IndicatorRollupWorker::release);
+                lastRollupTime = startTime;
+            }
+
             List batchAllCollection = new LinkedList();
             List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
             persistenceWorkers.addAll(IndicatorProcess.INSTANCE.getPersistentWorkers());
@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.core.storage.model;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.config.DownsamplingConfigService;
@@ -66,17 +67,57 @@ public abstract class ModelInstaller {
 
         boolean debug = System.getProperty("debug") != null;
 
-        for (Model model : downsamplingModels) {
-            if (!isExists(client, model)) {
-                logger.info("table: {} does not exist", model.getName());
-                createTable(client, model);
-            } else if (debug) {
-                logger.info("table: {} exists", model.getName());
-                deleteTable(client, model);
-                createTable(client, model);
+        int concurrency = Math.min(installConcurrency(), downsamplingModels.size());
+        if (concurrency <= 1) {
+            for (Model model : downsamplingModels) {
+                install(client, model, debug);
             }
-            columnCheck(client, model);
+            return;
         }
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Void>> installations = new ArrayList<>(downsamplingModels.size());
+            for (Model model : downsamplingModels) {
+                installations.add(executor.submit(() -> {
+                    install(client, model, debug);
+                    return null;
+                }));
+            }
+            for (Future<Void> installation : installations) {
+                installation.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof StorageException) {
+                throw (StorageException)e.getCause();
+            }
+            throw new StorageException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException(e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void install(Client client, Model model, boolean debug) throws StorageException {
+        if (!isExists(client, model)) {
+            logger.info("table: {} does not exist", model.getName());
+            createTable(client, model);
+        } else if (debug) {
+            logger.info("table: {} exists", model.getName());
+            deleteTable(client, model);
+            createTable(client, model);
+        }
+        columnCheck(client, model);
+    }
+
+    /**
+     * @return how many models could be installed at the same time. The installer should be thread safe if it is
+     * greater than 1.
+     */
+    protected int installConcurrency() {
+        return 1;
     }
 
     public final void overrideColumnName(String columnName, String newName) {
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.segment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.*;
+
+public class SegmentDataCodecTest {
+
+    private static final byte[] SEGMENT;
+
+    static {
+        StringBuilder segment = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            segment.append("/dubbox-case/case/dubbox-rest/404-test").append(i % 7);
+        }
+        byte[] text = segment.toString().getBytes(StandardCharsets.UTF_8);
+        SEGMENT = new byte[text.length + 1];
+        // Protobuf tag of field 1, length delimited.
+        SEGMENT[0] = 0x0A;
+        System.arraycopy(text, 0, SEGMENT, 1, text.length);
+    }
+
+    @After
+    public void tearDown() {
+        SegmentDataCodec.INSTANCE.setCompression(false);
+    }
+
+    @Test
+    public void testUncompressed() {
+        String stored = SegmentDataCodec.INSTANCE.encodeToString(SEGMENT);
+        Assert.assertEquals(Base64.getEncoder().encodeToString(SEGMENT), stored);
+        Assert.assertArrayEquals(SEGMENT, SegmentDataCodec.INSTANCE.decodeFromString(stored));
+    }
+
+    @Test
+    public void testCompressed() {
+        SegmentDataCodec.INSTANCE.setCompression(true);
+        String stored = SegmentDataCodec.INSTANCE.encodeToString(SEGMENT);
+        Assert.assertTrue(stored.length() < Base64.getEncoder().encodeToString(SEGMENT).length() / 4);
+        Assert.assertArrayEquals(SEGMENT, SegmentDataCodec.INSTANCE.decodeFromString(stored));
+
+        // Existing Base64 data is still readable after compression enabled.
+        Assert.assertArrayEquals(SEGMENT, SegmentDataCodec.INSTANCE.decodeFromString(Base64.getEncoder().encodeToString(SEGMENT)));
+    }
+
+    @Test
+    public void testIncompressible() {
+        SegmentDataCodec.INSTANCE.setCompression(true);
+        byte[] segment = new byte[] {0x0A, 0x01, 0x7F};
+        Assert.assertArrayEquals(segment, SegmentDataCodec.INSTANCE.compress(segment));
+    }
+
+    @Test
+    public void testEmpty() {
+        SegmentDataCodec.INSTANCE.setCompression(true);
+        Assert.assertEquals("", SegmentDataCodec.INSTANCE.encodeToString(new byte[0]));
+        Assert.assertEquals("", SegmentDataCodec.INSTANCE.encodeToString(null));
+        Assert.assertEquals(0, SegmentDataCodec.INSTANCE.decodeFromString(null).length);
+    }
+}
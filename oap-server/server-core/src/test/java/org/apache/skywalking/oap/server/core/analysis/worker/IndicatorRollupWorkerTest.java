@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.junit.*;
+
+public class IndicatorRollupWorkerTest {
+
+    @Test
+    public void testFoldAndRelease() {
+        CollectWorker hourWorker = new CollectWorker();
+        CollectWorker dayWorker = new CollectWorker();
+        CollectWorker monthWorker = new CollectWorker();
+        IndicatorRollupWorker rollupWorker = new IndicatorRollupWorker(1, "test", hourWorker, dayWorker, monthWorker);
+
+        rollupWorker.in(minute("a", 201901312358L, 1));
+        rollupWorker.in(minute("a", 201901312359L, 2));
+        rollupWorker.in(minute("a", 201902010000L, 3));
+        rollupWorker.in(minute("a", 201902010001L, 4));
+        rollupWorker.in(minute("b", 201901312359L, 5));
+
+        Assert.assertTrue(hourWorker.indicators.isEmpty());
+
+        rollupWorker.release();
+
+        Assert.assertEquals(3, hourWorker.indicators.size());
+        Assert.assertEquals(3, hourWorker.value("a", 2019013123L));
+        Assert.assertEquals(7, hourWorker.value("a", 2019020100L));
+        Assert.assertEquals(5, hourWorker.value("b", 2019013123L));
+
+        Assert.assertEquals(3, dayWorker.indicators.size());
+        Assert.assertEquals(3, dayWorker.value("a", 20190131L));
+        Assert.assertEquals(7, dayWorker.value("a", 20190201L));
+        Assert.assertEquals(5, dayWorker.value("b", 20190131L));
+
+        Assert.assertEquals(3, monthWorker.indicators.size());
+        Assert.assertEquals(3, monthWorker.value("a", 201901L));
+        Assert.assertEquals(7, monthWorker.value("a", 201902L));
+        Assert.assertEquals(5, monthWorker.value("b", 201901L));
+    }
+
+    @Test
+    public void testReleaseOnlyNewIndicators() {
+        CollectWorker hourWorker = new CollectWorker();
+        IndicatorRollupWorker rollupWorker = new IndicatorRollupWorker(1, "test", hourWorker, null, null);
+
+        rollupWorker.in(minute("a", 201901312358L, 1));
+        rollupWorker.release();
+        rollupWorker.release();
+        Assert.assertEquals(1, hourWorker.indicators.size());
+
+        rollupWorker.in(minute("a", 201901312359L, 2));
+        rollupWorker.release();
+        Assert.assertEquals(2, hourWorker.indicators.size());
+        Assert.assertEquals(2, ((TestIndicator)hourWorker.indicators.get(1)).getValue());
+    }
+
+    private static TestIndicator minute(String entityId, long timeBucket, long value) {
+        TestIndicator indicator = new TestIndicator();
+        indicator.entityId = entityId;
+        indicator.setTimeBucket(timeBucket);
+        indicator.combine(value);
+        return indicator;
+    }
+
+    private static class CollectWorker extends AbstractWorker<Indicator> {
+        private final List<Indicator> indicators = new ArrayList<>();
+
+        private CollectWorker() {
+            super(0);
+        }
+
+        @Override public void in(Indicator indicator) {
+            indicators.add(indicator);
+        }
+
+        private long value(String entityId, long timeBucket) {
+            for (Indicator indicator : indicators) {
+                TestIndicator testIndicator = (TestIndicator)indicator;
+                if (testIndicator.entityId.equals(entityId) && testIndicator.getTimeBucket() == timeBucket) {
+                    return testIndicator.getValue();
+                }
+            }
+            throw new AssertionError(entityId + " " + timeBucket);
+        }
+    }
+
+    private static class TestIndicator extends CountIndicator {
+        private String entityId;
+
+        @Override public String id() {
+            return getTimeBucket() + "_" + entityId;
+        }
+
+        @Override public Indicator toHour() {
+            return copy(toTimeBucketInHour());
+        }
+
+        @Override public Indicator toDay() {
+            return copy(toTimeBucketInDay());
+        }
+
+        @Override public Indicator toMonth() {
+            return copy(toTimeBucketInMonth());
+        }
+
+        private TestIndicator copy(long timeBucket) {
+            TestIndicator indicator = new TestIndicator();
+            indicator.entityId = entityId;
+            indicator.setTimeBucket(timeBucket);
+            indicator.setValue(getValue());
+            return indicator;
+        }
+
+        @Override public int hashCode() {
+            return id().hashCode();
+        }
+
+        @Override public boolean equals(Object obj) {
+            return obj instanceof TestIndicator && id().equals(((TestIndicator)obj).id());
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return 0;
+        }
+    }
+}
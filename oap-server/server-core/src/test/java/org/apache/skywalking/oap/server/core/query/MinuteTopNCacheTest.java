@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.List;
+import org.apache.skywalking.oap.server.core.query.entity.*;
+import org.apache.skywalking.oap.server.library.util.TimeBucketUtils;
+import org.junit.*;
+
+public class MinuteTopNCacheTest {
+
+    @After
+    public void after() {
+        MinuteTopNCache.INSTANCE.setMinutes(0);
+    }
+
+    @Test
+    public void testTopN() {
+        MinuteTopNCache.INSTANCE.setMinutes(30);
+        long current = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(System.currentTimeMillis());
+        long previous = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(System.currentTimeMillis() - 60 * 1000L);
+
+        MinuteTopNCache.INSTANCE.record("service_cpm", previous, "1", 10);
+        MinuteTopNCache.INSTANCE.record("service_cpm", current, "1", 30);
+        MinuteTopNCache.INSTANCE.record("service_cpm", current, "2", 50);
+        MinuteTopNCache.INSTANCE.record("service_cpm", current, "3", 5);
+        MinuteTopNCache.INSTANCE.record("service_cpm", current, "3", 15);
+        MinuteTopNCache.INSTANCE.record("endpoint_cpm", current, "4", 100);
+
+        List<TopNEntity> topN = MinuteTopNCache.INSTANCE.topN("service_cpm", previous, current, 2, Order.DES, entityId -> true);
+        Assert.assertEquals(2, topN.size());
+        Assert.assertEquals("2", topN.get(0).getId());
+        Assert.assertEquals(50, topN.get(0).getValue());
+        Assert.assertEquals("1", topN.get(1).getId());
+        Assert.assertEquals(20, topN.get(1).getValue());
+
+        topN = MinuteTopNCache.INSTANCE.topN("service_cpm", previous, current, 2, Order.ASC, entityId -> true);
+        Assert.assertEquals("3", topN.get(0).getId());
+        Assert.assertEquals(15, topN.get(0).getValue());
+        Assert.assertEquals("1", topN.get(1).getId());
+
+        topN = MinuteTopNCache.INSTANCE.topN("service_cpm", current, current, 5, Order.DES, entityId -> !entityId.equals("2"));
+        Assert.assertEquals(2, topN.size());
+        Assert.assertEquals("1", topN.get(0).getId());
+        Assert.assertEquals(30, topN.get(0).getValue());
+    }
+
+    @Test
+    public void testCovers() {
+        MinuteTopNCache.INSTANCE.setMinutes(30);
+        long current = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(System.currentTimeMillis());
+        Assert.assertFalse(MinuteTopNCache.INSTANCE.covers(current));
+
+        MinuteTopNCache.INSTANCE.setMinutes(0);
+        Assert.assertFalse(MinuteTopNCache.INSTANCE.covers(current + 1));
+        MinuteTopNCache.INSTANCE.record("service_cpm", current, "1", 10);
+        Assert.assertTrue(MinuteTopNCache.INSTANCE.topN("service_cpm", current, current, 5, Order.DES, entityId -> true).isEmpty());
+    }
+}
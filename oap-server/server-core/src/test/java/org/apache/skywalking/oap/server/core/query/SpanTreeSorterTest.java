@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.query.entity.Span;
+import org.junit.*;
+
+public class SpanTreeSorterTest {
+
+    @Test
+    public void testSortDepthFirst() {
+        List<Span> spans = Arrays.asList(
+            span("s2", 0, "s1", 1),
+            span("s1", 1, "s1", 0),
+            span("s1", 0, "s1", -1),
+            span("s2", 1, "s2", 0),
+            span("s1", 2, "s1", 0),
+            span("s3", 0, "s0", 5));
+
+        List<Span> sortedSpans = SpanTreeSorter.INSTANCE.sort(spans, 0);
+
+        Assert.assertEquals(Arrays.asList("s1.0", "s1.1", "s2.0", "s2.1", "s1.2", "s3.0"), segmentSpanIds(sortedSpans));
+        Assert.assertTrue(sortedSpans.get(0).isRoot());
+        Assert.assertTrue(sortedSpans.get(5).isRoot());
+        Assert.assertFalse(sortedSpans.get(1).isRoot());
+    }
+
+    @Test
+    public void testSortDeepTrace() {
+        List<Span> spans = new ArrayList<>();
+        for (int i = 100000; i > 0; i--) {
+            spans.add(span("s", i, "s", i - 1));
+        }
+        spans.add(span("s", 0, "s", -1));
+
+        List<Span> sortedSpans = SpanTreeSorter.INSTANCE.sort(spans, 0);
+
+        Assert.assertEquals(100001, sortedSpans.size());
+        Assert.assertEquals("s.0", sortedSpans.get(0).getSegmentSpanId());
+        Assert.assertEquals("s.100000", sortedSpans.get(100000).getSegmentSpanId());
+    }
+
+    @Test
+    public void testTruncate() {
+        List<Span> spans = new ArrayList<>();
+        spans.add(span("s", 0, "s", -1));
+        for (int i = 1; i <= 10; i++) {
+            spans.add(span("s", i, "s", 0));
+        }
+
+        List<Span> sortedSpans = SpanTreeSorter.INSTANCE.sort(spans, 5);
+
+        Assert.assertEquals(Arrays.asList("s.0", "s.1", "s.2", "s.3", "s.4"), segmentSpanIds(sortedSpans));
+        Assert.assertEquals(SpanTreeSorter.TRUNCATED_TAG, sortedSpans.get(0).getTags().get(0).getKey());
+        Assert.assertEquals("5 of 11 spans are shown", sortedSpans.get(0).getTags().get(0).getValue());
+    }
+
+    private List<String> segmentSpanIds(List<Span> spans) {
+        List<String> ids = new ArrayList<>();
+        for (Span span : spans) {
+            ids.add(span.getSegmentSpanId());
+        }
+        return ids;
+    }
+
+    private Span span(String segmentId, int spanId, String parentSegmentId, int parentSpanId) {
+        Span span = new Span();
+        span.setSegmentSpanId(segmentId + "." + spanId);
+        span.setSegmentParentSpanId(parentSegmentId + "." + parentSpanId);
+        return span;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.index;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The class index merged from all {@link #INDEX_LOCATION} resources visible to a class loader. Each entry of the
+ * resource is `class name=stereotype,stereotype`, stereotypes are the names of the {@link Indexed} annotations or
+ * interfaces.
+ */
+public class ClassIndex {
+    public static final String INDEX_LOCATION = "META-INF/skywalking/class-index.properties";
+
+    private final Map<String, Set<String>> stereotypes;
+
+    private ClassIndex(Map<String, Set<String>> stereotypes) {
+        this.stereotypes = stereotypes;
+    }
+
+    /**
+     * @return an empty index, if there is no index resource in the class loader.
+     */
+    public static ClassIndex load(ClassLoader classLoader) throws IOException {
+        Map<String, Set<String>> stereotypes = new HashMap<>();
+        Enumeration<URL> resources = classLoader.getResources(INDEX_LOCATION);
+        while (resources.hasMoreElements()) {
+            Properties properties = new Properties();
+            try (Reader reader = new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            for (String className : properties.stringPropertyNames()) {
+                for (String stereotype : properties.getProperty(className).split(",")) {
+                    stereotype = stereotype.trim();
+                    if (!stereotype.isEmpty()) {
+                        stereotypes.computeIfAbsent(stereotype, key -> new TreeSet<>()).add(className);
+                    }
+                }
+            }
+        }
+        return new ClassIndex(stereotypes);
+    }
+
+    public boolean isEmpty() {
+        return stereotypes.isEmpty();
+    }
+
+    /**
+     * @param stereotype should be marked by {@link Indexed}, otherwise it never exists in the index.
+     * @return names of the classes annotated by or implementing the given stereotype, sorted.
+     */
+    public Set<String> getCandidates(Class<?> stereotype) {
+        return stereotypes.getOrDefault(stereotype.getName(), Collections.emptySet());
+    }
+
+    /**
+     * @return true if the classes of the given stereotype are recorded in this index.
+     */
+    public boolean isIndexed(Class<?> stereotype) {
+        return !isEmpty() && stereotype.isAnnotationPresent(Indexed.class);
+    }
+}
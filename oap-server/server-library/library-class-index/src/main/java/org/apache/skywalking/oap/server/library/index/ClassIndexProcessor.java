@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.index;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.tools.*;
+
+/**
+ * Write the {@link ClassIndex#INDEX_LOCATION} of the module in compiling. It is discovered by javac through the
+ * service file in this jar, so every module depending on this library is indexed without any configuration.
+ *
+ * Same as the classpath scanning used before, only top level classes are indexed.
+ */
+@SupportedAnnotationTypes("*")
+public class ClassIndexProcessor extends AbstractProcessor {
+
+    private final Map<String, Set<String>> index = new TreeMap<>();
+
+    @Override public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+
+        for (Element element : roundEnv.getRootElements()) {
+            if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.INTERFACE) {
+                continue;
+            }
+            TypeElement typeElement = (TypeElement)element;
+
+            Set<String> stereotypes = new TreeSet<>();
+            for (AnnotationMirror annotation : typeElement.getAnnotationMirrors()) {
+                addIfIndexed(stereotypes, (TypeElement)annotation.getAnnotationType().asElement());
+            }
+            collectInterfaces(stereotypes, typeElement.asType(), new HashSet<>());
+
+            if (!stereotypes.isEmpty()) {
+                index.put(processingEnv.getElementUtils().getBinaryName(typeElement).toString(), stereotypes);
+            }
+        }
+        // Don't claim any annotation, other processors(e.g. lombok) should work as usual.
+        return false;
+    }
+
+    private void collectInterfaces(Set<String> stereotypes, TypeMirror type, Set<String> visited) {
+        for (TypeMirror superType : processingEnv.getTypeUtils().directSupertypes(type)) {
+            if (superType.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+            TypeElement superElement = (TypeElement)((DeclaredType)superType).asElement();
+            if (!visited.add(superElement.getQualifiedName().toString())) {
+                continue;
+            }
+            if (superElement.getKind() == ElementKind.INTERFACE) {
+                addIfIndexed(stereotypes, superElement);
+            }
+            collectInterfaces(stereotypes, superType, visited);
+        }
+    }
+
+    private void addIfIndexed(Set<String> stereotypes, TypeElement stereotype) {
+        if (stereotype.getAnnotation(Indexed.class) != null) {
+            stereotypes.add(processingEnv.getElementUtils().getBinaryName(stereotype).toString());
+        }
+    }
+
+    private void writeIndex() {
+        if (index.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ClassIndex.INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Set<String>> entry : index.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write('=');
+                    writer.write(String.join(",", entry.getValue()));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + ClassIndex.INDEX_LOCATION + ", " + e.getMessage());
+        }
+    }
+}
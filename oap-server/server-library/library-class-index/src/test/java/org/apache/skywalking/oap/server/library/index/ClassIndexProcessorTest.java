@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.index;
+
+import java.io.File;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import javax.tools.*;
+import org.junit.*;
+
+public class ClassIndexProcessorTest {
+
+    private Path workspace;
+
+    @Before
+    public void setUp() throws Exception {
+        workspace = Files.createTempDirectory("class-index");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.walk(workspace).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+
+    @Test
+    public void testIndexStereotypes() throws Exception {
+        Path output = compile(
+            "package test; @org.apache.skywalking.oap.server.library.index.Indexed @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME) public @interface Stereo {}",
+            "package test; @org.apache.skywalking.oap.server.library.index.Indexed public interface Contract {}",
+            "package test; public abstract class Base implements Contract {}",
+            "package test; public class Child extends Base { public static class Nested implements Contract {} }",
+            "package test; @Stereo public class Both implements Contract {}",
+            "package test; public class Ignored {}");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {output.toUri().toURL()}, getClass().getClassLoader())) {
+            ClassIndex index = ClassIndex.load(classLoader);
+            Assert.assertFalse(index.isEmpty());
+
+            Class<?> stereo = classLoader.loadClass("test.Stereo");
+            Class<?> contract = classLoader.loadClass("test.Contract");
+            Assert.assertTrue(index.isIndexed(stereo));
+            Assert.assertFalse(index.isIndexed(classLoader.loadClass("test.Ignored")));
+
+            Assert.assertEquals(Collections.singleton("test.Both"), index.getCandidates(stereo));
+            Assert.assertEquals(new HashSet<>(Arrays.asList("test.Base", "test.Both", "test.Child")), index.getCandidates(contract));
+        }
+    }
+
+    @Test
+    public void testNoIndex() throws Exception {
+        Path output = compile("package test; public class Ignored {}");
+
+        Assert.assertFalse(Files.exists(output.resolve(ClassIndex.INDEX_LOCATION)));
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {output.toUri().toURL()}, null)) {
+            ClassIndex index = ClassIndex.load(classLoader);
+            Assert.assertTrue(index.isEmpty());
+            Assert.assertFalse(index.isIndexed(Indexed.class));
+        }
+    }
+
+    private Path compile(String... sources) throws Exception {
+        Path sourceDir = Files.createDirectories(workspace.resolve("src"));
+        Path output = Files.createDirectories(workspace.resolve("classes"));
+
+        List<File> files = new ArrayList<>();
+        for (String source : sources) {
+            String name = source.replaceAll("(?s).*public (abstract )?(class|interface|@interface) (\\w+).*", "$3");
+            Path file = Files.createDirectories(sourceDir.resolve("test")).resolve(name + ".java");
+            Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+            files.add(file.toFile());
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            String classpath = new File(Indexed.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                Arrays.asList("-classpath", classpath, "-d", output.toString()),
+                null, fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(Collections.singletonList(new ClassIndexProcessor()));
+            Assert.assertTrue(task.call());
+        }
+        return output;
+    }
+}
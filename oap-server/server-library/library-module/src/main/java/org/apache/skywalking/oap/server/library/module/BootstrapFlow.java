@@ -19,10 +19,15 @@
 package org.apache.skywalking.oap.server.library.module;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.slf4j.*;
 
 /**
+ * Start the providers in the order of their module dependencies. A provider starts as soon as the providers of all
+ * its required modules started, so the providers without dependency between them start concurrently.
+ *
  * @author wu-sheng, peng-yongsheng
  */
 class BootstrapFlow {
@@ -30,10 +35,12 @@ class BootstrapFlow {
 
     private Map<String, ModuleDefine> loadedModules;
     private List<ModuleProvider> startupSequence;
+    private Map<ModuleProvider, List<ModuleProvider>> dependencies;
 
     BootstrapFlow(Map<String, ModuleDefine> loadedModules) throws CycleDependencyException {
         this.loadedModules = loadedModules;
         startupSequence = new LinkedList<>();
+        dependencies = new HashMap<>();
 
         makeSequence();
     }
@@ -51,11 +58,46 @@ class BootstrapFlow {
                     }
                 }
             }
-            logger.info("start the provider {} in {} module.", provider.name(), provider.getModuleName());
             provider.requiredCheck(provider.getModule().services());
+        }
+
+        long startTime = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(startupSequence.size(), Math.max(4, Runtime.getRuntime().availableProcessors()))), new BootstrapThreadFactory());
+        try {
+            Map<ModuleProvider, CompletableFuture<Void>> startups = new HashMap<>();
+            for (ModuleProvider provider : startupSequence) {
+                CompletableFuture[] required = dependencies.get(provider).stream().map(startups::get).toArray(CompletableFuture[]::new);
+                startups.put(provider, CompletableFuture.allOf(required).thenRunAsync(() -> start(provider), executor));
+            }
+
+            for (ModuleProvider provider : startupSequence) {
+                try {
+                    startups.get(provider).join();
+                } catch (CompletionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof ModuleStartException) {
+                        throw (ModuleStartException)cause;
+                    } else if (cause instanceof RuntimeException) {
+                        throw (RuntimeException)cause;
+                    }
+                    throw new ModuleStartException(cause.getMessage(), cause);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        logger.info("all {} providers started, {} ms used.", startupSequence.size(), System.currentTimeMillis() - startTime);
+    }
 
+    private void start(ModuleProvider provider) {
+        long startTime = System.currentTimeMillis();
+        logger.info("start the provider {} in {} module.", provider.name(), provider.getModuleName());
+        try {
             provider.start();
+        } catch (ModuleStartException e) {
+            throw new CompletionException(e);
         }
+        logger.info("provider {} in {} module started, {} ms used.", provider.name(), provider.getModuleName(), System.currentTimeMillis() - startTime);
     }
 
     void notifyAfterCompleted() throws ServiceNotProvidedException, ModuleStartException {
@@ -64,50 +106,73 @@ class BootstrapFlow {
         }
     }
 
+    /**
+     * Sort the providers topologically, a provider comes after the providers of all its required modules. A provider
+     * requiring a module which isn't loaded can't be sequenced, same as the one in a cycle.
+     */
     private void makeSequence() throws CycleDependencyException {
         List<ModuleProvider> allProviders = new ArrayList<>();
         loadedModules.forEach((moduleName, module) -> allProviders.addAll(module.providers()));
 
-        do {
-            int numOfToBeSequenced = allProviders.size();
-            for (int i = 0; i < allProviders.size(); i++) {
-                ModuleProvider provider = allProviders.get(i);
-                String[] requiredModules = provider.requiredModules();
-                if (CollectionUtils.isNotEmpty(requiredModules)) {
-                    boolean isAllRequiredModuleStarted = true;
-                    for (String module : requiredModules) {
-                        // find module in all ready existed startupSequence
-                        boolean exist = false;
-                        for (ModuleProvider moduleProvider : startupSequence) {
-                            if (moduleProvider.getModuleName().equals(module)) {
-                                exist = true;
-                                break;
-                            }
-                        }
-                        if (!exist) {
-                            isAllRequiredModuleStarted = false;
-                            break;
-                        }
+        Map<ModuleProvider, Integer> unstartedDependencies = new HashMap<>();
+        Map<ModuleProvider, List<ModuleProvider>> dependents = new HashMap<>();
+        Deque<ModuleProvider> readyProviders = new ArrayDeque<>();
+        for (ModuleProvider provider : allProviders) {
+            List<ModuleProvider> required = new ArrayList<>();
+            boolean isAllRequiredModuleLoaded = true;
+            String[] requiredModules = provider.requiredModules();
+            if (CollectionUtils.isNotEmpty(requiredModules)) {
+                for (String module : new LinkedHashSet<>(Arrays.asList(requiredModules))) {
+                    ModuleDefine requiredModule = loadedModules.get(module);
+                    if (requiredModule == null) {
+                        isAllRequiredModuleLoaded = false;
+                        continue;
                     }
-
-                    if (isAllRequiredModuleStarted) {
-                        startupSequence.add(provider);
-                        allProviders.remove(i);
-                        i--;
+                    for (ModuleProvider requiredProvider : requiredModule.providers()) {
+                        required.add(requiredProvider);
+                        dependents.computeIfAbsent(requiredProvider, key -> new ArrayList<>()).add(provider);
                     }
-                } else {
-                    startupSequence.add(provider);
-                    allProviders.remove(i);
-                    i--;
                 }
             }
+            dependencies.put(provider, required);
+
+            if (!isAllRequiredModuleLoaded) {
+                unstartedDependencies.put(provider, Integer.MAX_VALUE);
+            } else if (required.isEmpty()) {
+                readyProviders.add(provider);
+            } else {
+                unstartedDependencies.put(provider, required.size());
+            }
+        }
 
-            if (numOfToBeSequenced == allProviders.size()) {
-                StringBuilder unSequencedProviders = new StringBuilder();
-                allProviders.forEach(provider -> unSequencedProviders.append(provider.getModuleName()).append("[provider=").append(provider.getClass().getName()).append("]\n"));
-                throw new CycleDependencyException("Exist cycle module dependencies in \n" + unSequencedProviders.substring(0, unSequencedProviders.length() - 1));
+        while (!readyProviders.isEmpty()) {
+            ModuleProvider provider = readyProviders.poll();
+            startupSequence.add(provider);
+            for (ModuleProvider dependent : dependents.getOrDefault(provider, Collections.emptyList())) {
+                int unstarted = unstartedDependencies.get(dependent) - 1;
+                if (unstarted == 0) {
+                    unstartedDependencies.remove(dependent);
+                    readyProviders.add(dependent);
+                } else {
+                    unstartedDependencies.put(dependent, unstarted);
+                }
             }
         }
-        while (allProviders.size() != 0);
+
+        if (!unstartedDependencies.isEmpty()) {
+            StringBuilder unSequencedProviders = new StringBuilder();
+            allProviders.stream().filter(unstartedDependencies::containsKey).forEach(provider -> unSequencedProviders.append(provider.getModuleName()).append("[provider=").append(provider.getClass().getName()).append("]\n"));
+            throw new CycleDependencyException("Exist cycle module dependencies in \n" + unSequencedProviders.substring(0, unSequencedProviders.length() - 1));
+        }
+    }
+
+    private static class BootstrapThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(0);
+
+        @Override public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "BootstrapFlow-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 }
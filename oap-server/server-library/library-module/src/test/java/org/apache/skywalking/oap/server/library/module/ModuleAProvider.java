@@ -40,6 +40,7 @@ public class ModuleAProvider extends ModuleProvider {
     }
 
     @Override public void start() {
+        ModuleManagerTest.STARTED_MODULES.add("BaseA");
     }
 
     @Override public void notifyAfterCompleted() {
@@ -41,6 +41,7 @@ public class ModuleBProvider extends ModuleProvider {
     }
 
     @Override public void start() {
+        ModuleManagerTest.STARTED_MODULES.add("BaseB");
     }
 
     @Override public void notifyAfterCompleted() {
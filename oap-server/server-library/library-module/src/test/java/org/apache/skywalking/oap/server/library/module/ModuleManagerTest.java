@@ -18,13 +18,16 @@
 
 package org.apache.skywalking.oap.server.library.module;
 
-import java.util.Properties;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.junit.*;
 
 /**
  * @author wu-sheng
  */
 public class ModuleManagerTest {
+    static final List<String> STARTED_MODULES = new CopyOnWriteArrayList<>();
+
     @Test
     public void testInit() throws ServiceNotProvidedException, ModuleNotFoundException, ProviderNotFoundException, DuplicateProviderException, ModuleConfigException, ModuleStartException {
         ApplicationConfiguration configuration = new ApplicationConfiguration();
@@ -37,5 +40,8 @@ public class ModuleManagerTest {
 
         BaseModuleA.ServiceABusiness1 serviceABusiness1 = manager.find("BaseA").provider().getService(BaseModuleA.ServiceABusiness1.class);
         Assert.assertTrue(serviceABusiness1 != null);
+
+        Assert.assertEquals(3, STARTED_MODULES.size());
+        Assert.assertEquals("Test", STARTED_MODULES.get(2));
     }
 }
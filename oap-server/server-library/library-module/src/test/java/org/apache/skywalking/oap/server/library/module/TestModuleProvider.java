@@ -38,6 +38,7 @@ public class TestModuleProvider extends ModuleProvider {
     }
 
     @Override public void start() {
+        ModuleManagerTest.STARTED_MODULES.add("Test");
     }
 
     @Override public void notifyAfterCompleted() {
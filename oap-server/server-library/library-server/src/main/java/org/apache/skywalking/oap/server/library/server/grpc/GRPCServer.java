@@ -111,11 +111,11 @@ public class GRPCServer implements Server {
         }
     }
 
-    public void addHandler(BindableService handler) {
+    public synchronized void addHandler(BindableService handler) {
         nettyServerBuilder.addService(handler);
     }
 
-    public void addHandler(ServerServiceDefinition definition) {
+    public synchronized void addHandler(ServerServiceDefinition definition) {
         nettyServerBuilder.addService(definition);
     }
 
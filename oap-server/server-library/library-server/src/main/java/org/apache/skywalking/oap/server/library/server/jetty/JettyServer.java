@@ -64,7 +64,7 @@ public class JettyServer implements Server {
         server.setHandler(servletContextHandler);
     }
 
-    public void addHandler(JettyHandler handler) {
+    public synchronized void addHandler(JettyHandler handler) {
         ServletHolder servletHolder = new ServletHolder();
         servletHolder.setServlet(handler);
         servletContextHandler.addServlet(servletHolder, handler.pathSpec());
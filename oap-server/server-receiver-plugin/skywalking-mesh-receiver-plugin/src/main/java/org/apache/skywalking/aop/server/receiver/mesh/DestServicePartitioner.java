@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.aop.server.receiver.mesh;
+
+import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
+import org.apache.skywalking.apm.network.servicemesh.ServiceMeshMetric;
+import org.apache.skywalking.oap.server.core.Const;
+
+/**
+ * Partition the mesh telemetry by the destination service, so all telemetry of one service is consumed by the same
+ * consumer thread, and the services are consumed in parallel.
+ */
+public class DestServicePartitioner implements IDataPartitioner<ServiceMeshMetricDataDecorator> {
+
+    @Override public int partition(int total, ServiceMeshMetricDataDecorator data) {
+        ServiceMeshMetric metric = data.getMetric();
+        int hash = metric.getDestServiceId() != Const.NONE ? metric.getDestServiceId() : metric.getDestServiceName().hashCode();
+        return Math.abs(hash % total);
+    }
+
+    @Override public int maxRetryCount() {
+        return 1;
+    }
+}
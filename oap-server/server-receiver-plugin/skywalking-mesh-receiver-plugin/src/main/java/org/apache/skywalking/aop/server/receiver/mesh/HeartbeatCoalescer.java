@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.aop.server.receiver.mesh;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mesh telemetry arrives once per request, but the heartbeat time of a service instance only needs to move forward
+ * once per second. HeartbeatCoalescer remembers the last heartbeat second of the service instances in a fixed size
+ * slot array, indexed by service instance id, and rejects the heartbeats of the same second.
+ *
+ * Two instances could share one slot, which only causes an extra heartbeat, never a lost one beyond the second.
+ */
+class HeartbeatCoalescer {
+    private static final int SLOT_SIZE = 4096;
+    private static final int SLOT_MASK = SLOT_SIZE - 1;
+
+    private final AtomicLongArray slots = new AtomicLongArray(SLOT_SIZE);
+
+    /**
+     * @param serviceInstanceId of the heartbeat.
+     * @param heartbeatTime in millis.
+     * @return true, if no heartbeat of this instance has been accepted in the same second.
+     */
+    boolean accept(int serviceInstanceId, long heartbeatTime) {
+        int slot = serviceInstanceId & SLOT_MASK;
+        long mark = ((long)serviceInstanceId << 32) | ((heartbeatTime / 1000) & 0xFFFFFFFFL);
+        if (slots.get(slot) == mark) {
+            return false;
+        }
+        slots.lazySet(slot, mark);
+        return true;
+    }
+}
@@ -27,17 +27,23 @@ import org.apache.skywalking.oap.server.library.buffer.BufferStream;
 import org.apache.skywalking.oap.server.library.buffer.DataStreamReader;
 
 public class MeshDataBufferFileCache implements IConsumer<ServiceMeshMetricDataDecorator>, DataStreamReader.CallBack<ServiceMeshMetric> {
+    /**
+     * All the received telemetry is dispatched by the consumer threads, one per channel.
+     */
+    private static final int CHANNEL_SIZE = Math.max(3, Runtime.getRuntime().availableProcessors());
+
     private MeshModuleConfig config;
     private DataCarrier<ServiceMeshMetricDataDecorator> dataCarrier;
     private BufferStream<ServiceMeshMetric> stream;
 
     public MeshDataBufferFileCache(MeshModuleConfig config) {
         this.config = config;
-        dataCarrier = new DataCarrier<>("MeshDataBufferFileCache", 3, 1024);
+        dataCarrier = new DataCarrier<>("MeshDataBufferFileCache", CHANNEL_SIZE, 1024);
+        dataCarrier.setPartitioner(new DestServicePartitioner());
     }
 
     void start() throws IOException {
-        dataCarrier.consume(this, 1);
+        dataCarrier.consume(this, CHANNEL_SIZE);
         BufferStream.Builder<ServiceMeshMetric> builder = new BufferStream.Builder<>(config.getBufferPath());
         builder.cleanWhenRestart(config.isBufferFileCleanWhenRestart());
         builder.dataFileMaxSize(config.getBufferDataMaxFileSize());
@@ -58,7 +64,9 @@ public class MeshDataBufferFileCache implements IConsumer<ServiceMeshMetricDataD
     }
 
     /**
-     * Queue callback, make sure concurrency doesn't happen
+     * Queue callback, each consumer thread owns the channel of several destination services, see {@link
+     * DestServicePartitioner}. The telemetry is dispatched once its metadata is registered, or else written into the
+     * buffer file, which is thread safe.
      *
      * @param data
      */
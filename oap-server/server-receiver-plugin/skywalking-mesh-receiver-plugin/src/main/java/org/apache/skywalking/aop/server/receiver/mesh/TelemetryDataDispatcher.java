@@ -57,6 +57,7 @@ public class TelemetryDataDispatcher {
     private static SourceReceiver SOURCE_RECEIVER;
     private static IServiceInstanceInventoryRegister SERVICE_INSTANCE_INVENTORY_REGISTER;
     private static IServiceInventoryRegister SERVICE_INVENTORY_REGISTER;
+    private static final HeartbeatCoalescer HEARTBEAT_COALESCER = new HeartbeatCoalescer();
 
     private TelemetryDataDispatcher() {
 
@@ -71,13 +72,14 @@ public class TelemetryDataDispatcher {
         SERVICE_INVENTORY_REGISTER = moduleManager.find(CoreModule.NAME).provider().getService(IServiceInventoryRegister.class);
     }
 
+    /**
+     * Hand the telemetry over to the consumer threads of {@link #CACHE}, partitioned by the destination service, which
+     * register the metadata and dispatch it, instead of doing that on the gRPC thread.
+     *
+     * @param data
+     */
     public static void preProcess(ServiceMeshMetric data) {
-        ServiceMeshMetricDataDecorator decorator = new ServiceMeshMetricDataDecorator(data);
-        if (decorator.tryMetaDataRegister()) {
-            TelemetryDataDispatcher.doDispatch(decorator);
-        } else {
-            CACHE.in(data);
-        }
+        CACHE.in(data);
     }
 
     /**
@@ -104,21 +106,24 @@ public class TelemetryDataDispatcher {
         ServiceMeshMetric metric = decorator.getMetric();
 
         // source
-        SERVICE_INSTANCE_INVENTORY_REGISTER.heartbeat(metric.getSourceServiceInstanceId(), metric.getEndTime());
-        int instanceId = metric.getSourceServiceInstanceId();
-        ServiceInstanceInventory serviceInstanceInventory = SERVICE_INSTANCE_CACHE.get(instanceId);
-        if (Objects.nonNull(serviceInstanceInventory)) {
-            SERVICE_INVENTORY_REGISTER.heartbeat(serviceInstanceInventory.getServiceId(), metric.getEndTime());
-        } else {
-            logger.warn("Can't found service by service instance id from cache, service instance id is: {}", instanceId);
+        heartbeat(metric.getSourceServiceInstanceId(), metric.getEndTime());
+        // dest
+        heartbeat(metric.getDestServiceInstanceId(), metric.getEndTime());
+    }
+
+    /**
+     * Heartbeat the service instance and its service, at most once per second for each instance, because every
+     * request reports a mesh metric.
+     */
+    private static void heartbeat(int instanceId, long heartbeatTime) {
+        if (!HEARTBEAT_COALESCER.accept(instanceId, heartbeatTime)) {
+            return;
         }
 
-        // dest
-        SERVICE_INSTANCE_INVENTORY_REGISTER.heartbeat(metric.getDestServiceInstanceId(), metric.getEndTime());
-        instanceId = metric.getDestServiceInstanceId();
-        serviceInstanceInventory = SERVICE_INSTANCE_CACHE.get(instanceId);
+        SERVICE_INSTANCE_INVENTORY_REGISTER.heartbeat(instanceId, heartbeatTime);
+        ServiceInstanceInventory serviceInstanceInventory = SERVICE_INSTANCE_CACHE.get(instanceId);
         if (Objects.nonNull(serviceInstanceInventory)) {
-            SERVICE_INVENTORY_REGISTER.heartbeat(serviceInstanceInventory.getServiceId(), metric.getEndTime());
+            SERVICE_INVENTORY_REGISTER.heartbeat(serviceInstanceInventory.getServiceId(), heartbeatTime);
         } else {
             logger.warn("Can't found service by service instance id from cache, service instance id is: {}", instanceId);
         }
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.aop.server.receiver.mesh;
+
+import org.apache.skywalking.apm.network.servicemesh.ServiceMeshMetric;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DestServicePartitionerTest {
+    private static final int TOTAL = 3;
+
+    private DestServicePartitioner partitioner = new DestServicePartitioner();
+
+    @Test
+    public void testSameDestServiceSameChannel() {
+        int channel = partition(ServiceMeshMetric.newBuilder().setDestServiceId(7).setSourceServiceId(1));
+
+        Assert.assertEquals(channel, partition(ServiceMeshMetric.newBuilder().setDestServiceId(7).setSourceServiceId(2)));
+        Assert.assertEquals(channel, partition(ServiceMeshMetric.newBuilder().setDestServiceId(7).setEndpoint("/other")));
+    }
+
+    @Test
+    public void testSameDestServiceNameSameChannel() {
+        int channel = partition(ServiceMeshMetric.newBuilder().setDestServiceName("productpage").setSourceServiceName("a"));
+
+        Assert.assertEquals(channel, partition(ServiceMeshMetric.newBuilder().setDestServiceName("productpage").setSourceServiceName("b")));
+    }
+
+    @Test
+    public void testChannelInRange() {
+        int[] destServiceIds = {1, 2, 3, 100, -1, -5, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (int destServiceId : destServiceIds) {
+            int channel = partition(ServiceMeshMetric.newBuilder().setDestServiceId(destServiceId));
+            Assert.assertTrue(destServiceId + " -> " + channel, channel >= 0 && channel < TOTAL);
+        }
+
+        // "polygenelubricants" has Integer.MIN_VALUE as its hash code.
+        String[] destServiceNames = {"productpage", "reviews", "polygenelubricants", ""};
+        for (String destServiceName : destServiceNames) {
+            int channel = partition(ServiceMeshMetric.newBuilder().setDestServiceName(destServiceName));
+            Assert.assertTrue(destServiceName + " -> " + channel, channel >= 0 && channel < TOTAL);
+        }
+    }
+
+    @Test
+    public void testServicesSpreadOverChannels() {
+        boolean[] used = new boolean[TOTAL];
+        for (int destServiceId = 1; destServiceId <= TOTAL; destServiceId++) {
+            used[partition(ServiceMeshMetric.newBuilder().setDestServiceId(destServiceId))] = true;
+        }
+        for (boolean channelUsed : used) {
+            Assert.assertTrue(channelUsed);
+        }
+    }
+
+    private int partition(ServiceMeshMetric.Builder metric) {
+        return partitioner.partition(TOTAL, new ServiceMeshMetricDataDecorator(metric.build()));
+    }
+}
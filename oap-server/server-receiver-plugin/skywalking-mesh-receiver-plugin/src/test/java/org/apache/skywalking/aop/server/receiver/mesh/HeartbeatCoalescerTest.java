@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.aop.server.receiver.mesh;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HeartbeatCoalescerTest {
+
+    @Test
+    public void testOneHeartbeatPerSecond() {
+        HeartbeatCoalescer coalescer = new HeartbeatCoalescer();
+
+        Assert.assertTrue(coalescer.accept(1, 1_000L));
+        Assert.assertFalse(coalescer.accept(1, 1_001L));
+        Assert.assertFalse(coalescer.accept(1, 1_999L));
+        Assert.assertTrue(coalescer.accept(1, 2_000L));
+        Assert.assertFalse(coalescer.accept(1, 2_500L));
+    }
+
+    @Test
+    public void testInstancesAreIndependent() {
+        HeartbeatCoalescer coalescer = new HeartbeatCoalescer();
+
+        Assert.assertTrue(coalescer.accept(1, 1_000L));
+        Assert.assertTrue(coalescer.accept(2, 1_000L));
+        Assert.assertFalse(coalescer.accept(1, 1_000L));
+        Assert.assertFalse(coalescer.accept(2, 1_000L));
+    }
+
+    @Test
+    public void testSlotCollisionNeverLosesHeartbeat() {
+        HeartbeatCoalescer coalescer = new HeartbeatCoalescer();
+        int instanceId = 5;
+        int collidedInstanceId = instanceId + 4096;
+
+        Assert.assertTrue(coalescer.accept(instanceId, 1_000L));
+        Assert.assertTrue(coalescer.accept(collidedInstanceId, 1_000L));
+        // The slot is taken by the other instance, so an extra heartbeat is accepted in the same second.
+        Assert.assertTrue(coalescer.accept(instanceId, 1_000L));
+        Assert.assertFalse(coalescer.accept(instanceId, 1_000L));
+    }
+}
@@ -21,6 +21,8 @@ package org.apache.skywalking.oap.server.receiver.trace.provider.handler.v5.rest
 import com.google.gson.JsonElement;
 import com.google.gson.stream.JsonReader;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 import javax.servlet.http.HttpServletRequest;
 import org.apache.skywalking.oap.server.library.server.jetty.JettyJsonHandler;
 import org.apache.skywalking.oap.server.receiver.trace.provider.handler.v5.rest.reader.*;
@@ -34,6 +36,9 @@ public class TraceSegmentServletHandler extends JettyJsonHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(TraceSegmentServletHandler.class);
 
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+    private static final String GZIP = "gzip";
+
     private final SegmentParse.Producer segmentProducer;
 
     public TraceSegmentServletHandler(SegmentParse.Producer segmentProducer) {
@@ -53,8 +58,7 @@ public class TraceSegmentServletHandler extends JettyJsonHandler {
             logger.debug("receive stream segment");
         }
 
-        try {
-            BufferedReader bufferedReader = req.getReader();
+        try (BufferedReader bufferedReader = openReader(req)) {
             read(bufferedReader);
         } catch (IOException e) {
             logger.error(e.getMessage(), e);
@@ -63,10 +67,20 @@ public class TraceSegmentServletHandler extends JettyJsonHandler {
         return null;
     }
 
-    private TraceSegmentJsonReader jsonReader = new TraceSegmentJsonReader();
+    private BufferedReader openReader(HttpServletRequest req) throws IOException {
+        if (GZIP.equalsIgnoreCase(req.getHeader(CONTENT_ENCODING))) {
+            return new BufferedReader(new InputStreamReader(new GZIPInputStream(req.getInputStream()), StandardCharsets.UTF_8));
+        }
+        return req.getReader();
+    }
 
+    /**
+     * Segments are decoded and handed to the parser one by one while the body is streamed, so a large batch is
+     * never held in memory. The json reader is created per request, concurrent requests share no decoding state.
+     */
     private void read(BufferedReader bufferedReader) throws IOException {
         JsonReader reader = new JsonReader(bufferedReader);
+        TraceSegmentJsonReader jsonReader = new TraceSegmentJsonReader();
 
         reader.beginArray();
         while (reader.hasNext()) {
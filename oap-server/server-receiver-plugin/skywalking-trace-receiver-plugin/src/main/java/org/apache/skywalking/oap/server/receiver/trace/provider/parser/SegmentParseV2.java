@@ -78,7 +78,7 @@ public class SegmentParseV2 {
             List<UniqueId> traceIds = segment.getGlobalTraceIdsList();
             SegmentObject segmentObject = parseBinarySegment(segment);
 
-            SegmentDecorator segmentDecorator = new SegmentDecorator(segmentObject);
+            SegmentDecorator segmentDecorator = new SegmentDecorator(segmentObject, segment.getSegment());
 
             if (!preBuild(traceIds, segmentDecorator)) {
                 if (logger.isDebugEnabled()) {
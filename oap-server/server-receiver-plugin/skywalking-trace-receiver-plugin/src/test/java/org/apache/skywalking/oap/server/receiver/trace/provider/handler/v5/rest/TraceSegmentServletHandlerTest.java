@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.handler.v5.rest;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import org.apache.skywalking.apm.network.language.agent.TraceSegmentObject;
+import org.apache.skywalking.apm.network.language.agent.UpstreamSegment;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParse;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TraceSegmentServletHandlerTest {
+    private static final String SEGMENTS = "[" + segment(1) + "," + segment(2) + "]";
+
+    private SegmentParse.Producer producer;
+    private TraceSegmentServletHandler handler;
+
+    @Before
+    public void setUp() {
+        producer = mock(SegmentParse.Producer.class);
+        handler = new TraceSegmentServletHandler(producer);
+    }
+
+    @Test
+    public void testPlainBody() throws IOException {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getReader()).thenReturn(new BufferedReader(new StringReader(SEGMENTS)));
+
+        handler.doPost(request);
+
+        assertSegmentsSent();
+    }
+
+    @Test
+    public void testGzipBody() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(SEGMENTS.getBytes(StandardCharsets.UTF_8));
+        }
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader("Content-Encoding")).thenReturn("gzip");
+        when(request.getInputStream()).thenReturn(new BodyInputStream(compressed.toByteArray()));
+
+        handler.doPost(request);
+
+        assertSegmentsSent();
+    }
+
+    private void assertSegmentsSent() throws IOException {
+        ArgumentCaptor<UpstreamSegment> captor = ArgumentCaptor.forClass(UpstreamSegment.class);
+        verify(producer, times(2)).send(captor.capture(), eq(SegmentParse.Source.Agent));
+
+        List<UpstreamSegment> segments = captor.getAllValues();
+        for (int i = 0; i < segments.size(); i++) {
+            UpstreamSegment upstreamSegment = segments.get(i);
+            Assert.assertEquals(1, upstreamSegment.getGlobalTraceIdsCount());
+
+            TraceSegmentObject segmentObject = TraceSegmentObject.parseFrom(upstreamSegment.getSegment());
+            Assert.assertEquals(i + 1, segmentObject.getApplicationId());
+            Assert.assertEquals(1, segmentObject.getSpansCount());
+            Assert.assertEquals("/segment/" + (i + 1), segmentObject.getSpans(0).getOperationName());
+        }
+    }
+
+    private static String segment(int applicationId) {
+        return "{\"gt\":[[230150," + applicationId + ",1516102160560001]]," +
+            "\"sg\":{\"ts\":[137150," + applicationId + ",1516102160560000],\"ai\":" + applicationId + ",\"ii\":2," +
+            "\"ss\":[{\"si\":0,\"tv\":0,\"lv\":2,\"ps\":-1,\"st\":1516102160560,\"et\":1516102160580,\"ci\":1," +
+            "\"on\":\"/segment/" + applicationId + "\",\"ie\":false}]}}";
+    }
+
+    private static class BodyInputStream extends ServletInputStream {
+        private final ByteArrayInputStream body;
+
+        private BodyInputStream(byte[] body) {
+            this.body = new ByteArrayInputStream(body);
+        }
+
+        @Override public boolean isFinished() {
+            return body.available() == 0;
+        }
+
+        @Override public boolean isReady() {
+            return true;
+        }
+
+        @Override public void setReadListener(ReadListener readListener) {
+        }
+
+        @Override public int read() {
+            return body.read();
+        }
+
+        @Override public int read(byte[] b, int off, int len) {
+            return body.read(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser.decorator;
+
+import com.google.protobuf.ByteString;
+import org.apache.skywalking.apm.network.language.agent.SpanType;
+import org.apache.skywalking.apm.network.language.agent.UniqueId;
+import org.apache.skywalking.apm.network.language.agent.v2.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v2.SpanObjectV2;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentDecoratorTest {
+
+    @Test
+    public void testOriginBinaryReused() throws Exception {
+        ByteString binary = buildSegment().toByteString();
+        SegmentDecorator decorator = new SegmentDecorator(SegmentObject.parseFrom(binary), binary);
+
+        Assert.assertEquals(2, decorator.getServiceId());
+        Assert.assertEquals("/dubbox-case/case/dubbox-rest", decorator.getSpans(0).getOperationName());
+        Assert.assertArrayEquals(binary.toByteArray(), decorator.toByteArray());
+    }
+
+    @Test
+    public void testMutatedSegmentSerialized() throws Exception {
+        ByteString binary = buildSegment().toByteString();
+        SegmentDecorator decorator = new SegmentDecorator(SegmentObject.parseFrom(binary), binary);
+
+        decorator.getSpans(0).setOperationNameId(10);
+
+        SegmentObject segmentObject = SegmentObject.parseFrom(decorator.toByteArray());
+        Assert.assertEquals(2, segmentObject.getServiceId());
+        Assert.assertEquals(1, segmentObject.getSpansCount());
+        Assert.assertEquals(10, segmentObject.getSpans(0).getOperationNameId());
+    }
+
+    @Test
+    public void testUnmutatedReturnsOriginBinary() throws Exception {
+        ByteString binary = buildSegment().toByteString();
+        // Not what the segment serializes to, so only the origin binary itself can be returned.
+        ByteString originBinary = binary.concat(ByteString.copyFromUtf8("origin"));
+        SegmentDecorator decorator = new SegmentDecorator(SegmentObject.parseFrom(binary), originBinary);
+
+        decorator.getSpans(0).getOperationName();
+
+        Assert.assertArrayEquals(originBinary.toByteArray(), decorator.toByteArray());
+    }
+
+    @Test
+    public void testMutatedIgnoresOriginBinary() throws Exception {
+        ByteString binary = buildSegment().toByteString();
+        ByteString originBinary = binary.concat(ByteString.copyFromUtf8("origin"));
+        SegmentDecorator decorator = new SegmentDecorator(SegmentObject.parseFrom(binary), originBinary);
+
+        decorator.getSpans(0).setOperationNameId(10);
+
+        byte[] mutated = decorator.toByteArray();
+        Assert.assertFalse(ByteString.copyFrom(mutated).equals(originBinary));
+        Assert.assertEquals(10, SegmentObject.parseFrom(mutated).getSpans(0).getOperationNameId());
+    }
+
+    private SegmentObject buildSegment() {
+        SegmentObject.Builder segment = SegmentObject.newBuilder();
+        segment.setTraceSegmentId(UniqueId.newBuilder().addIdParts(1).addIdParts(2).addIdParts(3));
+        segment.setServiceId(2);
+        segment.setServiceInstanceId(3);
+
+        SpanObjectV2.Builder span = SpanObjectV2.newBuilder();
+        span.setSpanId(0);
+        span.setParentSpanId(-1);
+        span.setSpanType(SpanType.Entry);
+        span.setOperationName("/dubbox-case/case/dubbox-rest");
+        span.setStartTime(1000L);
+        span.setEndTime(2000L);
+        segment.addSpans(span);
+        return segment.build();
+    }
+}
@@ -32,6 +32,8 @@ public class ZipkinReceiverConfig extends ModuleConfig {
 
     private int maxCacheSize = 1_000_000;
 
+    private int transferThreads = 2;
+
     public String getHost() {
         return host;
     }
@@ -71,4 +73,12 @@ public class ZipkinReceiverConfig extends ModuleConfig {
     public void setMaxCacheSize(int maxCacheSize) {
         this.maxCacheSize = maxCacheSize;
     }
+
+    public int getTransferThreads() {
+        return transferThreads;
+    }
+
+    public void setTransferThreads(int transferThreads) {
+        this.transferThreads = transferThreads;
+    }
 }
@@ -22,9 +22,11 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.RemovalListener;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.skywalking.oap.server.receiver.zipkin.ZipkinReceiverConfig;
@@ -37,24 +39,28 @@ import zipkin2.Span;
 
 /**
  * NOTICE: FROM my test, Caffeine cache triggers/checks expire only face write/read op.
- * In order to make trace finish in time, I have to set a timer to write a meaningless trace, for active expire.
+ * In order to make trace finish in time, a timer runs the cache maintenance periodically, for active expire.
+ *
+ * Finished traces are transferred to SkyWalking segments in a dedicated pool, rather than the executor which runs
+ * the cache maintenance.
  *
  * @author wusheng
  */
 public class CaffeineSpanCache implements ISpanCache, RemovalListener<String, ZipkinTrace> {
     private static final Logger logger = LoggerFactory.getLogger(CaffeineSpanCache.class);
     private Cache<String, ZipkinTrace> inProcessSpanCache;
-    private ReentrantLock newTraceLock;
+    private ExecutorService transferPool;
 
     public CaffeineSpanCache(ZipkinReceiverConfig config) {
-        newTraceLock = new ReentrantLock();
+        transferPool = Executors.newFixedThreadPool(config.getTransferThreads(), new TransferThreadFactory());
         inProcessSpanCache = Caffeine.newBuilder()
                 .expireAfterWrite(config.getExpireTime(), TimeUnit.SECONDS)
                 .maximumSize(config.getMaxCacheSize())
+                .executor(transferPool)
                 .removalListener(this)
                 .build();
         Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(() -> {
-            inProcessSpanCache.put("ACTIVE", new ZipkinTrace.TriggerTrace());
+            inProcessSpanCache.cleanUp();
         }, 2, 3, TimeUnit.SECONDS);
     }
 
@@ -67,7 +73,7 @@ public class CaffeineSpanCache implements ISpanCache, RemovalListener<String, Zi
      */
     @Override
     public void onRemoval(@Nullable String key, @Nullable ZipkinTrace trace, @Nonnull RemovalCause cause) {
-        if (trace instanceof ZipkinTrace.TriggerTrace) {
+        if (trace == null) {
             return;
         }
         try {
@@ -82,17 +88,18 @@ public class CaffeineSpanCache implements ISpanCache, RemovalListener<String, Zi
     public void addSpan(Span span) {
         ZipkinTrace trace = inProcessSpanCache.getIfPresent(span.traceId());
         if (trace == null) {
-            newTraceLock.lock();
-            try {
-                trace = inProcessSpanCache.getIfPresent(span.traceId());
-                if (trace == null) {
-                    trace = new ZipkinTrace();
-                    inProcessSpanCache.put(span.traceId(), trace);
-                }
-            } finally {
-                newTraceLock.unlock();
-            }
+            trace = inProcessSpanCache.get(span.traceId(), traceId -> new ZipkinTrace());
         }
         trace.addSpan(span);
     }
+
+    private static class TransferThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "ZipkinTraceTransfer-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -19,6 +19,7 @@
 package org.apache.skywalking.oap.server.receiver.zipkin.handler;
 
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
@@ -32,18 +33,17 @@ import zipkin2.Span;
 import zipkin2.codec.SpanBytesDecoder;
 
 public class SpanProcessor {
-    void convert(ZipkinReceiverConfig config, SpanBytesDecoder decoder, HttpServletRequest request) throws IOException {
-        InputStream inputStream = getInputStream(request);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        byte[] buffer = new byte[2048];
-        int readCntOnce;
+    /**
+     * The max body size allocated at once from the content length header.
+     */
+    static final int MAX_PREALLOCATED_BODY_SIZE = 1024 * 1024;
 
-        while ((readCntOnce = inputStream.read(buffer)) >= 0) {
-            out.write(buffer, 0, readCntOnce);
+    void convert(ZipkinReceiverConfig config, SpanBytesDecoder decoder, HttpServletRequest request) throws IOException {
+        List<Span> spanList;
+        try (InputStream inputStream = getInputStream(request)) {
+            spanList = decoder.decodeList(readBody(request, inputStream));
         }
 
-        List<Span> spanList = decoder.decodeList(out.toByteArray());
-
         spanList.forEach(span -> {
             // In Zipkin, the local service name represents the application owner.
             String applicationCode = span.localServiceName();
@@ -60,11 +60,46 @@ public class SpanProcessor {
         });
     }
 
-    private InputStream getInputStream(HttpServletRequest request) throws IOException {
+    /**
+     * Read the whole body, which the zipkin decoder requires. For an uncompressed body with a known length, up to
+     * {@link #MAX_PREALLOCATED_BODY_SIZE}, the bytes are read straight into an array of that size, without the
+     * intermediate stream buffer and the copy. The declared length is sent by the client, so a larger one only sizes
+     * the buffer up to that limit, and the buffer grows with the bytes really read.
+     */
+    byte[] readBody(HttpServletRequest request, InputStream inputStream) throws IOException {
+        int contentLength = request.getContentLength();
+        if (contentLength >= 0 && contentLength <= MAX_PREALLOCATED_BODY_SIZE && !isGzip(request)) {
+            byte[] body = new byte[contentLength];
+            int offset = 0;
+            while (offset < contentLength) {
+                int readCntOnce = inputStream.read(body, offset, contentLength - offset);
+                if (readCntOnce < 0) {
+                    throw new EOFException("Request body is shorter than content length " + contentLength);
+                }
+                offset += readCntOnce;
+            }
+            return body;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(contentLength > 0 ? Math.min(contentLength, MAX_PREALLOCATED_BODY_SIZE) : 2048);
+        byte[] buffer = new byte[2048];
+        int readCntOnce;
+
+        while ((readCntOnce = inputStream.read(buffer)) >= 0) {
+            out.write(buffer, 0, readCntOnce);
+        }
+        return out.toByteArray();
+    }
+
+    private boolean isGzip(HttpServletRequest request) {
+        String headEncoding = request.getHeader("content-encoding");
+        return headEncoding != null && headEncoding.contains("gzip");
+    }
+
+    InputStream getInputStream(HttpServletRequest request) throws IOException {
         InputStream requestInStream;
 
-        String headEncoding = request.getHeader("accept-encoding");
-        if (headEncoding != null && (headEncoding.indexOf("gzip") != -1)) {
+        if (isGzip(request)) {
             requestInStream = new GZIPInputStream(request.getInputStream());
         } else {
             requestInStream = request.getInputStream();
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.zipkin.handler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SpanProcessorTest {
+    private static final byte[] BODY = "[{\"traceId\":\"86154a4ba6e91385\",\"id\":\"86154a4ba6e91385\"}]".getBytes(StandardCharsets.UTF_8);
+
+    private SpanProcessor processor = new SpanProcessor();
+
+    @Test
+    public void testReadShortBody() throws IOException {
+        HttpServletRequest request = request(BODY, BODY.length, null);
+
+        Assert.assertArrayEquals(BODY, read(request));
+    }
+
+    @Test(expected = EOFException.class)
+    public void testReadBodyShorterThanContentLength() throws IOException {
+        HttpServletRequest request = request(BODY, BODY.length + 10, null);
+
+        read(request);
+    }
+
+    @Test
+    public void testReadBodyWithHugeContentLength() throws IOException {
+        HttpServletRequest request = request(BODY, Integer.MAX_VALUE, null);
+
+        Assert.assertArrayEquals(BODY, read(request));
+    }
+
+    @Test
+    public void testReadGzipBody() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(BODY);
+        }
+        HttpServletRequest request = request(compressed.toByteArray(), compressed.size(), "gzip");
+
+        Assert.assertArrayEquals(BODY, read(request));
+    }
+
+    private byte[] read(HttpServletRequest request) throws IOException {
+        try (InputStream inputStream = processor.getInputStream(request)) {
+            return processor.readBody(request, inputStream);
+        }
+    }
+
+    private HttpServletRequest request(byte[] body, int contentLength, String contentEncoding) throws IOException {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getContentLength()).thenReturn(contentLength);
+        when(request.getHeader("content-encoding")).thenReturn(contentEncoding);
+        when(request.getInputStream()).thenReturn(new BodyInputStream(body));
+        return request;
+    }
+
+    private static class BodyInputStream extends ServletInputStream {
+        private final ByteArrayInputStream body;
+
+        private BodyInputStream(byte[] body) {
+            this.body = new ByteArrayInputStream(body);
+        }
+
+        @Override public boolean isFinished() {
+            return body.available() == 0;
+        }
+
+        @Override public boolean isReady() {
+            return true;
+        }
+
+        @Override public void setReadListener(ReadListener readListener) {
+        }
+
+        @Override public int read() {
+            return body.read();
+        }
+
+        @Override public int read(byte[] b, int off, int len) {
+            return body.read(b, off, len);
+        }
+    }
+}
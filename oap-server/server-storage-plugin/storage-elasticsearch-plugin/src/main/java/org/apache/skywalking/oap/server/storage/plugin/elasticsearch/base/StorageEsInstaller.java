@@ -36,6 +36,8 @@ public class StorageEsInstaller extends ModelInstaller {
 
     private static final Logger logger = LoggerFactory.getLogger(StorageEsInstaller.class);
 
+    private static final int INSTALL_CONCURRENCY = 4;
+
     private final int indexShardsNumber;
     private final int indexReplicasNumber;
     private final ColumnTypeEsMapping mapping;
@@ -47,6 +49,13 @@ public class StorageEsInstaller extends ModelInstaller {
         this.mapping = new ColumnTypeEsMapping();
     }
 
+    /**
+     * Every index is checked and created by its own requests, so they are sent concurrently.
+     */
+    @Override protected int installConcurrency() {
+        return INSTALL_CONCURRENCY;
+    }
+
     @Override protected boolean isExists(Client client, Model tableDefine) throws StorageException {
         ElasticSearchClient esClient = (ElasticSearchClient)client;
         try {
@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.query;
 import com.google.common.base.Strings;
 import java.io.IOException;
 import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentDataCodec;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.query.entity.*;
 import org.apache.skywalking.oap.server.core.storage.query.ITraceQueryDAO;
@@ -32,12 +33,21 @@ import org.elasticsearch.index.query.*;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.sort.SortOrder;
+import org.slf4j.*;
 
 /**
  * @author peng-yongsheng
  */
 public class TraceQueryEsDAO extends EsDAO implements ITraceQueryDAO {
 
+    private static final Logger logger = LoggerFactory.getLogger(TraceQueryEsDAO.class);
+
+    private static final int SEGMENT_PAGE_SIZE = 200;
+    /**
+     * Default index.max_result_window of elasticsearch, from + size can't go beyond it.
+     */
+    private static final int MAX_RESULT_WINDOW = 10000;
+
     public TraceQueryEsDAO(ElasticSearchClient client) {
         super(client);
     }
@@ -117,15 +127,34 @@ public class TraceQueryEsDAO extends EsDAO implements ITraceQueryDAO {
         return traceBrief;
     }
 
+    /**
+     * Fetches the segments page by page, sorted by segment id so that pages are stable, until every segment of the
+     * trace has been read or the result window of the index is reached.
+     */
     @Override public List<SegmentRecord> queryByTraceId(String traceId) throws IOException {
-        SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource();
-        sourceBuilder.query(QueryBuilders.termQuery(SegmentRecord.TRACE_ID, traceId));
-        sourceBuilder.size(20);
+        List<SegmentRecord> segmentRecords = new ArrayList<>();
+        for (int from = 0; from < MAX_RESULT_WINDOW; from += SEGMENT_PAGE_SIZE) {
+            SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource();
+            sourceBuilder.query(QueryBuilders.termQuery(SegmentRecord.TRACE_ID, traceId));
+            sourceBuilder.sort(SegmentRecord.SEGMENT_ID, SortOrder.ASC);
+            sourceBuilder.from(from);
+            sourceBuilder.size(SEGMENT_PAGE_SIZE);
+
+            SearchResponse response = getClient().search(SegmentRecord.INDEX_NAME, sourceBuilder);
+            SearchHit[] searchHits = response.getHits().getHits();
+            readSegments(searchHits, segmentRecords);
+
+            if (searchHits.length < SEGMENT_PAGE_SIZE || segmentRecords.size() >= response.getHits().totalHits) {
+                return segmentRecords;
+            }
+        }
 
-        SearchResponse response = getClient().search(SegmentRecord.INDEX_NAME, sourceBuilder);
+        logger.warn("Trace {} has more than {} segments, the rest are not returned.", traceId, MAX_RESULT_WINDOW);
+        return segmentRecords;
+    }
 
-        List<SegmentRecord> segmentRecords = new ArrayList<>();
-        for (SearchHit searchHit : response.getHits().getHits()) {
+    private void readSegments(SearchHit[] searchHits, List<SegmentRecord> segmentRecords) {
+        for (SearchHit searchHit : searchHits) {
             SegmentRecord segmentRecord = new SegmentRecord();
             segmentRecord.setSegmentId((String)searchHit.getSourceAsMap().get(SegmentRecord.SEGMENT_ID));
             segmentRecord.setTraceId((String)searchHit.getSourceAsMap().get(SegmentRecord.TRACE_ID));
@@ -135,13 +164,9 @@ public class TraceQueryEsDAO extends EsDAO implements ITraceQueryDAO {
             segmentRecord.setEndTime(((Number)searchHit.getSourceAsMap().get(SegmentRecord.END_TIME)).longValue());
             segmentRecord.setLatency(((Number)searchHit.getSourceAsMap().get(SegmentRecord.LATENCY)).intValue());
             segmentRecord.setIsError(((Number)searchHit.getSourceAsMap().get(SegmentRecord.IS_ERROR)).intValue());
-            String dataBinaryBase64 = (String)searchHit.getSourceAsMap().get(SegmentRecord.DATA_BINARY);
-            if (!Strings.isNullOrEmpty(dataBinaryBase64)) {
-                segmentRecord.setDataBinary(Base64.getDecoder().decode(dataBinaryBase64));
-            }
+            segmentRecord.setDataBinary(SegmentDataCodec.INSTANCE.decodeFromString((String)searchHit.getSourceAsMap().get(SegmentRecord.DATA_BINARY)));
             segmentRecord.setVersion(((Number)searchHit.getSourceAsMap().get(SegmentRecord.VERSION)).intValue());
             segmentRecords.add(segmentRecord);
         }
-        return segmentRecords;
     }
 }
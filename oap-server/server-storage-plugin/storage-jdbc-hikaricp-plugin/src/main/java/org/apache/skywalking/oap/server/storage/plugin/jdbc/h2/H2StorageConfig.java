@@ -32,4 +32,13 @@ public class H2StorageConfig extends ModuleConfig {
     private String url = "jdbc:h2:mem:collector";
     private String user = "";
     private String password = "";
+    /**
+     * Keep segments in a local columnar store under this directory instead of the database, disabled when empty.
+     */
+    private String localSegmentPath = "";
+    /**
+     * Seconds between two flushes of the local segment store, segments received since the last flush are lost if the
+     * OAP crashes.
+     */
+    private int localSegmentFlushInterval = 10;
 }
@@ -18,7 +18,10 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2;
 
+import com.google.common.base.Strings;
+import java.io.IOException;
 import java.util.Properties;
+import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
 import org.apache.skywalking.oap.server.core.storage.IHistoryDeleteDAO;
 import org.apache.skywalking.oap.server.core.storage.IRegisterLockDAO;
@@ -56,6 +59,8 @@ import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2StorageDAO;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2TableInstaller;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2TopologyQueryDAO;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2TraceQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.segment.LocalSegmentStorage;
+import org.apache.skywalking.oap.server.storage.plugin.local.segment.LocalSegmentStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -73,6 +78,7 @@ public class H2StorageProvider extends ModuleProvider {
 
     private H2StorageConfig config;
     private JDBCHikariCPClient h2Client;
+    private LocalSegmentStore localSegmentStore;
 
     public H2StorageProvider() {
         config = new H2StorageConfig();
@@ -114,6 +120,11 @@ public class H2StorageProvider extends ModuleProvider {
         this.registerServiceImplementation(IAggregationQueryDAO.class, new H2AggregationQueryDAO(h2Client));
         this.registerServiceImplementation(IAlarmQueryDAO.class, new H2AlarmQueryDAO(h2Client));
         this.registerServiceImplementation(IHistoryDeleteDAO.class, new H2HistoryDeleteDAO(h2Client));
+
+        if (!Strings.isNullOrEmpty(config.getLocalSegmentPath())) {
+            localSegmentStore = new LocalSegmentStore(config.getLocalSegmentPath(), config.getLocalSegmentFlushInterval());
+            LocalSegmentStorage.install(this, localSegmentStore);
+        }
     }
 
     @Override public void start() throws ServiceNotProvidedException, ModuleStartException {
@@ -122,7 +133,11 @@ public class H2StorageProvider extends ModuleProvider {
 
             H2TableInstaller installer = new H2TableInstaller(getManager());
             installer.install(h2Client);
-        } catch (StorageException e) {
+
+            if (localSegmentStore != null) {
+                localSegmentStore.start();
+            }
+        } catch (StorageException | IOException e) {
             throw new ModuleStartException(e.getMessage(), e);
         }
     }
@@ -132,6 +147,6 @@ public class H2StorageProvider extends ModuleProvider {
     }
 
     @Override public String[] requiredModules() {
-        return new String[0];
+        return new String[] {CoreModule.NAME};
     }
 }
@@ -18,8 +18,10 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql;
 
+import com.google.common.base.Strings;
 import java.io.IOException;
 import java.util.Properties;
+import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
 import org.apache.skywalking.oap.server.core.storage.IHistoryDeleteDAO;
 import org.apache.skywalking.oap.server.core.storage.IRegisterLockDAO;
@@ -55,6 +57,8 @@ import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2ServiceInst
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2ServiceInventoryCacheDAO;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2StorageDAO;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2TopologyQueryDAO;
+import org.apache.skywalking.oap.server.storage.plugin.local.segment.LocalSegmentStorage;
+import org.apache.skywalking.oap.server.storage.plugin.local.segment.LocalSegmentStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -73,6 +77,7 @@ public class MySQLStorageProvider extends ModuleProvider {
 
     private H2StorageConfig config;
     private JDBCHikariCPClient mysqlClient;
+    private LocalSegmentStore localSegmentStore;
     private MySQLRegisterTableLockDAO lockDAO;
 
     public MySQLStorageProvider() {
@@ -118,6 +123,11 @@ public class MySQLStorageProvider extends ModuleProvider {
         this.registerServiceImplementation(IAggregationQueryDAO.class, new MySQLAggregationQueryDAO(mysqlClient));
         this.registerServiceImplementation(IAlarmQueryDAO.class, new MySQLAlarmQueryDAO(mysqlClient));
         this.registerServiceImplementation(IHistoryDeleteDAO.class, new H2HistoryDeleteDAO(mysqlClient));
+
+        if (!Strings.isNullOrEmpty(config.getLocalSegmentPath())) {
+            localSegmentStore = new LocalSegmentStore(config.getLocalSegmentPath(), config.getLocalSegmentFlushInterval());
+            LocalSegmentStorage.install(this, localSegmentStore);
+        }
     }
 
     @Override public void start() throws ServiceNotProvidedException, ModuleStartException {
@@ -128,7 +138,11 @@ public class MySQLStorageProvider extends ModuleProvider {
             installer.install(mysqlClient);
 
             new MySQLRegisterLockInstaller().install(mysqlClient, lockDAO);
-        } catch (StorageException e) {
+
+            if (localSegmentStore != null) {
+                localSegmentStore.start();
+            }
+        } catch (StorageException | IOException e) {
             throw new ModuleStartException(e.getMessage(), e);
         }
     }
@@ -138,6 +152,6 @@ public class MySQLStorageProvider extends ModuleProvider {
     }
 
     @Override public String[] requiredModules() {
-        return new String[0];
+        return new String[] {CoreModule.NAME};
     }
 }
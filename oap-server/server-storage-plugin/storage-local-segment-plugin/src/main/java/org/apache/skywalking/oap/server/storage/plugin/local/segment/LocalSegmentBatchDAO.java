@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+import java.io.IOException;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
+import org.apache.skywalking.oap.server.library.util.CollectionUtils;
+import org.slf4j.*;
+
+/**
+ * Takes the segments out of a persistence batch and appends them to the local store, the rest of the batch goes to
+ * the storage it decorates.
+ */
+public class LocalSegmentBatchDAO implements IBatchDAO {
+    private static final Logger logger = LoggerFactory.getLogger(LocalSegmentBatchDAO.class);
+
+    private final IBatchDAO batchDAO;
+    private final LocalSegmentStore store;
+
+    public LocalSegmentBatchDAO(IBatchDAO batchDAO, LocalSegmentStore store) {
+        this.batchDAO = batchDAO;
+        this.store = store;
+    }
+
+    @Override public void batchPersistence(List<?> batchCollection) {
+        List<SegmentRecord> segmentRecords = new ArrayList<>();
+        List<Object> others = new ArrayList<>(batchCollection.size());
+        for (Object item : batchCollection) {
+            if (item instanceof SegmentRecord) {
+                segmentRecords.add((SegmentRecord)item);
+            } else {
+                others.add(item);
+            }
+        }
+
+        if (!segmentRecords.isEmpty()) {
+            try {
+                store.append(segmentRecords);
+            } catch (IOException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        if (CollectionUtils.isNotEmpty(others)) {
+            batchDAO.batchPersistence(others);
+        }
+    }
+}
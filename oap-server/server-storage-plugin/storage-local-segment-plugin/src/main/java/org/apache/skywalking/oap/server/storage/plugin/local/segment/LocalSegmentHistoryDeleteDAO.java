@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+import java.io.IOException;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.storage.IHistoryDeleteDAO;
+
+/**
+ * Applies the record TTL of segments by dropping whole hour partitions of the local store.
+ */
+public class LocalSegmentHistoryDeleteDAO implements IHistoryDeleteDAO {
+    private final IHistoryDeleteDAO historyDeleteDAO;
+    private final LocalSegmentStore store;
+
+    public LocalSegmentHistoryDeleteDAO(IHistoryDeleteDAO historyDeleteDAO, LocalSegmentStore store) {
+        this.historyDeleteDAO = historyDeleteDAO;
+        this.store = store;
+    }
+
+    @Override
+    public void deleteHistory(String modelName, String timeBucketColumnName, Long timeBucketBefore) throws IOException {
+        if (SegmentRecord.INDEX_NAME.equals(modelName)) {
+            store.deleteBefore(timeBucketBefore);
+        } else {
+            historyDeleteDAO.deleteHistory(modelName, timeBucketColumnName, timeBucketBefore);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+import org.apache.skywalking.oap.server.core.storage.*;
+import org.apache.skywalking.oap.server.core.storage.query.ITraceQueryDAO;
+import org.apache.skywalking.oap.server.library.module.*;
+
+/**
+ * Moves segment persistence and trace queries of a storage provider to a {@link LocalSegmentStore}, decorating the
+ * DAOs the provider has already registered. Call it at the end of the provider's prepare stage.
+ */
+public class LocalSegmentStorage {
+
+    private LocalSegmentStorage() {
+    }
+
+    public static void install(ModuleServiceHolder provider,
+        LocalSegmentStore store) throws ServiceNotProvidedException {
+        provider.registerServiceImplementation(StorageDAO.class, new LocalSegmentStorageDAO(provider.getService(StorageDAO.class)));
+        provider.registerServiceImplementation(IBatchDAO.class, new LocalSegmentBatchDAO(provider.getService(IBatchDAO.class), store));
+        provider.registerServiceImplementation(IHistoryDeleteDAO.class, new LocalSegmentHistoryDeleteDAO(provider.getService(IHistoryDeleteDAO.class), store));
+        provider.registerServiceImplementation(ITraceQueryDAO.class, new LocalSegmentTraceQueryDAO(store));
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.storage.plugin.local.segment.RowGroupWriter.EncodedRowGroup;
+import org.joda.time.DateTime;
+import org.slf4j.*;
+
+/**
+ * Append only, columnar store of trace segments on local disk.
+ *
+ * Segments are buffered in memory and flushed every flush interval, or earlier when the buffer grows too large, into
+ * one immutable file per hour partition. Past hours are compacted by concatenating their files, and the TTL drops
+ * whole hour directories. Segments in the memory buffer are visible to queries, but they are lost if the process
+ * crashes before the next flush.
+ */
+public class LocalSegmentStore {
+    private static final Logger logger = LoggerFactory.getLogger(LocalSegmentStore.class);
+
+    private static final long MAX_BUFFER_BYTES = 64L * 1024 * 1024;
+    private static final long MAX_FILE_SIZE = 1024L * 1024 * 1024;
+    private static final int ROW_GROUP_SIZE = 4096;
+
+    private final Path root;
+    private final int flushInterval;
+
+    /**
+     * Guards the memory buffer and the partition map, held only to swap references so queries can take a consistent
+     * snapshot. The file lists in the map are never modified, they are replaced.
+     */
+    private final Object lock = new Object();
+    /**
+     * Serializes flush, compaction and deletion, which write files.
+     */
+    private final Object fileLock = new Object();
+
+    private final NavigableMap<Long, List<SegmentFile>> partitions = new TreeMap<>();
+    private List<SegmentRecord> buffer = new ArrayList<>();
+    private List<SegmentRecord> flushing = Collections.emptyList();
+    private long bufferBytes;
+    private long nextSequence;
+
+    /**
+     * @param path root directory of the store
+     * @param flushInterval seconds between two flushes of the memory buffer
+     */
+    public LocalSegmentStore(String path, int flushInterval) {
+        this.root = Paths.get(path);
+        this.flushInterval = flushInterval;
+    }
+
+    public void start() throws IOException {
+        load();
+
+        Executors.newSingleThreadScheduledExecutor().scheduleWithFixedDelay(
+            new RunnableWithExceptionProtection(this::flushAndCompact,
+                t -> logger.error("Flush local segment store failure.", t)), flushInterval, flushInterval, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushAndCompact, "LocalSegmentStoreShutdown"));
+    }
+
+    void load() throws IOException {
+        Files.createDirectories(root);
+
+        long maxSequence = -1;
+        try (DirectoryStream<Path> hourDirectories = Files.newDirectoryStream(root)) {
+            for (Path hourDirectory : hourDirectories) {
+                String hour = hourDirectory.getFileName().toString();
+                if (!Files.isDirectory(hourDirectory) || !hour.matches("\\d{10}")) {
+                    continue;
+                }
+
+                List<SegmentFile> files = new ArrayList<>();
+                try (DirectoryStream<Path> paths = Files.newDirectoryStream(hourDirectory)) {
+                    for (Path path : paths) {
+                        if (path.getFileName().toString().endsWith(SegmentFile.TEMP_SUFFIX)) {
+                            Files.delete(path);
+                        } else if (SegmentFile.isSegmentFile(path)) {
+                            maxSequence = Math.max(maxSequence, SegmentFile.parseSequences(path)[1]);
+                            try {
+                                files.add(SegmentFile.open(path));
+                            } catch (IOException e) {
+                                logger.warn("Skip unreadable segment file {}.", path, e);
+                            }
+                        }
+                    }
+                }
+
+                files = dropCovered(files);
+                if (!files.isEmpty()) {
+                    partitions.put(Long.parseLong(hour), files);
+                }
+            }
+        }
+        nextSequence = maxSequence + 1;
+
+        logger.info("Local segment store {} opened with {} hour partitions.", root, partitions.size());
+    }
+
+    /**
+     * Removes the sources of a compaction that was interrupted after the merged file had been committed.
+     */
+    private List<SegmentFile> dropCovered(List<SegmentFile> files) throws IOException {
+        files.sort(Comparator.comparingLong(SegmentFile::getMinSequence)
+            .thenComparing(Comparator.comparingLong(SegmentFile::getMaxSequence).reversed()));
+
+        List<SegmentFile> kept = new ArrayList<>(files.size());
+        for (SegmentFile file : files) {
+            if (!kept.isEmpty() && kept.get(kept.size() - 1).covers(file)) {
+                logger.info("Segment file {} has been compacted, delete it.", file);
+                file.delete();
+            } else {
+                kept.add(file);
+            }
+        }
+        return kept;
+    }
+
+    public void append(List<SegmentRecord> records) throws IOException {
+        boolean full;
+        synchronized (lock) {
+            buffer.addAll(records);
+            for (SegmentRecord record : records) {
+                bufferBytes += 128 + (record.getDataBinary() == null ? 0 : record.getDataBinary().length);
+            }
+            full = bufferBytes >= MAX_BUFFER_BYTES;
+        }
+
+        if (full) {
+            flush();
+        }
+    }
+
+    void flush() throws IOException {
+        synchronized (fileLock) {
+            List<SegmentRecord> records;
+            synchronized (lock) {
+                if (buffer.isEmpty()) {
+                    return;
+                }
+                records = buffer;
+                flushing = records;
+                buffer = new ArrayList<>();
+                bufferBytes = 0;
+            }
+
+            Map<Long, List<SegmentRecord>> recordsOfHours = new TreeMap<>();
+            for (SegmentRecord record : records) {
+                recordsOfHours.computeIfAbsent(record.getTimeBucket() / 10000, hour -> new ArrayList<>()).add(record);
+            }
+
+            Map<Long, SegmentFile> written = new TreeMap<>();
+            try {
+                for (Map.Entry<Long, List<SegmentRecord>> recordsOfHour : recordsOfHours.entrySet()) {
+                    List<SegmentRecord> hourRecords = recordsOfHour.getValue();
+                    List<EncodedRowGroup> rowGroups = new ArrayList<>();
+                    for (int from = 0; from < hourRecords.size(); from += ROW_GROUP_SIZE) {
+                        rowGroups.add(RowGroupWriter.encode(hourRecords.subList(from, Math.min(hourRecords.size(), from + ROW_GROUP_SIZE))));
+                    }
+
+                    Path directory = Files.createDirectories(root.resolve(String.valueOf(recordsOfHour.getKey())));
+                    written.put(recordsOfHour.getKey(), SegmentFile.write(directory, nextSequence++, rowGroups));
+                }
+            } catch (IOException | RuntimeException e) {
+                for (SegmentFile file : written.values()) {
+                    file.delete();
+                }
+                synchronized (lock) {
+                    records.addAll(buffer);
+                    buffer = records;
+                    flushing = Collections.emptyList();
+                }
+                throw e;
+            }
+
+            synchronized (lock) {
+                for (Map.Entry<Long, SegmentFile> file : written.entrySet()) {
+                    List<SegmentFile> files = new ArrayList<>(partitions.getOrDefault(file.getKey(), Collections.emptyList()));
+                    files.add(file.getValue());
+                    partitions.put(file.getKey(), files);
+                }
+                flushing = Collections.emptyList();
+            }
+        }
+    }
+
+    /**
+     * Merges the files of every past hour partition, keeping each merged file below {@link #MAX_FILE_SIZE} so it can
+     * still be mapped in one piece.
+     */
+    void compact() throws IOException {
+        long currentHour = Long.parseLong(new DateTime().toString("yyyyMMddHH"));
+
+        synchronized (fileLock) {
+            NavigableMap<Long, List<SegmentFile>> sealed;
+            synchronized (lock) {
+                sealed = new TreeMap<>(partitions.headMap(currentHour, false));
+            }
+
+            for (Map.Entry<Long, List<SegmentFile>> partition : sealed.entrySet()) {
+                List<SegmentFile> files = partition.getValue();
+                if (files.size() < 2) {
+                    continue;
+                }
+
+                Path directory = root.resolve(String.valueOf(partition.getKey()));
+                List<SegmentFile> compacted = new ArrayList<>();
+                List<SegmentFile> group = new ArrayList<>();
+                long groupSize = 0;
+                for (SegmentFile file : files) {
+                    if (!group.isEmpty() && groupSize + file.size() > MAX_FILE_SIZE) {
+                        compacted.add(merge(directory, group));
+                        group = new ArrayList<>();
+                        groupSize = 0;
+                    }
+                    group.add(file);
+                    groupSize += file.size();
+                }
+                compacted.add(merge(directory, group));
+
+                if (compacted.size() == files.size()) {
+                    continue;
+                }
+                synchronized (lock) {
+                    partitions.put(partition.getKey(), compacted);
+                }
+                for (SegmentFile file : files) {
+                    if (!compacted.contains(file)) {
+                        file.delete();
+                    }
+                }
+                logger.debug("Compact {} segment files of hour {} into {}.", files.size(), partition.getKey(), compacted.size());
+            }
+        }
+    }
+
+    private SegmentFile merge(Path directory, List<SegmentFile> group) throws IOException {
+        return group.size() == 1 ? group.get(0) : SegmentFile.merge(directory, group);
+    }
+
+    /**
+     * Drops every hour partition ending before the given second level time bucket.
+     */
+    void deleteBefore(long timeBucketBefore) throws IOException {
+        synchronized (fileLock) {
+            Map<Long, List<SegmentFile>> expired = new TreeMap<>();
+            synchronized (lock) {
+                Iterator<Map.Entry<Long, List<SegmentFile>>> iterator = partitions.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Long, List<SegmentFile>> partition = iterator.next();
+                    if (partition.getKey() * 10000 + 5959 > timeBucketBefore) {
+                        break;
+                    }
+                    expired.put(partition.getKey(), partition.getValue());
+                    iterator.remove();
+                }
+            }
+
+            for (Map.Entry<Long, List<SegmentFile>> partition : expired.entrySet()) {
+                Path directory = root.resolve(String.valueOf(partition.getKey()));
+                try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory)) {
+                    for (Path path : paths) {
+                        Files.delete(path);
+                    }
+                }
+                Files.delete(directory);
+                logger.info("Segments of hour {} are removed from local segment store.", partition.getKey());
+            }
+        }
+    }
+
+    Snapshot snapshot() {
+        synchronized (lock) {
+            List<SegmentRecord> records = new ArrayList<>(buffer.size() + flushing.size());
+            records.addAll(flushing);
+            records.addAll(buffer);
+            return new Snapshot(records, new TreeMap<>(partitions));
+        }
+    }
+
+    private void flushAndCompact() {
+        try {
+            flush();
+            compact();
+        } catch (IOException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Segments and files visible at one moment, every segment is either in the records or in the files, never in
+     * both.
+     */
+    static class Snapshot {
+        private final List<SegmentRecord> records;
+        private final NavigableMap<Long, List<SegmentFile>> partitions;
+
+        private Snapshot(List<SegmentRecord> records, NavigableMap<Long, List<SegmentFile>> partitions) {
+            this.records = records;
+            this.partitions = partitions;
+        }
+
+        List<SegmentRecord> getRecords() {
+            return records;
+        }
+
+        NavigableMap<Long, List<SegmentFile>> getPartitions() {
+            return partitions;
+        }
+    }
+}
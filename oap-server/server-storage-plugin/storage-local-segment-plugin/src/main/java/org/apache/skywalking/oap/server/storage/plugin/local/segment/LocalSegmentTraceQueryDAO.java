@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+import java.io.IOException;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.query.entity.*;
+import org.apache.skywalking.oap.server.core.storage.query.ITraceQueryDAO;
+import org.apache.skywalking.oap.server.library.util.BooleanUtils;
+
+/**
+ * Answers trace queries from a {@link LocalSegmentStore}. Row groups are skipped by their time bucket and latency
+ * statistics, the remaining rows are filtered column by column, and only the rows of the requested page are turned
+ * into {@link BasicTrace}s. Pagination keeps a bounded heap of {@code from + limit} rows instead of sorting every
+ * match. Trace id lookups only open the files whose bloom filter may contain the trace, and return every segment of
+ * the trace however large it is.
+ */
+public class LocalSegmentTraceQueryDAO implements ITraceQueryDAO {
+
+    private static final Comparator<Candidate> ORDER = Comparator.comparingLong(candidate -> candidate.key);
+
+    private final LocalSegmentStore store;
+
+    public LocalSegmentTraceQueryDAO(LocalSegmentStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public TraceBrief queryBasicTraces(long startSecondTB, long endSecondTB, long minDuration, long maxDuration,
+        String endpointName, int serviceId, int endpointId, String traceId, int limit, int from, TraceState traceState,
+        QueryOrder queryOrder) throws IOException {
+        TraceQueryCondition condition = new TraceQueryCondition(startSecondTB, endSecondTB, minDuration, maxDuration, endpointName, serviceId, endpointId, traceId, traceState);
+        boolean byDuration = queryOrder == QueryOrder.BY_DURATION;
+        int capacity = Math.max(0, from) + Math.max(0, limit);
+        PriorityQueue<Candidate> top = new PriorityQueue<>(Math.max(1, Math.min(capacity, 1024)), ORDER);
+        int total = 0;
+
+        LocalSegmentStore.Snapshot snapshot = store.snapshot();
+        for (SegmentRecord record : snapshot.getRecords()) {
+            if (condition.matches(record)) {
+                total++;
+                offer(top, capacity, new Candidate(record, byDuration ? record.getLatency() : record.getStartTime()));
+            }
+        }
+
+        for (Map.Entry<Long, List<SegmentFile>> partition : snapshot.getPartitions().entrySet()) {
+            if (!condition.mayMatch(partition.getKey())) {
+                continue;
+            }
+            for (SegmentFile file : partition.getValue()) {
+                if (condition.getTraceId() != null && !file.mightContainTrace(RowGroupColumn.hash(condition.getTraceId()))) {
+                    continue;
+                }
+                for (RowGroupMeta rowGroup : file.getRowGroups()) {
+                    if (condition.mayMatch(rowGroup)) {
+                        total += scan(new RowGroupReader(file.rowGroupBytes(rowGroup)), condition, byDuration, top, capacity);
+                    }
+                }
+            }
+        }
+
+        List<Candidate> page = new ArrayList<>(top);
+        page.sort(ORDER.reversed());
+
+        TraceBrief traceBrief = new TraceBrief();
+        traceBrief.setTotal(total);
+        for (int i = Math.max(0, from); i < page.size(); i++) {
+            traceBrief.getTraces().add(page.get(i).toBasicTrace());
+        }
+        return traceBrief;
+    }
+
+    private int scan(RowGroupReader reader, TraceQueryCondition condition, boolean byDuration,
+        PriorityQueue<Candidate> top, int capacity) {
+        int[] rows;
+        if (condition.getTraceId() != null) {
+            rows = reader.rowsOfTraceHash(RowGroupColumn.hash(condition.getTraceId()));
+            if (rows.length == 0) {
+                return 0;
+            }
+        } else {
+            rows = null;
+        }
+        boolean[] endpointNameMatches = condition.getEndpointName() != null ? reader.endpointNameContains(condition.getEndpointName()) : null;
+
+        int matched = 0;
+        int rowCount = rows != null ? rows.length : reader.getRowCount();
+        for (int i = 0; i < rowCount; i++) {
+            int row = rows != null ? rows[i] : i;
+            if (endpointNameMatches != null && !endpointNameMatches[row]) {
+                continue;
+            }
+            if (!condition.matches(reader, row)) {
+                continue;
+            }
+            if (rows != null && !condition.getTraceId().equals(reader.traceId(row))) {
+                continue;
+            }
+            matched++;
+            offer(top, capacity, new Candidate(reader, row, byDuration ? reader.latency(row) : reader.startTime(row)));
+        }
+        return matched;
+    }
+
+    private void offer(PriorityQueue<Candidate> top, int capacity, Candidate candidate) {
+        if (top.size() < capacity) {
+            top.add(candidate);
+        } else if (capacity > 0 && ORDER.compare(candidate, top.peek()) > 0) {
+            top.poll();
+            top.add(candidate);
+        }
+    }
+
+    @Override public List<SegmentRecord> queryByTraceId(String traceId) throws IOException {
+        List<SegmentRecord> segmentRecords = new ArrayList<>();
+        int hash = RowGroupColumn.hash(traceId);
+
+        LocalSegmentStore.Snapshot snapshot = store.snapshot();
+        for (SegmentRecord record : snapshot.getRecords()) {
+            if (traceId.equals(record.getTraceId())) {
+                segmentRecords.add(record);
+            }
+        }
+        for (List<SegmentFile> files : snapshot.getPartitions().values()) {
+            for (SegmentFile file : files) {
+                if (!file.mightContainTrace(hash)) {
+                    continue;
+                }
+                for (RowGroupMeta rowGroup : file.getRowGroups()) {
+                    RowGroupReader reader = new RowGroupReader(file.rowGroupBytes(rowGroup));
+                    for (int row : reader.rowsOfTraceHash(hash)) {
+                        if (traceId.equals(reader.traceId(row))) {
+                            segmentRecords.add(reader.toRecord(row));
+                        }
+                    }
+                }
+            }
+        }
+        return segmentRecords;
+    }
+
+    /**
+     * A matched row, either still in the memory buffer or in a row group, with the value it is ordered by.
+     */
+    private static class Candidate {
+        private final SegmentRecord record;
+        private final RowGroupReader reader;
+        private final int row;
+        private final long key;
+
+        private Candidate(SegmentRecord record, long key) {
+            this.record = record;
+            this.reader = null;
+            this.row = -1;
+            this.key = key;
+        }
+
+        private Candidate(RowGroupReader reader, int row, long key) {
+            this.record = null;
+            this.reader = reader;
+            this.row = row;
+            this.key = key;
+        }
+
+        private BasicTrace toBasicTrace() {
+            BasicTrace basicTrace = new BasicTrace();
+            if (record != null) {
+                basicTrace.setSegmentId(record.getSegmentId());
+                basicTrace.setStart(String.valueOf(record.getStartTime()));
+                basicTrace.getEndpointNames().add(record.getEndpointName());
+                basicTrace.setDuration(record.getLatency());
+                basicTrace.setError(BooleanUtils.valueToBoolean(record.getIsError()));
+                basicTrace.getTraceIds().add(record.getTraceId());
+            } else {
+                basicTrace.setSegmentId(reader.segmentId(row));
+                basicTrace.setStart(String.valueOf(reader.startTime(row)));
+                basicTrace.getEndpointNames().add(reader.endpointName(row));
+                basicTrace.setDuration(reader.latency(row));
+                basicTrace.setError(reader.isError(row));
+                basicTrace.getTraceIds().add(reader.traceId(row));
+            }
+            return basicTrace;
+        }
+    }
+}
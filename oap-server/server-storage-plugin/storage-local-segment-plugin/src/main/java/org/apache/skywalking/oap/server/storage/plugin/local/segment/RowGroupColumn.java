@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+/**
+ * Column layout of a row group.
+ *
+ * <ul>
+ * <li>segment_id, trace_id: length prefixed UTF-8 strings</li>
+ * <li>service_id, endpoint_id, latency, version: zig-zag varints</li>
+ * <li>endpoint_name: dictionary of distinct names followed by one varint code per row</li>
+ * <li>start_time, time_bucket: varint delta to the previous row</li>
+ * <li>end_time: varint delta to the start time of the same row</li>
+ * <li>is_error: bitset, one bit per row</li>
+ * <li>data_binary: varint lengths of every row followed by the raw bytes</li>
+ * <li>trace index: (trace id hash, row) int pairs sorted by hash</li>
+ * </ul>
+ */
+final class RowGroupColumn {
+    static final int SEGMENT_ID = 0;
+    static final int TRACE_ID = 1;
+    static final int SERVICE_ID = 2;
+    static final int ENDPOINT_ID = 3;
+    static final int ENDPOINT_NAME = 4;
+    static final int START_TIME = 5;
+    static final int END_TIME = 6;
+    static final int LATENCY = 7;
+    static final int IS_ERROR = 8;
+    static final int TIME_BUCKET = 9;
+    static final int VERSION = 10;
+    static final int DATA_BINARY = 11;
+    static final int TRACE_INDEX = 12;
+
+    static final int COUNT = 13;
+
+    private RowGroupColumn() {
+    }
+
+    static int hash(String traceId) {
+        return traceId == null ? 0 : traceId.hashCode();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Footer entry of a segment file, locating one row group and carrying the statistics used to skip it without reading
+ * its columns.
+ */
+class RowGroupMeta {
+    static final int SIZE = 36;
+
+    private final long offset;
+    private final int length;
+    private final int rowCount;
+    private final long minTimeBucket;
+    private final long maxTimeBucket;
+    private final int maxLatency;
+
+    RowGroupMeta(long offset, int length, int rowCount, long minTimeBucket, long maxTimeBucket, int maxLatency) {
+        this.offset = offset;
+        this.length = length;
+        this.rowCount = rowCount;
+        this.minTimeBucket = minTimeBucket;
+        this.maxTimeBucket = maxTimeBucket;
+        this.maxLatency = maxLatency;
+    }
+
+    RowGroupMeta moveTo(long newOffset) {
+        return new RowGroupMeta(newOffset, length, rowCount, minTimeBucket, maxTimeBucket, maxLatency);
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putLong(offset);
+        buffer.putInt(length);
+        buffer.putInt(rowCount);
+        buffer.putLong(minTimeBucket);
+        buffer.putLong(maxTimeBucket);
+        buffer.putInt(maxLatency);
+    }
+
+    static RowGroupMeta readFrom(ByteBuffer buffer) {
+        return new RowGroupMeta(buffer.getLong(), buffer.getInt(), buffer.getInt(), buffer.getLong(), buffer.getLong(), buffer.getInt());
+    }
+
+    /**
+     * @return false when no row of this group can satisfy the given time bucket and duration range, zero meaning
+     * unbounded like in the query API.
+     */
+    boolean mayMatch(long startTimeBucket, long endTimeBucket, long minDuration) {
+        if (startTimeBucket != 0 && maxTimeBucket < startTimeBucket) {
+            return false;
+        }
+        if (endTimeBucket != 0 && minTimeBucket > endTimeBucket) {
+            return false;
+        }
+        return minDuration == 0 || maxLatency >= minDuration;
+    }
+
+    long getOffset() {
+        return offset;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+
+/**
+ * Decodes the columns of one row group on demand. Every column is decoded at most once per reader, and only when a
+ * query touches it, so filtering on service id or latency never inflates the segment binaries. Not thread safe, a
+ * reader belongs to a single query.
+ */
+class RowGroupReader {
+    private final ByteBuffer rowGroup;
+    private final int rowCount;
+    private final int[] columnOffsets;
+    private final int[] columnLengths;
+
+    private String[] segmentIds;
+    private String[] traceIds;
+    private int[] serviceIds;
+    private int[] endpointIds;
+    private String[] endpointNameDictionary;
+    private int[] endpointNameCodes;
+    private long[] startTimes;
+    private long[] durations;
+    private int[] latencies;
+    private byte[] errorBits;
+    private long[] timeBuckets;
+    private int[] versions;
+    private int[] dataOffsets;
+
+    RowGroupReader(ByteBuffer rowGroup) {
+        this.rowGroup = rowGroup;
+        this.rowCount = rowGroup.getInt(0);
+        int columnCount = rowGroup.getInt(4);
+        this.columnOffsets = new int[columnCount];
+        this.columnLengths = new int[columnCount];
+        int offset = 8 + 4 * columnCount;
+        for (int i = 0; i < columnCount; i++) {
+            columnLengths[i] = rowGroup.getInt(8 + 4 * i);
+            columnOffsets[i] = offset;
+            offset += columnLengths[i];
+        }
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    String segmentId(int row) {
+        if (segmentIds == null) {
+            segmentIds = readStrings(RowGroupColumn.SEGMENT_ID);
+        }
+        return segmentIds[row];
+    }
+
+    String traceId(int row) {
+        if (traceIds == null) {
+            traceIds = readStrings(RowGroupColumn.TRACE_ID);
+        }
+        return traceIds[row];
+    }
+
+    int serviceId(int row) {
+        if (serviceIds == null) {
+            serviceIds = readInts(RowGroupColumn.SERVICE_ID);
+        }
+        return serviceIds[row];
+    }
+
+    int endpointId(int row) {
+        if (endpointIds == null) {
+            endpointIds = readInts(RowGroupColumn.ENDPOINT_ID);
+        }
+        return endpointIds[row];
+    }
+
+    String endpointName(int row) {
+        readEndpointNames();
+        return endpointNameDictionary[endpointNameCodes[row]];
+    }
+
+    /**
+     * Evaluates a "contains" filter once per distinct endpoint name instead of once per row.
+     */
+    boolean[] endpointNameContains(String keyword) {
+        readEndpointNames();
+        boolean[] dictionaryMatches = new boolean[endpointNameDictionary.length];
+        for (int i = 0; i < endpointNameDictionary.length; i++) {
+            dictionaryMatches[i] = endpointNameDictionary[i].contains(keyword);
+        }
+        boolean[] matches = new boolean[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            matches[row] = dictionaryMatches[endpointNameCodes[row]];
+        }
+        return matches;
+    }
+
+    long startTime(int row) {
+        if (startTimes == null) {
+            startTimes = readDeltaLongs(RowGroupColumn.START_TIME);
+        }
+        return startTimes[row];
+    }
+
+    int latency(int row) {
+        if (latencies == null) {
+            latencies = readInts(RowGroupColumn.LATENCY);
+        }
+        return latencies[row];
+    }
+
+    boolean isError(int row) {
+        if (errorBits == null) {
+            ByteBuffer column = column(RowGroupColumn.IS_ERROR);
+            errorBits = new byte[column.remaining()];
+            column.get(errorBits);
+        }
+        return (errorBits[row >>> 3] & (1 << (row & 7))) != 0;
+    }
+
+    long timeBucket(int row) {
+        if (timeBuckets == null) {
+            timeBuckets = readDeltaLongs(RowGroupColumn.TIME_BUCKET);
+        }
+        return timeBuckets[row];
+    }
+
+    /**
+     * @return rows whose trace id hash matches, callers still have to compare the trace id itself.
+     */
+    int[] rowsOfTraceHash(int hash) {
+        ByteBuffer index = column(RowGroupColumn.TRACE_INDEX);
+        int base = index.position();
+        int low = 0;
+        int high = rowCount - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (index.getInt(base + middle * 8) < hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int end = low;
+        while (end < rowCount && index.getInt(base + end * 8) == hash) {
+            end++;
+        }
+        int[] rows = new int[end - low];
+        for (int i = low; i < end; i++) {
+            rows[i - low] = index.getInt(base + i * 8 + 4);
+        }
+        return rows;
+    }
+
+    void addTraceHashesTo(TraceIdBloomFilter bloomFilter) {
+        ByteBuffer index = column(RowGroupColumn.TRACE_INDEX);
+        for (int i = 0; i < rowCount; i++) {
+            bloomFilter.add(index.getInt());
+            index.getInt();
+        }
+    }
+
+    SegmentRecord toRecord(int row) {
+        SegmentRecord record = new SegmentRecord();
+        record.setSegmentId(segmentId(row));
+        record.setTraceId(traceId(row));
+        record.setServiceId(serviceId(row));
+        record.setEndpointId(endpointId(row));
+        record.setEndpointName(endpointName(row));
+        record.setStartTime(startTime(row));
+        if (durations == null) {
+            durations = readLongs(RowGroupColumn.END_TIME);
+        }
+        record.setEndTime(startTime(row) + durations[row]);
+        record.setLatency(latency(row));
+        record.setIsError(isError(row) ? 1 : 0);
+        record.setTimeBucket(timeBucket(row));
+        if (versions == null) {
+            versions = readInts(RowGroupColumn.VERSION);
+        }
+        record.setVersion(versions[row]);
+        record.setDataBinary(dataBinary(row));
+        return record;
+    }
+
+    private byte[] dataBinary(int row) {
+        ByteBuffer column = column(RowGroupColumn.DATA_BINARY);
+        if (dataOffsets == null) {
+            dataOffsets = new int[rowCount + 1];
+            int[] lengths = new int[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                lengths[i] = ColumnBuffer.readVarInt(column);
+            }
+            int offset = column.position() - columnOffsets[RowGroupColumn.DATA_BINARY];
+            for (int i = 0; i < rowCount; i++) {
+                dataOffsets[i] = offset;
+                offset += lengths[i];
+            }
+            dataOffsets[rowCount] = offset;
+            column = column(RowGroupColumn.DATA_BINARY);
+        }
+        byte[] data = new byte[dataOffsets[row + 1] - dataOffsets[row]];
+        column.position(column.position() + dataOffsets[row]);
+        column.get(data);
+        return data;
+    }
+
+    private long[] readLongs(int columnIndex) {
+        ByteBuffer column = column(columnIndex);
+        long[] values = new long[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            values[row] = ColumnBuffer.readVarLong(column);
+        }
+        return values;
+    }
+
+    private void readEndpointNames() {
+        if (endpointNameDictionary == null) {
+            ByteBuffer column = column(RowGroupColumn.ENDPOINT_NAME);
+            endpointNameDictionary = new String[ColumnBuffer.readVarInt(column)];
+            for (int i = 0; i < endpointNameDictionary.length; i++) {
+                endpointNameDictionary[i] = ColumnBuffer.readString(column);
+            }
+            endpointNameCodes = new int[rowCount];
+            for (int row = 0; row < rowCount; row++) {
+                endpointNameCodes[row] = ColumnBuffer.readVarInt(column);
+            }
+        }
+    }
+
+    private String[] readStrings(int columnIndex) {
+        ByteBuffer column = column(columnIndex);
+        String[] values = new String[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            values[row] = ColumnBuffer.readString(column);
+        }
+        return values;
+    }
+
+    private int[] readInts(int columnIndex) {
+        ByteBuffer column = column(columnIndex);
+        int[] values = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            values[row] = ColumnBuffer.readVarInt(column);
+        }
+        return values;
+    }
+
+    private long[] readDeltaLongs(int columnIndex) {
+        ByteBuffer column = column(columnIndex);
+        long[] values = new long[rowCount];
+        long previous = 0;
+        for (int row = 0; row < rowCount; row++) {
+            previous += ColumnBuffer.readVarLong(column);
+            values[row] = previous;
+        }
+        return values;
+    }
+
+    private ByteBuffer column(int columnIndex) {
+        ByteBuffer column = rowGroup.duplicate();
+        column.limit(columnOffsets[columnIndex] + columnLengths[columnIndex]);
+        column.position(columnOffsets[columnIndex]);
+        return column;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+
+/**
+ * Encodes a batch of segments into one row group. A row group starts with its row count, the column count and the
+ * byte length of every column, followed by the columns in {@link RowGroupColumn} order, so a reader can jump straight
+ * to the columns a query needs.
+ */
+class RowGroupWriter {
+
+    private RowGroupWriter() {
+    }
+
+    static EncodedRowGroup encode(List<SegmentRecord> records) {
+        int rowCount = records.size();
+        ColumnBuffer[] columns = new ColumnBuffer[RowGroupColumn.COUNT];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new ColumnBuffer(i == RowGroupColumn.DATA_BINARY ? rowCount * 512 : rowCount * 4);
+        }
+
+        Map<String, Integer> endpointNames = new LinkedHashMap<>();
+        int[] endpointNameCodes = new int[rowCount];
+        byte[] errorBits = new byte[(rowCount + 7) / 8];
+        long[] traceIndex = new long[rowCount];
+        int[] traceHashes = new int[rowCount];
+
+        long previousStartTime = 0;
+        long previousTimeBucket = 0;
+        long minTimeBucket = Long.MAX_VALUE;
+        long maxTimeBucket = Long.MIN_VALUE;
+        int maxLatency = 0;
+
+        for (int row = 0; row < rowCount; row++) {
+            SegmentRecord record = records.get(row);
+            columns[RowGroupColumn.SEGMENT_ID].writeString(record.getSegmentId());
+            columns[RowGroupColumn.TRACE_ID].writeString(record.getTraceId());
+            columns[RowGroupColumn.SERVICE_ID].writeVarInt(record.getServiceId());
+            columns[RowGroupColumn.ENDPOINT_ID].writeVarInt(record.getEndpointId());
+
+            String endpointName = record.getEndpointName() == null ? "" : record.getEndpointName();
+            Integer code = endpointNames.get(endpointName);
+            if (code == null) {
+                code = endpointNames.size();
+                endpointNames.put(endpointName, code);
+            }
+            endpointNameCodes[row] = code;
+
+            columns[RowGroupColumn.START_TIME].writeVarLong(record.getStartTime() - previousStartTime);
+            previousStartTime = record.getStartTime();
+            columns[RowGroupColumn.END_TIME].writeVarLong(record.getEndTime() - record.getStartTime());
+            columns[RowGroupColumn.LATENCY].writeVarInt(record.getLatency());
+            if (record.getIsError() != 0) {
+                errorBits[row >>> 3] |= 1 << (row & 7);
+            }
+            columns[RowGroupColumn.TIME_BUCKET].writeVarLong(record.getTimeBucket() - previousTimeBucket);
+            previousTimeBucket = record.getTimeBucket();
+            columns[RowGroupColumn.VERSION].writeVarInt(record.getVersion());
+
+            byte[] dataBinary = record.getDataBinary() == null ? new byte[0] : record.getDataBinary();
+            columns[RowGroupColumn.DATA_BINARY].writeVarInt(dataBinary.length);
+
+            traceHashes[row] = RowGroupColumn.hash(record.getTraceId());
+            traceIndex[row] = ((long)traceHashes[row] << 32) | row;
+
+            minTimeBucket = Math.min(minTimeBucket, record.getTimeBucket());
+            maxTimeBucket = Math.max(maxTimeBucket, record.getTimeBucket());
+            maxLatency = Math.max(maxLatency, record.getLatency());
+        }
+
+        ColumnBuffer dictionary = columns[RowGroupColumn.ENDPOINT_NAME];
+        dictionary.writeVarInt(endpointNames.size());
+        for (String endpointName : endpointNames.keySet()) {
+            dictionary.writeString(endpointName);
+        }
+        for (int code : endpointNameCodes) {
+            dictionary.writeVarInt(code);
+        }
+
+        columns[RowGroupColumn.IS_ERROR].writeBytes(errorBits);
+
+        for (SegmentRecord record : records) {
+            if (record.getDataBinary() != null) {
+                columns[RowGroupColumn.DATA_BINARY].writeBytes(record.getDataBinary());
+            }
+        }
+
+        Arrays.sort(traceIndex);
+        for (long entry : traceIndex) {
+            columns[RowGroupColumn.TRACE_INDEX].writeInt((int)(entry >> 32));
+            columns[RowGroupColumn.TRACE_INDEX].writeInt((int)entry);
+        }
+
+        int length = 8 + 4 * columns.length;
+        for (ColumnBuffer column : columns) {
+            length += column.size();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(rowCount);
+        buffer.putInt(columns.length);
+        for (ColumnBuffer column : columns) {
+            buffer.putInt(column.size());
+        }
+        for (ColumnBuffer column : columns) {
+            column.writeTo(buffer);
+        }
+        buffer.flip();
+
+        return new EncodedRowGroup(buffer, traceHashes, minTimeBucket, maxTimeBucket, maxLatency);
+    }
+
+    static class EncodedRowGroup {
+        private final ByteBuffer bytes;
+        private final int[] traceHashes;
+        private final long minTimeBucket;
+        private final long maxTimeBucket;
+        private final int maxLatency;
+
+        private EncodedRowGroup(ByteBuffer bytes, int[] traceHashes, long minTimeBucket, long maxTimeBucket,
+            int maxLatency) {
+            this.bytes = bytes;
+            this.traceHashes = traceHashes;
+            this.minTimeBucket = minTimeBucket;
+            this.maxTimeBucket = maxTimeBucket;
+            this.maxLatency = maxLatency;
+        }
+
+        ByteBuffer getBytes() {
+            return bytes;
+        }
+
+        int[] getTraceHashes() {
+            return traceHashes;
+        }
+
+        RowGroupMeta at(long offset) {
+            return new RowGroupMeta(offset, bytes.remaining(), traceHashes.length, minTimeBucket, maxTimeBucket, maxLatency);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import org.apache.skywalking.oap.server.storage.plugin.local.segment.RowGroupWriter.EncodedRowGroup;
+
+/**
+ * Immutable file of row groups, named after the range of flush sequences it contains. The footer lists one {@link
+ * RowGroupMeta} per row group, then the {@link TraceIdBloomFilter} of the whole file, its length, the row group count
+ * and a magic number. Files are written under a temporary
+ * name and renamed when complete, so a reader never sees a partial file; after a crash during compaction both the
+ * merged file and its sources may exist, and the store keeps only the widest range.
+ */
+class SegmentFile {
+    static final String SUFFIX = ".seg";
+    static final String TEMP_SUFFIX = ".tmp";
+    private static final int MAGIC = 0x53574C53;
+
+    private final Path path;
+    private final long minSequence;
+    private final long maxSequence;
+    private final MappedByteBuffer buffer;
+    private final List<RowGroupMeta> rowGroups;
+    private final TraceIdBloomFilter bloomFilter;
+
+    private SegmentFile(Path path, long minSequence, long maxSequence, MappedByteBuffer buffer,
+        List<RowGroupMeta> rowGroups, TraceIdBloomFilter bloomFilter) {
+        this.path = path;
+        this.minSequence = minSequence;
+        this.maxSequence = maxSequence;
+        this.buffer = buffer;
+        this.rowGroups = rowGroups;
+        this.bloomFilter = bloomFilter;
+    }
+
+    static boolean isSegmentFile(Path path) {
+        return path.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    static long[] parseSequences(Path path) {
+        String name = path.getFileName().toString();
+        String[] range = name.substring(0, name.length() - SUFFIX.length()).split("-");
+        return new long[] {Long.parseLong(range[0]), Long.parseLong(range[1])};
+    }
+
+    static SegmentFile open(Path path) throws IOException {
+        long[] sequences = parseSequences(path);
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < 12) {
+                throw new IOException("Segment file " + path + " is truncated.");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int limit = buffer.limit();
+        if (buffer.getInt(limit - 4) != MAGIC) {
+            throw new IOException("Segment file " + path + " has no valid footer.");
+        }
+        int rowGroupCount = buffer.getInt(limit - 8);
+        int bloomFilterSize = buffer.getInt(limit - 12);
+        ByteBuffer footer = buffer.duplicate();
+        footer.position(limit - 12 - bloomFilterSize - rowGroupCount * RowGroupMeta.SIZE);
+        List<RowGroupMeta> rowGroups = new ArrayList<>(rowGroupCount);
+        for (int i = 0; i < rowGroupCount; i++) {
+            rowGroups.add(RowGroupMeta.readFrom(footer));
+        }
+        TraceIdBloomFilter bloomFilter = TraceIdBloomFilter.readFrom(footer);
+        return new SegmentFile(path, sequences[0], sequences[1], buffer, rowGroups, bloomFilter);
+    }
+
+    /**
+     * Writes the row groups of one flush into a new file.
+     */
+    static SegmentFile write(Path directory, long sequence, List<EncodedRowGroup> encodedRowGroups) throws IOException {
+        Path target = directory.resolve(name(sequence, sequence));
+        Path temp = directory.resolve(name(sequence, sequence) + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            List<RowGroupMeta> rowGroups = new ArrayList<>(encodedRowGroups.size());
+            long offset = 0;
+            for (EncodedRowGroup encodedRowGroup : encodedRowGroups) {
+                ByteBuffer bytes = encodedRowGroup.getBytes().duplicate();
+                RowGroupMeta rowGroup = encodedRowGroup.at(offset);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                rowGroups.add(rowGroup);
+                offset += rowGroup.getLength();
+            }
+
+            TraceIdBloomFilter bloomFilter = TraceIdBloomFilter.create(rowCount(rowGroups));
+            for (EncodedRowGroup encodedRowGroup : encodedRowGroups) {
+                for (int traceHash : encodedRowGroup.getTraceHashes()) {
+                    bloomFilter.add(traceHash);
+                }
+            }
+            writeFooter(channel, rowGroups, bloomFilter);
+            channel.force(true);
+        }
+        return commit(temp, target);
+    }
+
+    /**
+     * Concatenates the row groups of the given files, which must be sorted by sequence, into one file covering their
+     * whole sequence range. Row groups are copied as they are, the bloom filter is rebuilt from their trace indexes.
+     */
+    static SegmentFile merge(Path directory, List<SegmentFile> files) throws IOException {
+        long minSequence = files.get(0).minSequence;
+        long maxSequence = files.get(files.size() - 1).maxSequence;
+        Path target = directory.resolve(name(minSequence, maxSequence));
+        Path temp = directory.resolve(name(minSequence, maxSequence) + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            List<RowGroupMeta> rowGroups = new ArrayList<>();
+            long offset = 0;
+            for (SegmentFile file : files) {
+                for (RowGroupMeta rowGroup : file.rowGroups) {
+                    ByteBuffer bytes = file.rowGroupBytes(rowGroup);
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                    rowGroups.add(rowGroup.moveTo(offset));
+                    offset += rowGroup.getLength();
+                }
+            }
+
+            TraceIdBloomFilter bloomFilter = TraceIdBloomFilter.create(rowCount(rowGroups));
+            for (SegmentFile file : files) {
+                for (RowGroupMeta rowGroup : file.rowGroups) {
+                    new RowGroupReader(file.rowGroupBytes(rowGroup)).addTraceHashesTo(bloomFilter);
+                }
+            }
+            writeFooter(channel, rowGroups, bloomFilter);
+            channel.force(true);
+        }
+        return commit(temp, target);
+    }
+
+    private static int rowCount(List<RowGroupMeta> rowGroups) {
+        int rowCount = 0;
+        for (RowGroupMeta rowGroup : rowGroups) {
+            rowCount += rowGroup.getRowCount();
+        }
+        return rowCount;
+    }
+
+    private static void writeFooter(FileChannel channel, List<RowGroupMeta> rowGroups,
+        TraceIdBloomFilter bloomFilter) throws IOException {
+        ByteBuffer footer = ByteBuffer.allocate(rowGroups.size() * RowGroupMeta.SIZE + bloomFilter.serializedSize() + 12);
+        for (RowGroupMeta rowGroup : rowGroups) {
+            rowGroup.writeTo(footer);
+        }
+        bloomFilter.writeTo(footer);
+        footer.putInt(bloomFilter.serializedSize());
+        footer.putInt(rowGroups.size());
+        footer.putInt(MAGIC);
+        footer.flip();
+        while (footer.hasRemaining()) {
+            channel.write(footer);
+        }
+    }
+
+    private static SegmentFile commit(Path temp, Path target) throws IOException {
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        return open(target);
+    }
+
+    private static String name(long minSequence, long maxSequence) {
+        return minSequence + "-" + maxSequence + SUFFIX;
+    }
+
+    ByteBuffer rowGroupBytes(RowGroupMeta rowGroup) {
+        ByteBuffer bytes = buffer.duplicate();
+        bytes.limit((int)(rowGroup.getOffset() + rowGroup.getLength()));
+        bytes.position((int)rowGroup.getOffset());
+        return bytes.slice();
+    }
+
+    /**
+     * @return false when no segment of the trace is in this file, true when it may be.
+     */
+    boolean mightContainTrace(int traceHash) {
+        return bloomFilter.mightContain(traceHash);
+    }
+
+    List<RowGroupMeta> getRowGroups() {
+        return rowGroups;
+    }
+
+    long getMinSequence() {
+        return minSequence;
+    }
+
+    long getMaxSequence() {
+        return maxSequence;
+    }
+
+    long size() {
+        return buffer.capacity();
+    }
+
+    boolean covers(SegmentFile other) {
+        return this != other && minSequence <= other.minSequence && maxSequence >= other.maxSequence;
+    }
+
+    /**
+     * Removes the file from disk. The mapping stays valid for queries still holding this file until it is garbage
+     * collected.
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Override public String toString() {
+        return path.toString();
+    }
+}
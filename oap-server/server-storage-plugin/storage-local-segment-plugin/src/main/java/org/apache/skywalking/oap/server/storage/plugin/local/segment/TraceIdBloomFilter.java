@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bloom filter over the trace id hashes of one segment file, so a trace lookup only opens the row groups of files
+ * which may contain the trace. It is built from the same 32 bit hash as the row group trace index, which lets
+ * compaction rebuild it from the indexes without decoding any trace id.
+ */
+class TraceIdBloomFilter {
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASH_COUNT = 7;
+
+    private final long[] bits;
+    private final int bitCount;
+
+    private TraceIdBloomFilter(long[] bits) {
+        this.bits = bits;
+        this.bitCount = bits.length * 64;
+    }
+
+    static TraceIdBloomFilter create(int expectedEntries) {
+        long bitCount = Math.max(64L, (long)expectedEntries * BITS_PER_ENTRY);
+        return new TraceIdBloomFilter(new long[(int)Math.min(Integer.MAX_VALUE / 64, (bitCount + 63) / 64)]);
+    }
+
+    void add(int hash) {
+        int secondHash = mix(hash);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = index(hash + i * secondHash);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(int hash) {
+        int secondHash = mix(hash);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = index(hash + i * secondHash);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int serializedSize() {
+        return 4 + bits.length * 8;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putInt(bits.length);
+        for (long word : bits) {
+            buffer.putLong(word);
+        }
+    }
+
+    static TraceIdBloomFilter readFrom(ByteBuffer buffer) {
+        long[] bits = new long[buffer.getInt()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = buffer.getLong();
+        }
+        return new TraceIdBloomFilter(bits);
+    }
+
+    private int index(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * Finalization step of murmur3, gives the second hash of the double hashing scheme.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash | 1;
+    }
+}
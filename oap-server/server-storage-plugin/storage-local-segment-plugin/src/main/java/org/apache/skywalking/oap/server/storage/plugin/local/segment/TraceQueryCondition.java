@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+import com.google.common.base.Strings;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.query.entity.TraceState;
+
+/**
+ * Filters of {@code ITraceQueryDAO#queryBasicTraces}, with the same meaning of zero and empty values as the JDBC
+ * implementation.
+ */
+class TraceQueryCondition {
+    private final long startTimeBucket;
+    private final long endTimeBucket;
+    private final long minDuration;
+    private final long maxDuration;
+    private final String endpointName;
+    private final int serviceId;
+    private final int endpointId;
+    private final String traceId;
+    private final TraceState traceState;
+
+    TraceQueryCondition(long startTimeBucket, long endTimeBucket, long minDuration, long maxDuration,
+        String endpointName, int serviceId, int endpointId, String traceId, TraceState traceState) {
+        boolean timeRange = startTimeBucket != 0 && endTimeBucket != 0;
+        this.startTimeBucket = timeRange ? startTimeBucket : 0;
+        this.endTimeBucket = timeRange ? endTimeBucket : 0;
+        this.minDuration = minDuration;
+        this.maxDuration = maxDuration;
+        this.endpointName = Strings.emptyToNull(endpointName);
+        this.serviceId = serviceId;
+        this.endpointId = endpointId;
+        this.traceId = Strings.emptyToNull(traceId);
+        this.traceState = traceState;
+    }
+
+    boolean mayMatch(RowGroupMeta rowGroup) {
+        return rowGroup.mayMatch(startTimeBucket, endTimeBucket, minDuration);
+    }
+
+    /**
+     * @return whether the hour partition may hold segments of the requested time range.
+     */
+    boolean mayMatch(long hour) {
+        if (startTimeBucket == 0) {
+            return true;
+        }
+        return hour >= startTimeBucket / 10000 && hour <= endTimeBucket / 10000;
+    }
+
+    String getEndpointName() {
+        return endpointName;
+    }
+
+    String getTraceId() {
+        return traceId;
+    }
+
+    boolean matches(SegmentRecord record) {
+        return matches(record.getTimeBucket(), record.getLatency(), record.getServiceId(), record.getEndpointId(), record.getIsError() != 0)
+            && (endpointName == null || (record.getEndpointName() != null && record.getEndpointName().contains(endpointName)))
+            && (traceId == null || traceId.equals(record.getTraceId()));
+    }
+
+    /**
+     * Row group variant of {@link #matches(SegmentRecord)}, the endpoint name and trace id are checked by the caller
+     * against the dictionary and the trace index.
+     */
+    boolean matches(RowGroupReader reader, int row) {
+        return matches(reader.timeBucket(row), reader.latency(row), serviceId == 0 ? 0 : reader.serviceId(row),
+            endpointId == 0 ? 0 : reader.endpointId(row), traceState != TraceState.ALL && reader.isError(row));
+    }
+
+    private boolean matches(long timeBucket, int latency, int recordServiceId, int recordEndpointId, boolean isError) {
+        if (startTimeBucket != 0 && (timeBucket < startTimeBucket || timeBucket > endTimeBucket)) {
+            return false;
+        }
+        if (minDuration != 0 && latency < minDuration) {
+            return false;
+        }
+        if (maxDuration != 0 && latency > maxDuration) {
+            return false;
+        }
+        if (serviceId != 0 && recordServiceId != serviceId) {
+            return false;
+        }
+        if (endpointId != 0 && recordEndpointId != endpointId) {
+            return false;
+        }
+        switch (traceState) {
+            case ERROR:
+                return isError;
+            case SUCCESS:
+                return !isError;
+            default:
+                return true;
+        }
+    }
+}
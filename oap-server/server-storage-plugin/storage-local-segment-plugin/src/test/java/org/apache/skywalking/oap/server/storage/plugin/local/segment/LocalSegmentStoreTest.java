@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.query.entity.*;
+import org.junit.*;
+
+public class LocalSegmentStoreTest {
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("local-segment");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.walk(directory).sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+
+    @Test
+    public void testQueryBufferAndFiles() throws IOException {
+        LocalSegmentStore store = open();
+        store.append(Arrays.asList(segment(1, "trace-1", 20190101100000L, 100, false), segment(2, "trace-1", 20190101100001L, 300, true)));
+        store.flush();
+        store.append(Arrays.asList(segment(3, "trace-2", 20190101110000L, 200, false), segment(4, "trace-3", 20190101110001L, 50, true)));
+        store.flush();
+        store.append(Collections.singletonList(segment(5, "trace-2", 20190101110002L, 400, false)));
+
+        LocalSegmentTraceQueryDAO queryDAO = new LocalSegmentTraceQueryDAO(store);
+
+        TraceBrief all = queryDAO.queryBasicTraces(0, 0, 0, 0, null, 0, 0, null, 10, 0, TraceState.ALL, QueryOrder.BY_DURATION);
+        Assert.assertEquals(5, all.getTotal());
+        Assert.assertEquals("segment-5", all.getTraces().get(0).getSegmentId());
+        Assert.assertEquals("segment-4", all.getTraces().get(4).getSegmentId());
+
+        TraceBrief page = queryDAO.queryBasicTraces(0, 0, 0, 0, null, 0, 0, null, 2, 1, TraceState.ALL, QueryOrder.BY_START_TIME);
+        Assert.assertEquals(5, page.getTotal());
+        Assert.assertEquals(2, page.getTraces().size());
+        Assert.assertEquals("segment-4", page.getTraces().get(0).getSegmentId());
+        Assert.assertEquals("segment-3", page.getTraces().get(1).getSegmentId());
+
+        TraceBrief errors = queryDAO.queryBasicTraces(20190101100000L, 20190101105959L, 0, 0, null, 0, 0, null, 10, 0, TraceState.ERROR, QueryOrder.BY_START_TIME);
+        Assert.assertEquals(1, errors.getTotal());
+        Assert.assertEquals("segment-2", errors.getTraces().get(0).getSegmentId());
+        Assert.assertTrue(errors.getTraces().get(0).isError());
+
+        TraceBrief filtered = queryDAO.queryBasicTraces(0, 0, 100, 300, "/endpoint-", 2, 0, "trace-2", 10, 0, TraceState.SUCCESS, QueryOrder.BY_START_TIME);
+        Assert.assertEquals(1, filtered.getTotal());
+        Assert.assertEquals("segment-3", filtered.getTraces().get(0).getSegmentId());
+        Assert.assertEquals("/endpoint-1", filtered.getTraces().get(0).getEndpointNames().get(0));
+        Assert.assertEquals("trace-2", filtered.getTraces().get(0).getTraceIds().get(0));
+
+        List<SegmentRecord> trace = queryDAO.queryByTraceId("trace-2");
+        Assert.assertEquals(2, trace.size());
+        SegmentRecord record = findSegment(trace, "segment-3");
+        Assert.assertEquals(20190101110000L, record.getTimeBucket());
+        Assert.assertEquals(1546308000000L + 3, record.getStartTime());
+        Assert.assertEquals(1546308000000L + 3 + 200, record.getEndTime());
+        Assert.assertEquals(200, record.getLatency());
+        Assert.assertEquals("/endpoint-1", record.getEndpointName());
+        Assert.assertArrayEquals(new byte[] {3, 3, 3}, record.getDataBinary());
+    }
+
+    @Test
+    public void testCompactAndReopen() throws IOException {
+        LocalSegmentStore store = open();
+        for (int i = 0; i < 3; i++) {
+            store.append(Collections.singletonList(segment(i, "trace-" + i, 20190101100000L + i, 10 * i, false)));
+            store.flush();
+        }
+        Assert.assertEquals(3, store.snapshot().getPartitions().get(2019010110L).size());
+
+        store.compact();
+        Assert.assertEquals(1, store.snapshot().getPartitions().get(2019010110L).size());
+
+        LocalSegmentStore reopened = open();
+        Assert.assertEquals(1, reopened.snapshot().getPartitions().get(2019010110L).size());
+        LocalSegmentTraceQueryDAO queryDAO = new LocalSegmentTraceQueryDAO(reopened);
+        Assert.assertEquals(3, queryDAO.queryBasicTraces(0, 0, 0, 0, null, 0, 0, null, 10, 0, TraceState.ALL, QueryOrder.BY_START_TIME).getTotal());
+        Assert.assertEquals(1, queryDAO.queryByTraceId("trace-1").size());
+
+        reopened.append(Collections.singletonList(segment(9, "trace-9", 20190101100009L, 10, false)));
+        reopened.flush();
+        Assert.assertEquals(2, reopened.snapshot().getPartitions().get(2019010110L).size());
+    }
+
+    @Test
+    public void testQueryLargeTrace() throws IOException {
+        LocalSegmentStore store = open();
+        for (int i = 0; i < 5000; i++) {
+            store.append(Arrays.asList(segment(i, "large-trace", 20190101100000L + i % 60, 10, false), segment(i, "trace-" + i, 20190101100000L, 10, false)));
+            if (i % 1000 == 999) {
+                store.flush();
+            }
+        }
+
+        LocalSegmentTraceQueryDAO queryDAO = new LocalSegmentTraceQueryDAO(store);
+        Assert.assertEquals(5000, queryDAO.queryByTraceId("large-trace").size());
+        Assert.assertEquals(1, queryDAO.queryByTraceId("trace-4321").size());
+        Assert.assertTrue(queryDAO.queryByTraceId("missing-trace").isEmpty());
+    }
+
+    @Test
+    public void testDeleteBefore() throws IOException {
+        LocalSegmentStore store = open();
+        store.append(Arrays.asList(segment(1, "trace-1", 20190101100000L, 10, false), segment(2, "trace-2", 20190101110000L, 10, false)));
+        store.flush();
+
+        store.deleteBefore(20190101110000L);
+
+        Assert.assertFalse(store.snapshot().getPartitions().containsKey(2019010110L));
+        Assert.assertTrue(store.snapshot().getPartitions().containsKey(2019010111L));
+        Assert.assertFalse(Files.exists(directory.resolve("2019010110")));
+        Assert.assertTrue(new LocalSegmentTraceQueryDAO(store).queryByTraceId("trace-1").isEmpty());
+    }
+
+    private LocalSegmentStore open() throws IOException {
+        LocalSegmentStore store = new LocalSegmentStore(directory.toString(), 10);
+        store.load();
+        return store;
+    }
+
+    private SegmentRecord findSegment(List<SegmentRecord> records, String segmentId) {
+        for (SegmentRecord record : records) {
+            if (segmentId.equals(record.getSegmentId())) {
+                return record;
+            }
+        }
+        throw new AssertionError(segmentId + " not found");
+    }
+
+    private SegmentRecord segment(int id, String traceId, long timeBucket, int latency, boolean isError) {
+        SegmentRecord record = new SegmentRecord();
+        record.setSegmentId("segment-" + id);
+        record.setTraceId(traceId);
+        record.setServiceId(id % 2 == 0 ? 1 : 2);
+        record.setEndpointId(id);
+        record.setEndpointName("/endpoint-" + (id % 2));
+        record.setStartTime(1546308000000L + id);
+        record.setEndTime(1546308000000L + id + latency);
+        record.setLatency(latency);
+        record.setIsError(isError ? 1 : 0);
+        record.setTimeBucket(timeBucket);
+        record.setDataBinary(new byte[] {(byte)id, (byte)id, (byte)id});
+        record.setVersion(2);
+        return record;
+    }
+}
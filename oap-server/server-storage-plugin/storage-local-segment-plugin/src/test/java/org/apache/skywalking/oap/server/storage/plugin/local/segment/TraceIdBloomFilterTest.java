@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.local.segment;
+
+import java.nio.ByteBuffer;
+import org.junit.*;
+
+public class TraceIdBloomFilterTest {
+
+    @Test
+    public void testMightContain() {
+        TraceIdBloomFilter bloomFilter = TraceIdBloomFilter.create(10000);
+        for (int i = 0; i < 10000; i++) {
+            bloomFilter.add(RowGroupColumn.hash("trace-" + i));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(bloomFilter.serializedSize());
+        bloomFilter.writeTo(buffer);
+        buffer.flip();
+        TraceIdBloomFilter restored = TraceIdBloomFilter.readFrom(buffer);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertTrue(restored.mightContain(RowGroupColumn.hash("trace-" + i)));
+            if (restored.mightContain(RowGroupColumn.hash("other-" + i))) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue(falsePositives < 300);
+    }
+}